@@ -0,0 +1,102 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.ACCESS;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RoutingAccessEgress;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+
+class StopArrivalSearchTest {
+
+  private static final Instant TIME = LocalDateTime
+    .of(2009, 11, 17, 10, 0)
+    .atZone(ZoneIds.LOS_ANGELES)
+    .toInstant();
+  private static final Duration MAX_DURATION = Duration.ofMinutes(30);
+  // SE Stark St. & SE 17th Ave.
+  private static final GenericLocation ORIGIN = new GenericLocation(45.519320, -122.648567);
+
+  private static OtpServerRequestContext serverContext;
+  private static StopArrivalSearch subject;
+
+  @BeforeAll
+  static void setup() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    serverContext = TestServerContext.createServerContext(model.graph(), model.transitModel());
+
+    var routeRequest = serverContext.defaultRouteRequest();
+    routeRequest.setDateTime(TIME);
+    subject =
+      new StopArrivalSearch(
+        serverContext,
+        serverContext.transitService().getRealtimeTransitLayer(),
+        routeRequest,
+        MAX_DURATION
+      );
+  }
+
+  @Test
+  void departureTimeIsTheRequestTime() {
+    assertEquals(Duration.ofHours(10).toSeconds(), subject.departureTime());
+  }
+
+  @Test
+  void noArrivalsWithoutAccess() {
+    assertNull(subject.route(List.of()));
+  }
+
+  @Test
+  void stopsAreReachedByAccessAndTransit() {
+    var accessList = findAccess();
+    assertFalse(accessList.isEmpty());
+
+    var arrivals = subject.route(accessList);
+
+    for (var access : accessList) {
+      int stop = access.stop();
+      assertTrue(arrivals.reached(stop));
+      assertTrue(
+        arrivals.bestArrivalTime(stop) <= subject.departureTime() + access.durationInSeconds()
+      );
+    }
+
+    int nReachedByTransit = 0;
+    var transitLayer = serverContext.transitService().getRealtimeTransitLayer();
+    for (int stop = 0; stop < transitLayer.getStopCount(); ++stop) {
+      if (arrivals.reachedByTransit(stop)) {
+        assertTrue(arrivals.bestTransitArrivalTime(stop) > subject.departureTime());
+        ++nReachedByTransit;
+      }
+    }
+    assertTrue(nReachedByTransit > 0);
+  }
+
+  private static List<RoutingAccessEgress> findAccess() {
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        ORIGIN,
+        new GenericLocation(null, null),
+        StreetMode.WALK,
+        StreetMode.WALK
+      )
+    ) {
+      return subject.findAccessEgress(temporaryVertices, ACCESS);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+class TravelTimeCalculatorTest {
+
+  private static final Instant TIME = LocalDateTime
+    .of(2009, 11, 2, 8, 0)
+    .atZone(ZoneIds.LOS_ANGELES)
+    .toInstant();
+  private static final Duration SHORT = Duration.ofMinutes(15);
+  private static final Duration LONG = Duration.ofMinutes(30);
+
+  private static OtpServerRequestContext serverContext;
+  private static WgsCoordinate origin;
+
+  @BeforeAll
+  static void setup() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    var transitModel = model.transitModel();
+    serverContext = TestServerContext.createServerContext(model.graph(), transitModel);
+
+    // NE 82nd Ave MAX Station
+    var feedId = transitModel.getFeedIds().iterator().next();
+    origin =
+      transitModel.getStopModel().getRegularStop(new FeedScopedId(feedId, "8371")).getCoordinate();
+  }
+
+  @Test
+  void stopsAreReachedWithinTheMaxDuration() {
+    var result = calculate(LONG);
+
+    assertEquals(TIME, result.departureTime());
+    assertFalse(result.stops().isEmpty());
+    assertTrue(result.stops().stream().anyMatch(TravelTimeResult.StopTravelTime::reachedByTransit));
+    assertTrue(result.stops().stream().anyMatch(it -> !it.reachedByTransit()));
+    for (var it : result.stops()) {
+      assertTrue(it.travelTime() >= 0 && it.travelTime() <= LONG.toSeconds(), it.toString());
+    }
+    assertEquals(
+      result.stops().stream().sorted(Comparator.comparingInt(it -> it.travelTime())).toList(),
+      result.stops()
+    );
+  }
+
+  @Test
+  void longerMaxDurationReachesMoreStopsAtTheSameTravelTime() {
+    var shortResult = calculate(SHORT);
+    var longResult = calculate(LONG);
+    var longTravelTimes = travelTimes(longResult);
+
+    assertTrue(longResult.stops().size() > shortResult.stops().size());
+    for (var it : shortResult.stops()) {
+      assertEquals(it.travelTime(), longTravelTimes.get(it.stop()), it.stop().toString());
+    }
+  }
+
+  @Test
+  void gridIsReachedWithinTheMaxDuration() {
+    var shortGrid = calculate(SHORT).grid();
+    var longGrid = calculate(LONG).grid();
+
+    int shortCells = countReachedCells(shortGrid, SHORT);
+    assertTrue(shortCells > 0);
+    assertTrue(countReachedCells(longGrid, LONG) > shortCells);
+  }
+
+  private static TravelTimeResult calculate(Duration maxDuration) {
+    var request = new TravelTimeRequest(origin, TIME, maxDuration, 200);
+    var transitLayer = serverContext.transitService().getRealtimeTransitLayer();
+    return new TravelTimeCalculator(serverContext, transitLayer, request).calculate();
+  }
+
+  private static Map<StopLocation, Integer> travelTimes(TravelTimeResult result) {
+    return result
+      .stops()
+      .stream()
+      .collect(
+        Collectors.toMap(
+          TravelTimeResult.StopTravelTime::stop,
+          TravelTimeResult.StopTravelTime::travelTime
+        )
+      );
+  }
+
+  private static int countReachedCells(TravelTimeGrid grid, Duration maxDuration) {
+    int count = 0;
+    for (int row = 0; row < grid.height(); ++row) {
+      for (int col = 0; col < grid.width(); ++col) {
+        int travelTime = grid.travelTime(row, col);
+        if (travelTime != TravelTimeGrid.UNREACHED) {
+          assertTrue(travelTime <= maxDuration.toSeconds());
+          ++count;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,79 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class TravelTimeGridTest {
+
+  private static final double WALK_SPEED = 1.0;
+
+  private final TravelTimeGrid subject = new TravelTimeGrid(
+    10.0,
+    60.0,
+    10.02,
+    60.01,
+    200,
+    1800,
+    WALK_SPEED
+  );
+
+  @Test
+  void sampleUpdatesCellAndNeighbours() {
+    int row = 2;
+    int col = 2;
+    subject.addSample(subject.centerLat(row), subject.centerLon(col), 100);
+
+    assertEquals(100, subject.travelTime(row, col));
+    // The next cell is about 200 meters away, with a walk speed of 1 m/s
+    assertEquals(300, subject.travelTime(row + 1, col), 2);
+    assertEquals(300, subject.travelTime(row, col - 1), 2);
+    assertEquals(TravelTimeGrid.UNREACHED, subject.travelTime(row + 2, col));
+  }
+
+  @Test
+  void keepShortestTravelTime() {
+    subject.addSample(subject.centerLat(1), subject.centerLon(1), 500);
+    subject.addSample(subject.centerLat(1), subject.centerLon(1), 200);
+    subject.addSample(subject.centerLat(1), subject.centerLon(1), 400);
+
+    assertEquals(200, subject.travelTime(1, 1));
+  }
+
+  @Test
+  void ignoreTravelTimeAboveMax() {
+    subject.addSample(subject.centerLat(1), subject.centerLon(1), 1700);
+
+    assertEquals(1700, subject.travelTime(1, 1));
+    assertEquals(TravelTimeGrid.UNREACHED, subject.travelTime(2, 1));
+  }
+
+  @Test
+  void writeBinary() throws IOException {
+    subject.addSample(subject.centerLat(0), subject.centerLon(0), 60);
+
+    var bytes = new ByteArrayOutputStream();
+    subject.writeBinary(bytes);
+
+    var in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(TravelTimeGrid.BINARY_MAGIC, in.readInt());
+    assertEquals(TravelTimeGrid.BINARY_VERSION, in.readInt());
+    assertEquals(subject.width(), in.readInt());
+    assertEquals(subject.height(), in.readInt());
+    assertEquals(subject.west(), in.readDouble());
+    assertEquals(subject.south(), in.readDouble());
+    assertEquals(subject.cellWidth(), in.readDouble());
+    assertEquals(subject.cellHeight(), in.readDouble());
+    assertEquals(60, in.readUnsignedShort());
+    for (int i = 1; i < subject.width() * subject.height(); ++i) {
+      int expected = subject.travelTime(i / subject.width(), i % subject.width());
+      int actual = in.readUnsignedShort();
+      assertEquals(expected == TravelTimeGrid.UNREACHED ? 0xFFFF : expected, actual);
+    }
+    assertEquals(-1, in.read());
+  }
+}
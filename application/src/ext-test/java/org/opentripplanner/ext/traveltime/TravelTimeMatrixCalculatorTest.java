@@ -0,0 +1,160 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+class TravelTimeMatrixCalculatorTest {
+
+  private static final Instant TIME = LocalDateTime
+    .of(2009, 11, 17, 10, 0)
+    .atZone(ZoneIds.LOS_ANGELES)
+    .toInstant();
+  private static final Duration MAX_DURATION = Duration.ofMinutes(60);
+  private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+  // SE Stark St. & SE 17th Ave.
+  private static final GenericLocation P0 = new GenericLocation(45.519320, -122.648567);
+  // SE Morrison St. & SE 17th Ave.
+  private static final GenericLocation P1 = new GenericLocation(45.51726, -122.64847);
+  // NW Northrup St. & NW 22nd Ave.
+  private static final GenericLocation P2 = new GenericLocation(45.53122, -122.69659);
+  // NE Thompson St. & NE 18th Ave.
+  private static final GenericLocation P4 = new GenericLocation(45.53896, -122.64699);
+
+  private static final List<GenericLocation> ORIGINS = List.of(P0, P2);
+  private static final List<GenericLocation> DESTINATIONS = List.of(P1, P2, P4);
+
+  private static OtpServerRequestContext serverContext;
+  private static ExecutorService threadPool;
+
+  @BeforeAll
+  static void setup() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    serverContext = TestServerContext.createServerContext(model.graph(), model.transitModel());
+    threadPool = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterAll
+  static void shutdown() {
+    threadPool.shutdownNow();
+  }
+
+  @Test
+  void matrixIsTheSameAsSinglePairSearches() {
+    var matrix = calculate(ORIGINS, DESTINATIONS, TIMEOUT);
+
+    int nReached = 0;
+    for (int o = 0; o < ORIGINS.size(); ++o) {
+      assertEquals(DESTINATIONS.size(), matrix[o].length);
+      for (int d = 0; d < DESTINATIONS.size(); ++d) {
+        var single = calculate(List.of(ORIGINS.get(o)), List.of(DESTINATIONS.get(d)), TIMEOUT);
+        assertEquals(single[0][0], matrix[o][d], "origin " + o + ", destination " + d);
+        if (matrix[o][d] != TravelTimeMatrixCalculator.UNREACHED) {
+          assertTrue(matrix[o][d] > 0 && matrix[o][d] <= MAX_DURATION.toSeconds());
+          ++nReached;
+        }
+      }
+    }
+    assertTrue(nReached > 0);
+  }
+
+  @Test
+  void travelTimeIsNotLongerThanATripSearch() {
+    int travelTime = calculate(List.of(P0), List.of(P2), TIMEOUT)[0][0];
+    assertNotEquals(TravelTimeMatrixCalculator.UNREACHED, travelTime);
+
+    var request = serverContext.defaultRouteRequest();
+    request.setFrom(P0);
+    request.setTo(P2);
+    request.setDateTime(TIME);
+    request.journey().direct().setMode(StreetMode.NOT_SET);
+    var itineraries = serverContext
+      .routingService()
+      .route(request)
+      .getTripPlan()
+      .itineraries.stream()
+      .filter(Itinerary::hasTransit)
+      .toList();
+    assertFalse(itineraries.isEmpty());
+
+    // The matrix has the earliest arrival, the trip search can not arrive before it
+    for (var it : itineraries) {
+      var tripTravelTime = Duration.between(TIME, it.endTime().toInstant());
+      assertTrue(travelTime <= tripTravelTime.toSeconds(), it.toString());
+    }
+  }
+
+  @Test
+  void calculationIsStoppedAfterTheTimeout() {
+    assertThrows(
+      OTPRequestTimeoutException.class,
+      () -> calculate(ORIGINS, DESTINATIONS, Duration.ZERO)
+    );
+  }
+
+  @Test
+  void calculationIsStoppedIfTheConsumerFails() {
+    var calculator = calculator(ORIGINS, DESTINATIONS, TIMEOUT);
+
+    var e = assertThrows(
+      IllegalStateException.class,
+      () ->
+        calculator.calculate((origin, travelTimes) -> {
+          throw new IllegalStateException("Client disconnected");
+        })
+    );
+    assertEquals("Client disconnected", e.getMessage());
+  }
+
+  private static int[][] calculate(
+    List<GenericLocation> origins,
+    List<GenericLocation> destinations,
+    Duration timeout
+  ) {
+    var matrix = new int[origins.size()][];
+    calculator(origins, destinations, timeout)
+      .calculate((origin, travelTimes) -> matrix[origin] = travelTimes);
+    assertTrue(Arrays.stream(matrix).allMatch(it -> it != null));
+    return matrix;
+  }
+
+  private static TravelTimeMatrixCalculator calculator(
+    List<GenericLocation> origins,
+    List<GenericLocation> destinations,
+    Duration timeout
+  ) {
+    return new TravelTimeMatrixCalculator(
+      serverContext,
+      serverContext.transitService().getRealtimeTransitLayer(),
+      origins,
+      destinations,
+      TIME,
+      MAX_DURATION,
+      timeout,
+      threadPool,
+      2
+    );
+  }
+}
@@ -0,0 +1,131 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner.ext.traveltime.TravelTimeMatrixResource.Location;
+import org.opentripplanner.ext.traveltime.TravelTimeMatrixResource.MatrixRequest;
+
+class TravelTimeMatrixResourceTest {
+
+  private static final String TIME = "2009-11-17T10:00:00-08:00";
+  private static final List<Location> ORIGINS = List.of(
+    new Location(45.519320, -122.648567),
+    new Location(45.53122, -122.69659)
+  );
+  private static final List<Location> DESTINATIONS = List.of(
+    new Location(45.51726, -122.64847),
+    new Location(45.53896, -122.64699),
+    new Location(45.53100, -122.70029)
+  );
+  private static final MatrixRequest REQUEST = new MatrixRequest(
+    ORIGINS,
+    DESTINATIONS,
+    TIME,
+    "PT1H"
+  );
+
+  private static TravelTimeMatrixResource subject;
+
+  @BeforeAll
+  static void setup() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    subject =
+      new TravelTimeMatrixResource(
+        TestServerContext.createServerContext(model.graph(), model.transitModel())
+      );
+  }
+
+  @Test
+  void rowsAreWrittenAsJson() {
+    var rows = write(subject.getMatrix(REQUEST)).get("rows");
+
+    assertEquals(ORIGINS.size(), rows.size());
+    Set<Integer> origins = new HashSet<>();
+    for (var row : rows) {
+      origins.add(row.get("origin").asInt());
+      var travelTimes = row.get("travelTimes");
+      assertEquals(DESTINATIONS.size(), travelTimes.size());
+      for (var travelTime : travelTimes) {
+        if (!travelTime.isNull()) {
+          assertTrue(travelTime.asInt() > 0 && travelTime.asInt() <= 3600);
+        }
+      }
+    }
+    assertEquals(Set.of(0, 1), origins);
+  }
+
+  @Test
+  void invalidRequestsAreRejected() {
+    assertThrows(BadRequestException.class, () -> subject.getMatrix(null));
+    assertThrows(
+      BadRequestException.class,
+      () -> subject.getMatrix(new MatrixRequest(List.of(), DESTINATIONS, TIME, null))
+    );
+    assertThrows(
+      BadRequestException.class,
+      () -> subject.getMatrix(new MatrixRequest(ORIGINS, DESTINATIONS, TIME, "PT-5M"))
+    );
+    assertThrows(
+      BadRequestException.class,
+      () -> subject.getMatrix(new MatrixRequest(ORIGINS, DESTINATIONS, "10:00", null))
+    );
+    var tooMany = Collections.nCopies(
+      TravelTimeMatrixResource.MAX_LOCATIONS + 1,
+      DESTINATIONS.get(0)
+    );
+    assertThrows(
+      BadRequestException.class,
+      () -> subject.getMatrix(new MatrixRequest(ORIGINS, tooMany, TIME, null))
+    );
+
+    // The rejected requests do not use up the limit of concurrent requests
+    for (int i = 0; i < TravelTimeMatrixResource.MAX_CONCURRENT_REQUESTS + 1; ++i) {
+      assertThrows(BadRequestException.class, () -> subject.getMatrix(null));
+    }
+    write(subject.getMatrix(REQUEST));
+  }
+
+  @Test
+  void requestsOverTheLimitAreRejectedUntilARequestIsDone() {
+    var outputs = new ArrayList<StreamingOutput>();
+    try {
+      for (int i = 0; i < TravelTimeMatrixResource.MAX_CONCURRENT_REQUESTS; ++i) {
+        outputs.add(subject.getMatrix(REQUEST));
+      }
+      assertThrows(ServiceUnavailableException.class, () -> subject.getMatrix(REQUEST));
+
+      write(outputs.remove(0));
+      outputs.add(subject.getMatrix(REQUEST));
+    } finally {
+      outputs.forEach(TravelTimeMatrixResourceTest::write);
+    }
+  }
+
+  private static JsonNode write(StreamingOutput output) {
+    try {
+      var buffer = new ByteArrayOutputStream();
+      output.write(buffer);
+      return new ObjectMapper().readTree(buffer.toByteArray());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
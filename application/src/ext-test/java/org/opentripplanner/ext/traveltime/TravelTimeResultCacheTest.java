@@ -0,0 +1,67 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+
+class TravelTimeResultCacheTest {
+
+  private static final Instant TIME = Instant.parse("2024-05-02T06:00:00Z");
+  private static final TravelTimeRequest REQUEST = request(new WgsCoordinate(59.91, 10.75));
+  private static final TravelTimeRequest OTHER_REQUEST = request(new WgsCoordinate(59.92, 10.75));
+
+  private final TravelTimeResultCache subject = new TravelTimeResultCache(10, Duration.ofHours(1));
+  private final TransitLayer transitLayer = transitLayer();
+  private int nCalculations = 0;
+
+  @Test
+  void cacheHit() {
+    var result = subject.get(REQUEST, transitLayer, this::calculate);
+
+    assertSame(result, subject.get(REQUEST, transitLayer, this::calculate));
+    assertEquals(1, nCalculations);
+  }
+
+  @Test
+  void cacheMissForOtherRequest() {
+    var result = subject.get(REQUEST, transitLayer, this::calculate);
+
+    assertNotSame(result, subject.get(OTHER_REQUEST, transitLayer, this::calculate));
+    assertEquals(2, nCalculations);
+  }
+
+  @Test
+  void resultsAreDroppedWhenANewTransitLayerIsUsed() {
+    var result = subject.get(REQUEST, transitLayer, this::calculate);
+    var newTransitLayer = new TransitLayer(transitLayer);
+
+    var newResult = subject.get(REQUEST, newTransitLayer, this::calculate);
+    assertNotSame(result, newResult);
+    assertSame(newResult, subject.get(REQUEST, newTransitLayer, this::calculate));
+
+    // The results for the previous layer are not kept
+    assertNotSame(result, subject.get(REQUEST, transitLayer, this::calculate));
+    assertEquals(3, nCalculations);
+  }
+
+  private TravelTimeResult calculate() {
+    ++nCalculations;
+    return new TravelTimeResult(TIME, List.of(), null);
+  }
+
+  private static TravelTimeRequest request(WgsCoordinate location) {
+    return new TravelTimeRequest(location, TIME, Duration.ofMinutes(30), 200);
+  }
+
+  private static TransitLayer transitLayer() {
+    return new TransitLayer(Map.of(), null, null, null, null, null, null, null, null);
+  }
+}
@@ -8,7 +8,6 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import org.locationtech.jts.geom.Envelope;
@@ -70,12 +69,10 @@ public class BikeRental {
     } else {
       envelope = new Envelope(-180, 180, -90, 90);
     }
-    Collection<VehicleRentalPlace> stations = vehicleRentalService.getVehicleRentalPlaces();
+    var stations = vehicleRentalService.getVehicleRentalPlacesForEnvelope(envelope);
     List<ApiVehicleRentalStation> out = new ArrayList<>();
     for (VehicleRentalPlace station : stations) {
-      if (envelope.contains(station.getLongitude(), station.getLatitude())) {
-        out.add(VehicleRentalStationMapper.mapToApi(station, locale));
-      }
+      out.add(VehicleRentalStationMapper.mapToApi(station, locale));
     }
     ApiVehicleRentalStationList brsl = new ApiVehicleRentalStationList();
     brsl.stations = out;
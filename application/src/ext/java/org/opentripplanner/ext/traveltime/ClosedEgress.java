@@ -0,0 +1,35 @@
+package org.opentripplanner.ext.traveltime;
+
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+
+/**
+ * Raptor requires at least one egress, but the travel time search does not have a destination. This
+ * egress is never open, so no paths to the destination are created.
+ */
+record ClosedEgress(int stop) implements RaptorAccessEgress {
+  @Override
+  public int c1() {
+    return 0;
+  }
+
+  @Override
+  public int durationInSeconds() {
+    return 0;
+  }
+
+  @Override
+  public int earliestDepartureTime(int requestedDepartureTime) {
+    return RaptorConstants.TIME_NOT_SET;
+  }
+
+  @Override
+  public int latestArrivalTime(int requestedArrivalTime) {
+    return RaptorConstants.TIME_NOT_SET;
+  }
+
+  @Override
+  public boolean hasOpeningHours() {
+    return true;
+  }
+}
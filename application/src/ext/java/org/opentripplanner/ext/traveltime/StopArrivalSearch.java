@@ -0,0 +1,149 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.AdditionalSearchDays;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RoutingAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+
+/**
+ * Find the walk access or egress of a location, and the earliest arrival time at each stop from a
+ * set of accesses. The arrival times are found with a single iteration of the best-time Raptor
+ * search. This is a lot cheaper than a trip search, since no paths are created and only one
+ * departure time is searched.
+ * <p>
+ * The transit data is created once, and is not changed by the searches, so one instance can be
+ * used to search from many origins, also in parallel.
+ */
+class StopArrivalSearch {
+
+  private final OtpServerRequestContext serverContext;
+  private final TransitLayer transitLayer;
+  private final RouteRequest routeRequest;
+  private final Duration maxDuration;
+  private final int departureTime;
+  private final RaptorRoutingRequestTransitData transitData;
+
+  /**
+   * @param routeRequest The request with the preferences and the departure time of the search
+   * @param maxDuration The maximum travel time, transit is not searched beyond this
+   */
+  StopArrivalSearch(
+    OtpServerRequestContext serverContext,
+    TransitLayer transitLayer,
+    RouteRequest routeRequest,
+    Duration maxDuration
+  ) {
+    this.serverContext = serverContext;
+    this.transitLayer = transitLayer;
+    this.routeRequest = routeRequest;
+    this.maxDuration = maxDuration;
+
+    var zoneId = serverContext.transitService().getTimeZone();
+    Instant time = routeRequest.dateTime();
+    ZonedDateTime transitSearchTimeZero = ServiceDateUtils.asStartOfService(time, zoneId);
+    this.departureTime = ServiceDateUtils.secondsSinceStartOfTime(transitSearchTimeZero, time);
+    this.transitData = createTransitData(transitSearchTimeZero);
+  }
+
+  /** The departure time in seconds since the transit search time zero. */
+  int departureTime() {
+    return departureTime;
+  }
+
+  /**
+   * Find the stops within walking distance of a location. The access is found from the from
+   * vertices of the container, and the egress to the to vertices.
+   */
+  List<RoutingAccessEgress> findAccessEgress(
+    TemporaryVerticesContainer temporaryVertices,
+    AccessEgressType type
+  ) {
+    var accessPreferences = routeRequest.preferences().street().accessEgress();
+    Duration durationLimit = accessPreferences.maxDuration().valueOf(StreetMode.WALK);
+    if (durationLimit.compareTo(maxDuration) > 0) {
+      durationLimit = maxDuration;
+    }
+
+    var nearbyStops = AccessEgressRouter.findAccessEgresses(
+      routeRequest,
+      temporaryVertices,
+      new StreetRequest(StreetMode.WALK),
+      serverContext.dataOverlayContext(routeRequest),
+      type,
+      durationLimit,
+      accessPreferences.maxStopCount()
+    );
+    return AccessEgressMapper.mapNearbyStops(nearbyStops, type);
+  }
+
+  /**
+   * Find the earliest arrival time at each stop, or {@code null} if there are no accesses.
+   */
+  @Nullable
+  StopArrivals route(List<RoutingAccessEgress> accessList) {
+    if (accessList.isEmpty() || transitLayer.getStopCount() == 0) {
+      return null;
+    }
+    var raptorService = new RaptorService<>(serverContext.raptorConfig());
+    return raptorService.route(createRaptorRequest(accessList), transitData).getArrivals();
+  }
+
+  private RaptorRequest<TripSchedule> createRaptorRequest(List<RoutingAccessEgress> accessList) {
+    // The search does not have a destination, so the round limit is not reduced when the
+    // egress stop is reached
+    int maxTransfers = routeRequest.preferences().transfer().maxTransfers();
+
+    return new RaptorRequestBuilder<TripSchedule>()
+      .profile(RaptorProfile.BEST_TIME)
+      .searchParams()
+      .earliestDepartureTime(departureTime)
+      .latestArrivalTime(departureTime + (int) maxDuration.toSeconds())
+      .searchOneIterationOnly()
+      .maxNumberOfTransfers(maxTransfers)
+      .numberOfAdditionalTransfers(maxTransfers)
+      .addAccessPaths(accessList)
+      .addEgressPaths(new ClosedEgress(0))
+      .build();
+  }
+
+  private RaptorRoutingRequestTransitData createTransitData(ZonedDateTime transitSearchTimeZero) {
+    var additionalSearchDays = new AdditionalSearchDays(
+      false,
+      routeRequest.dateTime().atZone(transitSearchTimeZero.getZone()),
+      Duration.ZERO,
+      Duration.ZERO,
+      maxDuration
+    );
+    return new RaptorRoutingRequestTransitData(
+      transitLayer,
+      TransitGroupPriorityService.empty(),
+      transitSearchTimeZero,
+      additionalSearchDays.additionalSearchDaysInPast(),
+      additionalSearchDays.additionalSearchDaysInFuture(),
+      new RouteRequestTransitDataProviderFilter(routeRequest),
+      routeRequest
+    );
+  }
+}
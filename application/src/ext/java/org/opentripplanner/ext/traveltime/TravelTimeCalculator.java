@@ -0,0 +1,194 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.ACCESS;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.state.StateData;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+/**
+ * Calculate the travel time from an origin to all stops and streets within a maximum duration,
+ * by walking and transit. The calculation is done in three steps:
+ * <ol>
+ *   <li>A walk search from the origin finds the access to the nearby stops, the same way as in a
+ *   trip search.</li>
+ *   <li>A single iteration of the best-time Raptor search finds the earliest arrival time at each
+ *   stop, see {@link StopArrivalSearch}.</li>
+ *   <li>A walk search from the origin and from all stops reached by transit, each starting at the
+ *   arrival time at the stop, finds the earliest arrival time at each street vertex. The vertices
+ *   are then sampled into a {@link TravelTimeGrid}.</li>
+ * </ol>
+ */
+public class TravelTimeCalculator {
+
+  private final OtpServerRequestContext serverContext;
+  private final TransitLayer transitLayer;
+  private final TravelTimeRequest request;
+  private final RouteRequest routeRequest;
+
+  public TravelTimeCalculator(
+    OtpServerRequestContext serverContext,
+    TransitLayer transitLayer,
+    TravelTimeRequest request
+  ) {
+    this.serverContext = serverContext;
+    this.transitLayer = transitLayer;
+    this.request = request;
+
+    this.routeRequest = serverContext.defaultRouteRequest();
+    routeRequest.setFrom(
+      new GenericLocation(request.location().latitude(), request.location().longitude())
+    );
+    routeRequest.setDateTime(request.time());
+  }
+
+  public TravelTimeResult calculate() {
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        routeRequest.from(),
+        routeRequest.to(),
+        StreetMode.WALK,
+        StreetMode.WALK
+      )
+    ) {
+      var search = new StopArrivalSearch(
+        serverContext,
+        transitLayer,
+        routeRequest,
+        request.maxDuration()
+      );
+      var arrivals = search.route(search.findAccessEgress(temporaryVertices, ACCESS));
+      var stops = mapStops(arrivals, search.departureTime());
+      var spt = routeStreets(temporaryVertices, stops);
+      var grid = createGrid(spt.getAllStates());
+      return new TravelTimeResult(request.time(), stops, grid);
+    }
+  }
+
+  private List<TravelTimeResult.StopTravelTime> mapStops(
+    @Nullable StopArrivals arrivals,
+    int departureTime
+  ) {
+    var result = new ArrayList<TravelTimeResult.StopTravelTime>();
+    if (arrivals == null) {
+      return result;
+    }
+    for (int i = 0; i < transitLayer.getStopCount(); ++i) {
+      if (!arrivals.reached(i)) {
+        continue;
+      }
+      int arrivalTime = arrivals.bestArrivalTime(i);
+      // The best-time search does not prune the arrivals after the latest arrival time
+      if (arrivalTime - departureTime > request.maxDurationSeconds()) {
+        continue;
+      }
+      boolean byTransit =
+        arrivals.reachedByTransit(i) && arrivals.bestTransitArrivalTime(i) == arrivalTime;
+      result.add(
+        new TravelTimeResult.StopTravelTime(
+          transitLayer.getStopByIndex(i),
+          arrivalTime - departureTime,
+          byTransit
+        )
+      );
+    }
+    result.sort(Comparator.comparingInt(TravelTimeResult.StopTravelTime::travelTime));
+    return result;
+  }
+
+  /**
+   * Walk from the origin and from each stop reached by transit, starting at the arrival time at
+   * the stop. The earliest arrival dominance keeps the fastest state at each vertex, regardless of
+   * where the state started.
+   */
+  private ShortestPathTree<State, Edge, Vertex> routeStreets(
+    TemporaryVerticesContainer temporaryVertices,
+    List<TravelTimeResult.StopTravelTime> stops
+  ) {
+    StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
+      .map(routeRequest)
+      .withMode(StreetMode.WALK)
+      .build();
+
+    var initialStates = new ArrayList<>(
+      State.getInitialStates(temporaryVertices.getFromVertices(), streetSearchRequest)
+    );
+    for (var stop : stops) {
+      if (!stop.reachedByTransit()) {
+        continue;
+      }
+      var vertex = serverContext.graph().getStopVertexForStopId(stop.stop().getId());
+      if (vertex != null) {
+        initialStates.add(
+          new State(
+            vertex,
+            request.time().plusSeconds(stop.travelTime()),
+            StateData.getBaseCaseStateData(streetSearchRequest),
+            streetSearchRequest
+          )
+        );
+      }
+    }
+
+    long endTime = request.time().getEpochSecond() + request.maxDurationSeconds();
+
+    return StreetSearchBuilder
+      .of()
+      .setRequest(routeRequest)
+      .setStreetRequest(new StreetRequest(StreetMode.WALK))
+      .setInitialStates(initialStates)
+      .setDominanceFunction(new DominanceFunctions.EarliestArrival())
+      .setSkipEdgeStrategy((state, edge) -> state.getTimeSeconds() > endTime)
+      .getShortestPathTree();
+  }
+
+  private TravelTimeGrid createGrid(Collection<State> states) {
+    var envelope = new Envelope();
+    for (State state : states) {
+      envelope.expandToInclude(state.getVertex().getLon(), state.getVertex().getLat());
+    }
+    if (envelope.isNull()) {
+      envelope.expandToInclude(request.location().longitude(), request.location().latitude());
+    }
+
+    var grid = new TravelTimeGrid(
+      envelope.getMinX(),
+      envelope.getMinY(),
+      envelope.getMaxX(),
+      envelope.getMaxY(),
+      request.cellSize(),
+      request.maxDurationSeconds(),
+      routeRequest.preferences().walk().speed()
+    );
+    long startTime = request.time().getEpochSecond();
+    for (State state : states) {
+      grid.addSample(
+        state.getVertex().getLat(),
+        state.getVertex().getLon(),
+        (int) (state.getTimeSeconds() - startTime)
+      );
+    }
+    return grid;
+  }
+}
@@ -0,0 +1,114 @@
+package org.opentripplanner.ext.traveltime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Write a travel time result as a GeoJSON feature collection. The features are written one by one
+ * to the output stream, so a large grid is never held in memory as JSON.
+ */
+class TravelTimeGeoJsonWriter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory()
+    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  private TravelTimeGeoJsonWriter() {}
+
+  /** Write a point feature for each stop, with the travel time in seconds as a property. */
+  static void writeStops(List<TravelTimeResult.StopTravelTime> stops, OutputStream output)
+    throws IOException {
+    try (var json = JSON_FACTORY.createGenerator(output)) {
+      startFeatureCollection(json);
+      for (var it : stops) {
+        var stop = it.stop();
+        json.writeStartObject();
+        json.writeStringField("type", "Feature");
+
+        json.writeObjectFieldStart("geometry");
+        json.writeStringField("type", "Point");
+        json.writeArrayFieldStart("coordinates");
+        json.writeNumber(stop.getLon());
+        json.writeNumber(stop.getLat());
+        json.writeEndArray();
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("properties");
+        json.writeStringField("id", stop.getId().toString());
+        json.writeStringField("name", stop.getName() == null ? null : stop.getName().toString());
+        json.writeNumberField("travelTime", it.travelTime());
+        json.writeBooleanField("reachedByTransit", it.reachedByTransit());
+        json.writeEndObject();
+
+        json.writeEndObject();
+      }
+      endFeatureCollection(json);
+    }
+  }
+
+  /**
+   * Write a polygon feature for each reached cell in the grid, with the travel time in seconds as
+   * a property.
+   */
+  static void writeGrid(TravelTimeGrid grid, OutputStream output) throws IOException {
+    try (var json = JSON_FACTORY.createGenerator(output)) {
+      startFeatureCollection(json);
+      for (int row = 0; row < grid.height(); ++row) {
+        for (int col = 0; col < grid.width(); ++col) {
+          int travelTime = grid.travelTime(row, col);
+          if (travelTime == TravelTimeGrid.UNREACHED) {
+            continue;
+          }
+          double west = grid.west() + col * grid.cellWidth();
+          double south = grid.south() + row * grid.cellHeight();
+          double east = west + grid.cellWidth();
+          double north = south + grid.cellHeight();
+
+          json.writeStartObject();
+          json.writeStringField("type", "Feature");
+
+          json.writeObjectFieldStart("geometry");
+          json.writeStringField("type", "Polygon");
+          json.writeArrayFieldStart("coordinates");
+          json.writeStartArray();
+          writePosition(json, west, south);
+          writePosition(json, east, south);
+          writePosition(json, east, north);
+          writePosition(json, west, north);
+          writePosition(json, west, south);
+          json.writeEndArray();
+          json.writeEndArray();
+          json.writeEndObject();
+
+          json.writeObjectFieldStart("properties");
+          json.writeNumberField("travelTime", travelTime);
+          json.writeEndObject();
+
+          json.writeEndObject();
+        }
+      }
+      endFeatureCollection(json);
+    }
+  }
+
+  private static void startFeatureCollection(JsonGenerator json) throws IOException {
+    json.writeStartObject();
+    json.writeStringField("type", "FeatureCollection");
+    json.writeArrayFieldStart("features");
+  }
+
+  private static void endFeatureCollection(JsonGenerator json) throws IOException {
+    json.writeEndArray();
+    json.writeEndObject();
+  }
+
+  private static void writePosition(JsonGenerator json, double lon, double lat)
+    throws IOException {
+    json.writeStartArray();
+    json.writeNumber(lon);
+    json.writeNumber(lat);
+    json.writeEndArray();
+  }
+}
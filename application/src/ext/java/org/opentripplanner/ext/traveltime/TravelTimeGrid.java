@@ -0,0 +1,175 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+
+/**
+ * A regular grid of travel times, in seconds from the departure at the origin. The cells are
+ * squares of about the same size in meters, aligned with the latitude and longitude axes. Row 0 is
+ * the southernmost row, and column 0 the westernmost column.
+ * <p>
+ * The grid is created from samples, the travel time to the vertices of the street graph. A sample
+ * updates the travel time of the cell it is in and the cells around it, with the time it takes to
+ * walk from the sample to the center of the cell. The cells that are not reachable within the
+ * maximum duration have no travel time.
+ */
+public class TravelTimeGrid {
+
+  /** The travel time of a cell that is not reached. */
+  public static final int UNREACHED = -1;
+
+  /** The value of an unreached cell in the binary format. */
+  static final int BINARY_UNREACHED = 0xFFFF;
+
+  /** The first bytes of the binary format, "OTPG" in ASCII. */
+  static final int BINARY_MAGIC = 0x4F545047;
+  static final int BINARY_VERSION = 1;
+
+  private final double west;
+  private final double south;
+  private final double cellWidth;
+  private final double cellHeight;
+  private final int width;
+  private final int height;
+  private final int maxTravelTime;
+  private final double walkSpeed;
+  private final int[] travelTimes;
+
+  /**
+   * @param west The longitude of the west edge of the grid
+   * @param south The latitude of the south edge of the grid
+   * @param east The longitude of the east edge of the grid, the grid is extended to whole cells
+   * @param north The latitude of the north edge of the grid, the grid is extended to whole cells
+   * @param cellSize The width and height of a cell in meters
+   * @param maxTravelTime The maximum travel time of a cell in seconds
+   * @param walkSpeed The walk speed in meters per second, used from the samples to the cells
+   */
+  public TravelTimeGrid(
+    double west,
+    double south,
+    double east,
+    double north,
+    int cellSize,
+    int maxTravelTime,
+    double walkSpeed
+  ) {
+    this.west = west;
+    this.south = south;
+    this.cellHeight = SphericalDistanceLibrary.metersToDegrees(cellSize);
+    this.cellWidth = SphericalDistanceLibrary.metersToLonDegrees(cellSize, (south + north) / 2);
+    this.width = Math.max(1, (int) Math.ceil((east - west) / cellWidth));
+    this.height = Math.max(1, (int) Math.ceil((north - south) / cellHeight));
+    this.maxTravelTime = maxTravelTime;
+    this.walkSpeed = walkSpeed;
+    this.travelTimes = new int[width * height];
+    Arrays.fill(travelTimes, UNREACHED);
+  }
+
+  /**
+   * Add the travel time to a point. The cell of the point and the cells around it are updated if
+   * the point gives a shorter travel time to the center of the cell.
+   */
+  public void addSample(double lat, double lon, int travelTime) {
+    if (travelTime > maxTravelTime) {
+      return;
+    }
+    int col = col(lon);
+    int row = row(lat);
+
+    for (int r = Math.max(0, row - 1); r <= Math.min(height - 1, row + 1); ++r) {
+      for (int c = Math.max(0, col - 1); c <= Math.min(width - 1, col + 1); ++c) {
+        double distance = SphericalDistanceLibrary.fastDistance(
+          lat,
+          lon,
+          centerLat(r),
+          centerLon(c)
+        );
+        int time = travelTime + (int) Math.round(distance / walkSpeed);
+        int i = index(r, c);
+        if (time <= maxTravelTime && (travelTimes[i] == UNREACHED || time < travelTimes[i])) {
+          travelTimes[i] = time;
+        }
+      }
+    }
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  public double west() {
+    return west;
+  }
+
+  public double south() {
+    return south;
+  }
+
+  public double cellWidth() {
+    return cellWidth;
+  }
+
+  public double cellHeight() {
+    return cellHeight;
+  }
+
+  /** The travel time of the cell in seconds, or {@link #UNREACHED}. */
+  public int travelTime(int row, int col) {
+    return travelTimes[index(row, col)];
+  }
+
+  public double centerLat(int row) {
+    return south + (row + 0.5) * cellHeight;
+  }
+
+  public double centerLon(int col) {
+    return west + (col + 0.5) * cellWidth;
+  }
+
+  /**
+   * Write the grid in a compact binary format, all numbers are big-endian:
+   * <ol>
+   *   <li>The magic number "OTPG" and the format version, as two 32-bit integers</li>
+   *   <li>The width and height in cells, as two 32-bit integers</li>
+   *   <li>The west and south edge, and the width and height of a cell in degrees, as four 64-bit
+   *   floating point numbers</li>
+   *   <li>The travel time in seconds for each cell, as unsigned 16-bit integers, row by row from
+   *   south to north, and from west to east within a row. An unreached cell has the value
+   *   65535.</li>
+   * </ol>
+   */
+  public void writeBinary(OutputStream output) throws IOException {
+    var out = new DataOutputStream(output);
+    out.writeInt(BINARY_MAGIC);
+    out.writeInt(BINARY_VERSION);
+    out.writeInt(width);
+    out.writeInt(height);
+    out.writeDouble(west);
+    out.writeDouble(south);
+    out.writeDouble(cellWidth);
+    out.writeDouble(cellHeight);
+    for (int travelTime : travelTimes) {
+      out.writeShort(travelTime == UNREACHED ? BINARY_UNREACHED : travelTime);
+    }
+    out.flush();
+  }
+
+  private int col(double lon) {
+    return (int) Math.floor((lon - west) / cellWidth);
+  }
+
+  private int row(double lat) {
+    return (int) Math.floor((lat - south) / cellHeight);
+  }
+
+  private int index(int row, int col) {
+    return row * width + col;
+  }
+}
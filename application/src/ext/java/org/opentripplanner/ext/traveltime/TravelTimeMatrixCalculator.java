@@ -0,0 +1,252 @@
+package org.opentripplanner.ext.traveltime;
+
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.ACCESS;
+import static org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType.EGRESS;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RoutingAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.error.RoutingValidationException;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+
+/**
+ * Calculate the travel time by walking and transit from each origin to each destination, without
+ * a trip search for each pair:
+ * <ol>
+ *   <li>One egress street search for each destination.</li>
+ *   <li>One access street search and one best-time Raptor search for each origin, see
+ *   {@link StopArrivalSearch}. The Raptor search gives the earliest arrival at every stop, so the
+ *   travel time to all destinations is found from the egresses of the destinations.</li>
+ * </ol>
+ * The searches for the destinations, and then for the origins, run in parallel on the given thread
+ * pool. At most {@code parallelism} searches of a matrix are submitted to the pool at a time, so a
+ * large matrix does not fill the queue of a shared pool. The rows of the matrix are passed to the
+ * consumer as soon as they are ready, on the calling thread.
+ * <p>
+ * The calculation must complete within the given timeout. The searches not started before the
+ * timeout are not run, and the running searches are interrupted.
+ * <p>
+ * Only journeys with transit are included, walking directly from the origin to the destination is
+ * not.
+ */
+public class TravelTimeMatrixCalculator {
+
+  /** The travel time of a destination that is not reached. */
+  public static final int UNREACHED = -1;
+
+  private final OtpServerRequestContext serverContext;
+  private final List<GenericLocation> origins;
+  private final List<GenericLocation> destinations;
+  private final int maxDuration;
+  private final Duration timeout;
+  private final ExecutorService threadPool;
+  private final int parallelism;
+  private final RouteRequest routeRequest;
+  private final StopArrivalSearch search;
+
+  /** The deadline of the calculation, in {@link System#nanoTime()}. */
+  private long deadline;
+
+  public TravelTimeMatrixCalculator(
+    OtpServerRequestContext serverContext,
+    TransitLayer transitLayer,
+    List<GenericLocation> origins,
+    List<GenericLocation> destinations,
+    Instant time,
+    Duration maxDuration,
+    Duration timeout,
+    ExecutorService threadPool,
+    int parallelism
+  ) {
+    this.serverContext = serverContext;
+    this.origins = origins;
+    this.destinations = destinations;
+    this.maxDuration = (int) maxDuration.toSeconds();
+    this.timeout = timeout;
+    this.threadPool = threadPool;
+    this.parallelism = parallelism;
+
+    this.routeRequest = serverContext.defaultRouteRequest();
+    routeRequest.setDateTime(time);
+    this.search = new StopArrivalSearch(serverContext, transitLayer, routeRequest, maxDuration);
+  }
+
+  /**
+   * Calculate the matrix, and pass each row to the consumer. The rows are passed in the order they
+   * are ready, not in the order of the origins.
+   *
+   * @throws OTPRequestTimeoutException if the calculation is not done within the timeout
+   */
+  public <E extends Exception> void calculate(RowConsumer<E> consumer) throws E {
+    this.deadline = System.nanoTime() + timeout.toNanos();
+
+    var egresses = new Egress[destinations.size()];
+    runInParallel(
+      destinations.size(),
+      i -> findEgress(destinations.get(i)),
+      (i, egress) -> egresses[i] = egress
+    );
+    runInParallel(origins.size(), i -> calculateRow(i, egresses), consumer::accept);
+  }
+
+  /**
+   * Run a task for each index in {@code [0, n)} on the thread pool, and pass the results to the
+   * consumer on the calling thread in the order the tasks complete.
+   */
+  private <T, E extends Exception> void runInParallel(
+    int n,
+    IntFunction<T> task,
+    ResultConsumer<T, E> consumer
+  ) throws E {
+    var completionService = new ExecutorCompletionService<Result<T>>(threadPool);
+    var futures = new ArrayList<Future<Result<T>>>();
+    int next = 0;
+    try {
+      for (; next < Math.min(n, parallelism); ++next) {
+        int index = next;
+        futures.add(completionService.submit(() -> runTask(index, task)));
+      }
+      for (int done = 0; done < n; ++done) {
+        var future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        if (future == null) {
+          throw new OTPRequestTimeoutException();
+        }
+        var result = future.get();
+        if (next < n) {
+          int index = next++;
+          futures.add(completionService.submit(() -> runTask(index, task)));
+        }
+        consumer.accept(result.index(), result.value());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    } finally {
+      // Stop the remaining searches if the calculation fails or times out, or if the consumer
+      // fails, e.g. if the client disconnects
+      futures.forEach(it -> it.cancel(true));
+    }
+  }
+
+  private <T> Result<T> runTask(int index, IntFunction<T> task) {
+    checkForTimeout();
+    return new Result<>(index, task.apply(index));
+  }
+
+  private void checkForTimeout() {
+    if (System.nanoTime() - deadline > 0) {
+      throw new OTPRequestTimeoutException();
+    }
+    OTPRequestTimeoutException.checkForTimeout();
+  }
+
+  private Egress findEgress(GenericLocation destination) {
+    var egressList = findAccessEgress(destination, EGRESS);
+    var stops = new int[egressList.size()];
+    var durations = new int[egressList.size()];
+    for (int i = 0; i < stops.length; ++i) {
+      stops[i] = egressList.get(i).stop();
+      durations[i] = egressList.get(i).durationInSeconds();
+    }
+    return new Egress(stops, durations);
+  }
+
+  private int[] calculateRow(int origin, Egress[] egresses) {
+    int[] travelTimes = new int[egresses.length];
+    Arrays.fill(travelTimes, UNREACHED);
+
+    var accessList = findAccessEgress(origins.get(origin), ACCESS);
+    checkForTimeout();
+    StopArrivals arrivals = search.route(accessList);
+    if (arrivals == null) {
+      return travelTimes;
+    }
+
+    for (int d = 0; d < egresses.length; ++d) {
+      var egress = egresses[d];
+      for (int i = 0; i < egress.stops().length; ++i) {
+        int stop = egress.stops()[i];
+        // Walking from the origin to a stop and on to the destination is not a transit journey
+        if (!arrivals.reachedByTransit(stop)) {
+          continue;
+        }
+        int travelTime =
+          arrivals.bestTransitArrivalTime(stop) + egress.durations()[i] - search.departureTime();
+        if (
+          travelTime <= maxDuration && (travelTimes[d] == UNREACHED || travelTime < travelTimes[d])
+        ) {
+          travelTimes[d] = travelTime;
+        }
+      }
+    }
+    return travelTimes;
+  }
+
+  /**
+   * Find the access or egress of a location, a location that can not be linked to the street
+   * network has no access or egress.
+   */
+  private List<RoutingAccessEgress> findAccessEgress(
+    GenericLocation location,
+    AccessEgressType type
+  ) {
+    var unknown = new GenericLocation(null, null);
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        serverContext.graph(),
+        type.isAccess() ? location : unknown,
+        type.isAccess() ? unknown : location,
+        StreetMode.WALK,
+        StreetMode.WALK
+      )
+    ) {
+      return search.findAccessEgress(temporaryVertices, type);
+    } catch (RoutingValidationException e) {
+      return List.of();
+    }
+  }
+
+  private static RuntimeException unwrap(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException re) {
+      return re;
+    }
+    return new RuntimeException(e.getCause());
+  }
+
+  /**
+   * Receive a row of the matrix, the travel time in seconds to each destination, or
+   * {@link #UNREACHED}.
+   */
+  @FunctionalInterface
+  public interface RowConsumer<E extends Exception> {
+    void accept(int origin, int[] travelTimes) throws E;
+  }
+
+  @FunctionalInterface
+  private interface ResultConsumer<T, E extends Exception> {
+    void accept(int index, T value) throws E;
+  }
+
+  private record Egress(int[] stops, int[] durations) {}
+
+  private record Result<T>(int index, T value) {}
+}
@@ -0,0 +1,191 @@
+package org.opentripplanner.ext.traveltime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Travel times from each of a list of origins to each of a list of destinations, see
+ * {@link TravelTimeMatrixCalculator}. The rows of the matrix are streamed to the client as soon as
+ * they are ready.
+ * <p>
+ * The number of matrices calculated at the same time is limited, further requests are rejected
+ * with 503 Service Unavailable. Each calculation must complete within the street routing timeout.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  static final int MAX_LOCATIONS = 1000;
+
+  static final int MAX_CONCURRENT_REQUESTS = 4;
+
+  private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory()
+    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+  /**
+   * The searches of all matrix requests share this pool, so the number of parallel searches is
+   * bounded. Each request has at most {@link #POOL_SIZE} searches in the pool at a time, so the
+   * queue is never full while the number of requests is limited. The threads are stopped when the
+   * pool is idle.
+   */
+  private static final ExecutorService THREAD_POOL = createThreadPool();
+
+  private static final Semaphore REQUEST_PERMITS = new Semaphore(MAX_CONCURRENT_REQUESTS);
+
+  private final OtpServerRequestContext serverContext;
+
+  public TravelTimeMatrixResource(@Context OtpServerRequestContext serverContext) {
+    this.serverContext = serverContext;
+  }
+
+  @POST
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public StreamingOutput getMatrix(MatrixRequest request) {
+    if (!REQUEST_PERMITS.tryAcquire()) {
+      throw serviceUnavailable();
+    }
+    TravelTimeMatrixCalculator calculator;
+    try {
+      calculator = createCalculator(request);
+    } catch (RuntimeException e) {
+      REQUEST_PERMITS.release();
+      throw e;
+    }
+
+    return output -> {
+      try (var json = JSON_FACTORY.createGenerator(output)) {
+        json.writeStartObject();
+        json.writeArrayFieldStart("rows");
+        calculator.calculate((origin, travelTimes) -> {
+          json.writeStartObject();
+          json.writeNumberField("origin", origin);
+          json.writeArrayFieldStart("travelTimes");
+          for (int travelTime : travelTimes) {
+            if (travelTime == TravelTimeMatrixCalculator.UNREACHED) {
+              json.writeNull();
+            } else {
+              json.writeNumber(travelTime);
+            }
+          }
+          json.writeEndArray();
+          json.writeEndObject();
+          json.flush();
+        });
+        json.writeEndArray();
+        json.writeEndObject();
+      } catch (RejectedExecutionException e) {
+        throw serviceUnavailable();
+      } finally {
+        REQUEST_PERMITS.release();
+      }
+    };
+  }
+
+  private static ServiceUnavailableException serviceUnavailable() {
+    return new ServiceUnavailableException(
+      "Too many travel time matrix requests, try again later."
+    );
+  }
+
+  private TravelTimeMatrixCalculator createCalculator(MatrixRequest request) {
+    if (request == null) {
+      throw new BadRequestException("The request body is required.");
+    }
+    try {
+      var origins = mapLocations("origins", request.origins());
+      var destinations = mapLocations("destinations", request.destinations());
+      Instant time = request.time() == null
+        ? Instant.now()
+        : OffsetDateTime.parse(request.time()).toInstant();
+      Duration maxDuration = request.maxDuration() == null
+        ? Duration.ofMinutes(45)
+        : Duration.parse(request.maxDuration());
+
+      if (maxDuration.isNegative() || maxDuration.isZero()) {
+        throw new IllegalArgumentException("The maxDuration must be positive: " + maxDuration);
+      }
+      if (maxDuration.compareTo(TravelTimeRequest.MAX_DURATION_LIMIT) > 0) {
+        throw new IllegalArgumentException(
+          "The maxDuration can not be longer than " + TravelTimeRequest.MAX_DURATION_LIMIT
+        );
+      }
+
+      return new TravelTimeMatrixCalculator(
+        serverContext,
+        serverContext.transitService().getRealtimeTransitLayer(),
+        origins,
+        destinations,
+        time,
+        maxDuration,
+        serverContext.defaultRouteRequest().preferences().street().routingTimeout(),
+        THREAD_POOL,
+        POOL_SIZE
+      );
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BadRequestException(e.getMessage());
+    }
+  }
+
+  private static List<GenericLocation> mapLocations(String name, List<Location> locations) {
+    if (locations == null || locations.isEmpty()) {
+      throw new IllegalArgumentException("At least one of the " + name + " is required.");
+    }
+    if (locations.size() > MAX_LOCATIONS) {
+      throw new IllegalArgumentException(
+        "The number of " + name + " can not be more than " + MAX_LOCATIONS
+      );
+    }
+    return locations.stream().map(it -> new GenericLocation(it.lat(), it.lon())).toList();
+  }
+
+  private static ExecutorService createThreadPool() {
+    var pool = new ThreadPoolExecutor(
+      POOL_SIZE,
+      POOL_SIZE,
+      1,
+      TimeUnit.MINUTES,
+      new ArrayBlockingQueue<>(POOL_SIZE * MAX_CONCURRENT_REQUESTS),
+      OtpRequestThreadFactory.of("traveltime-matrix-%d")
+    );
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * @param time The departure time, as an ISO-8601 date-time with offset, the default is now
+   * @param maxDuration The maximum travel time, as an ISO-8601 duration, the default is 45 minutes
+   */
+  public record MatrixRequest(
+    List<Location> origins,
+    List<Location> destinations,
+    String time,
+    String maxDuration
+  ) {}
+
+  public record Location(double lat, double lon) {}
+}
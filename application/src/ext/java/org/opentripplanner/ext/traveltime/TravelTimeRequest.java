@@ -0,0 +1,60 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+
+/**
+ * The parameters of a travel time calculation. The request is also used as (a part of) the key
+ * in the result cache, so the time is truncated to whole seconds.
+ *
+ * @param location The origin of the search
+ * @param time The departure time from the origin
+ * @param maxDuration The maximum travel time, the calculation does not go beyond this
+ * @param cellSize The width and height of a cell in the travel time grid in meters
+ */
+public record TravelTimeRequest(
+  WgsCoordinate location,
+  Instant time,
+  Duration maxDuration,
+  int cellSize
+) {
+  /**
+   * The travel time is encoded as an unsigned short in the binary grid, so the limit must be well
+   * below 18 hours. Large values also make the search expensive.
+   */
+  public static final Duration MAX_DURATION_LIMIT = Duration.ofHours(4);
+  public static final int MIN_CELL_SIZE = 25;
+  public static final int MAX_CELL_SIZE = 5000;
+
+  public TravelTimeRequest {
+    Objects.requireNonNull(location);
+    time = Objects.requireNonNull(time).truncatedTo(ChronoUnit.SECONDS);
+    Objects.requireNonNull(maxDuration);
+
+    if (maxDuration.isNegative() || maxDuration.isZero()) {
+      throw new IllegalArgumentException("The maxDuration must be positive: " + maxDuration);
+    }
+    if (maxDuration.compareTo(MAX_DURATION_LIMIT) > 0) {
+      throw new IllegalArgumentException(
+        "The maxDuration can not be longer than " + MAX_DURATION_LIMIT + ": " + maxDuration
+      );
+    }
+    if (cellSize < MIN_CELL_SIZE || cellSize > MAX_CELL_SIZE) {
+      throw new IllegalArgumentException(
+        "The cellSize must be in range [" +
+        MIN_CELL_SIZE +
+        ", " +
+        MAX_CELL_SIZE +
+        "]: " +
+        cellSize
+      );
+    }
+  }
+
+  public int maxDurationSeconds() {
+    return (int) maxDuration.toSeconds();
+  }
+}
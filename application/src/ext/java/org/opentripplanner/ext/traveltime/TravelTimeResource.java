@@ -0,0 +1,120 @@
+package org.opentripplanner.ext.traveltime;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+/**
+ * Travel times from an origin to the stops and streets reachable by walking and transit, see
+ * {@link TravelTimeCalculator}. The results are cached, so the different formats can be fetched
+ * for the same origin without calculating the travel times again.
+ */
+@Path("/traveltime")
+public class TravelTimeResource {
+
+  private static final Duration CACHE_DURATION = Duration.ofMinutes(10);
+  private static final int CACHE_SIZE = 50;
+
+  /**
+   * A request without a time departs now. The time is rounded down to the minute, so requests
+   * made in the same minute share the cached result.
+   */
+  private static final ChronoUnit DEFAULT_TIME_RESOLUTION = ChronoUnit.MINUTES;
+
+  private static final TravelTimeResultCache CACHE = new TravelTimeResultCache(
+    CACHE_SIZE,
+    CACHE_DURATION
+  );
+
+  private final OtpServerRequestContext serverContext;
+  private final TravelTimeRequest request;
+
+  public TravelTimeResource(
+    @Context OtpServerRequestContext serverContext,
+    @QueryParam("location") String location,
+    @QueryParam("time") String time,
+    @QueryParam("maxDuration") @DefaultValue("PT45M") String maxDuration,
+    @QueryParam("cellSize") @DefaultValue("200") int cellSize
+  ) {
+    this.serverContext = serverContext;
+    try {
+      this.request =
+        new TravelTimeRequest(
+          parseLocation(location),
+          time == null ? defaultTime() : OffsetDateTime.parse(time).toInstant(),
+          Duration.parse(maxDuration),
+          cellSize
+        );
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new BadRequestException(e.getMessage());
+    }
+  }
+
+  /** The travel time to each reached stop, as GeoJSON points. */
+  @GET
+  @Path("/stops")
+  @Produces(MediaType.APPLICATION_JSON)
+  public StreamingOutput getStops() {
+    var result = calculate();
+    return output -> TravelTimeGeoJsonWriter.writeStops(result.stops(), output);
+  }
+
+  /** The travel time to each reached cell in the grid, as GeoJSON polygons. */
+  @GET
+  @Path("/surface")
+  @Produces(MediaType.APPLICATION_JSON)
+  public StreamingOutput getSurface() {
+    var result = calculate();
+    return output -> TravelTimeGeoJsonWriter.writeGrid(result.grid(), output);
+  }
+
+  /** The travel time grid in a compact binary format, see {@link TravelTimeGrid#writeBinary}. */
+  @GET
+  @Path("/grid")
+  @Produces(MediaType.APPLICATION_OCTET_STREAM)
+  public StreamingOutput getGrid() {
+    var result = calculate();
+    return output -> result.grid().writeBinary(output);
+  }
+
+  private TravelTimeResult calculate() {
+    var transitLayer = serverContext.transitService().getRealtimeTransitLayer();
+    return CACHE.get(
+      request,
+      transitLayer,
+      () -> new TravelTimeCalculator(serverContext, transitLayer, request).calculate()
+    );
+  }
+
+  private static Instant defaultTime() {
+    return Instant.now().truncatedTo(DEFAULT_TIME_RESOLUTION);
+  }
+
+  private static WgsCoordinate parseLocation(String location) {
+    if (location == null) {
+      throw new IllegalArgumentException("The location is required.");
+    }
+    String[] parts = location.split(",");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("The location must be on the form 'lat,lon': " + location);
+    }
+    return new WgsCoordinate(
+      Double.parseDouble(parts[0].trim()),
+      Double.parseDouble(parts[1].trim())
+    )
+      .roundToApproximate10m();
+  }
+}
@@ -0,0 +1,22 @@
+package org.opentripplanner.ext.traveltime;
+
+import java.time.Instant;
+import java.util.List;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * The result of a travel time calculation, the stops and the street grid reached within the
+ * maximum duration.
+ */
+public record TravelTimeResult(
+  Instant departureTime,
+  List<StopTravelTime> stops,
+  TravelTimeGrid grid
+) {
+  /**
+   * @param travelTime The travel time in seconds from the departure at the origin
+   * @param reachedByTransit {@code true} if the stop is reached fastest by transit, {@code false}
+   *                         if it is reached fastest by walking from the origin
+   */
+  public record StopTravelTime(StopLocation stop, int travelTime, boolean reachedByTransit) {}
+}
@@ -0,0 +1,58 @@
+package org.opentripplanner.ext.traveltime;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+
+/**
+ * Cache the travel time results for the current transit layer. A new transit layer is published
+ * when the realtime data is updated. The cached results are dropped when a request is made with a
+ * new layer, so only one transit layer is referenced by the cache.
+ * <p>
+ * A request still using the previous layer after a new one is published replaces the cache
+ * again. This only happens for requests started just before the layer is published, and the cost
+ * is a cache miss.
+ */
+class TravelTimeResultCache {
+
+  private final int maxSize;
+  private final Duration expireAfterWrite;
+
+  private TransitLayer transitLayer;
+  private Cache<TravelTimeRequest, TravelTimeResult> results;
+
+  TravelTimeResultCache(int maxSize, Duration expireAfterWrite) {
+    this.maxSize = maxSize;
+    this.expireAfterWrite = expireAfterWrite;
+  }
+
+  /**
+   * Return the cached result for the request and transit layer, or calculate and cache it.
+   */
+  TravelTimeResult get(
+    TravelTimeRequest request,
+    TransitLayer transitLayer,
+    Supplier<TravelTimeResult> calculator
+  ) {
+    var cache = cacheFor(transitLayer);
+    var result = cache.getIfPresent(request);
+    if (result == null) {
+      result = calculator.get();
+      cache.put(request, result);
+    }
+    return result;
+  }
+
+  private synchronized Cache<TravelTimeRequest, TravelTimeResult> cacheFor(
+    TransitLayer transitLayer
+  ) {
+    if (transitLayer != this.transitLayer) {
+      this.transitLayer = transitLayer;
+      this.results =
+        CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(expireAfterWrite).build();
+    }
+    return results;
+  }
+}
@@ -37,7 +37,7 @@ abstract class VehicleRentalLayerBuilder<T extends VehicleRentalPlace> extends L
     if (service == null) {
       return List.of();
     }
-    return getVehicleRentalPlaces(service)
+    return getVehicleRentalPlaces(service, query)
       .stream()
       .map(rental -> {
         Coordinate coordinate = new Coordinate(rental.getLongitude(), rental.getLatitude());
@@ -48,7 +48,13 @@ abstract class VehicleRentalLayerBuilder<T extends VehicleRentalPlace> extends L
       .toList();
   }
 
-  protected abstract Collection<T> getVehicleRentalPlaces(VehicleRentalService service);
+  /**
+   * The places to include in the layer, the ones outside the query envelope may be left out.
+   */
+  protected abstract Collection<T> getVehicleRentalPlaces(
+    VehicleRentalService service,
+    Envelope query
+  );
 
   enum MapperType {
     Digitransit,
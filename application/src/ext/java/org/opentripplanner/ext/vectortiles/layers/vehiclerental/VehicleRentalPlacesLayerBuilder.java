@@ -3,6 +3,7 @@ package org.opentripplanner.ext.vectortiles.layers.vehiclerental;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.ext.vectortiles.layers.vehiclerental.mapper.DigitransitVehicleRentalPropertyMapper;
 import org.opentripplanner.inspector.vector.LayerParameters;
@@ -24,7 +25,10 @@ public class VehicleRentalPlacesLayerBuilder extends VehicleRentalLayerBuilder<V
   }
 
   @Override
-  protected Collection<VehicleRentalPlace> getVehicleRentalPlaces(VehicleRentalService service) {
-    return service.getVehicleRentalPlaces();
+  protected Collection<VehicleRentalPlace> getVehicleRentalPlaces(
+    VehicleRentalService service,
+    Envelope query
+  ) {
+    return service.getVehicleRentalPlacesForEnvelope(query);
   }
 }
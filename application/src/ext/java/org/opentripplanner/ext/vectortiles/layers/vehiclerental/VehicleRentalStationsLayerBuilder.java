@@ -5,6 +5,7 @@ import static java.util.Map.entry;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.ext.vectortiles.layers.vehiclerental.mapper.DigitransitRealtimeVehicleRentalStationPropertyMapper;
 import org.opentripplanner.ext.vectortiles.layers.vehiclerental.mapper.DigitransitVehicleRentalStationPropertyMapper;
@@ -34,7 +35,15 @@ public class VehicleRentalStationsLayerBuilder
   }
 
   @Override
-  protected Collection<VehicleRentalStation> getVehicleRentalPlaces(VehicleRentalService service) {
-    return service.getVehicleRentalStations();
+  protected Collection<VehicleRentalStation> getVehicleRentalPlaces(
+    VehicleRentalService service,
+    Envelope query
+  ) {
+    return service.getVehicleRentalStationForEnvelope(
+      query.getMinX(),
+      query.getMinY(),
+      query.getMaxX(),
+      query.getMaxY()
+    );
   }
 }
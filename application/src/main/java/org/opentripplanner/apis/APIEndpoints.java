@@ -11,6 +11,7 @@ import static org.opentripplanner.framework.application.OTPFeature.ReportApi;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIGeocoder;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIMapboxVectorTilesApi;
 import static org.opentripplanner.framework.application.OTPFeature.SandboxAPIParkAndRideApi;
+import static org.opentripplanner.framework.application.OTPFeature.SandboxAPITravelTime;
 import static org.opentripplanner.framework.application.OTPFeature.TransmodelGraphQlApi;
 
 import java.util.ArrayList;
@@ -31,6 +32,8 @@ import org.opentripplanner.ext.restapi.resources.BikeRental;
 import org.opentripplanner.ext.restapi.resources.IndexAPI;
 import org.opentripplanner.ext.restapi.resources.PlannerResource;
 import org.opentripplanner.ext.restapi.resources.Routers;
+import org.opentripplanner.ext.traveltime.TravelTimeMatrixResource;
+import org.opentripplanner.ext.traveltime.TravelTimeResource;
 import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.framework.application.OTPFeature;
 
@@ -61,6 +64,8 @@ public class APIEndpoints {
     addIfEnabled(SandboxAPIMapboxVectorTilesApi, VectorTilesResource.class);
     addIfEnabled(SandboxAPIParkAndRideApi, ParkAndRideResource.class);
     addIfEnabled(SandboxAPIGeocoder, GeocoderResource.class);
+    addIfEnabled(SandboxAPITravelTime, TravelTimeResource.class);
+    addIfEnabled(SandboxAPITravelTime, TravelTimeMatrixResource.class);
 
     // scheduled to be removed
     addIfEnabled(APIBikeRental, BikeRental.class);
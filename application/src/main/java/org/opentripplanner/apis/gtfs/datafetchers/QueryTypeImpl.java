@@ -273,13 +273,13 @@ public class QueryTypeImpl implements GraphQLDataFetchers.GraphQLQueryType {
 
       TransitService transitService = getTransitService(environment);
 
-      return new GtfsRealtimeFuzzyTripMatcher(transitService)
-        .getTrip(
-          transitService.getRouteForId(FeedScopedId.parse(args.getGraphQLRoute())),
-          DIRECTION_MAPPER.map(args.getGraphQLDirection()),
-          args.getGraphQLTime(),
-          ServiceDateUtils.parseString(args.getGraphQLDate())
-        );
+      return GtfsRealtimeFuzzyTripMatcher.findTrip(
+        transitService,
+        transitService.getRouteForId(FeedScopedId.parse(args.getGraphQLRoute())),
+        DIRECTION_MAPPER.map(args.getGraphQLDirection()),
+        args.getGraphQLTime(),
+        ServiceDateUtils.parseString(args.getGraphQLDate())
+      );
     };
   }
 
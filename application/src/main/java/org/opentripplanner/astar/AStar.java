@@ -7,7 +7,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.AStarQueue;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
@@ -47,7 +47,7 @@ public class AStar<
   private final Duration timeout;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final AStarQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -62,6 +62,8 @@ public class AStar<
     Set<Vertex> toVertices,
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
+    boolean indexedShortestPathTree,
+    AStarQueue<State> queue,
     Duration timeout,
     Collection<State> initialStates
   ) {
@@ -74,10 +76,9 @@ public class AStar<
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
 
-    this.spt = new ShortestPathTree<>(dominanceFunction);
+    this.spt = new ShortestPathTree<>(dominanceFunction, indexedShortestPathTree);
 
-    // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = queue;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -103,6 +104,32 @@ public class AStar<
       .collect(Collectors.toList());
   }
 
+  /* Methods used by the BidirectionalAStar to step the search */
+
+  boolean isQueueEmpty() {
+    return pq.empty();
+  }
+
+  int queueSize() {
+    return pq.size();
+  }
+
+  double minQueueKey() {
+    return pq.peek_min_key();
+  }
+
+  /**
+   * Visit the next state in the queue and relax its edges. Return the visited state, or
+   * {@code null} if the state was dominated since it was enqueued.
+   */
+  State visitNext() {
+    return iterate() ? u : null;
+  }
+
+  ShortestPathTree<State, Edge, Vertex> shortestPathTree() {
+    return spt;
+  }
+
   private boolean iterate() {
     // print debug info
     if (verbose) {
@@ -6,6 +6,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
+import org.opentripplanner.astar.model.AStarQueue;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
@@ -26,6 +29,7 @@ public abstract class AStarBuilder<
 
   private Builder builder;
   private RemainingWeightHeuristic<State> heuristic = RemainingWeightHeuristic.TRIVIAL;
+  private RemainingWeightHeuristic<State> reverseHeuristic = RemainingWeightHeuristic.TRIVIAL;
   private SkipEdgeStrategy<State, Edge> skipEdgeStrategy;
   private TraverseVisitor<State, Edge> traverseVisitor;
   private boolean arriveBy;
@@ -33,6 +37,10 @@ public abstract class AStarBuilder<
   private Set<Vertex> toVertices;
   private SearchTerminationStrategy<State> terminationStrategy;
   private DominanceFunction<State> dominanceFunction;
+  private boolean indexedShortestPathTree = false;
+  private boolean bidirectional = false;
+  // Initialized with a reasonable size, see #4445
+  private Supplier<AStarQueue<State>> queueFactory = () -> new BinHeap<>(1000);
   private Edge originBackEdge;
   private Collection<State> initialStates;
 
@@ -62,10 +70,6 @@ public abstract class AStarBuilder<
     return builder;
   }
 
-  protected boolean arriveBy() {
-    return arriveBy;
-  }
-
   public Builder setFrom(Set<Vertex> fromVertices) {
     this.fromVertices = fromVertices;
     return builder;
@@ -99,6 +103,44 @@ public abstract class AStarBuilder<
 
   protected abstract Duration streetRoutingTimeout();
 
+  /**
+   * Store the states in the shortest path tree by the dense vertex index, see
+   * {@link AStarVertex#getIndex()}, instead of in an identity hash map. This is faster and
+   * allocates less when the vertices are indexed, vertices without an index are still supported.
+   */
+  public Builder setIndexedShortestPathTree(boolean indexedShortestPathTree) {
+    this.indexedShortestPathTree = indexedShortestPathTree;
+    return builder;
+  }
+
+  /**
+   * Create the priority queue used by the search, the default is a {@link BinHeap}. A
+   * bidirectional search creates one queue for each direction.
+   */
+  public Builder setQueueFactory(Supplier<AStarQueue<State>> queueFactory) {
+    this.queueFactory = queueFactory;
+    return builder;
+  }
+
+  /**
+   * Search from both ends at the same time when looking for the paths to the target, see
+   * {@link BidirectionalAStar}. This is ignored if a termination strategy or the initial states are
+   * set, and when building the shortest path tree.
+   */
+  public Builder setBidirectional(boolean bidirectional) {
+    this.bidirectional = bidirectional;
+    return builder;
+  }
+
+  /**
+   * The heuristic used by the search from the destination in a bidirectional search. The heuristic
+   * must be a separate instance, it is initialized towards the origin.
+   */
+  public Builder setReverseHeuristic(RemainingWeightHeuristic<State> reverseHeuristic) {
+    this.reverseHeuristic = reverseHeuristic;
+    return builder;
+  }
+
   public Builder setOriginBackEdge(Edge originBackEdge) {
     this.originBackEdge = originBackEdge;
     return builder;
@@ -114,6 +156,11 @@ public abstract class AStarBuilder<
   }
 
   public List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    boolean canSearchFromBothEnds =
+      toVertices != null && initialStates == null && terminationStrategy == null;
+    if (bidirectional && canSearchFromBothEnds) {
+      return buildBidirectional().getPathsToTarget();
+    }
     return build().getPathsToTarget();
   }
 
@@ -126,15 +173,37 @@ public abstract class AStarBuilder<
     if (this.initialStates != null) {
       initialStates = this.initialStates;
     } else {
-      initialStates = createInitialStates(origin);
-
-      if (originBackEdge != null) {
-        for (var state : initialStates) {
-          state.initBackEdge(originBackEdge);
-        }
-      }
+      initialStates = createPrimaryInitialStates(origin);
     }
 
+    return build(heuristic, arriveBy, origin, destination, initialStates);
+  }
+
+  private BidirectionalAStar<State, Edge, Vertex> buildBidirectional() {
+    final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
+    final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
+
+    return new BidirectionalAStar<>(
+      build(heuristic, arriveBy, origin, destination, createPrimaryInitialStates(origin)),
+      build(
+        reverseHeuristic,
+        !arriveBy,
+        destination,
+        origin,
+        createInitialStates(destination, !arriveBy)
+      ),
+      skipEdgeStrategy,
+      streetRoutingTimeout()
+    );
+  }
+
+  private AStar<State, Edge, Vertex> build(
+    RemainingWeightHeuristic<State> heuristic,
+    boolean arriveBy,
+    Set<Vertex> origin,
+    Set<Vertex> destination,
+    Collection<State> initialStates
+  ) {
     prepareInitialStates(initialStates);
     initializeHeuristic(heuristic, origin, destination, arriveBy);
 
@@ -147,12 +216,27 @@ public abstract class AStarBuilder<
       destination,
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      indexedShortestPathTree,
+      queueFactory.get(),
       streetRoutingTimeout(),
       initialStates
     );
   }
 
-  protected abstract Collection<State> createInitialStates(Set<Vertex> originVertices);
+  private Collection<State> createPrimaryInitialStates(Set<Vertex> origin) {
+    var initialStates = createInitialStates(origin, arriveBy);
+    if (originBackEdge != null) {
+      for (var state : initialStates) {
+        state.initBackEdge(originBackEdge);
+      }
+    }
+    return initialStates;
+  }
+
+  protected abstract Collection<State> createInitialStates(
+    Set<Vertex> originVertices,
+    boolean arriveBy
+  );
 
   protected abstract void prepareInitialStates(Collection<State> initialStates);
 
@@ -0,0 +1,147 @@
+package org.opentripplanner.astar;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Find the shortest path between two sets of vertices by running two A* searches towards each
+ * other and joining them where they meet. The primary search runs in the direction of the request,
+ * from the origin for a depart-after search and from the destination for an arrive-by search. The
+ * secondary search runs in the opposite direction, from the other end.
+ * <p>
+ * When a state is visited in one search, it is joined with each state at the same vertex in the
+ * other search. The states of the two searches can not simply be added together, so the path is
+ * joined by traversing the edges of the secondary part again from the primary state. This gives
+ * a path with exact times and weights, including the turn cost at the meeting vertex, and any
+ * combination the traversal does not allow, like a change of mode, is rejected.
+ * <p>
+ * The search stops when the lowest key in either queue is not lower than the weight of the best
+ * path found, the "symmetric" stopping criterion. Any better path would have a state in each queue
+ * with a key lower than its weight, as long as the heuristics are admissible. Without heuristics
+ * the two searches explore two balls of about half the radius, and about half the states of a
+ * unidirectional search.
+ * <p>
+ * The secondary search starts at the time of the request, not at the unknown time of the other
+ * end of the path. This is only suitable for searches where the weights do not depend on the time
+ * of day, like direct walking, cycling or driving.
+ */
+class BidirectionalAStar<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BidirectionalAStar.class);
+
+  private final AStar<State, Edge, Vertex> primary;
+  private final AStar<State, Edge, Vertex> secondary;
+  private final SkipEdgeStrategy<State, Edge> skipEdgeStrategy;
+  private final Duration timeout;
+
+  private State bestState;
+  private double bestWeight = Double.POSITIVE_INFINITY;
+
+  BidirectionalAStar(
+    AStar<State, Edge, Vertex> primary,
+    AStar<State, Edge, Vertex> secondary,
+    SkipEdgeStrategy<State, Edge> skipEdgeStrategy,
+    Duration timeout
+  ) {
+    this.primary = primary;
+    this.secondary = secondary;
+    this.skipEdgeStrategy = skipEdgeStrategy;
+    this.timeout = Objects.requireNonNull(timeout);
+  }
+
+  List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    runSearch();
+
+    return bestState == null ? List.of() : List.of(new GraphPath<>(bestState));
+  }
+
+  private void runSearch() {
+    OTPRequestTimeoutException.checkForTimeout();
+    long abortTime = DateUtils.absoluteTimeout(timeout);
+    int nVisited = 0;
+
+    // If one of the queues is empty, that search has visited every state it can reach, including
+    // the origin states of the other search.
+    while (!primary.isQueueEmpty() && !secondary.isQueueEmpty()) {
+      if (nVisited % 100 == 0 && System.currentTimeMillis() > abortTime) {
+        LOG.warn("Bidirectional search timeout.");
+        primary.shortestPathTree().setAborted();
+        break;
+      }
+      if (primary.minQueueKey() >= bestWeight || secondary.minQueueKey() >= bestWeight) {
+        break;
+      }
+
+      // Expand the search with the smallest queue, this keeps the two searches balanced
+      boolean expandPrimary = primary.queueSize() <= secondary.queueSize();
+      var search = expandPrimary ? primary : secondary;
+      var other = expandPrimary ? secondary : primary;
+
+      State u = search.visitNext();
+      if (u == null) {
+        continue;
+      }
+      ++nVisited;
+
+      var states = other.shortestPathTree().getStates(u.getVertex());
+      if (states == null) {
+        continue;
+      }
+      for (State s : states) {
+        if (u.getWeight() + s.getWeight() >= bestWeight) {
+          continue;
+        }
+        State joined = expandPrimary ? join(u, s) : join(s, u);
+        if (joined != null && joined.getWeight() < bestWeight) {
+          bestState = joined;
+          bestWeight = joined.getWeight();
+        }
+      }
+    }
+    LOG.debug("total vertices visited {}", nVisited);
+  }
+
+  /**
+   * Continue the primary state along the path of the secondary state, from the meeting vertex to
+   * the origin of the secondary search. Return the final state, or {@code null} if the path can not
+   * be traversed from the primary state.
+   */
+  private State join(State primaryState, State secondaryState) {
+    State s = primaryState;
+    for (State it = secondaryState; it.getBackState() != null; it = it.getBackState()) {
+      Edge edge = it.getBackEdge();
+      if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(s, edge)) {
+        return null;
+      }
+      s = lowestWeight(edge.traverse(s));
+      if (s == null) {
+        return null;
+      }
+    }
+    return s.isFinal() ? s : null;
+  }
+
+  private State lowestWeight(State[] states) {
+    State result = null;
+    for (State it : states) {
+      if (result == null || it.getWeight() < result.getWeight()) {
+        result = it;
+      }
+    }
+    return result;
+  }
+}
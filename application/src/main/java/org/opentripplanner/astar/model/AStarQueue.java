@@ -0,0 +1,20 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * The priority queue of states in the A* search, ordered by the weight plus the remaining weight
+ * estimate. The search never changes the key of an element: a state that is dominated after it
+ * is inserted stays in the queue, and is dropped when it is extracted.
+ */
+public interface AStarQueue<T> {
+  int size();
+
+  boolean empty();
+
+  /** The lowest key in the queue, throws an exception if the queue is empty. */
+  double peek_min_key();
+
+  void insert(T e, double p);
+
+  /** Remove and return the element with the lowest key, or {@code null} if the queue is empty. */
+  T extract_min();
+}
@@ -2,7 +2,7 @@ package org.opentripplanner.astar.model;
 
 import java.util.Arrays;
 
-public class BinHeap<T> {
+public class BinHeap<T> implements AStarQueue<T> {
 
   private static final double GROW_FACTOR = 2.0;
 
@@ -0,0 +1,115 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+
+/**
+ * A 4-ary min-heap, an alternative to the {@link BinHeap} for the A* search.
+ * <p>
+ * Each node has four children, so the heap is half as deep as a binary heap. An insert moves the
+ * element up about half as many levels, and an extraction compares the four children of each
+ * node, which are next to each other in the key array and usually in the same cache line. In a
+ * street search there are about as many inserts as extractions, and the queue is often large, see
+ * the {@code AStarQueueBenchmark} for a comparison.
+ * <p>
+ * The keys are stored in a primitive array, next to an array of the elements, and the slot of an
+ * extracted element is cleared so the queue does not keep the states alive. No objects are
+ * allocated except when the arrays grow.
+ */
+public class FourAryHeap<T> implements AStarQueue<T> {
+
+  private static final int ARITY = 4;
+  private static final int MIN_CAPACITY = 16;
+
+  private double[] keys;
+  private Object[] elements;
+  private int size;
+
+  public FourAryHeap() {
+    this(1000);
+  }
+
+  public FourAryHeap(int capacity) {
+    capacity = Math.max(capacity, MIN_CAPACITY);
+    this.keys = new double[capacity];
+    this.elements = new Object[capacity];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (size == 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return keys[0];
+  }
+
+  @Override
+  public void insert(T e, double p) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+    // Move the parents down until the position of the new element is found
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) / ARITY;
+      if (keys[parent] <= p) {
+        break;
+      }
+      keys[i] = keys[parent];
+      elements[i] = elements[parent];
+      i = parent;
+    }
+    keys[i] = p;
+    elements[i] = e;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T extract_min() {
+    if (size == 0) {
+      return null;
+    }
+    T min = (T) elements[0];
+    --size;
+    double lastKey = keys[size];
+    Object last = elements[size];
+    elements[size] = null;
+
+    // Move the smallest children up until the position of the last element is found
+    int i = 0;
+    while (true) {
+      int first = i * ARITY + 1;
+      if (first >= size) {
+        break;
+      }
+      int end = Math.min(first + ARITY, size);
+      int child = first;
+      for (int c = first + 1; c < end; ++c) {
+        if (keys[c] < keys[child]) {
+          child = c;
+        }
+      }
+      if (lastKey <= keys[child]) {
+        break;
+      }
+      keys[i] = keys[child];
+      elements[i] = elements[child];
+      i = child;
+    }
+    if (size > 0) {
+      keys[i] = lastKey;
+      elements[i] = last;
+    }
+    return min;
+  }
+}
@@ -0,0 +1,44 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keep the states in an {@link IdentityHashMap}, this works for any vertex implementation.
+ */
+class IdentityVertexStateMap<State, Vertex> implements VertexStateMap<State, Vertex> {
+
+  private final Map<Vertex, List<State>> stateSets;
+
+  IdentityVertexStateMap(int expectedSize) {
+    this.stateSets = new IdentityHashMap<>(expectedSize);
+  }
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    return stateSets.get(vertex);
+  }
+
+  @Override
+  public void put(Vertex vertex, List<State> states) {
+    stateSets.put(vertex, states);
+  }
+
+  @Override
+  public int size() {
+    return stateSets.size();
+  }
+
+  @Override
+  public Set<Vertex> vertices() {
+    return stateSets.keySet();
+  }
+
+  @Override
+  public Collection<List<State>> values() {
+    return stateSets.values();
+  }
+}
@@ -0,0 +1,154 @@
+package org.opentripplanner.astar.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+
+/**
+ * Keep the states in an open-addressed hash table keyed by the dense vertex index, see
+ * {@link AStarVertex#getIndex()}. The keys are stored in a primitive array and the probing uses
+ * linear probing, so a lookup does not call {@code hashCode()} on the vertex or allocate any map
+ * entries. The vertex of the first state in the slot is compared with the given vertex, so two
+ * vertices with the same index (a vertex removed from the graph keeps its index) are kept apart.
+ * <p>
+ * Vertices without an index (temporary vertices) are kept in a small identity map. The table is
+ * allocated when the first indexed vertex is added, so a search in a graph that is not indexed
+ * yet, like the searches done while building the graph, only uses the identity map.
+ */
+class IndexedVertexStateMap<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+>
+  implements VertexStateMap<State, Vertex> {
+
+  private static final int EMPTY = 0;
+  private static final int INITIAL_CAPACITY = 1 << 13;
+  private static final int UNINDEXED_EXPECTED_SIZE = 64;
+
+  /**
+   * The vertex index plus one, so the default value zero marks an empty slot. Null until the first
+   * indexed vertex is added.
+   */
+  private int[] keys = null;
+  private List<State>[] values = null;
+  private int mask;
+  private int nIndexed = 0;
+  private IdentityVertexStateMap<State, Vertex> unindexed = null;
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      return unindexed == null ? null : unindexed.get(vertex);
+    }
+    if (keys == null) {
+      return null;
+    }
+    int key = index + 1;
+    for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == key && values[i].get(0).getVertex() == vertex) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void put(Vertex vertex, List<State> states) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      if (unindexed == null) {
+        unindexed = new IdentityVertexStateMap<>(UNINDEXED_EXPECTED_SIZE);
+      }
+      unindexed.put(vertex, states);
+      return;
+    }
+    if (keys == null) {
+      allocate(INITIAL_CAPACITY);
+    }
+    int key = index + 1;
+    int i = slot(key);
+    for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+      if (keys[i] == key && values[i].get(0).getVertex() == vertex) {
+        values[i] = states;
+        return;
+      }
+    }
+    keys[i] = key;
+    values[i] = states;
+
+    // Keep the load factor below 0.5, linear probing degrades fast above that
+    if (++nIndexed * 2 > keys.length) {
+      grow();
+    }
+  }
+
+  @Override
+  public int size() {
+    return nIndexed + (unindexed == null ? 0 : unindexed.size());
+  }
+
+  @Override
+  public Set<Vertex> vertices() {
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>(size()));
+    for (List<State> states : values()) {
+      vertices.add(states.get(0).getVertex());
+    }
+    return vertices;
+  }
+
+  @Override
+  public Collection<List<State>> values() {
+    List<List<State>> result = new ArrayList<>(size());
+    if (keys != null) {
+      for (int i = 0; i < keys.length; ++i) {
+        if (keys[i] != EMPTY) {
+          result.add(values[i]);
+        }
+      }
+    }
+    if (unindexed != null) {
+      result.addAll(unindexed.values());
+    }
+    return result;
+  }
+
+  /* private methods */
+
+  /** Fibonacci hashing, spread the dense indexes over the table. */
+  private int slot(int key) {
+    int h = key * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void allocate(int capacity) {
+    this.keys = new int[capacity];
+    this.values = (List<State>[]) new List[capacity];
+    this.mask = capacity - 1;
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    List<State>[] oldValues = values;
+    allocate(oldKeys.length * 2);
+
+    for (int j = 0; j < oldKeys.length; ++j) {
+      if (oldKeys[j] != EMPTY) {
+        int i = slot(oldKeys[j]);
+        while (keys[i] != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+}
@@ -5,11 +5,9 @@ import com.google.common.collect.Multiset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -33,6 +31,10 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * The states are by default kept in an identity hash map. If the vertices have a dense index, see
+ * {@link AStarVertex#getIndex()}, an open-addressed table keyed by the index can be used instead,
+ * see {@link #ShortestPathTree(DominanceFunction, boolean)}.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -44,15 +46,25 @@ public class ShortestPathTree<
 
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  private final VertexStateMap<State, Vertex> stateSets;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
+    this(dominanceFunction, false);
+  }
+
+  /**
+   * @param indexedVertices use the dense vertex index to store the states, this avoids hashing
+   *                        the vertex for each state added or visited. Vertices without an index
+   *                        are still supported.
+   */
+  public ShortestPathTree(DominanceFunction<State> dominanceFunction, boolean indexedVertices) {
     this.dominanceFunction = dominanceFunction;
-    // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
+    // The identity map is initialized with a reasonable size, see #4445
+    this.stateSets =
+      indexedVertices ? new IndexedVertexStateMap<>() : new IdentityVertexStateMap<>(10_000);
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -85,8 +97,7 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    for (List<State> states : stateSets.values()) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
@@ -112,7 +123,7 @@ public class ShortestPathTree<
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    return stateSets.vertices();
   }
 
   /**
@@ -129,11 +140,26 @@ public class ShortestPathTree<
     Vertex vertex = newState.getVertex();
     List<State> states = stateSets.get(vertex);
 
-    // if the vertex has no states, add one and return
+    // if the vertex has no states, add one and return. Most vertices only ever have one state,
+    // so a single element list is used until a co-dominant state is added.
     if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
-      states.add(newState);
+      stateSets.put(vertex, List.of(newState));
+      return true;
+    }
+
+    if (states.size() == 1) {
+      State oldState = states.get(0);
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        stateSets.put(vertex, List.of(newState));
+      } else {
+        states = new ArrayList<>(4);
+        states.add(oldState);
+        states.add(newState);
+        stateSets.put(vertex, states);
+      }
       return true;
     }
 
@@ -193,7 +219,7 @@ public class ShortestPathTree<
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return stateSets.size();
   }
 
   /**
@@ -0,0 +1,24 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The storage used by the {@link ShortestPathTree} to keep the states for each vertex. The lists
+ * stored are never empty.
+ */
+interface VertexStateMap<State, Vertex> {
+  /** Return the states for the given vertex, or {@code null} if the vertex is not reached. */
+  List<State> get(Vertex vertex);
+
+  /** Set the states for the given vertex, the list must not be empty. */
+  void put(Vertex vertex, List<State> states);
+
+  /** The number of vertices reached. */
+  int size();
+
+  Set<Vertex> vertices();
+
+  Collection<List<State>> values();
+}
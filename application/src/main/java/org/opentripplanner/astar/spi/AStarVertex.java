@@ -16,4 +16,13 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A dense, non-negative index identifying this vertex, or {@code -1} if the vertex has no
+   * index. The index is used by the {@link org.opentripplanner.astar.model.ShortestPathTree} to
+   * store states without hashing the vertex.
+   */
+  default int getIndex() {
+    return -1;
+  }
 }
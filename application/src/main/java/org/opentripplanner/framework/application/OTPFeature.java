@@ -18,6 +18,12 @@ public enum OTPFeature {
   APIBikeRental(true, false, "Enable the bike rental endpoint."),
   APIServerInfo(true, false, "Enable the server info endpoint."),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  BidirectionalStreetSearch(
+    false,
+    false,
+    "Search the direct walk, bike and car street routes from both ends at the same time. This " +
+    "visits fewer vertices on long routes, but is not yet validated on large graphs."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
@@ -118,6 +124,7 @@ public enum OTPFeature {
   SandboxAPIGeocoder(false, true, "Enable the Geocoder API."),
   SandboxAPIMapboxVectorTilesApi(false, true, "Enable Mapbox vector tiles API."),
   SandboxAPIParkAndRideApi(false, true, "Enable park-and-ride endpoint."),
+  SandboxAPITravelTime(false, true, "Enable the isochrone/travel time surface API."),
   TransferAnalyzer(false, true, "Analyze transfers during graph build.");
 
   private static final Object TEST_LOCK = new Object();
@@ -0,0 +1,198 @@
+package org.opentripplanner.framework.collection;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable collection where the elements are stored in fixed size chunks. A new version of
+ * the collection is created using the {@link Builder}, and all chunks not changed are shared
+ * between the old and the new version. This makes it cheap to create a new version of a large
+ * collection when only a few elements change, the cost is proportional to the number of
+ * elements added/removed, not the size of the collection. Only the top level array of chunk
+ * references is copied, once for each version.
+ * <p>
+ * The order of the elements is NOT preserved, a removed element leaves a hole which is reused by
+ * the next element added. The collection does not contain duplicates (using {@code equals()}).
+ * <p>
+ * The collection is safe to share between threads, but the {@link Builder} is not.
+ */
+public final class ChunkedCollection<T> extends AbstractCollection<T> {
+
+  static final int CHUNK_SIZE = 64;
+
+  private static final ChunkedCollection<?> EMPTY = new ChunkedCollection<>(new Object[0][], 0);
+
+  private final Object[][] chunks;
+  private final int size;
+
+  private ChunkedCollection(Object[][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> ChunkedCollection<T> empty() {
+    return (ChunkedCollection<T>) EMPTY;
+  }
+
+  /**
+   * Create a new builder initialized with the given elements. This is an {@code O(n)} operation,
+   * the builder should be kept and reused to create new versions of the collection.
+   */
+  public static <T> Builder<T> of(Collection<? extends T> elements) {
+    var builder = new Builder<T>();
+    for (T it : elements) {
+      builder.add(it);
+    }
+    return builder;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<>() {
+      private int chunkIndex = 0;
+      private int index = -1;
+      private Object next = findNext();
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        var result = (T) next;
+        next = findNext();
+        return result;
+      }
+
+      private Object findNext() {
+        while (chunkIndex < chunks.length) {
+          var chunk = chunks[chunkIndex];
+          while (++index < CHUNK_SIZE) {
+            if (chunk[index] != null) {
+              return chunk[index];
+            }
+          }
+          ++chunkIndex;
+          index = -1;
+        }
+        return null;
+      }
+    };
+  }
+
+  /**
+   * Keep track of the slot for each element and the free slots. The builder mutates the chunks
+   * in place, unless they are shared with a collection already built - then a copy of the chunk
+   * is made first.
+   * <p>
+   * THIS CLASS IS NOT THREAD-SAFE.
+   */
+  public static class Builder<T> {
+
+    private final Map<T, Integer> slots = new HashMap<>();
+    private final TIntArrayList freeSlots = new TIntArrayList();
+    private Object[][] chunks = new Object[0][];
+
+    /**
+     * A chunk is owned by this builder, and not shared with a built collection, if the chunk
+     * version is equal to the current version. The version is incremented every time a
+     * collection is built.
+     */
+    private int[] chunkVersions = new int[0];
+    private int version = 1;
+
+    /** The top level array is shared with the last built collection. */
+    private boolean chunksShared = false;
+    private int nextSlot = 0;
+
+    private Builder() {}
+
+    /**
+     * Add the element, if it does not already exist.
+     * @return {@code true} if the element was added.
+     */
+    public boolean add(T element) {
+      if (slots.containsKey(element)) {
+        return false;
+      }
+      int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.removeAt(freeSlots.size() - 1);
+      writableChunk(slot)[slot % CHUNK_SIZE] = element;
+      slots.put(element, slot);
+      return true;
+    }
+
+    /**
+     * Remove the element, if it exists.
+     * @return {@code true} if the element was removed.
+     */
+    public boolean remove(T element) {
+      Integer slot = slots.remove(element);
+      if (slot == null) {
+        return false;
+      }
+      writableChunk(slot)[slot % CHUNK_SIZE] = null;
+      freeSlots.add(slot);
+      return true;
+    }
+
+    public int size() {
+      return slots.size();
+    }
+
+    /**
+     * Create a new immutable collection. The builder can be used to create new versions of the
+     * collection after this. This is an {@code O(1)} operation.
+     */
+    public ChunkedCollection<T> build() {
+      if (slots.isEmpty()) {
+        return empty();
+      }
+      chunksShared = true;
+      ++version;
+      return new ChunkedCollection<>(chunks, slots.size());
+    }
+
+    private Object[] writableChunk(int slot) {
+      int chunkIndex = slot / CHUNK_SIZE;
+
+      if (chunkIndex >= chunks.length) {
+        int newLength = Math.max(chunkIndex + 1, chunks.length * 2);
+        chunks = Arrays.copyOf(chunks, newLength);
+        chunkVersions = Arrays.copyOf(chunkVersions, newLength);
+        chunksShared = false;
+        for (int i = 0; i < newLength; ++i) {
+          if (chunks[i] == null) {
+            chunks[i] = new Object[CHUNK_SIZE];
+            chunkVersions[i] = version;
+          }
+        }
+      } else if (chunksShared) {
+        chunks = chunks.clone();
+        chunksShared = false;
+      }
+
+      if (chunkVersions[chunkIndex] != version) {
+        chunks[chunkIndex] = chunks[chunkIndex].clone();
+        chunkVersions[chunkIndex] = version;
+      }
+      return chunks[chunkIndex];
+    }
+  }
+}
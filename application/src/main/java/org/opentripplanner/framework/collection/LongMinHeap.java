@@ -0,0 +1,82 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive longs. Graph searches can pack an int key in the upper 32 bits
+ * and an int node in the lower 32 bits, see {@link #pack(int, int)}, so the heap needs no boxing
+ * and no separate key array. The key must be non-negative for the packed values to sort by key.
+ * Decrease-key is not supported, an improved node is pushed again and the stale entry is skipped
+ * when it is polled.
+ */
+public final class LongMinHeap {
+
+  private long[] heap;
+  private int size = 0;
+
+  public LongMinHeap(int initialCapacity) {
+    this.heap = new long[Math.max(initialCapacity, 4)];
+  }
+
+  public static long pack(int key, int node) {
+    return ((long) key << 32) | (node & 0xFFFFFFFFL);
+  }
+
+  public static int key(long value) {
+    return (int) (value >> 32);
+  }
+
+  public static int node(long value) {
+    return (int) value;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public long peek() {
+    return heap[0];
+  }
+
+  public void add(long value) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heap[parent] <= value) {
+        break;
+      }
+      heap[i] = heap[parent];
+      i = parent;
+    }
+    heap[i] = value;
+  }
+
+  public long poll() {
+    long result = heap[0];
+    long last = heap[--size];
+    int i = 0;
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      if (child + 1 < size && heap[child + 1] < heap[child]) {
+        ++child;
+      }
+      if (last <= heap[child]) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    if (size > 0) {
+      heap[i] = last;
+    }
+    return result;
+  }
+}
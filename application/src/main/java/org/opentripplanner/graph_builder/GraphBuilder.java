@@ -156,6 +156,13 @@ public class GraphBuilder implements Runnable {
 
     if (loadStreetGraph || hasOsm) {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
+
+      if (!config.contractionHierarchies.isEmpty()) {
+        graphBuilder.addModule(factory.contractionHierarchyModule());
+      }
+      if (config.carLandmarks > 0) {
+        graphBuilder.addModule(factory.landmarkTableModule());
+      }
     }
 
     if (OTPFeature.Co2Emissions.isOn()) {
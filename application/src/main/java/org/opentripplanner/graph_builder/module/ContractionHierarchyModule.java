@@ -0,0 +1,44 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.Set;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.ch.ContractionHierarchyBuilder;
+import org.opentripplanner.street.search.ch.ContractionHierarchyProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build a contraction hierarchy for each of the configured profiles, used to speed up long direct
+ * car and bicycle searches. This must run after the street graph is complete: linked, pruned and
+ * with elevation data.
+ */
+public class ContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyModule.class);
+
+  private final Graph graph;
+  private final Set<ContractionHierarchyProfile> profiles;
+
+  public ContractionHierarchyModule(Graph graph, Set<ContractionHierarchyProfile> profiles) {
+    this.graph = graph;
+    this.profiles = profiles;
+  }
+
+  @Override
+  public void buildGraph() {
+    for (ContractionHierarchyProfile profile : profiles) {
+      LOG.info("Building contraction hierarchy for {}...", profile);
+      long start = System.currentTimeMillis();
+      var hierarchy = new ContractionHierarchyBuilder(graph.getVertices(), profile).build();
+      graph.setContractionHierarchy(profile, hierarchy);
+      LOG.info(
+        "Contraction hierarchy for {} done in {} s: {} vertices, {} arcs including shortcuts.",
+        profile,
+        (System.currentTimeMillis() - start) / 1000,
+        hierarchy.numberOfVertices(),
+        hierarchy.numberOfArcs()
+      );
+    }
+  }
+}
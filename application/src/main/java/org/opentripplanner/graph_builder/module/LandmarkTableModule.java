@@ -0,0 +1,38 @@
+package org.opentripplanner.graph_builder.module;
+
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.landmark.LandmarkTableBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select the landmarks and compute the driving times used by the landmark heuristic for car
+ * searches. This must run after the street graph is complete: linked and pruned.
+ */
+public class LandmarkTableModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LandmarkTableModule.class);
+
+  private final Graph graph;
+  private final int numberOfLandmarks;
+
+  public LandmarkTableModule(Graph graph, int numberOfLandmarks) {
+    this.graph = graph;
+    this.numberOfLandmarks = numberOfLandmarks;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Computing driving times for {} landmarks...", numberOfLandmarks);
+    long start = System.currentTimeMillis();
+    var table = new LandmarkTableBuilder(graph.getVertices(), numberOfLandmarks).build();
+    graph.setLandmarkTable(table);
+    LOG.info(
+      "Landmark table done in {} s: {} landmarks, {} vertices.",
+      (System.currentTimeMillis() - start) / 1000,
+      table.numberOfLandmarks(),
+      table.numberOfVertices()
+    );
+  }
+}
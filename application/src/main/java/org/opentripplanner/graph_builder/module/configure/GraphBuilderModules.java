@@ -23,7 +23,9 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.graph_builder.issue.report.DataImportIssueReporter;
 import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.graph_builder.module.ContractionHierarchyModule;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
+import org.opentripplanner.graph_builder.module.LandmarkTableModule;
 import org.opentripplanner.graph_builder.module.RouteToCentroidStationIdsValidator;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.islandpruning.PruneIslands;
@@ -161,6 +163,21 @@ public class GraphBuilderModules {
     return new StreetLinkerModule(graph, transitModel, issueStore, config.areaVisibility);
   }
 
+  @Provides
+  @Singleton
+  static ContractionHierarchyModule provideContractionHierarchyModule(
+    BuildConfig config,
+    Graph graph
+  ) {
+    return new ContractionHierarchyModule(graph, config.contractionHierarchies);
+  }
+
+  @Provides
+  @Singleton
+  static LandmarkTableModule provideLandmarkTableModule(BuildConfig config, Graph graph) {
+    return new LandmarkTableModule(graph, config.carLandmarks);
+  }
+
   @Provides
   @Singleton
   static PruneIslands providePruneIslands(
@@ -127,6 +127,7 @@ public class StreetNearbyStopFinder implements NearbyStopFinder {
       .of()
       .setSkipEdgeStrategy(getSkipEdgeStrategy())
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setIndexedShortestPathTree(true)
       .setRequest(request)
       .setArriveBy(reverseDirection)
       .setStreetRequest(streetRequest)
@@ -35,7 +35,12 @@ public class RaptorService<T extends RaptorTripSchedule> {
     RaptorResponse<T> response;
 
     if (request.isDynamicSearch()) {
-      response = new RangeRaptorDynamicSearch<>(config, transitData, request).route();
+      var search = new RangeRaptorDynamicSearch<>(config, transitData, request);
+      try {
+        response = search.route();
+      } finally {
+        search.releaseHeuristics();
+      }
     } else {
       response = routeUsingStdWorker(transitData, request);
     }
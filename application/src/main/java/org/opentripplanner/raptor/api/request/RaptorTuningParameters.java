@@ -25,6 +25,16 @@ public interface RaptorTuningParameters {
     return 0;
   }
 
+  /** see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig} **/
+  default int searchWindowChunkSizeInSeconds() {
+    return 0;
+  }
+
+  /** see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig} **/
+  default boolean useCompactStopArrivals() {
+    return false;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
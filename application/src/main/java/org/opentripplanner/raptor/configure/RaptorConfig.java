@@ -1,5 +1,7 @@
 package org.opentripplanner.raptor.configure;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import javax.annotation.Nullable;
@@ -15,9 +17,11 @@ import org.opentripplanner.raptor.rangeraptor.context.SearchContextViaLeg;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.PassThroughPointsService;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RangeRaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ConcurrentMcRangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
@@ -90,13 +94,45 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     } else {
       // The first leg is the only leg
       var leg = context.legs().getFirst();
-      var c = new McRangeRaptorConfig<>(leg, passThroughPointsService).withHeuristics(heuristics);
+      var c = new McRangeRaptorConfig<>(leg, passThroughPointsService)
+        .withHeuristics(heuristics)
+        .withCompactStopArrivals(tuningParameters.useCompactStopArrivals());
       worker = createWorker(leg, c.state(), c.strategy());
     }
 
     return createRangeRaptor(context, worker);
   }
 
+  /**
+   * Create a multi-criteria search where the search-window is split into chunks. Each chunk is
+   * routed as a separate Range Raptor search and the chunks are routed in parallel using the
+   * thread pool. If the search-window can not be split, a plain multi-criteria Range Raptor
+   * search is returned.
+   * <p>
+   * The search-window is only split if a thread pool exists, the
+   * {@link org.opentripplanner.raptor.api.request.Optimization#PARALLEL} optimization is enabled,
+   * the search is a forward search without via locations and the search-window is longer than the
+   * {@link RaptorTuningParameters#searchWindowChunkSizeInSeconds()}.
+   */
+  public RaptorRouter<T> createConcurrentRangeRaptorWithMcWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Heuristics heuristics
+  ) {
+    var chunks = splitSearchWindowInChunks(request);
+
+    if (chunks.size() == 1) {
+      return createRangeRaptorWithMcWorker(transitData, request, heuristics);
+    }
+    // The routers must be created in this thread, the creation is not thread-safe
+    var routers = chunks
+      .stream()
+      .map(it -> createRangeRaptorWithMcWorker(transitData, it, heuristics))
+      .toList();
+
+    return new ConcurrentMcRangeRaptor<>(routers, threadPool);
+  }
+
   public RangeRaptor<T> createRangeRaptorWithHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -110,7 +146,13 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     RaptorRouterResult<T> results
   ) {
     var context = context(transitData, request);
-    return new StdRangeRaptorConfig<>(context).createHeuristics(results);
+    var stdConfig = new StdRangeRaptorConfig<>(context);
+    try {
+      return stdConfig.createHeuristics(results);
+    } finally {
+      // The heuristics only use the arrays of the given results
+      stdConfig.release();
+    }
   }
 
   public boolean isMultiThreaded() {
@@ -137,6 +179,50 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
 
+  /**
+   * Split the search-window into chunks with the size given by the tuning parameters. The chunks
+   * are aligned with the Range Raptor iteration departure times, starting from the end of the
+   * search-window, so the chunks iterate over the same departure times as a search over the
+   * whole window. The last chunk, starting at the earliest-departure-time, may be shorter.
+   */
+  private List<RaptorRequest<T>> splitSearchWindowInChunks(RaptorRequest<T> request) {
+    var s = request.searchParams();
+    int step = tuningParameters.iterationDepartureStepInSeconds();
+    // Round the chunk size up to the closest multiple of the iteration step
+    int chunkSize = step * Math.ceilDiv(tuningParameters.searchWindowChunkSizeInSeconds(), step);
+
+    if (
+      !isMultiThreaded() ||
+      !request.runInParallel() ||
+      chunkSize <= 0 ||
+      request.searchDirection().isInReverse() ||
+      s.hasViaLocations() ||
+      !s.isEarliestDepartureTimeSet() ||
+      !s.isSearchWindowSet() ||
+      s.searchWindowInSeconds() <= chunkSize
+    ) {
+      return List.of(request);
+    }
+
+    var chunks = new ArrayList<RaptorRequest<T>>();
+    int edt = s.earliestDepartureTime();
+
+    for (int end = edt + s.searchWindowInSeconds(); end > edt; end -= chunkSize) {
+      int start = Math.max(edt, end - chunkSize);
+      chunks.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(start)
+          .searchWindowInSeconds(end - start)
+          .build()
+      );
+    }
+    // The first chunk is routed in the calling thread, we want this to be the chunk which
+    // include the earliest-departure-time
+    return chunks.reversed();
+  }
+
   private RangeRaptorWorker<T> createWorker(
     SearchContextViaLeg<T> ctxLeg,
     RaptorWorkerState<T> workerState,
@@ -32,4 +32,12 @@ public interface RaptorRouterResult<T extends RaptorTripSchedule> {
    * Return {@code true} if the destination was reached at least once.
    */
   boolean isDestinationReached();
+
+  /**
+   * Return any pooled state used by the search, so it can be reused by the next search. The
+   * result, and the stop arrivals and heuristics extracted from it, can not be used after this.
+   * Releasing the result is optional, the state is garbage collected if the result is not
+   * released.
+   */
+  default void release() {}
 }
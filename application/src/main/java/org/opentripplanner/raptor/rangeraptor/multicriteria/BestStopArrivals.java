@@ -0,0 +1,17 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+/**
+ * The best values for each stop, extracted from the multi-criteria stop arrivals when the search
+ * is complete. These methods may be slow, do not use them during routing.
+ */
+public interface BestStopArrivals {
+  boolean reached(int stopIndex);
+
+  int bestArrivalTime(int stopIndex);
+
+  boolean reachedByTransit(int stopIndex);
+
+  int bestTransitArrivalTime(int stopIndex);
+
+  int smallestNumberOfTransfers(int stopIndex);
+}
@@ -13,13 +13,13 @@ import org.opentripplanner.raptor.util.paretoset.ParetoSetEventListener;
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
-class CalculateTransferToDestination<T extends RaptorTripSchedule>
+public class CalculateTransferToDestination<T extends RaptorTripSchedule>
   implements ParetoSetEventListener<ArrivalView<T>> {
 
   private final List<RaptorAccessEgress> egressPaths;
   private final DestinationArrivalPaths<T> destinationArrivals;
 
-  CalculateTransferToDestination(
+  public CalculateTransferToDestination(
     List<RaptorAccessEgress> egressPaths,
     DestinationArrivalPaths<T> destinationArrivals
   ) {
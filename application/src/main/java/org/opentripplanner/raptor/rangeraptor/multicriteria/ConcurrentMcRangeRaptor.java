@@ -0,0 +1,83 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.util.StoppableTask;
+
+/**
+ * Route a multi-criteria Range Raptor search where the search-window is split into chunks. Each
+ * chunk is a separate Range Raptor search with its own worker state. The first chunk is routed
+ * in the calling thread, the rest is routed in parallel using the given thread pool. When all
+ * chunks are done, the paths are merged into the pareto set of the first chunk.
+ * <p>
+ * A chunk can not reuse the stop arrivals from the later departures in the next chunk, so the
+ * total amount of work is larger than for one sequential search, and the pareto set of the
+ * destination may contain paths the sequential search would have pruned along the way. The
+ * merged paths are pareto-optimal with respect to the same criteria.
+ * <p>
+ * The stop arrivals of the result are the stop arrivals of the first chunk.
+ */
+public final class ConcurrentMcRangeRaptor<T extends RaptorTripSchedule>
+  implements RaptorRouter<T> {
+
+  private final List<? extends RaptorRouter<T>> chunks;
+  private final ExecutorService threadPool;
+
+  /**
+   * @param chunks The searches for each chunk of the search-window. The first chunk is routed in
+   *               the calling thread. The routers must return a {@link McRaptorRouterResult}.
+   */
+  public ConcurrentMcRangeRaptor(
+    List<? extends RaptorRouter<T>> chunks,
+    ExecutorService threadPool
+  ) {
+    if (chunks.isEmpty()) {
+      throw new IllegalArgumentException("At least one chunk is required.");
+    }
+    this.chunks = chunks;
+    this.threadPool = threadPool;
+  }
+
+  @Override
+  public RaptorRouterResult<T> route() {
+    var asyncResults = new ArrayList<StoppableTask<RaptorRouterResult<T>>>();
+    try {
+      for (var chunk : chunks.subList(1, chunks.size())) {
+        asyncResults.add(StoppableTask.submit(threadPool, chunk::route));
+      }
+      var result = (McRaptorRouterResult<T>) chunks.getFirst().route();
+
+      for (var it : asyncResults) {
+        result.mergePaths(it.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to route the search-window chunks in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } finally {
+      // Propagate the interruption to the running tasks if the search fails or times out, this
+      // has no effect on completed tasks. The chunks use the heuristics, which are returned to
+      // the pool when the search returns, so wait for all tasks to stop.
+      for (var it : asyncResults) {
+        it.cancel();
+      }
+      for (var it : asyncResults) {
+        it.awaitStopped();
+      }
+    }
+  }
+}
@@ -9,10 +9,10 @@ import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
 
 public class McRaptorRouterResult<T extends RaptorTripSchedule> implements RaptorRouterResult<T> {
 
-  private final McStopArrivals<T> stopArrivals;
+  private final BestStopArrivals stopArrivals;
   private final DestinationArrivalPaths<T> paths;
 
-  public McRaptorRouterResult(McStopArrivals<T> arrivals, DestinationArrivalPaths<T> paths) {
+  public McRaptorRouterResult(BestStopArrivals arrivals, DestinationArrivalPaths<T> paths) {
     stopArrivals = arrivals;
     this.paths = paths;
   }
@@ -22,6 +22,14 @@ public class McRaptorRouterResult<T extends RaptorTripSchedule> implements Rapto
     return paths.listPaths();
   }
 
+  /**
+   * Merge the paths of the given result into the paths of this result, only the pareto-optimal
+   * paths are kept. The stop arrivals of this result are NOT changed.
+   */
+  public void mergePaths(RaptorRouterResult<T> other) {
+    paths.addAll(other.extractPaths());
+  }
+
   @Override
   public SingleCriteriaStopArrivals extractBestOverallArrivals() {
     return new SingleCriteriaStopArrivals() {
@@ -27,7 +27,7 @@ import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
-public final class McStopArrivals<T extends RaptorTripSchedule> {
+public final class McStopArrivals<T extends RaptorTripSchedule> implements BestStopArrivals {
 
   private final StopArrivalParetoSet<T>[] arrivals;
   private final BitSet touchedStops;
@@ -73,16 +73,19 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     initEgressStopAndGlueItToDestinationArrivals(egressPaths, paths);
   }
 
-  boolean reached(int stopIndex) {
+  @Override
+  public boolean reached(int stopIndex) {
     return arrivals[stopIndex] != null && !arrivals[stopIndex].isEmpty();
   }
 
   /** Slow! do not use during routing! */
-  int bestArrivalTime(int stopIndex) {
+  @Override
+  public int bestArrivalTime(int stopIndex) {
     return minInt(arrivals[stopIndex].stream(), McStopArrival::arrivalTime);
   }
 
-  boolean reachedByTransit(int stopIndex) {
+  @Override
+  public boolean reachedByTransit(int stopIndex) {
     return (
       arrivals[stopIndex] != null &&
       arrivals[stopIndex].stream().anyMatch(a -> a.arrivedBy(TRANSIT))
@@ -90,12 +93,14 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
   }
 
   /** Slow! do not use during routing! */
-  int bestTransitArrivalTime(int stopIndex) {
+  @Override
+  public int bestTransitArrivalTime(int stopIndex) {
     return transitStopArrivalsMinInt(stopIndex, McStopArrival::arrivalTime);
   }
 
   /** Slow! do not use during routing! */
-  int smallestNumberOfTransfers(int stopIndex) {
+  @Override
+  public int smallestNumberOfTransfers(int stopIndex) {
     return transitStopArrivalsMinInt(stopIndex, McStopArrival::numberOfTransfers);
   }
 
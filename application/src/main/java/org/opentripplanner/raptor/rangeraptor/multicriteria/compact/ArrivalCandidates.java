@@ -0,0 +1,94 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import java.util.Arrays;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+
+/**
+ * The new stop arrivals found in a round, cached until the transit or transfer phase of the round
+ * is complete. The candidates are kept in primitive arrays and reused for all rounds and
+ * iterations. A candidate is written to the {@link StopArrivalStore} when it is added to the
+ * pareto-set of its stop.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class ArrivalCandidates<T extends RaptorTripSchedule> {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private int[] previous = new int[INITIAL_CAPACITY];
+  private int[] stops = new int[INITIAL_CAPACITY];
+  private int[] arrivalTimes = new int[INITIAL_CAPACITY];
+  private int[] c1s = new int[INITIAL_CAPACITY];
+  private boolean[] transfers = new boolean[INITIAL_CAPACITY];
+
+  /** The trip or the transfer, the references are removed when the candidates are cleared. */
+  private Object[] legs = new Object[INITIAL_CAPACITY];
+  private int size = 0;
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    Arrays.fill(legs, 0, size, null);
+    size = 0;
+  }
+
+  void addTransitArrival(int prev, int stop, int arrivalTime, int c1, T trip) {
+    ensureCapacity();
+    previous[size] = prev;
+    stops[size] = stop;
+    arrivalTimes[size] = arrivalTime;
+    c1s[size] = c1;
+    transfers[size] = false;
+    legs[size] = trip;
+    ++size;
+  }
+
+  void addTransferArrival(int prev, RaptorTransfer transfer, int arrivalTime) {
+    ensureCapacity();
+    previous[size] = prev;
+    stops[size] = transfer.stop();
+    arrivalTimes[size] = arrivalTime;
+    transfers[size] = true;
+    legs[size] = transfer;
+    ++size;
+  }
+
+  /**
+   * Write the candidate with the given index to the store.
+   * @return the handle of the new arrival, which must be committed to be kept.
+   */
+  @SuppressWarnings("unchecked")
+  int write(int index, StopArrivalStore<T> store) {
+    if (transfers[index]) {
+      return store.newTransferArrival(
+        previous[index],
+        (RaptorTransfer) legs[index],
+        arrivalTimes[index]
+      );
+    }
+    return store.newTransitArrival(
+      previous[index],
+      stops[index],
+      arrivalTimes[index],
+      c1s[index],
+      (T) legs[index]
+    );
+  }
+
+  private void ensureCapacity() {
+    if (size == stops.length) {
+      int newCapacity = size * 2;
+      previous = Arrays.copyOf(previous, newCapacity);
+      stops = Arrays.copyOf(stops, newCapacity);
+      arrivalTimes = Arrays.copyOf(arrivalTimes, newCapacity);
+      c1s = Arrays.copyOf(c1s, newCapacity);
+      transfers = Arrays.copyOf(transfers, newCapacity);
+      legs = Arrays.copyOf(legs, newCapacity);
+    }
+  }
+}
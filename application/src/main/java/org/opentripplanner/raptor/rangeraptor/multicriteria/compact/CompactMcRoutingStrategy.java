@@ -0,0 +1,183 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import static org.opentripplanner.raptor.api.model.PathLegType.ACCESS;
+
+import java.util.Objects;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SlackProvider;
+import org.opentripplanner.raptor.rangeraptor.support.TimeBasedBoardingSupport;
+import org.opentripplanner.raptor.spi.RaptorBoardOrAlightEvent;
+import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.raptor.spi.RaptorRoute;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * The multi-criteria routing strategy used with the {@link CompactMcWorkerState}. This is the
+ * same as the {@code MultiCriteriaRoutingStrategy} with c1 only, except that the stop arrivals
+ * are referenced by their handles in the {@link StopArrivalStore}.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class CompactMcRoutingStrategy<T extends RaptorTripSchedule>
+  implements RoutingStrategy<T> {
+
+  private final CompactMcWorkerState<T> state;
+  private final StopArrivalStore<T> store;
+  private final TimeBasedBoardingSupport<T> boardingSupport;
+  private final ParetoSet<CompactPatternRide<T>> patternRides;
+  private final RaptorCostCalculator<T> c1Calculator;
+  private final SlackProvider slackProvider;
+
+  public CompactMcRoutingStrategy(
+    CompactMcWorkerState<T> state,
+    TimeBasedBoardingSupport<T> boardingSupport,
+    RaptorCostCalculator<T> c1Calculator,
+    SlackProvider slackProvider
+  ) {
+    this.state = Objects.requireNonNull(state);
+    this.store = state.store();
+    this.boardingSupport = Objects.requireNonNull(boardingSupport);
+    this.c1Calculator = Objects.requireNonNull(c1Calculator);
+    this.slackProvider = Objects.requireNonNull(slackProvider);
+    this.patternRides = new ParetoSet<>(CompactPatternRide.paretoComparatorRelativeCost());
+  }
+
+  @Override
+  public void setAccessToStop(RaptorAccessEgress accessPath, int departureTime) {
+    state.setAccessToStop(accessPath, departureTime);
+  }
+
+  @Override
+  public void prepareForTransitWith(RaptorRoute<T> route) {
+    boardingSupport.prepareForTransitWith(route.timetable());
+    this.patternRides.clear();
+  }
+
+  @Override
+  public void alightOnlyRegularTransferExist(int stopIndex, int stopPos, int alightSlack) {
+    for (CompactPatternRide<T> ride : patternRides) {
+      state.transitToStop(ride, stopIndex, ride.trip().arrival(stopPos), alightSlack);
+    }
+  }
+
+  @Override
+  public void alightConstrainedTransferExist(int stopIndex, int stopPos, int alightSlack) {
+    // There is no difference in alight with and without constrained transfers.
+    // The alight-slack is removed at the next boarding if the constrained transfer apply.
+    alightOnlyRegularTransferExist(stopIndex, stopPos, alightSlack);
+  }
+
+  @Override
+  public void boardWithRegularTransfer(int stopIndex, int stopPos, int boardSlack) {
+    var prevArrivals = state.listStopArrivalsPreviousRound(stopIndex);
+    if (prevArrivals == null) {
+      return;
+    }
+    for (int i = prevArrivals.marker(); i < prevArrivals.size(); ++i) {
+      boardWithRegularTransfer(prevArrivals.get(i), stopIndex, stopPos, boardSlack);
+    }
+  }
+
+  @Override
+  public void boardWithConstrainedTransfer(
+    int stopIndex,
+    int stopPos,
+    int boardSlack,
+    RaptorConstrainedBoardingSearch<T> txSearch
+  ) {
+    var prevArrivals = state.listStopArrivalsPreviousRound(stopIndex);
+    if (prevArrivals == null) {
+      return;
+    }
+    for (int i = prevArrivals.marker(); i < prevArrivals.size(); ++i) {
+      boardWithConstrainedTransfer(prevArrivals.get(i), stopIndex, stopPos, boardSlack, txSearch);
+    }
+  }
+
+  private void board(int prevArrival, final int stopIndex, RaptorBoardOrAlightEvent<T> boarding) {
+    final T trip = boarding.trip();
+    final int boardTime = boarding.time();
+
+    if (store.arrivedBy(prevArrival, ACCESS)) {
+      int latestArrivalTime = boardTime - slackProvider.boardSlack(trip.pattern().slackIndex());
+      prevArrival = store.timeShiftAccessArrival(prevArrival, latestArrivalTime);
+    }
+
+    final int boardC1 = calculateCostAtBoardTime(prevArrival, boarding);
+
+    final int relativeBoardC1 = boardC1 + c1Calculator.onTripRelativeRidingCost(boardTime, trip);
+
+    patternRides.add(
+      new CompactPatternRide<>(
+        prevArrival,
+        stopIndex,
+        boarding.stopPositionInPattern(),
+        boardTime,
+        boardC1,
+        relativeBoardC1,
+        trip.tripSortIndex(),
+        trip
+      )
+    );
+  }
+
+  private void boardWithRegularTransfer(
+    int prevArrival,
+    int stopIndex,
+    int stopPos,
+    int boardSlack
+  ) {
+    var result = boardingSupport.searchRegularTransfer(
+      store.arrivalTime(prevArrival),
+      stopPos,
+      boardSlack
+    );
+    if (!result.empty()) {
+      board(prevArrival, stopIndex, result);
+    }
+  }
+
+  private void boardWithConstrainedTransfer(
+    int prevArrival,
+    int stopIndex,
+    int stopPos,
+    int boardSlack,
+    RaptorConstrainedBoardingSearch<T> txSearch
+  ) {
+    boardingSupport
+      .searchConstrainedTransfer(
+        store.mostRecentTransitArrival(prevArrival),
+        store.arrivalTime(prevArrival),
+        boardSlack,
+        txSearch
+      )
+      .boardWithFallback(
+        boarding -> board(prevArrival, stopIndex, boarding),
+        emptyBoarding -> boardWithRegularTransfer(prevArrival, stopIndex, stopPos, boardSlack)
+      );
+  }
+
+  /**
+   * See {@code MultiCriteriaRoutingStrategy#calculateCostAtBoardTime}. If the previous leg is an
+   * access leg, then it must be time-shifted before calling this method.
+   */
+  private int calculateCostAtBoardTime(
+    int prevArrival,
+    final RaptorBoardOrAlightEvent<T> boardEvent
+  ) {
+    return (
+      store.c1(prevArrival) +
+      c1Calculator.boardingCost(
+        store.round(prevArrival) == 0,
+        store.arrivalTime(prevArrival),
+        boardEvent.boardStopIndex(),
+        boardEvent.time(),
+        boardEvent.trip(),
+        boardEvent.transferConstraint()
+      )
+    );
+  }
+}
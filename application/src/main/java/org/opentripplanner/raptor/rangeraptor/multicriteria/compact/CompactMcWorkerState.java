@@ -0,0 +1,215 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import java.util.Iterator;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.McRaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
+import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
+import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.raptor.util.paretoset.IntParetoSetWithMarker;
+
+/**
+ * The multi-criteria worker state using the {@link StopArrivalStore}. This is the compact version
+ * of the {@code McRangeRaptorWorkerState}, the stop arrivals are referenced by int handles, and
+ * only the arrivals accepted by the pareto-set at the stop are kept in the store.
+ * <p>
+ * This state only support the c1 criteria, it does not support via-search, c2 or debugging of
+ * stop arrivals.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class CompactMcWorkerState<T extends RaptorTripSchedule>
+  implements RaptorWorkerState<T> {
+
+  private final CompactStopArrivals<T> arrivals;
+  private final StopArrivalStore<T> store;
+  private final DestinationArrivalPaths<T> paths;
+  private final HeuristicsProvider<T> heuristics;
+  private final ArrivalCandidates<T> arrivalsCache = new ArrivalCandidates<>();
+  private final RaptorCostCalculator<T> calculatorGeneralizedCost;
+  private final RaptorTransitCalculator<T> transitCalculator;
+
+  public CompactMcWorkerState(
+    CompactStopArrivals<T> arrivals,
+    StopArrivalStore<T> store,
+    DestinationArrivalPaths<T> paths,
+    HeuristicsProvider<T> heuristics,
+    RaptorCostCalculator<T> calculatorGeneralizedCost,
+    RaptorTransitCalculator<T> transitCalculator,
+    WorkerLifeCycle lifeCycle
+  ) {
+    this.arrivals = arrivals;
+    this.store = store;
+    this.paths = paths;
+    this.heuristics = heuristics;
+    this.calculatorGeneralizedCost = calculatorGeneralizedCost;
+    this.transitCalculator = transitCalculator;
+
+    // Attach to the RR life cycle
+    lifeCycle.onSetupIteration(ignore -> setupIteration());
+    lifeCycle.onTransitsForRoundComplete(this::transitsForRoundComplete);
+    lifeCycle.onTransfersForRoundComplete(this::transfersForRoundComplete);
+  }
+
+  @Override
+  public boolean isNewRoundAvailable() {
+    return arrivals.updateExist();
+  }
+
+  @Override
+  public IntIterator stopsTouchedPreviousRound() {
+    return arrivals.stopsTouchedIterator();
+  }
+
+  @Override
+  public IntIterator stopsTouchedByTransitCurrentRound() {
+    return arrivals.stopsTouchedIterator();
+  }
+
+  @Override
+  public boolean isDestinationReachedInCurrentRound() {
+    return paths.isReachedCurrentRound();
+  }
+
+  @Override
+  public boolean isStopReachedInPreviousRound(int stopIndex) {
+    return arrivals.hasArrivalsAfterMarker(stopIndex);
+  }
+
+  public void setAccessToStop(RaptorAccessEgress accessPath, int departureTime) {
+    addStopArrival(store.newAccessArrival(departureTime, accessPath));
+  }
+
+  @Override
+  public void transferToStops(int fromStop, Iterator<? extends RaptorTransfer> transfers) {
+    var fromArrivals = arrivals.arrivals(fromStop);
+
+    if (fromArrivals == null) {
+      return;
+    }
+    while (transfers.hasNext()) {
+      transferToStop(fromArrivals, transfers.next());
+    }
+  }
+
+  @Override
+  public RaptorRouterResult<T> results() {
+    return new McRaptorRouterResult<>(arrivals, paths);
+  }
+
+  StopArrivalStore<T> store() {
+    return store;
+  }
+
+  /**
+   * List the arrivals of the previous round from {@code marker()} to the end of the set.
+   */
+  @Nullable
+  IntParetoSetWithMarker listStopArrivalsPreviousRound(int stop) {
+    return arrivals.arrivals(stop);
+  }
+
+  /**
+   * Set the time at a transit stop iff it is optimal.
+   */
+  void transitToStop(
+    final CompactPatternRide<T> ride,
+    final int alightStop,
+    final int alightTime,
+    final int alightSlack
+  ) {
+    final int stopArrivalTime = alightTime + alightSlack;
+
+    if (exceedsTimeLimit(stopArrivalTime)) {
+      return;
+    }
+
+    final int c1 = calculatorGeneralizedCost.transitArrivalCost(
+      ride.boardC1(),
+      alightSlack,
+      alightTime - ride.boardTime(),
+      ride.trip(),
+      alightStop
+    );
+
+    arrivalsCache.addTransitArrival(
+      ride.prevArrival(),
+      alightStop,
+      stopArrivalTime,
+      c1,
+      ride.trip()
+    );
+  }
+
+  /* private methods */
+
+  /** This method is called by the Worker life cycle */
+  private void setupIteration() {
+    arrivalsCache.clear();
+    // clear all touched stops to avoid constant re-exploration
+    arrivals.clearTouchedStopsAndSetStopMarkers();
+  }
+
+  /** This method is called by the Worker life cycle */
+  private void transitsForRoundComplete() {
+    arrivals.clearTouchedStopsAndSetStopMarkers();
+    commitCachedArrivals();
+  }
+
+  /** This method is part of Worker life cycle */
+  private void transfersForRoundComplete() {
+    commitCachedArrivals();
+  }
+
+  private void transferToStop(IntParetoSetWithMarker fromArrivals, RaptorTransfer transfer) {
+    final int transferTimeInSeconds = transfer.durationInSeconds();
+
+    for (int i = fromArrivals.marker(); i < fromArrivals.size(); ++i) {
+      int it = fromArrivals.get(i);
+      int arrivalTime = store.arrivalTime(it) + transferTimeInSeconds;
+
+      if (!exceedsTimeLimit(arrivalTime)) {
+        arrivalsCache.addTransferArrival(it, transfer, arrivalTime);
+      }
+    }
+  }
+
+  private void commitCachedArrivals() {
+    for (int i = 0; i < arrivalsCache.size(); ++i) {
+      addStopArrival(arrivalsCache.write(i, store));
+    }
+    arrivalsCache.clear();
+  }
+
+  /**
+   * Add the arrival written to the store to the pareto-set of the stop, and commit it if it is
+   * accepted.
+   */
+  private void addStopArrival(int arrival) {
+    if (
+      heuristics.rejectDestinationArrivalBasedOnHeuristic(
+        store.stop(arrival),
+        store.arrivalTime(arrival),
+        store.travelDuration(arrival),
+        store.c1(arrival)
+      )
+    ) {
+      return;
+    }
+    if (arrivals.addStopArrival(arrival)) {
+      store.commit();
+    }
+  }
+
+  private boolean exceedsTimeLimit(int time) {
+    return transitCalculator.exceedsTimeLimit(time);
+  }
+}
@@ -0,0 +1,46 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+
+/**
+ * Same as the {@code PatternRideC1}, but the previous stop arrival is referenced by its handle in
+ * the {@link StopArrivalStore}.
+ */
+record CompactPatternRide<T extends RaptorTripSchedule>(
+  int prevArrival,
+  int boardStopIndex,
+  int boardPos,
+  int boardTime,
+  int boardC1,
+  int relativeC1,
+  int tripSortIndex,
+  T trip
+) {
+  // Pareto vector: [relativeCost, tripSortIndex]
+
+  /**
+   * See {@code PatternRideC1#paretoComparatorRelativeCost()}.
+   */
+  static <
+    T extends RaptorTripSchedule
+  > ParetoComparator<CompactPatternRide<T>> paretoComparatorRelativeCost() {
+    return (l, r) -> l.tripSortIndex != r.tripSortIndex || l.relativeC1 < r.relativeC1;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CompactPatternRide.class)
+      .addNum("prevArrival", prevArrival)
+      .addNum("boardStop", boardStopIndex)
+      .addNum("boardPos", boardPos)
+      .addServiceTime("boardTime", boardTime)
+      .addNum("boardC1", boardC1)
+      .addNum("relativeC1", relativeC1)
+      .addNum("tripSortIndex", tripSortIndex)
+      .addObj("trip", trip)
+      .toString();
+  }
+}
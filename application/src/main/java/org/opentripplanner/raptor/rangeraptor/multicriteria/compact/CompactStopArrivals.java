@@ -0,0 +1,203 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.BestStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.CalculateTransferToDestination;
+import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
+import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.util.BitSetIterator;
+import org.opentripplanner.raptor.util.paretoset.IntParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.IntParetoSetWithMarker;
+
+/**
+ * The stop arrival pareto-sets, one set for each stop, of stop arrival handles in the
+ * {@link StopArrivalStore}. This is the compact version of the {@code McStopArrivals}. It keeps
+ * track of stops visited since "last mark".
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class CompactStopArrivals<T extends RaptorTripSchedule> implements BestStopArrivals {
+
+  private final StopArrivalStore<T> store;
+  private final IntParetoSetWithMarker[] arrivals;
+  private final BitSet touchedStops;
+  private final IntParetoComparator comparator;
+
+  public CompactStopArrivals(
+    int nStops,
+    EgressPaths egressPaths,
+    DestinationArrivalPaths<T> paths,
+    StopArrivalStore<T> store,
+    RelaxFunction relaxC1
+  ) {
+    this.store = store;
+    this.arrivals = new IntParetoSetWithMarker[nStops];
+    this.touchedStops = new BitSet(nStops);
+    this.comparator = createComparator(store, relaxC1);
+    initEgressStopAndGlueItToDestinationArrivals(egressPaths, paths);
+  }
+
+  @Override
+  public boolean reached(int stopIndex) {
+    return arrivals[stopIndex] != null && !arrivals[stopIndex].isEmpty();
+  }
+
+  @Override
+  public int bestArrivalTime(int stopIndex) {
+    return minInt(stopIndex, h -> true, store::arrivalTime);
+  }
+
+  @Override
+  public boolean reachedByTransit(int stopIndex) {
+    var set = arrivals[stopIndex];
+    if (set == null) {
+      return false;
+    }
+    for (int i = 0; i < set.size(); ++i) {
+      if (store.arrivedBy(set.get(i), TRANSIT)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int bestTransitArrivalTime(int stopIndex) {
+    return minInt(stopIndex, this::isTransitArrival, store::arrivalTime);
+  }
+
+  @Override
+  public int smallestNumberOfTransfers(int stopIndex) {
+    return minInt(stopIndex, this::isTransitArrival, h -> store.round(h) - 1);
+  }
+
+  boolean updateExist() {
+    return !touchedStops.isEmpty();
+  }
+
+  IntIterator stopsTouchedIterator() {
+    return new BitSetIterator(touchedStops);
+  }
+
+  /**
+   * Add the given stop arrival to the pareto-set of its stop.
+   * @return {@code true} if the arrival is accepted, if so the arrival must be committed.
+   */
+  boolean addStopArrival(int arrival) {
+    int stop = store.stop(arrival);
+    boolean added = findOrCreateSet(stop).add(arrival);
+
+    if (added) {
+      touchedStops.set(stop);
+    }
+    return added;
+  }
+
+  boolean hasArrivalsAfterMarker(int stop) {
+    var it = arrivals[stop];
+    return it != null && it.hasElementsAfterMarker();
+  }
+
+  /**
+   * Return the pareto-set for the given stop, list the arrivals from the {@code marker()} to the
+   * end of the set to get the arrivals of the previous round. Returns {@code null} if the stop is
+   * not reached.
+   */
+  @Nullable
+  IntParetoSetWithMarker arrivals(int stop) {
+    return arrivals[stop];
+  }
+
+  void clearTouchedStopsAndSetStopMarkers() {
+    IntIterator it = stopsTouchedIterator();
+    while (it.hasNext()) {
+      arrivals[it.next()].markAtEndOfSet();
+    }
+    touchedStops.clear();
+  }
+
+  /* private methods */
+
+  private IntParetoSetWithMarker findOrCreateSet(int stop) {
+    if (arrivals[stop] == null) {
+      arrivals[stop] = new IntParetoSetWithMarker(comparator);
+    }
+    return arrivals[stop];
+  }
+
+  /**
+   * Create a pareto-set for each egress stop. When arrivals are accepted at the stop, the "glue"
+   * make sure new destination arrivals are added to the destination arrivals.
+   */
+  private void initEgressStopAndGlueItToDestinationArrivals(
+    EgressPaths egressPaths,
+    DestinationArrivalPaths<T> paths
+  ) {
+    egressPaths
+      .byStop()
+      .forEachEntry((stop, list) -> {
+        var glue = new CalculateTransferToDestination<>(list, paths);
+        this.arrivals[stop] =
+          new IntParetoSetWithMarker(
+            comparator,
+            h -> glue.notifyElementAccepted(new StopArrivalView<>(store, h))
+          );
+        return true;
+      });
+  }
+
+  private boolean isTransitArrival(int arrival) {
+    return store.arrivedBy(arrival, TRANSIT);
+  }
+
+  private int minInt(int stopIndex, IntPredicate filter, IntUnaryOperator mapper) {
+    var set = arrivals[stopIndex];
+    int min = Integer.MAX_VALUE;
+    boolean found = false;
+
+    for (int i = 0; i < set.size(); ++i) {
+      int h = set.get(i);
+      if (filter.test(h)) {
+        min = Math.min(min, mapper.applyAsInt(h));
+        found = true;
+      }
+    }
+    if (!found) {
+      throw new IllegalStateException("No arrival found at stop " + stopIndex);
+    }
+    return min;
+  }
+
+  /**
+   * Compare arrivalTime, paretoRound, c1 and arrivedOnBoard. This is the same as the
+   * {@code compareArrivalTimeRoundCostAndOnBoardArrival()} comparator used for the
+   * {@code McStopArrival}s without c2.
+   */
+  private static IntParetoComparator createComparator(
+    StopArrivalStore<?> s,
+    RelaxFunction relaxC1
+  ) {
+    if (relaxC1.isNormal()) {
+      return (l, r) ->
+        s.arrivalTime(l) < s.arrivalTime(r) ||
+        s.paretoRound(l) < s.paretoRound(r) ||
+        s.c1(l) < s.c1(r) ||
+        (s.arrivedOnBoard(l) && !s.arrivedOnBoard(r));
+    }
+    return (l, r) ->
+      s.arrivalTime(l) < s.arrivalTime(r) ||
+      s.paretoRound(l) < s.paretoRound(r) ||
+      s.c1(l) < relaxC1.relax(s.c1(r)) ||
+      (s.arrivedOnBoard(l) && !s.arrivedOnBoard(r));
+  }
+}
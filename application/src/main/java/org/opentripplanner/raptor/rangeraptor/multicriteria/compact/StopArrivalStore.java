@@ -0,0 +1,254 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import static org.opentripplanner.raptor.api.model.PathLegType.ACCESS;
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSFER;
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.PathLegType;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.TransitArrival;
+
+/**
+ * Store the multi-criteria stop arrivals of a search in a set of primitive arrays, one array for
+ * each field. A stop arrival is referenced using an int handle, the index of the arrival in the
+ * arrays. This replaces the {@code McStopArrival} objects, which are created for every new stop
+ * arrival, including the ones rejected by the pareto-set at the stop.
+ * <p>
+ * A new arrival is first written to the slot after the last committed arrival, and the returned
+ * handle can be used to compare the arrival with the arrivals in the pareto-set of the stop. The
+ * arrival is only kept if it is {@link #commit()}ed before the next arrival is written, hence
+ * only arrivals accepted by a pareto-set use space in the store. Committed arrivals are never
+ * changed or removed, so a handle is valid for the rest of the search.
+ * <p>
+ * The semantics of the fields are the same as in the {@code McStopArrival}.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class StopArrivalStore<T extends RaptorTripSchedule> {
+
+  public static final int NO_ARRIVAL = -1;
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final PathLegType[] LEG_TYPES = { ACCESS, TRANSIT, TRANSFER };
+  private static final byte ACCESS_ARRIVAL = 0;
+  private static final byte TRANSIT_ARRIVAL = 1;
+  private static final byte TRANSFER_ARRIVAL = 2;
+
+  private int[] previous;
+  private int[] stops;
+  private int[] arrivalTimes;
+  private int[] travelDurations;
+  private int[] c1s;
+  private int[] paretoRounds;
+  private byte[] legTypes;
+  private boolean[] arrivedOnBoard;
+
+  /** The access path, the trip or the transfer depending on the leg type. */
+  private Object[] legs;
+
+  private int size = 0;
+
+  public StopArrivalStore() {
+    this.previous = new int[INITIAL_CAPACITY];
+    this.stops = new int[INITIAL_CAPACITY];
+    this.arrivalTimes = new int[INITIAL_CAPACITY];
+    this.travelDurations = new int[INITIAL_CAPACITY];
+    this.c1s = new int[INITIAL_CAPACITY];
+    this.paretoRounds = new int[INITIAL_CAPACITY];
+    this.legTypes = new byte[INITIAL_CAPACITY];
+    this.arrivedOnBoard = new boolean[INITIAL_CAPACITY];
+    this.legs = new Object[INITIAL_CAPACITY];
+  }
+
+  /**
+   * The number of committed stop arrivals.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Keep the last arrival written.
+   */
+  public void commit() {
+    ++size;
+  }
+
+  /**
+   * Write a new access arrival.
+   * @return the handle of the new arrival, which must be committed to be kept.
+   */
+  public int newAccessArrival(int departureTime, RaptorAccessEgress access) {
+    int h = next();
+    previous[h] = NO_ARRIVAL;
+    stops[h] = access.stop();
+    arrivalTimes[h] = departureTime + access.durationInSeconds();
+    travelDurations[h] = access.durationInSeconds();
+    c1s[h] = access.c1();
+    paretoRounds[h] = access.numberOfRides();
+    legTypes[h] = ACCESS_ARRIVAL;
+    arrivedOnBoard[h] = access.stopReachedOnBoard();
+    legs[h] = access;
+    return h;
+  }
+
+  /**
+   * Write a new transit arrival.
+   * @return the handle of the new arrival, which must be committed to be kept.
+   */
+  public int newTransitArrival(int prev, int stop, int arrivalTime, int c1, T trip) {
+    int h = next();
+    setPrevious(h, prev, legTypes[prev] == TRANSIT_ARRIVAL ? 2 : 1, arrivalTime);
+    stops[h] = stop;
+    c1s[h] = c1;
+    legTypes[h] = TRANSIT_ARRIVAL;
+    arrivedOnBoard[h] = true;
+    legs[h] = trip;
+    return h;
+  }
+
+  /**
+   * Write a new transfer arrival.
+   * @return the handle of the new arrival, which must be committed to be kept.
+   */
+  public int newTransferArrival(int prev, RaptorTransfer transfer, int arrivalTime) {
+    int h = next();
+    setPrevious(h, prev, 1, arrivalTime);
+    stops[h] = transfer.stop();
+    c1s[h] = c1s[prev] + transfer.c1();
+    legTypes[h] = TRANSFER_ARRIVAL;
+    arrivedOnBoard[h] = false;
+    legs[h] = transfer;
+    return h;
+  }
+
+  /**
+   * Time-shift an access arrival, this is done when boarding the first trip. A new arrival is
+   * created and committed if the arrival-time changes.
+   *
+   * @return the handle of the time-shifted arrival.
+   */
+  public int timeShiftAccessArrival(int access, int newRequestedArrivalTime) {
+    var accessPath = accessPath(access);
+    int newArrivalTime = accessPath.latestArrivalTime(newRequestedArrivalTime);
+
+    if (newArrivalTime == RaptorConstants.TIME_NOT_SET) {
+      throw new IllegalStateException(
+        "The arrival should not have been accepted if it does not have a legal arrival-time."
+      );
+    }
+    if (newArrivalTime == arrivalTimes[access]) {
+      return access;
+    }
+    int h = newAccessArrival(newArrivalTime - accessPath.durationInSeconds(), accessPath);
+    commit();
+    return h;
+  }
+
+  public int previous(int h) {
+    return previous[h];
+  }
+
+  public int stop(int h) {
+    return stops[h];
+  }
+
+  public int arrivalTime(int h) {
+    return arrivalTimes[h];
+  }
+
+  public int travelDuration(int h) {
+    return travelDurations[h];
+  }
+
+  public int c1(int h) {
+    return c1s[h];
+  }
+
+  public int paretoRound(int h) {
+    return paretoRounds[h];
+  }
+
+  public int round(int h) {
+    return (paretoRounds[h] + 1) / 2;
+  }
+
+  public PathLegType arrivedBy(int h) {
+    return LEG_TYPES[legTypes[h]];
+  }
+
+  public boolean arrivedBy(int h, PathLegType expected) {
+    return arrivedBy(h).is(expected);
+  }
+
+  public boolean arrivedOnBoard(int h) {
+    return arrivedOnBoard[h];
+  }
+
+  public RaptorAccessEgress accessPath(int h) {
+    assertLegType(h, ACCESS_ARRIVAL);
+    return (RaptorAccessEgress) legs[h];
+  }
+
+  @SuppressWarnings("unchecked")
+  public T trip(int h) {
+    assertLegType(h, TRANSIT_ARRIVAL);
+    return (T) legs[h];
+  }
+
+  public RaptorTransfer transfer(int h) {
+    assertLegType(h, TRANSFER_ARRIVAL);
+    return (RaptorTransfer) legs[h];
+  }
+
+  /**
+   * Find the most recent transit arrival, used when boarding with a constrained transfer.
+   */
+  @Nullable
+  public TransitArrival<T> mostRecentTransitArrival(int h) {
+    while (h != NO_ARRIVAL && legTypes[h] != TRANSIT_ARRIVAL) {
+      h = previous[h];
+    }
+    return h == NO_ARRIVAL ? null : TransitArrival.create(trip(h), stops[h], arrivalTimes[h]);
+  }
+
+  /* private methods */
+
+  private int next() {
+    if (size == stops.length) {
+      int newCapacity = stops.length * 2;
+      previous = Arrays.copyOf(previous, newCapacity);
+      stops = Arrays.copyOf(stops, newCapacity);
+      arrivalTimes = Arrays.copyOf(arrivalTimes, newCapacity);
+      travelDurations = Arrays.copyOf(travelDurations, newCapacity);
+      c1s = Arrays.copyOf(c1s, newCapacity);
+      paretoRounds = Arrays.copyOf(paretoRounds, newCapacity);
+      legTypes = Arrays.copyOf(legTypes, newCapacity);
+      arrivedOnBoard = Arrays.copyOf(arrivedOnBoard, newCapacity);
+      legs = Arrays.copyOf(legs, newCapacity);
+    }
+    return size;
+  }
+
+  private void setPrevious(int h, int prev, int paretoRoundIncrement, int arrivalTime) {
+    previous[h] = prev;
+    paretoRounds[h] = paretoRounds[prev] + paretoRoundIncrement;
+    arrivalTimes[h] = arrivalTime;
+    travelDurations[h] = travelDurations[prev] + (arrivalTime - arrivalTimes[prev]);
+  }
+
+  private void assertLegType(int h, byte expected) {
+    if (legTypes[h] != expected) {
+      throw new IllegalStateException(
+        "Expected " + LEG_TYPES[expected] + " arrival, but was " + arrivedBy(h)
+      );
+    }
+  }
+}
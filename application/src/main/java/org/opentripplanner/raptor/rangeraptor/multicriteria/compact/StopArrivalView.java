@@ -0,0 +1,112 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria.compact;
+
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.PathLegType;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.TransitArrival;
+import org.opentripplanner.raptor.api.view.AccessPathView;
+import org.opentripplanner.raptor.api.view.ArrivalView;
+import org.opentripplanner.raptor.api.view.TransitPathView;
+
+/**
+ * An {@link ArrivalView} of a stop arrival in the {@link StopArrivalStore}. The view is only
+ * created when a path is found, it is used to map the path from the destination back to the
+ * access.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+final class StopArrivalView<T extends RaptorTripSchedule>
+  implements ArrivalView<T>, TransitPathView<T> {
+
+  private final StopArrivalStore<T> store;
+  private final int handle;
+
+  StopArrivalView(StopArrivalStore<T> store, int handle) {
+    this.store = store;
+    this.handle = handle;
+  }
+
+  @Override
+  public int stop() {
+    return store.stop(handle);
+  }
+
+  @Override
+  public int round() {
+    return store.round(handle);
+  }
+
+  @Override
+  public int arrivalTime() {
+    return store.arrivalTime(handle);
+  }
+
+  @Override
+  public int c1() {
+    return store.c1(handle);
+  }
+
+  @Override
+  public int c2() {
+    return RaptorConstants.NOT_SET;
+  }
+
+  @Nullable
+  @Override
+  public ArrivalView<T> previous() {
+    int prev = store.previous(handle);
+    return prev == StopArrivalStore.NO_ARRIVAL ? null : new StopArrivalView<>(store, prev);
+  }
+
+  @Nullable
+  @Override
+  public TransitArrival<T> mostRecentTransitArrival() {
+    return store.mostRecentTransitArrival(handle);
+  }
+
+  @Override
+  public PathLegType arrivedBy() {
+    return store.arrivedBy(handle);
+  }
+
+  @Override
+  public AccessPathView accessPath() {
+    var access = store.accessPath(handle);
+    return () -> access;
+  }
+
+  @Override
+  public TransitPathView<T> transitPath() {
+    if (!store.arrivedBy(handle, PathLegType.TRANSIT)) {
+      throw new UnsupportedOperationException("Not a transit arrival: " + arrivedBy());
+    }
+    return this;
+  }
+
+  @Override
+  public RaptorTransfer transfer() {
+    return store.transfer(handle);
+  }
+
+  @Override
+  public boolean arrivedOnBoard() {
+    return store.arrivedOnBoard(handle);
+  }
+
+  @Override
+  public int boardStop() {
+    return store.stop(store.previous(handle));
+  }
+
+  @Override
+  public T trip() {
+    return store.trip(handle);
+  }
+
+  @Override
+  public String toString() {
+    return asString();
+  }
+}
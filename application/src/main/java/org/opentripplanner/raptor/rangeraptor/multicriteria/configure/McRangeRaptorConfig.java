@@ -21,6 +21,10 @@ import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArriv
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c2.StopArrivalFactoryC2;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.compact.CompactMcRoutingStrategy;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.compact.CompactMcWorkerState;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.compact.CompactStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.compact.StopArrivalStore;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.heuristic.HeuristicsProvider;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.passthrough.BitSetPassThroughPointsService;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.PatternRide;
@@ -49,6 +53,8 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
   private Heuristics heuristics;
   private McStopArrivals<T> arrivals;
   private McStopArrivals<T> nextLegArrivals = null;
+  private boolean compactStopArrivals = false;
+  private CompactMcWorkerState<T> compactState;
 
   public McRangeRaptorConfig(
     SearchContextViaLeg<T> contextLeg,
@@ -89,15 +95,33 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return this;
   }
 
+  /**
+   * Store the stop arrivals in a {@link StopArrivalStore} instead of creating an object for each
+   * stop arrival. This is ignored if the search uses a feature not supported by the compact
+   * state, see {@link #isCompactStopArrivalsSupported()}.
+   */
+  public McRangeRaptorConfig<T> withCompactStopArrivals(boolean compactStopArrivals) {
+    this.compactStopArrivals = compactStopArrivals;
+    return this;
+  }
+
   /**
    * Create new multi-criteria worker with optional heuristics.
    */
   public RoutingStrategy<T> strategy() {
+    if (useCompactStopArrivals()) {
+      return new CompactMcRoutingStrategy<>(
+        createCompactState(heuristics),
+        context().createTimeBasedBoardingSupport(),
+        context().costCalculator(),
+        context().slackProvider()
+      );
+    }
     return createTransitWorkerStrategy(createState(heuristics));
   }
 
   public RaptorWorkerState<T> state() {
-    return createState(heuristics);
+    return useCompactStopArrivals() ? createCompactState(heuristics) : createState(heuristics);
   }
 
   /**
@@ -168,6 +192,30 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return state;
   }
 
+  private CompactMcWorkerState<T> createCompactState(Heuristics heuristics) {
+    if (compactState == null) {
+      var store = new StopArrivalStore<T>();
+      var compactArrivals = new CompactStopArrivals<>(
+        context().nStops(),
+        contextLeg.egressPaths(),
+        createDestinationArrivalPaths(),
+        store,
+        mcRequest().relaxC1()
+      );
+      compactState =
+        new CompactMcWorkerState<>(
+          compactArrivals,
+          store,
+          createDestinationArrivalPaths(),
+          createHeuristicsProvider(heuristics),
+          context().costCalculator(),
+          context().calculator(),
+          context().lifeCycle()
+        );
+    }
+    return compactState;
+  }
+
   private McStopArrivalFactory<T> createStopArrivalFactory() {
     return includeC2() ? new StopArrivalFactoryC2<>() : new StopArrivalFactoryC1<>();
   }
@@ -245,6 +293,26 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return mcRequest().transitPriorityCalculator().orElseThrow();
   }
 
+  private boolean useCompactStopArrivals() {
+    return compactStopArrivals && isCompactStopArrivalsSupported();
+  }
+
+  /**
+   * The compact stop arrivals only support c1, and can not be connected with other legs. The
+   * debugger uses the stop arrival objects, so debugging stop arrivals is not supported.
+   */
+  private boolean isCompactStopArrivalsSupported() {
+    var debugFactory = context().debugFactory();
+    return (
+      !includeC2() &&
+      contextLeg.egressPaths() != null &&
+      contextLeg.viaConnections() == null &&
+      nextLegArrivals == null &&
+      !debugFactory.isDebugStopArrival() &&
+      debugFactory.paretoSetPatternRideListener() == null
+    );
+  }
+
   private boolean isPassThrough() {
     return mcRequest().hasPassThroughPoints();
   }
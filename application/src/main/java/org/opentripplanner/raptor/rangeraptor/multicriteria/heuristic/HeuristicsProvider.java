@@ -67,6 +67,22 @@ public final class HeuristicsProvider<T extends RaptorTripSchedule> {
     return rejected;
   }
 
+  /**
+   * Same as {@link #rejectDestinationArrivalBasedOnHeuristic(McStopArrival)}, but the arrival is
+   * given by its values. Rejected arrivals are not reported to the debugger.
+   */
+  public boolean rejectDestinationArrivalBasedOnHeuristic(
+    int stop,
+    int arrivalTime,
+    int travelDuration,
+    int c1
+  ) {
+    if (heuristics == null || paths.isEmpty()) {
+      return false;
+    }
+    return !qualify(stop, arrivalTime, travelDuration, c1);
+  }
+
   /* private methods */
 
   private void debugRejectByOptimization(McStopArrival<T> arrival) {
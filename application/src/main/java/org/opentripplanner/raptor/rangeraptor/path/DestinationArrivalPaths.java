@@ -139,6 +139,16 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     return paths;
   }
 
+  /**
+   * Add paths found by another search, like a search in another part of the search-window. The
+   * paths are added to the pareto set without checking the time limit and c2 value again.
+   */
+  public void addAll(Collection<RaptorPath<T>> others) {
+    for (RaptorPath<T> path : others) {
+      paths.add(path);
+    }
+  }
+
   public void debugReject(ArrivalView<T> stopArrival, RaptorAccessEgress egress, String reason) {
     if (isDebugOn()) {
       var destinationArrival = createDestinationArrivalView(stopArrival, egress);
@@ -10,6 +10,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.besttimes.BestTimes;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.ArrivedAtDestinationCheck;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfTransfers;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.StopArrivalsState;
+import org.opentripplanner.raptor.rangeraptor.support.StopArraysPool;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.spi.IntIterator;
 
@@ -58,6 +59,11 @@ public final class StdRangeRaptorWorkerState<T extends RaptorTripSchedule>
    */
   private final RaptorTransitCalculator<T> calculator;
 
+  /**
+   * The stop arrays borrowed from the pool, released with the result.
+   */
+  private final StopArraysPool.Lease pooledArrays;
+
   /**
    * create a BestTimes Range Raptor State for given context.
    */
@@ -66,13 +72,15 @@ public final class StdRangeRaptorWorkerState<T extends RaptorTripSchedule>
     BestTimes bestTimes,
     StopArrivalsState<T> stopArrivalsState,
     BestNumberOfTransfers bestNumberOfTransfers,
-    ArrivedAtDestinationCheck arrivedAtDestinationCheck
+    ArrivedAtDestinationCheck arrivedAtDestinationCheck,
+    StopArraysPool.Lease pooledArrays
   ) {
     this.calculator = calculator;
     this.bestTimes = bestTimes;
     this.stopArrivalsState = stopArrivalsState;
     this.bestNumberOfTransfers = bestNumberOfTransfers;
     this.arrivedAtDestinationCheck = arrivedAtDestinationCheck;
+    this.pooledArrays = pooledArrays;
   }
 
   @Override
@@ -213,7 +221,8 @@ public final class StdRangeRaptorWorkerState<T extends RaptorTripSchedule>
     return new StdRaptorRouterResult<>(
       bestTimes,
       stopArrivalsState::extractPaths,
-      bestNumberOfTransfers::extractBestNumberOfTransfers
+      bestNumberOfTransfers::extractBestNumberOfTransfers,
+      pooledArrays::release
     );
   }
 
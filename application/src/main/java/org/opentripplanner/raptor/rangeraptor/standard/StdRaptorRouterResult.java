@@ -16,6 +16,7 @@ public class StdRaptorRouterResult<T extends RaptorTripSchedule> implements Rapt
   private final BestTimes bestTimes;
   private final Supplier<Collection<RaptorPath<T>>> pathSupplier;
   private final Supplier<SingleCriteriaStopArrivals> bestNumberOfTransfersSupplier;
+  private final Runnable releasePooledArrays;
 
   /**
    * Cash paths to avoid constructing hundreds of paths several times. In most cases this is
@@ -26,11 +27,13 @@ public class StdRaptorRouterResult<T extends RaptorTripSchedule> implements Rapt
   public StdRaptorRouterResult(
     BestTimes bestTimes,
     Supplier<Collection<RaptorPath<T>>> pathSupplier,
-    Supplier<SingleCriteriaStopArrivals> bestNumberOfTransfersSupplier
+    Supplier<SingleCriteriaStopArrivals> bestNumberOfTransfersSupplier,
+    Runnable releasePooledArrays
   ) {
     this.bestTimes = bestTimes;
     this.pathSupplier = pathSupplier;
     this.bestNumberOfTransfersSupplier = bestNumberOfTransfersSupplier;
+    this.releasePooledArrays = releasePooledArrays;
   }
 
   @Override
@@ -60,4 +63,9 @@ public class StdRaptorRouterResult<T extends RaptorTripSchedule> implements Rapt
   public boolean isDestinationReached() {
     return !extractPaths().isEmpty();
   }
+
+  @Override
+  public void release() {
+    releasePooledArrays.run();
+  }
 }
@@ -1,12 +1,12 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
-import static org.opentripplanner.framework.lang.IntUtils.intArray;
-
 import java.util.BitSet;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntStopArray;
+import org.opentripplanner.raptor.rangeraptor.support.StopArraysPool;
 import org.opentripplanner.raptor.rangeraptor.transit.TransitCalculator;
 import org.opentripplanner.raptor.util.BitSetIterator;
 
@@ -24,17 +24,20 @@ import org.opentripplanner.raptor.util.BitSetIterator;
  * need to find all transfers to other stops, event if there is another transfer arrival with a
  * better arrival time. The reason is that after transfer to the next stop, the new arrival may
  * become the best time at that stop. Two transfers that are after each other are not allowed.
+ * <p/>
+ * The arrays are borrowed from the {@link StopArraysPool}, they are returned to the pool when the
+ * lease is released.
  */
 public final class BestTimes {
 
   /** The best times to reach a stop, across rounds and iterations. */
-  private final int[] times;
+  private final IntStopArray times;
 
   /**
    * The best "on-board" arrival times to reach a stop, across rounds and iterations. It includes
    * both transit arrivals and access-on-board arrivals.
    */
-  private final int[] transitArrivalTimes;
+  private final IntStopArray transitArrivalTimes;
   private final BitSet reachedByTransitCurrentRound;
   private final TransitCalculator<?> calculator;
   /** Stops touched in the CURRENT round. */
@@ -42,14 +45,18 @@ public final class BestTimes {
   /** Stops touched by in LAST round. */
   private BitSet reachedLastRound;
 
-  public BestTimes(int nStops, TransitCalculator<?> calculator, WorkerLifeCycle lifeCycle) {
+  public BestTimes(
+    StopArraysPool.Lease arrays,
+    TransitCalculator<?> calculator,
+    WorkerLifeCycle lifeCycle
+  ) {
     this.calculator = calculator;
-    this.times = intArray(nStops, calculator.unreachedTime());
-    this.reachedCurrentRound = new BitSet(nStops);
-    this.reachedLastRound = new BitSet(nStops);
+    this.times = arrays.intArray(calculator.unreachedTime());
+    this.reachedCurrentRound = arrays.bitSet();
+    this.reachedLastRound = arrays.bitSet();
 
-    this.transitArrivalTimes = intArray(nStops, calculator.unreachedTime());
-    this.reachedByTransitCurrentRound = new BitSet(nStops);
+    this.transitArrivalTimes = arrays.intArray(calculator.unreachedTime());
+    this.reachedByTransitCurrentRound = arrays.bitSet();
 
     // Attach to Worker life cycle
     lifeCycle.onSetupIteration(ignore -> setupIteration());
@@ -57,11 +64,11 @@ public final class BestTimes {
   }
 
   public int time(int stop) {
-    return times[stop];
+    return times.get(stop);
   }
 
   public int transitArrivalTime(int stop) {
-    return transitArrivalTimes[stop];
+    return transitArrivalTimes.get(stop);
   }
 
   /**
@@ -129,15 +136,18 @@ public final class BestTimes {
   }
 
   public int size() {
-    return times.length;
+    return times.size();
   }
 
   public SingleCriteriaStopArrivals extractBestOverallArrivals() {
-    return new IntArraySingleCriteriaArrivals(calculator.unreachedTime(), times);
+    return new IntArraySingleCriteriaArrivals(calculator.unreachedTime(), times.values());
   }
 
   public SingleCriteriaStopArrivals extractBestTransitArrivals() {
-    return new IntArraySingleCriteriaArrivals(calculator.unreachedTime(), transitArrivalTimes);
+    return new IntArraySingleCriteriaArrivals(
+      calculator.unreachedTime(),
+      transitArrivalTimes.values()
+    );
   }
 
   @Override
@@ -145,8 +155,8 @@ public final class BestTimes {
     final int unreachedTime = calculator.unreachedTime();
     return ToStringBuilder
       .of(BestTimes.class)
-      .addIntArraySize("times", times, unreachedTime)
-      .addIntArraySize("transitArrivalTimes", transitArrivalTimes, unreachedTime)
+      .addIntArraySize("times", times.values(), unreachedTime)
+      .addIntArraySize("transitArrivalTimes", transitArrivalTimes.values(), unreachedTime)
       .addBitSetSize("reachedCurrentRound", reachedCurrentRound)
       .addBitSetSize("reachedByTransitCurrentRound", reachedByTransitCurrentRound)
       .addBitSetSize("reachedLastRound", reachedLastRound)
@@ -189,20 +199,20 @@ public final class BestTimes {
   /* private methods */
 
   private void setTime(final int stop, final int time) {
-    times[stop] = time;
+    times.set(stop, time);
     reachedCurrentRound.set(stop);
   }
 
   private boolean isBestTime(int stop, int time) {
-    return calculator.isBefore(time, times[stop]);
+    return calculator.isBefore(time, times.get(stop));
   }
 
   private boolean isBestTransitArrivalTime(int stop, int time) {
-    return calculator.isBefore(time, transitArrivalTimes[stop]);
+    return calculator.isBefore(time, transitArrivalTimes.get(stop));
   }
 
   private void setBestTransitTime(int stop, int time) {
-    transitArrivalTimes[stop] = time;
+    transitArrivalTimes.set(stop, time);
     reachedByTransitCurrentRound.set(stop);
   }
 
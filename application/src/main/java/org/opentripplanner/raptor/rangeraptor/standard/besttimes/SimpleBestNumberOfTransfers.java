@@ -1,10 +1,11 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
-import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfTransfers;
 import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntStopArray;
+import org.opentripplanner.raptor.rangeraptor.support.StopArraysPool;
 
 /**
  * The responsibility for this class is to keep track of the best (minimun) number of transfers for
@@ -12,18 +13,18 @@ import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArri
  */
 public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
 
-  private final int[] bestNumOfTransfers;
+  private final IntStopArray bestNumOfTransfers;
   private int round;
 
-  public SimpleBestNumberOfTransfers(int nStops, WorkerLifeCycle lifeCycle) {
-    this.bestNumOfTransfers = IntUtils.intArray(nStops, unreachedMinNumberOfTransfers());
+  public SimpleBestNumberOfTransfers(StopArraysPool.Lease arrays, WorkerLifeCycle lifeCycle) {
+    this.bestNumOfTransfers = arrays.intArray(unreachedMinNumberOfTransfers());
 
     lifeCycle.onPrepareForNextRound(r -> this.round = r);
   }
 
   @Override
   public int calculateMinNumberOfTransfers(int stop) {
-    return bestNumOfTransfers[stop];
+    return bestNumOfTransfers.get(stop);
   }
 
   /**
@@ -31,13 +32,16 @@ public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
    */
   void arriveAtStop(int stop) {
     final int numOfTransfers = round - 1;
-    if (numOfTransfers < bestNumOfTransfers[stop]) {
-      bestNumOfTransfers[stop] = numOfTransfers;
+    if (numOfTransfers < bestNumOfTransfers.get(stop)) {
+      bestNumOfTransfers.set(stop, numOfTransfers);
     }
   }
 
   @Override
   public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
-    return new IntArraySingleCriteriaArrivals(unreachedMinNumberOfTransfers(), bestNumOfTransfers);
+    return new IntArraySingleCriteriaArrivals(
+      unreachedMinNumberOfTransfers(),
+      bestNumOfTransfers.values()
+    );
   }
 }
@@ -33,6 +33,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.StdStopArriv
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.StdStopArrivalsState;
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.path.EgressArrivalToPathAdapter;
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.view.StopsCursor;
+import org.opentripplanner.raptor.rangeraptor.support.StopArraysPool;
 import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
 
 /**
@@ -49,6 +50,12 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
   private final RoutingStrategy<T> strategy;
   private final Set<Class<?>> oneOfInstanceTypes = new HashSet<>();
 
+  /**
+   * The stop arrays used by the worker state are borrowed from the shared pool, and returned when
+   * the result is released.
+   */
+  private final StopArraysPool.Lease pooledArrays;
+
   private RaptorWorkerState<T> state;
   private BestTimes bestTimes;
   private StdStopArrivals<T> stopArrivals;
@@ -59,6 +66,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     new VerifyRequestIsValid(context).verify();
     this.ctx = context;
     this.pathConfig = new PathConfig<>(context);
+    this.pooledArrays = StopArraysPool.shared().lease(context.nStops());
     this.strategy = createWorkerStrategy();
   }
 
@@ -70,6 +78,14 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     return strategy;
   }
 
+  /**
+   * Return the stop arrays borrowed by this config to the pool. The worker state and the result of
+   * the search can not be used after this.
+   */
+  public void release() {
+    pooledArrays.release();
+  }
+
   public Heuristics createHeuristics(RaptorRouterResult<T> results) {
     return oneOf(
       new HeuristicsAdapter(
@@ -113,7 +129,8 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
             resolveBestTimes(),
             createStopArrivals(),
             resolveBestNumberOfTransfers(),
-            resolveArrivedAtDestinationCheck()
+            resolveArrivedAtDestinationCheck(),
+            pooledArrays
           ),
           StdWorkerState.class
         );
@@ -126,7 +143,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private BestTimes resolveBestTimes() {
     if (bestTimes == null) {
-      bestTimes = new BestTimes(ctx.nStops(), ctx.calculator(), ctx.lifeCycle());
+      bestTimes = new BestTimes(pooledArrays, ctx.calculator(), ctx.lifeCycle());
     }
     return bestTimes;
   }
@@ -234,7 +251,7 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private SimpleBestNumberOfTransfers createSimpleBestNumberOfTransfers() {
     return withBestNumberOfTransfers(
-      new SimpleBestNumberOfTransfers(ctx.nStops(), ctx.lifeCycle())
+      new SimpleBestNumberOfTransfers(pooledArrays, ctx.lifeCycle())
     );
   }
 
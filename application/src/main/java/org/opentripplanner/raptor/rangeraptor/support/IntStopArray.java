@@ -0,0 +1,61 @@
+package org.opentripplanner.raptor.rangeraptor.support;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An int array with one element for each stop, which keeps track of the elements set. This makes
+ * it possible to reset the array to the initial value by visiting the elements set only. The
+ * arrays are borrowed from the {@link StopArraysPool}.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+public final class IntStopArray {
+
+  private final int[] values;
+  private final BitSet touched;
+  private int initialValue;
+
+  IntStopArray(int nStops, int initialValue) {
+    this.values = new int[nStops];
+    this.touched = new BitSet(nStops);
+    this.initialValue = initialValue;
+    Arrays.fill(values, initialValue);
+  }
+
+  public int get(int stop) {
+    return values[stop];
+  }
+
+  public void set(int stop, int value) {
+    values[stop] = value;
+    touched.set(stop);
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Return the underlying array, the array must not be modified.
+   */
+  public int[] values() {
+    return values;
+  }
+
+  /**
+   * Set all elements to the given initial value. If the initial value is the same as last time,
+   * only the elements set since then are updated.
+   */
+  void reset(int initialValue) {
+    if (initialValue == this.initialValue) {
+      for (int i = touched.nextSetBit(0); i >= 0; i = touched.nextSetBit(i + 1)) {
+        values[i] = initialValue;
+      }
+    } else {
+      Arrays.fill(values, initialValue);
+      this.initialValue = initialValue;
+    }
+    touched.clear();
+  }
+}
@@ -0,0 +1,145 @@
+package org.opentripplanner.raptor.rangeraptor.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A pool of stop-sized arrays used by the standard Range Raptor worker state. Creating and
+ * initializing arrays with one element for each stop is one of the most expensive parts of setting
+ * up a search, and the heuristic searches do it for every request. The pool keeps the arrays for
+ * reuse, and resets them when they are borrowed again. Only the elements set are reset, so the
+ * cost is proportional to the number of stops visited, not the number of stops in the transit
+ * data.
+ * <p>
+ * One pool is shared by all threads, see {@link #shared()}. The arrays are borrowed using a
+ * request scoped {@link Lease}, and the pool is synchronized. The number of free arrays kept is
+ * limited for the whole pool, so the memory used does not grow with the number of threads
+ * routing. All free arrays are dropped if the number of stops change, so the arrays of the old
+ * transit data are not kept after a graph reload.
+ */
+public final class StopArraysPool {
+
+  /**
+   * A request with forward and reverse heuristics uses 6 int arrays and 6 bit-sets, this is
+   * enough to serve a few concurrent requests without allocating new arrays.
+   */
+  private static final int MAX_FREE_ELEMENTS = 32;
+
+  private static final StopArraysPool SHARED = new StopArraysPool(MAX_FREE_ELEMENTS);
+
+  private final int maxFreeElements;
+  private final ArrayDeque<IntStopArray> freeIntArrays = new ArrayDeque<>();
+  private final ArrayDeque<BitSet> freeBitSets = new ArrayDeque<>();
+  private int nStops = -1;
+
+  StopArraysPool(int maxFreeElements) {
+    this.maxFreeElements = maxFreeElements;
+  }
+
+  public static StopArraysPool shared() {
+    return SHARED;
+  }
+
+  /**
+   * Create a new lease for the given number of stops. Borrow arrays from the lease, and return
+   * all of them by calling {@link Lease#release()}.
+   */
+  public Lease lease(int nStops) {
+    return new Lease(nStops);
+  }
+
+  private synchronized IntStopArray borrowIntArray(int nStops, int initialValue) {
+    clearIfNumberOfStopsChanged(nStops);
+    var array = freeIntArrays.poll();
+    if (array == null) {
+      return new IntStopArray(nStops, initialValue);
+    }
+    array.reset(initialValue);
+    return array;
+  }
+
+  private synchronized BitSet borrowBitSet(int nStops) {
+    clearIfNumberOfStopsChanged(nStops);
+    var bitSet = freeBitSets.poll();
+    return bitSet == null ? new BitSet(nStops) : bitSet;
+  }
+
+  private synchronized void release(
+    int nStops,
+    List<IntStopArray> intArrays,
+    List<BitSet> bitSets
+  ) {
+    if (nStops != this.nStops) {
+      return;
+    }
+    for (var it : intArrays) {
+      if (freeIntArrays.size() < maxFreeElements) {
+        freeIntArrays.push(it);
+      }
+    }
+    for (var it : bitSets) {
+      if (freeBitSets.size() < maxFreeElements) {
+        it.clear();
+        freeBitSets.push(it);
+      }
+    }
+  }
+
+  private void clearIfNumberOfStopsChanged(int nStops) {
+    if (nStops != this.nStops) {
+      freeIntArrays.clear();
+      freeBitSets.clear();
+      this.nStops = nStops;
+    }
+  }
+
+  /**
+   * Keep track of the arrays borrowed for one search. The arrays must not be used after the lease
+   * is released.
+   * <p>
+   * THIS CLASS IS NOT THREAD-SAFE.
+   */
+  public final class Lease {
+
+    private final int nStops;
+    private final List<IntStopArray> intArrays = new ArrayList<>();
+    private final List<BitSet> bitSets = new ArrayList<>();
+
+    private Lease(int nStops) {
+      this.nStops = nStops;
+    }
+
+    /**
+     * Borrow an int array with one element for each stop. All elements are set to the given
+     * initial value.
+     */
+    public IntStopArray intArray(int initialValue) {
+      var array = borrowIntArray(nStops, initialValue);
+      intArrays.add(array);
+      return array;
+    }
+
+    /**
+     * Borrow an empty bit-set with one bit for each stop.
+     */
+    public BitSet bitSet() {
+      var bitSet = borrowBitSet(nStops);
+      bitSets.add(bitSet);
+      return bitSet;
+    }
+
+    /**
+     * Return all arrays to the pool. Calling this more than once has no effect.
+     */
+    public void release() {
+      if (intArrays.isEmpty() && bitSets.isEmpty()) {
+        return;
+      }
+      StopArraysPool.this.release(nStops, intArrays, bitSets);
+      intArrays.clear();
+      bitSets.clear();
+    }
+  }
+}
@@ -93,6 +93,18 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     run();
   }
 
+  /**
+   * Return the pooled state used by the heuristic search, so it can be reused by the next search.
+   * The heuristics returned by {@link #result()} can not be used after this, and {@link #result()}
+   * returns {@code null}.
+   */
+  public void release() {
+    if (result != null) {
+      result.release();
+      result = null;
+    }
+  }
+
   public void debugCompareResult(HeuristicSearchTask<T> other) {
     if (!isEnabled() || !other.isEnabled()) {
       return;
@@ -8,7 +8,6 @@ import static org.opentripplanner.raptor.service.HeuristicToRunResolver.resolveH
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
@@ -19,10 +18,11 @@ import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.api.request.SearchParamsBuilder;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.raptor.configure.RaptorConfig;
-import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.StoppableTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +30,9 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel. The search-window of the
+ * main multi-criteria search may also be split into chunks, which are searched in parallel, see
+ * {@link RaptorConfig#createConcurrentRangeRaptorWithMcWorker(RaptorTransitDataProvider, RaptorRequest, Heuristics)}.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -87,6 +89,15 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Release the state used by the heuristic searches. This should be called when the response
+   * is created, the heuristics are not part of the response.
+   */
+  public void releaseHeuristics() {
+    fwdHeuristics.release();
+    revHeuristics.release();
+  }
+
   /**
    * Only exposed for testing purposes
    */
@@ -129,12 +140,16 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
-    RangeRaptor<T> rangeRaptorRouter;
+    RaptorRouter<T> rangeRaptorRouter;
 
     // Create worker
     if (request.profile().is(MULTI_CRITERIA)) {
       rangeRaptorRouter =
-        config.createRangeRaptorWithMcWorker(transitData, request, getDestinationHeuristics());
+        config.createConcurrentRangeRaptorWithMcWorker(
+          transitData,
+          request,
+          getDestinationHeuristics()
+        );
     } else {
       rangeRaptorRouter = config.createRangeRaptorWithStdWorker(transitData, request);
     }
@@ -170,9 +185,14 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
   private void runHeuristicsInParallel() {
     fwdHeuristics.withRequest(originalRequest);
     revHeuristics.withRequest(originalRequest);
-    Future<?> asyncResult = null;
+    var asyncResult = StoppableTask.submit(
+      config.threadPool(),
+      () -> {
+        fwdHeuristics.run();
+        return null;
+      }
+    );
     try {
-      asyncResult = config.threadPool().submit(fwdHeuristics::run);
       revHeuristics.run();
       asyncResult.get();
       LOG.debug(
@@ -180,8 +200,6 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       );
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      // propagate interruption to the running task.
-      asyncResult.cancel(true);
       throw new OTPRequestTimeoutException();
     } catch (ExecutionException e) {
       if (e.getCause() instanceof DestinationNotReachedException) {
@@ -191,6 +209,11 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       throw new IllegalStateException(
         "Failed to run FORWARD/REVERSE heuristic search in parallel. Details: " + e.getMessage()
       );
+    } finally {
+      // Propagate the interruption to the running task if the reverse search fails or times out,
+      // and wait for it to stop before the heuristics are released
+      asyncResult.cancel();
+      asyncResult.awaitStopped();
     }
   }
 
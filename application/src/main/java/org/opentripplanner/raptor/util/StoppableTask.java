@@ -0,0 +1,85 @@
+package org.opentripplanner.raptor.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A task running in a thread pool, which can be cancelled and then waited for until it has
+ * stopped. Cancelling a {@link Future} interrupts the running task, but does not wait for it to
+ * return. The Raptor searches use state borrowed from a pool, and the state must not be returned
+ * to the pool while a cancelled search is still running.
+ * <p>
+ * A task cancelled before it is started is never run.
+ */
+public final class StoppableTask<V> {
+
+  private final Callable<V> task;
+  private final AtomicBoolean claimed = new AtomicBoolean(false);
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  private Future<V> future;
+
+  private StoppableTask(Callable<V> task) {
+    this.task = task;
+  }
+
+  public static <V> StoppableTask<V> submit(ExecutorService threadPool, Callable<V> task) {
+    var it = new StoppableTask<>(task);
+    it.future = threadPool.submit(it::call);
+    return it;
+  }
+
+  /**
+   * Wait for the task to complete, see {@link Future#get()}.
+   */
+  public V get() throws InterruptedException, ExecutionException {
+    return future.get();
+  }
+
+  /**
+   * Interrupt the task if it is running, a task not started is never run. This has no effect on
+   * a completed task. This does not wait for the task to stop, see {@link #awaitStopped()}.
+   */
+  public void cancel() {
+    if (claimed.compareAndSet(false, true)) {
+      stopped.countDown();
+      future.cancel(false);
+    } else {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Wait until the task is completed or cancelled before it was started. If the calling thread is
+   * interrupted while waiting, the wait continues and the interrupt flag is set again before
+   * returning.
+   */
+  public void awaitStopped() {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        stopped.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private V call() throws Exception {
+    if (!claimed.compareAndSet(false, true)) {
+      return null;
+    }
+    try {
+      return task.call();
+    } finally {
+      stopped.countDown();
+    }
+  }
+}
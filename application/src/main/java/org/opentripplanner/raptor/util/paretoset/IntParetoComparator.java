@@ -0,0 +1,13 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+/**
+ * Same as the {@link ParetoComparator}, but the elements are represented by an int handle. The
+ * comparator is responsible for looking up the criteria for a given handle.
+ */
+@FunctionalInterface
+public interface IntParetoComparator {
+  /**
+   * At least one of the left criteria dominates one of the corresponding right criteria.
+   */
+  boolean leftDominanceExist(int left, int right);
+}
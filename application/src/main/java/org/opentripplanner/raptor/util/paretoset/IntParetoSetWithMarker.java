@@ -0,0 +1,198 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * A pareto-set of int handles. The set works the same way as the {@link ParetoSetWithMarker}, but
+ * the elements are stored in an int array, and the criteria of each element is looked up by the
+ * {@link IntParetoComparator}. This avoids creating an object for each element, when the criteria
+ * is stored somewhere else, for example in a set of primitive arrays indexed by the handle.
+ * <p>
+ * The handles must be non-negative, and the criteria of an element must not change while the
+ * element is in the set.
+ * <p>
+ * The set does not support iterators, use {@link #marker()}, {@link #size()} and
+ * {@link #get(int)} to list the elements. Do not add elements to the set while doing so.
+ * <p>
+ * THIS CLASS IS NOT THREAD-SAFE.
+ */
+public class IntParetoSetWithMarker {
+
+  private static final int NOT_SET = -1;
+
+  private final IntParetoComparator comparator;
+
+  @Nullable
+  private final IntConsumer acceptedListener;
+
+  private int[] elements = new int[16];
+  private int size = 0;
+  private int marker = 0;
+  private int goodElement = NOT_SET;
+
+  /**
+   * @param acceptedListener notified when an element is accepted, this is called before the
+   *                         {@link #add(int)} method returns.
+   */
+  public IntParetoSetWithMarker(
+    IntParetoComparator comparator,
+    @Nullable IntConsumer acceptedListener
+  ) {
+    this.comparator = comparator;
+    this.acceptedListener = acceptedListener;
+  }
+
+  public IntParetoSetWithMarker(IntParetoComparator comparator) {
+    this(comparator, null);
+  }
+
+  public int get(int index) {
+    return elements[index];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * The index of the first element added after the marker was set.
+   */
+  public int marker() {
+    return marker;
+  }
+
+  public boolean hasElementsAfterMarker() {
+    return marker != size;
+  }
+
+  /**
+   * Move the marker after the last element in the set.
+   */
+  public void markAtEndOfSet() {
+    marker = size;
+  }
+
+  public void clear() {
+    size = 0;
+    marker = 0;
+    goodElement = NOT_SET;
+  }
+
+  /**
+   * Add the element to the set if it is pareto-optimal, any elements dominated by the new element
+   * are dropped. See {@link ParetoSet#add(Object)}.
+   *
+   * @return {@code true} if the element is added.
+   */
+  public boolean add(int newValue) {
+    if (size == 0) {
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // Quick shortcut, one element probably dominate most of the new elements
+    if (goodElement != NOT_SET && leftVectorDominatesRightVector(goodElement, newValue)) {
+      return false;
+    }
+
+    boolean mutualDominanceExist = false;
+    boolean equivalentVectorExist = false;
+
+    for (int i = 0; i < size; ++i) {
+      int it = elements[i];
+
+      boolean leftDominance = comparator.leftDominanceExist(newValue, it);
+      boolean rightDominance = comparator.leftDominanceExist(it, newValue);
+
+      if (leftDominance && rightDominance) {
+        mutualDominanceExist = true;
+      } else if (leftDominance) {
+        removeDominatedElementsFromRestOfSetAndAddNewElement(newValue, i);
+        return true;
+      } else if (rightDominance) {
+        goodElement = it;
+        return false;
+      } else {
+        equivalentVectorExist = true;
+      }
+    }
+
+    if (mutualDominanceExist && !equivalentVectorExist) {
+      assertEnoughSpaceInSet();
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // No dominance found, newValue is equivalent with all values in the set
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(elements, size));
+  }
+
+  /**
+   * Remove all elements dominated by the {@code newValue} starting from {@code index + 1}. The
+   * element at {@code index} is dropped.
+   */
+  private void removeDominatedElementsFromRestOfSetAndAddNewElement(
+    final int newValue,
+    final int index
+  ) {
+    // Let 'i' be the current element index for removal
+    int i = index;
+    // Let 'j' be the next element to compare
+    int j = index + 1;
+
+    while (j < size) {
+      moveMarker(j, i);
+      // Move next element(j) forward if it is not dominated by the new value
+      if (!leftVectorDominatesRightVector(newValue, elements[j])) {
+        elements[i] = elements[j];
+        ++i;
+      }
+      // Goto the next element
+      ++j;
+    }
+    moveMarker(j, i);
+    notifyElementAccepted(newValue);
+    elements[i] = newValue;
+    size = i + 1;
+  }
+
+  private boolean leftVectorDominatesRightVector(int left, int right) {
+    return (
+      comparator.leftDominanceExist(left, right) && !comparator.leftDominanceExist(right, left)
+    );
+  }
+
+  private void acceptAndAppendValue(int newValue) {
+    notifyElementAccepted(newValue);
+    elements[size++] = newValue;
+  }
+
+  private void assertEnoughSpaceInSet() {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+  }
+
+  private void moveMarker(int fromIndex, int toIndex) {
+    if (fromIndex == marker) {
+      marker = toIndex;
+    }
+  }
+
+  private void notifyElementAccepted(int newElement) {
+    if (acceptedListener != null) {
+      acceptedListener.accept(newElement);
+    }
+  }
+}
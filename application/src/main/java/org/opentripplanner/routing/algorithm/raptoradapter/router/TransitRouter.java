@@ -255,30 +255,37 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
+    // The flex router needs the stops within walking distance, search the streets only once
+    boolean flex = OTPFeature.FlexRouting.isOn() && streetRequest.mode() == StreetMode.FLEXIBLE;
+    var limits = new ArrayList<AccessEgressRouter.SearchLimit>();
+    limits.add(new AccessEgressRouter.SearchLimit(durationLimit, stopCountLimit));
+    if (flex) {
+      limits.add(FlexAccessEgressRouter.walkSearchLimit(serverContext.flexParameters(), type));
+    }
+
     var nearbyStops = AccessEgressRouter.findAccessEgresses(
       accessRequest,
       temporaryVerticesContainer,
       streetRequest,
       serverContext.dataOverlayContext(accessRequest),
       type,
-      durationLimit,
-      stopCountLimit
+      limits,
+      serverContext.accessEgressCache()
     );
-    var accessEgresses = AccessEgressMapper.mapNearbyStops(nearbyStops, type);
+    var accessEgresses = AccessEgressMapper.mapNearbyStops(nearbyStops.getFirst(), type);
     accessEgresses = timeshiftRideHailing(streetRequest, type, accessEgresses);
 
     var results = new ArrayList<>(accessEgresses);
 
     // Special handling of flex accesses
-    if (OTPFeature.FlexRouting.isOn() && streetRequest.mode() == StreetMode.FLEXIBLE) {
+    if (flex) {
       var flexAccessList = FlexAccessEgressRouter.routeAccessEgress(
         accessRequest,
-        temporaryVerticesContainer,
         serverContext,
         additionalSearchDays,
         serverContext.flexParameters(),
-        serverContext.dataOverlayContext(accessRequest),
-        type
+        type,
+        nearbyStops.getLast()
       );
 
       results.addAll(AccessEgressMapper.mapFlexAccessEgresses(flexAccessList, type));
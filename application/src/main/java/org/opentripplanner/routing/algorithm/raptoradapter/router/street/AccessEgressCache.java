@@ -0,0 +1,141 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Cache the stops found by the street access/egress search across requests. Most requests start
+ * or end at a limited set of places, like stations and popular addresses, and the street search
+ * from these places gives the same result each time.
+ * <p>
+ * The results are cached by origin, street mode, preferences and search limits. Temporary origin
+ * vertices are created for each request, so they are identified by their coordinate and name;
+ * permanent vertices, like stops and station centroids, are identified by the vertex itself. The
+ * search is time independent for the cached modes, the itineraries are time-shifted to the Raptor
+ * departure time when they are mapped, so the start time is not part of the key.
+ * <p>
+ * Only walk, bicycle and vehicle rental searches are cached. Driving searches depend on the
+ * destination, parking depends on the opening hours and flex on the schedule. The vehicle rental
+ * results depend on the rental stations and geofencing zones, so they are discarded when
+ * {@link Graph#realTimeStreetVersion()} changes.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class AccessEgressCache {
+
+  private final Cache<CacheKey, Entry> cache;
+  private final Graph graph;
+
+  /**
+   * @param maximumSize The maximum number of access/egress search results to cache.
+   */
+  public AccessEgressCache(int maximumSize, Graph graph) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    this.graph = graph;
+  }
+
+  /**
+   * Create a new cache, or return {@code null} if the given size is zero and caching is disabled.
+   */
+  @Nullable
+  public static AccessEgressCache create(int maximumSize, Graph graph) {
+    return maximumSize > 0 ? new AccessEgressCache(maximumSize, graph) : null;
+  }
+
+  /** The underlying cache, exposed to report the cache statistics. */
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  /**
+   * Return {@code true} if the street search for the given request can be cached.
+   */
+  static boolean isCacheable(StreetRequest streetRequest, @Nullable DataOverlayContext overlay) {
+    StreetMode mode = streetRequest.mode();
+    return (
+      overlay == null &&
+      mode != StreetMode.NOT_SET &&
+      mode != StreetMode.FLEXIBLE &&
+      !mode.includesDriving() &&
+      !mode.includesParking()
+    );
+  }
+
+  /**
+   * Return the cached stops for the given key, or run the search and cache the result.
+   */
+  Collection<NearbyStop> findNearbyStops(CacheKey key, Supplier<Collection<NearbyStop>> search) {
+    // Read the version before the search, the result is outdated if the graph is updated during it
+    long version = graph.realTimeStreetVersion();
+    Entry entry = cache.getIfPresent(key);
+
+    if (entry != null && entry.isValid(version)) {
+      return entry.stops();
+    }
+    var stops = List.copyOf(search.get());
+    cache.put(key, new Entry(version, key.mode().includesRenting(), stops));
+    return stops;
+  }
+
+  static CacheKey key(
+    Set<Vertex> originVertices,
+    RouteRequest request,
+    StreetRequest streetRequest,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount
+  ) {
+    return new CacheKey(
+      originVertices.stream().map(AccessEgressCache::originKey).collect(Collectors.toSet()),
+      accessOrEgress,
+      streetRequest.mode(),
+      durationLimit,
+      maxStopCount,
+      request.wheelchair(),
+      request.preferences()
+    );
+  }
+
+  private static Object originKey(Vertex vertex) {
+    if (vertex instanceof TemporaryVertex) {
+      var coordinate = new Coordinate(vertex.getLon(), vertex.getLat());
+      return new TemporaryOrigin(coordinate, vertex.getDefaultName());
+    }
+    return vertex;
+  }
+
+  record CacheKey(
+    Set<Object> origin,
+    AccessEgressType accessOrEgress,
+    StreetMode mode,
+    Duration durationLimit,
+    int maxStopCount,
+    boolean wheelchair,
+    RoutingPreferences preferences
+  ) {}
+
+  private record TemporaryOrigin(Coordinate coordinate, String name) {}
+
+  private record Entry(long version, boolean realTimeDependent, List<NearbyStop> stops) {
+    boolean isValid(long currentVersion) {
+      return !realTimeDependent || version == currentVersion;
+    }
+  }
+}
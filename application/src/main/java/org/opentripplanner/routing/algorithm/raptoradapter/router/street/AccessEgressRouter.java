@@ -2,7 +2,9 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
@@ -13,6 +15,7 @@ import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.site.RegularStop;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +39,32 @@ public class AccessEgressRouter {
     AccessEgressType accessOrEgress,
     Duration durationLimit,
     int maxStopCount
+  ) {
+    return findAccessEgresses(
+      request,
+      verticesContainer,
+      streetRequest,
+      dataOverlayContext,
+      accessOrEgress,
+      durationLimit,
+      maxStopCount,
+      null
+    );
+  }
+
+  /**
+   * Find accesses or egresses, the street search result is cached if a cache is given and the
+   * search can be cached, see {@link AccessEgressCache}.
+   */
+  public static Collection<NearbyStop> findAccessEgresses(
+    RouteRequest request,
+    TemporaryVerticesContainer verticesContainer,
+    StreetRequest streetRequest,
+    @Nullable DataOverlayContext dataOverlayContext,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount,
+    @Nullable AccessEgressCache cache
   ) {
     OTPRequestTimeoutException.checkForTimeout();
 
@@ -58,19 +87,65 @@ public class AccessEgressRouter {
     var originVertices = accessOrEgress.isAccess()
       ? verticesContainer.getFromVertices()
       : verticesContainer.getToVertices();
-    var streetAccessEgress = new StreetNearbyStopFinder(
-      durationLimit,
-      maxStopCount,
-      dataOverlayContext,
-      ignoreVertices
-    )
-      .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
+    Supplier<Collection<NearbyStop>> streetSearch = () ->
+      new StreetNearbyStopFinder(durationLimit, maxStopCount, dataOverlayContext, ignoreVertices)
+        .findNearbyStops(originVertices, request, streetRequest, accessOrEgress.isEgress());
+
+    Collection<NearbyStop> streetAccessEgress;
+    if (cache != null && AccessEgressCache.isCacheable(streetRequest, dataOverlayContext)) {
+      var key = AccessEgressCache.key(
+        originVertices,
+        request,
+        streetRequest,
+        accessOrEgress,
+        durationLimit,
+        maxStopCount
+      );
+      streetAccessEgress = cache.findNearbyStops(key, streetSearch);
+    } else {
+      streetAccessEgress = streetSearch.get();
+    }
 
     var results = ListUtils.combine(zeroDistanceAccessEgress, streetAccessEgress);
     LOG.debug("Found {} {} stops", results.size(), accessOrEgress);
     return results;
   }
 
+  /**
+   * Find accesses or egresses for several search limits with a single street search from the
+   * origin. This is used when more than one router needs the stops around the same origin with the
+   * same street mode and preferences, like the Raptor access and the flex access for the flexible
+   * mode. The street search runs with the widest of the limits, and the result is filtered for the
+   * other limits, see {@link SearchLimit}.
+   *
+   * @return the stops for each limit, in the order of the given limits.
+   */
+  public static List<List<NearbyStop>> findAccessEgresses(
+    RouteRequest request,
+    TemporaryVerticesContainer verticesContainer,
+    StreetRequest streetRequest,
+    @Nullable DataOverlayContext dataOverlayContext,
+    AccessEgressType accessOrEgress,
+    List<SearchLimit> limits,
+    @Nullable AccessEgressCache cache
+  ) {
+    var widest = SearchLimit.widest(limits);
+    var stops = findAccessEgresses(
+      request,
+      verticesContainer,
+      streetRequest,
+      dataOverlayContext,
+      accessOrEgress,
+      widest.durationLimit(),
+      widest.maxStopCount(),
+      cache
+    );
+    return limits
+      .stream()
+      .map(limit -> limit.equals(widest) ? List.copyOf(stops) : limit.filter(stops))
+      .toList();
+  }
+
   /**
    * Return a list of direct accesses/egresses that do not require any street search. This will
    * return an empty list if the source/destination is not a stopId.
@@ -92,4 +167,66 @@ public class AccessEgressRouter {
       streetRequest
     );
   }
+
+  /**
+   * The limits of an access/egress street search. A zero {@code maxStopCount} means no limit.
+   * <p>
+   * A search with a lower limit stops earlier, and finds the states within the limit of a search
+   * with a higher limit. The {@link #filter(Collection)} method selects these from the result of
+   * the wider search: the stops where the search did not have to continue past the duration
+   * limit to reach them, and the closest stops up to the stop count. This is the same result as a
+   * separate search, except when the lowest weight path to a stop is too long, but a slower
+   * path with a higher weight is within the duration limit.
+   */
+  public record SearchLimit(Duration durationLimit, int maxStopCount) {
+    static SearchLimit widest(Collection<SearchLimit> limits) {
+      Duration duration = Duration.ZERO;
+      int maxStopCount = 0;
+      boolean unlimitedStopCount = false;
+      for (var it : limits) {
+        duration = it.durationLimit.compareTo(duration) > 0 ? it.durationLimit : duration;
+        maxStopCount = Math.max(maxStopCount, it.maxStopCount);
+        unlimitedStopCount |= it.maxStopCount == 0;
+      }
+      return new SearchLimit(duration, unlimitedStopCount ? 0 : maxStopCount);
+    }
+
+    List<NearbyStop> filter(Collection<NearbyStop> stops) {
+      var result = stops.stream().filter(this::isWithinDuration).toList();
+      if (maxStopCount == 0) {
+        return result;
+      }
+      // The stops reached without a street search do not count, like in the street search
+      var streetStops = result
+        .stream()
+        .filter(it -> isReachedOnStreet(it) && it.stop instanceof RegularStop)
+        .sorted(Comparator.comparingDouble(it -> it.state.getWeight()))
+        .toList();
+      if (streetStops.size() <= maxStopCount) {
+        return result;
+      }
+      double maxWeight = streetStops.get(maxStopCount - 1).state.getWeight();
+      return result
+        .stream()
+        .filter(it ->
+          !isReachedOnStreet(it) ||
+          !(it.stop instanceof RegularStop) ||
+          it.state.getWeight() <= maxWeight
+        )
+        .toList();
+    }
+
+    /** The street search continues from a state until its duration is longer than the limit. */
+    private boolean isWithinDuration(NearbyStop stop) {
+      if (!isReachedOnStreet(stop)) {
+        return true;
+      }
+      var previous = stop.state.getBackState();
+      return previous.getElapsedTimeSeconds() <= durationLimit.toSeconds();
+    }
+
+    private static boolean isReachedOnStreet(NearbyStop stop) {
+      return stop.state != null && stop.state.getBackState() != null;
+    }
+  }
 }
@@ -16,6 +16,7 @@ import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.ch.ContractionHierarchyRouter;
 import org.opentripplanner.street.search.state.State;
 
 /**
@@ -51,7 +52,9 @@ public class DirectStreetRouter {
       GraphPathFinder gpFinder = new GraphPathFinder(
         serverContext.traverseVisitor(),
         serverContext.dataOverlayContext(request),
-        maxCarSpeed
+        maxCarSpeed,
+        new ContractionHierarchyRouter(serverContext.graph()),
+        serverContext.graph().getLandmarkTable()
       );
       List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
         directRequest,
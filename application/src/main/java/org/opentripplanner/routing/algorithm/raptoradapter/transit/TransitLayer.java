@@ -12,6 +12,7 @@ import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
@@ -35,7 +36,7 @@ public class TransitLayer {
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, Collection<TripPatternForDate>> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -52,6 +53,8 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  private final TripPatternForDatesCache tripPatternForDatesCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -62,7 +65,9 @@ public class TransitLayer {
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The TransitLayerUpdater uses immutable
+   * {@link org.opentripplanner.framework.collection.ChunkedCollection}s as values, so the
+   * unchanged parts of each date are shared between the copies.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -71,6 +76,7 @@ public class TransitLayer {
       transitLayer.transferService,
       transitLayer.stopModel,
       transitLayer.transferCache,
+      transitLayer.tripPatternForDatesCache,
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightTransferCosts
@@ -78,11 +84,12 @@ public class TransitLayer {
   }
 
   public TransitLayer(
-    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    Map<LocalDate, ? extends Collection<TripPatternForDate>> tripPatternsRunningOnDate,
     List<List<Transfer>> transfersByStopIndex,
     TransferService transferService,
     StopModel stopModel,
     RaptorRequestTransferCache transferCache,
+    TripPatternForDatesCache tripPatternForDatesCache,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
@@ -92,6 +99,7 @@ public class TransitLayer {
     this.transferService = transferService;
     this.stopModel = stopModel;
     this.transferCache = transferCache;
+    this.tripPatternForDatesCache = tripPatternForDatesCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
@@ -121,7 +129,9 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
+    Collection<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(
+      runningPeriodDate
+    );
     return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
   }
 
@@ -157,6 +167,13 @@ public class TransitLayer {
     return transferCache;
   }
 
+  /**
+   * The cache is shared between this instance and all copies made by the realtime updater.
+   */
+  public TripPatternForDatesCache getTripPatternForDatesCache() {
+    return tripPatternForDatesCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -177,11 +194,11 @@ public class TransitLayer {
 
   /**
    * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * to the HashMap implementation. The given collection must not be modified after this.
    */
   public void replaceTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> tripPatternForDates
   ) {
     this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
   }
@@ -47,6 +47,16 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 0;
+    }
+
+    @Override
+    public int accessEgressCacheMaxSize() {
+      return 0;
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +93,22 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * The maximum number of distinct search-day/transit-filter combinations for which the merged
+   * trip patterns should be cached across requests. Each entry holds a copy of all the timetables
+   * active in the search days, so this should be kept small. Set it to zero(0) to disable the
+   * cache.
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache}
+   */
+  int tripPatternCacheMaxSize();
+
+  /**
+   * The maximum number of street access/egress search results to cache across requests. Set it
+   * to zero(0) to disable the cache.
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}
+   */
+  int accessEgressCacheMaxSize();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
@@ -21,6 +21,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtr
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.RaptorCostConverter;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripPatternForDatesCache;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -81,6 +82,9 @@ public class TransitLayerMapper {
     }
 
     var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var tripPatternForDatesCache = new TripPatternForDatesCache(
+      tuningParameters.tripPatternCacheMaxSize()
+    );
 
     LOG.info("Mapping complete.");
 
@@ -90,6 +94,7 @@ public class TransitLayerMapper {
       transitService.getTransferService(),
       stopModel,
       transferCache,
+      tripPatternForDatesCache,
       constrainedTransfers,
       transferIndexGenerator,
       createStopBoardAlightTransferCosts(stopModel, tuningParameters)
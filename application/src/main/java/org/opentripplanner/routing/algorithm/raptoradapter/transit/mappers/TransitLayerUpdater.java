@@ -2,20 +2,24 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.collection.ChunkedCollection;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -39,6 +43,17 @@ public class TransitLayerUpdater {
 
   private static final Logger LOG = LoggerFactory.getLogger(TransitLayerUpdater.class);
 
+  /**
+   * The time it takes from a timetable snapshot is committed until the updated realtime
+   * TransitLayer is visible for routing.
+   */
+  private static final Timer UPDATE_TIMER = Timer
+    .builder("realtime_transit_layer_update")
+    .description(
+      "Time from a timetable snapshot commit until the realtime transit layer is visible"
+    )
+    .register(Metrics.globalRegistry);
+
   private final TransitEditorService transitService;
 
   /**
@@ -53,7 +68,12 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
+  /**
+   * The TripPatternForDates running on each date. The builders share the unchanged parts with the
+   * collections published in the TransitLayer, so each update only copies the parts touched by
+   * the updated patterns.
+   */
+  private final Map<LocalDate, ChunkedCollection.Builder<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
 
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
@@ -67,7 +87,7 @@ public class TransitLayerUpdater {
       return;
     }
 
-    long startTime = System.currentTimeMillis();
+    long startTime = System.nanoTime();
 
     // Make a shallow copy of the realtime transit layer. Only the objects that are copied will be
     // changed during this update process.
@@ -157,11 +177,11 @@ public class TransitLayerUpdater {
     for (LocalDate date : datesToBeUpdated) {
       tripPatternsRunningOnDateMapCache.computeIfAbsent(
         date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
+        p -> ChunkedCollection.of(realtimeTransitLayer.getTripPatternsForRunningDate(date))
       );
 
       // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
+      var patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
 
       for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
         .asMap()
@@ -213,21 +233,34 @@ public class TransitLayerUpdater {
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.replaceTripPatternsForDate(date, patternsForDate.build());
     }
 
     if (transferIndexGenerator != null) {
       realtimeTransitLayer.setConstrainedTransfers(transferIndexGenerator.generateTransfers());
     }
 
+    // The cached request timetables for the updated patterns are outdated, release them
+    Set<RoutingTripPattern> updatedPatterns = new HashSet<>();
+    for (TripPattern pattern : oldTripPatternsForDate.keySet()) {
+      updatedPatterns.add(pattern.getRoutingTripPattern());
+    }
+    for (TripPattern pattern : newTripPatternsForDate.keySet()) {
+      updatedPatterns.add(pattern.getRoutingTripPattern());
+    }
+    realtimeTransitLayer.getTripPatternForDatesCache().invalidate(updatedPatterns);
+
     // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
     // guarantee that the reference is set after all the fields have been updated.
     transitService.setRealtimeTransitLayer(realtimeTransitLayer);
 
+    long duration = System.nanoTime() - startTime;
+    UPDATE_TIMER.record(duration, TimeUnit.NANOSECONDS);
+
     LOG.debug(
       "UPDATING {} tripPatterns took {} ms",
       updatedTimetables.size(),
-      System.currentTimeMillis() - startTime
+      TimeUnit.NANOSECONDS.toMillis(duration)
     );
   }
 }
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
@@ -96,59 +97,20 @@ class RaptorRoutingRequestTransitDataCreator {
     TransitDataProviderFilter filter,
     TransitGroupPriorityService transitGroupPriorityService
   ) {
-    // Group TripPatternForDate objects by TripPattern.
-    // This is done in a loop to increase performance.
-    Map<RoutingTripPattern, List<TripPatternForDate>> patternForDateByPattern = new HashMap<>();
-    for (TripPatternForDate patternForDate : patternForDateList) {
-      patternForDateByPattern
-        .computeIfAbsent(patternForDate.getTripPattern(), k -> new ArrayList<>())
-        .add(patternForDate);
-    }
-
     List<TripPatternForDates> combinedList = new ArrayList<>();
 
     TObjectIntMap<LocalDate> offsetCache = new TObjectIntHashMap<>();
 
     // For each TripPattern, time expand each TripPatternForDate and merge into a single
     // TripPatternForDates
-    for (Map.Entry<RoutingTripPattern, List<TripPatternForDate>> patternEntry : patternForDateByPattern.entrySet()) {
-      // Sort by date. We can mutate the array, as it was created above in the grouping.
-      TripPatternForDate[] patternsSorted = patternEntry
-        .getValue()
-        .toArray(new TripPatternForDate[0]);
-      Arrays.sort(patternsSorted);
-
-      // Calculate offsets per date
-      int[] offsets = new int[patternsSorted.length];
-      for (int i = 0; i < patternsSorted.length; i++) {
-        LocalDate serviceDate = patternsSorted[i].getServiceDate();
-        if (offsetCache.containsKey(serviceDate)) {
-          offsets[i] = offsetCache.get(serviceDate);
-        } else {
-          offsets[i] = secondsSinceStartOfTime(transitSearchTimeZero, serviceDate);
-          offsetCache.put(serviceDate, offsets[i]);
-        }
-      }
-
-      // Combine TripPatternForDate objects
-      final RoutingTripPattern tripPattern = patternEntry.getKey();
-
+    for (TripPatternForDate[] patternsSorted : groupByPatternSortedByDate(patternForDateList)) {
       combinedList.add(
-        new TripPatternForDates(
-          tripPattern,
+        mergePattern(
+          transitSearchTimeZero,
           patternsSorted,
-          offsets,
-          filter.filterAvailableStops(
-            tripPattern,
-            tripPattern.getBoardingPossible(),
-            BoardAlight.BOARD
-          ),
-          filter.filterAvailableStops(
-            tripPattern,
-            tripPattern.getAlightingPossible(),
-            BoardAlight.ALIGHT
-          ),
-          transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
+          offsetCache,
+          filter,
+          transitGroupPriorityService
         )
       );
     }
@@ -162,6 +124,20 @@ class RaptorRoutingRequestTransitDataCreator {
     TransitDataProviderFilter filter,
     TransitGroupPriorityService transitGroupPriorityService
   ) {
+    var cache = transitLayer.getTripPatternForDatesCache();
+
+    // The transit-group-priority-ids are assigned in request scope, so we can only use the cache
+    // if the transit-group-priority feature is not in use.
+    if (cache.isEnabled() && !transitGroupPriorityService.isEnabled()) {
+      return createTripPatternsUsingCache(
+        cache,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transitGroupPriorityService
+      );
+    }
+
     List<TripPatternForDate> tripPatternForDates = getTripPatternsForDateRange(
       additionalPastSearchDays,
       additionalFutureSearchDays,
@@ -171,32 +147,169 @@ class RaptorRoutingRequestTransitDataCreator {
     return merge(transitSearchTimeZero, tripPatternForDates, filter, transitGroupPriorityService);
   }
 
+  /**
+   * Same as {@link #createTripPatterns(int, int, TransitDataProviderFilter, TransitGroupPriorityService)},
+   * but the merged patterns are fetched from the cache. Only the patterns missing in the cache, or
+   * changed since they were cached, are filtered and merged.
+   */
+  private List<TripPatternForDates> createTripPatternsUsingCache(
+    TripPatternForDatesCache cache,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService
+  ) {
+    var cachedPatterns = cache.get(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    // The filter is NOT applied here, the unfiltered instances are used to validate the cached
+    // values.
+    var tripPatternForDates = getTripPatternsForDateRange(
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      null
+    );
+    var tripTimesPredicates = new TripTimesPredicates(filter);
+    TObjectIntMap<LocalDate> offsetCache = new TObjectIntHashMap<>();
+    List<TripPatternForDates> result = new ArrayList<>();
+    int cacheMisses = 0;
+
+    for (TripPatternForDate[] source : groupByPatternSortedByDate(tripPatternForDates)) {
+      var cached = TripPatternForDatesCache.find(cachedPatterns, source);
+      TripPatternForDates merged;
+
+      if (cached != null) {
+        merged = cached.merged();
+      } else {
+        ++cacheMisses;
+        var filtered = new ArrayList<TripPatternForDate>(source.length);
+        for (TripPatternForDate it : source) {
+          var tripPatternForDate = filterTripPattern(it, filter, tripTimesPredicates);
+          if (tripPatternForDate != null) {
+            filtered.add(tripPatternForDate);
+          }
+        }
+        merged =
+          filtered.isEmpty()
+            ? null
+            : mergePattern(
+              transitSearchTimeZero,
+              filtered.toArray(new TripPatternForDate[0]),
+              offsetCache,
+              filter,
+              transitGroupPriorityService
+            );
+        TripPatternForDatesCache.put(cachedPatterns, source, merged);
+      }
+      if (merged != null) {
+        result.add(merged);
+      }
+    }
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Trip pattern cache misses: {} of {}.", cacheMisses, cachedPatterns.size());
+    }
+    return result;
+  }
+
+  /**
+   * Group the given TripPatternForDate objects by TripPattern, each group is sorted by date.
+   */
+  private static Collection<TripPatternForDate[]> groupByPatternSortedByDate(
+    List<TripPatternForDate> patternForDateList
+  ) {
+    // Group TripPatternForDate objects by TripPattern.
+    // This is done in a loop to increase performance.
+    Map<RoutingTripPattern, List<TripPatternForDate>> patternForDateByPattern = new HashMap<>();
+    for (TripPatternForDate patternForDate : patternForDateList) {
+      patternForDateByPattern
+        .computeIfAbsent(patternForDate.getTripPattern(), k -> new ArrayList<>())
+        .add(patternForDate);
+    }
+
+    List<TripPatternForDate[]> result = new ArrayList<>(patternForDateByPattern.size());
+    for (List<TripPatternForDate> patterns : patternForDateByPattern.values()) {
+      // Sort by date. We can mutate the array, as it was created above in the grouping.
+      TripPatternForDate[] patternsSorted = patterns.toArray(new TripPatternForDate[0]);
+      Arrays.sort(patternsSorted);
+      result.add(patternsSorted);
+    }
+    return result;
+  }
+
+  /**
+   * Time expand each TripPatternForDate and merge into a single TripPatternForDates. All elements
+   * in {@code patternsSorted} must belong to the same pattern and be sorted by date.
+   */
+  private static TripPatternForDates mergePattern(
+    ZonedDateTime transitSearchTimeZero,
+    TripPatternForDate[] patternsSorted,
+    TObjectIntMap<LocalDate> offsetCache,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService
+  ) {
+    // Calculate offsets per date
+    int[] offsets = new int[patternsSorted.length];
+    for (int i = 0; i < patternsSorted.length; i++) {
+      LocalDate serviceDate = patternsSorted[i].getServiceDate();
+      if (offsetCache.containsKey(serviceDate)) {
+        offsets[i] = offsetCache.get(serviceDate);
+      } else {
+        offsets[i] = secondsSinceStartOfTime(transitSearchTimeZero, serviceDate);
+        offsetCache.put(serviceDate, offsets[i]);
+      }
+    }
+
+    // Combine TripPatternForDate objects
+    final RoutingTripPattern tripPattern = patternsSorted[0].getTripPattern();
+
+    return new TripPatternForDates(
+      tripPattern,
+      patternsSorted,
+      offsets,
+      filter.filterAvailableStops(
+        tripPattern,
+        tripPattern.getBoardingPossible(),
+        BoardAlight.BOARD
+      ),
+      filter.filterAvailableStops(
+        tripPattern,
+        tripPattern.getAlightingPossible(),
+        BoardAlight.ALIGHT
+      ),
+      transitGroupPriorityService.lookupTransitGroupPriorityId(tripPattern.getPattern())
+    );
+  }
+
+  /**
+   * @param filter If {@code null} the trip patterns are not filtered, only the active patterns
+   *               are returned.
+   */
   private static List<TripPatternForDate> filterActiveTripPatterns(
     TransitLayer transitLayer,
     LocalDate date,
     boolean firstDay,
-    TransitDataProviderFilter filter
+    @Nullable TransitDataProviderFilter filter
   ) {
     // On the first search day we want to add both TripPatternsForDate objects that start that day
     // and any previous day, while on subsequent search days we only want to add the
     // TripPatternForDate objects that start on that particular day. This is to prevent duplicates.
     // This was previously a stream, but was unrolled for improved performance.
 
-    Predicate<TripTimes> tripTimesWithSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, filter.hasSubModeFilters());
-    Predicate<TripTimes> tripTimesWithoutSubmodesPredicate = tripTimes ->
-      filter.tripTimesPredicate(tripTimes, false);
+    var tripTimesPredicates = filter == null ? null : new TripTimesPredicates(filter);
     Collection<TripPatternForDate> tripPatternsForDate = transitLayer.getTripPatternsForRunningDate(
       date
     );
     List<TripPatternForDate> result = new ArrayList<>(tripPatternsForDate.size());
     for (TripPatternForDate p : tripPatternsForDate) {
       if (firstDay || p.getStartOfRunningPeriod().equals(date)) {
-        if (filter.tripPatternPredicate(p)) {
-          var tripTimesPredicate = p.getTripPattern().getPattern().getContainsMultipleModes()
-            ? tripTimesWithSubmodesPredicate
-            : tripTimesWithoutSubmodesPredicate;
-          TripPatternForDate tripPatternForDate = p.newWithFilteredTripTimes(tripTimesPredicate);
+        if (filter == null) {
+          result.add(p);
+        } else {
+          TripPatternForDate tripPatternForDate = filterTripPattern(p, filter, tripTimesPredicates);
           if (tripPatternForDate != null) {
             result.add(tripPatternForDate);
           }
@@ -206,10 +319,29 @@ class RaptorRoutingRequestTransitDataCreator {
     return result;
   }
 
+  /**
+   * Apply the filter to the given pattern, returns {@code null} if the pattern or all its trips
+   * are filtered away.
+   */
+  @Nullable
+  private static TripPatternForDate filterTripPattern(
+    TripPatternForDate p,
+    TransitDataProviderFilter filter,
+    TripTimesPredicates tripTimesPredicates
+  ) {
+    if (!filter.tripPatternPredicate(p)) {
+      return null;
+    }
+    var tripTimesPredicate = p.getTripPattern().getPattern().getContainsMultipleModes()
+      ? tripTimesPredicates.withSubModes
+      : tripTimesPredicates.withoutSubModes;
+    return p.newWithFilteredTripTimes(tripTimesPredicate);
+  }
+
   private List<TripPatternForDate> getTripPatternsForDateRange(
     int additionalPastSearchDays,
     int additionalFutureSearchDays,
-    TransitDataProviderFilter filter
+    @Nullable TransitDataProviderFilter filter
   ) {
     List<TripPatternForDate> tripPatternForDates = new ArrayList<>();
     long start = System.currentTimeMillis();
@@ -229,4 +361,19 @@ class RaptorRoutingRequestTransitDataCreator {
 
     return tripPatternForDates;
   }
+
+  /**
+   * The trip-times predicates are created once per filter, not for each pattern.
+   */
+  private static class TripTimesPredicates {
+
+    private final Predicate<TripTimes> withSubModes;
+    private final Predicate<TripTimes> withoutSubModes;
+
+    private TripTimesPredicates(TransitDataProviderFilter filter) {
+      this.withSubModes =
+        tripTimes -> filter.tripTimesPredicate(tripTimes, filter.hasSubModeFilters());
+      this.withoutSubModes = tripTimes -> filter.tripTimesPredicate(tripTimes, false);
+    }
+  }
 }
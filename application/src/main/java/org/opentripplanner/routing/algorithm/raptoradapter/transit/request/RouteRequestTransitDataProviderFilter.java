@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -179,4 +181,37 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     }
     return result;
   }
+
+  /**
+   * Two filters are equal if they filter the transit data in the same way. This is used as part
+   * of the cache-key when caching request transit data, see {@link TripPatternForDatesCache}.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RouteRequestTransitDataProviderFilter that = (RouteRequestTransitDataProviderFilter) o;
+    return (
+      requireBikesAllowed == that.requireBikesAllowed &&
+      wheelchairEnabled == that.wheelchairEnabled &&
+      includePlannedCancellations == that.includePlannedCancellations &&
+      includeRealtimeCancellations == that.includeRealtimeCancellations &&
+      (!wheelchairEnabled || wheelchairPreferences.equals(that.wheelchairPreferences)) &&
+      bannedTrips.equals(that.bannedTrips) &&
+      Arrays.equals(filters, that.filters)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      requireBikesAllowed,
+      wheelchairEnabled,
+      includePlannedCancellations,
+      includeRealtimeCancellations,
+      wheelchairEnabled ? wheelchairPreferences : null,
+      bannedTrips,
+      Arrays.hashCode(filters)
+    );
+  }
 }
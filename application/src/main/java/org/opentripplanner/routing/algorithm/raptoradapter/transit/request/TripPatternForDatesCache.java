@@ -0,0 +1,141 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+
+/**
+ * Cache the merged {@link TripPatternForDates} across requests. Creating the merged patterns is
+ * expensive, both in time and in memory allocation, and most requests use the same
+ * {@code transitSearchTimeZero}(service day), the same number of additional search days and the
+ * same {@link TransitDataProviderFilter}.
+ * <p>
+ * The cache is shared by all copies of the {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer},
+ * including the realtime copies. Each cached pattern keeps a reference to the
+ * {@link TripPatternForDate}s it was created from, and a cached value is only used if the
+ * transit layer of the current request contains the exact same instances. The realtime updater
+ * replaces the {@link TripPatternForDate}s of the updated patterns, so an update invalidates only
+ * the patterns touched by it. The
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater}
+ * also calls {@link #invalidate(Collection)} to release the memory held by outdated entries.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class TripPatternForDatesCache {
+
+  @Nullable
+  private final Cache<CacheKey, Map<RoutingTripPattern, Entry>> cache;
+
+  /**
+   * @param maximumSize The maximum number of distinct service-day/filter combinations to cache.
+   *                    If zero, caching is disabled.
+   */
+  public TripPatternForDatesCache(int maximumSize) {
+    this.cache =
+      maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).build() : null;
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Return the cached patterns for the given search days and filter. The returned map is
+   * modifiable and thread-safe, new patterns should be added to it using
+   * {@link #put(Map, TripPatternForDate[], TripPatternForDates)}.
+   */
+  Map<RoutingTripPattern, Entry> get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    if (cache == null) {
+      throw new IllegalStateException("The trip pattern cache is disabled.");
+    }
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(key, ConcurrentHashMap::new);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  /**
+   * Find the cached merged pattern created from the given {@code source}. Return {@code null} if
+   * the pattern is not cached, or if it is outdated.
+   */
+  @Nullable
+  static Entry find(Map<RoutingTripPattern, Entry> patterns, TripPatternForDate[] source) {
+    var entry = patterns.get(source[0].getTripPattern());
+    return entry != null && entry.isCreatedFrom(source) ? entry : null;
+  }
+
+  /**
+   * @param merged The merged pattern, {@code null} if the pattern was removed by the filter.
+   */
+  static void put(
+    Map<RoutingTripPattern, Entry> patterns,
+    TripPatternForDate[] source,
+    @Nullable TripPatternForDates merged
+  ) {
+    patterns.put(source[0].getTripPattern(), new Entry(source, merged));
+  }
+
+  /**
+   * Remove all cached values for the given patterns.
+   */
+  public void invalidate(Collection<RoutingTripPattern> patterns) {
+    if (cache == null || patterns.isEmpty()) {
+      return;
+    }
+    for (var values : cache.asMap().values()) {
+      for (var pattern : patterns) {
+        values.remove(pattern);
+      }
+    }
+  }
+
+  /**
+   * @param source The {@link TripPatternForDate}s, sorted by date, the merged pattern is created
+   *               from. The instances are NOT filtered by the request filter.
+   * @param merged The merged pattern, {@code null} if all trips are removed by the filter.
+   */
+  record Entry(TripPatternForDate[] source, @Nullable TripPatternForDates merged) {
+    /**
+     * Compare the source using object identity, the {@link TripPatternForDate#equals(Object)}
+     * is expensive and the realtime updater always creates new instances when a pattern is
+     * updated.
+     */
+    boolean isCreatedFrom(TripPatternForDate[] other) {
+      if (source.length != other.length) {
+        return false;
+      }
+      for (int i = 0; i < source.length; ++i) {
+        if (source[i] != other[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+}
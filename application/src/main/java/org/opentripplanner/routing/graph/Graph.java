@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -27,7 +28,11 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.model.vertex.VertexAdjacency;
 import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.ch.ContractionHierarchy;
+import org.opentripplanner.street.search.ch.ContractionHierarchyProfile;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.StopModel;
@@ -79,6 +84,15 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  @Nullable
+  private transient VertexAdjacency vertexAdjacency;
+
+  /**
+   * Incremented each time a real-time updater changes the street graph. Data derived from the
+   * street graph and cached across requests use this to detect that they are outdated.
+   */
+  private transient volatile long realTimeStreetVersion = 0;
+
   /** The convex hull of all the graph vertices. Generated at the time the Graph is built. */
   private Geometry convexHull = null;
 
@@ -114,6 +128,14 @@ public class Graph implements Serializable {
   private final VehicleParkingService vehicleParkingService = new VehicleParkingService();
   private FareService fareService;
 
+  /** Precomputed contraction hierarchies used by the direct street search, by profile. */
+  private final Map<ContractionHierarchyProfile, ContractionHierarchy> contractionHierarchies =
+    new HashMap<>();
+
+  /** Precomputed landmark times used by the car search heuristic. */
+  @Nullable
+  private LandmarkTable landmarkTable;
+
   /**
    * Hack. I've tried three different ways of generating unique labels. Previously we were just
    * tolerating edge label collisions. For some reason we're repeatedly generating splits on the
@@ -290,6 +312,42 @@ public class Graph implements Serializable {
     LOG.info("Index street model complete.");
   }
 
+  /**
+   * Freeze the edge lists of all vertices into a compact adjacency and assign each vertex a dense
+   * index, see {@link VertexAdjacency}. Do this after the graph is built or loaded, before it is
+   * used for routing. Edges added or removed later are still supported, but they are not as
+   * compact.
+   */
+  public void freezeEdgeLists() {
+    LOG.info("Freeze street edge lists...");
+    vertexAdjacency = VertexAdjacency.freeze(getVertices());
+    LOG.info("Freeze street edge lists complete. |V|={}", vertexAdjacency.size());
+  }
+
+  /**
+   * The number of vertex indexes assigned when the graph was frozen, {@code 0} if the graph is
+   * not frozen. All frozen vertices have an index less than this.
+   */
+  public int frozenVertexIndexSize() {
+    return vertexAdjacency == null ? 0 : vertexAdjacency.size();
+  }
+
+  /**
+   * The version of the real-time changes applied to the street graph, see
+   * {@link #incrementRealTimeStreetVersion()}.
+   */
+  public long realTimeStreetVersion() {
+    return realTimeStreetVersion;
+  }
+
+  /**
+   * Updaters changing the street graph, like linking vehicle rental stations or applying
+   * geofencing zones, should call this after the changes are applied.
+   */
+  public synchronized void incrementRealTimeStreetVersion() {
+    ++realTimeStreetVersion;
+  }
+
   @Nullable
   public OpeningHoursCalendarService getOpeningHoursCalendarService() {
     return this.openingHoursCalendarService;
@@ -374,6 +432,28 @@ public class Graph implements Serializable {
     this.fareService = fareService;
   }
 
+  @Nullable
+  public ContractionHierarchy getContractionHierarchy(ContractionHierarchyProfile profile) {
+    return contractionHierarchies.get(profile);
+  }
+
+  /** Set the hierarchy for the given profile. This is only done when the graph is built. */
+  public void setContractionHierarchy(
+    ContractionHierarchyProfile profile,
+    ContractionHierarchy contractionHierarchy
+  ) {
+    contractionHierarchies.put(profile, contractionHierarchy);
+  }
+
+  @Nullable
+  public LandmarkTable getLandmarkTable() {
+    return landmarkTable;
+  }
+
+  public void setLandmarkTable(@Nullable LandmarkTable landmarkTable) {
+    this.landmarkTable = landmarkTable;
+  }
+
   private void indexIfNotIndexed(StopModel stopModel) {
     if (streetIndex == null) {
       index(stopModel);
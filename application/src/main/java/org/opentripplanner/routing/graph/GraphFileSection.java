@@ -0,0 +1,33 @@
+package org.opentripplanner.routing.graph;
+
+/**
+ * The graph file is split into sections, each section is serialized with its own Kryo instance.
+ * Objects referenced from more than one section would be duplicated, so only self-contained
+ * parts of the model can be put in a separate section. The sections are listed in the table of
+ * contents at the beginning of the file, in the order they are stored.
+ */
+public enum GraphFileSection {
+  BUILD_CONFIG(true),
+  ROUTER_CONFIG(true),
+  ISSUE_SUMMARY(true),
+  EMISSIONS(true),
+  STOP_CONSOLIDATION(true),
+  WORLD_ENVELOPE(true),
+  STREET_LIMITATION(true),
+  /**
+   * The street graph and the transit model reference each other, so they are serialized together.
+   * This is by far the largest section, it is stored last and streamed directly to and from the
+   * file without compression.
+   */
+  GRAPH(false);
+
+  private final boolean compressed;
+
+  GraphFileSection(boolean compressed) {
+    this.compressed = compressed;
+  }
+
+  public boolean isCompressed() {
+    return compressed;
+  }
+}
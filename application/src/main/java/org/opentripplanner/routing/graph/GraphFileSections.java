@@ -0,0 +1,137 @@
+package org.opentripplanner.routing.graph;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
+
+/**
+ * Read and write the sections of the graph file. The file header is handled by the caller, this
+ * class is responsible for the rest of the file:
+ * <pre>
+ * table of contents   number of sections, [section name, section length] for each section
+ * sections            the serialized sections in the same order as the table of contents
+ * </pre>
+ * The {@link GraphFileSection#GRAPH} section is always the last one. It is streamed directly to
+ * and from the file, and its length is stored as {@code -1}. The other sections are serialized
+ * and deserialized in parallel on the common fork-join pool, while the graph section is processed
+ * on the calling thread.
+ */
+final class GraphFileSections {
+
+  private static final int UNKNOWN_LENGTH = -1;
+
+  private GraphFileSections() {}
+
+  /**
+   * Write all sections to the given output stream, the given map must contain all sections. The
+   * stream is closed when done.
+   */
+  static void write(OutputStream outputStream, Map<GraphFileSection, Object> sections)
+    throws IOException {
+    var encoded = new EnumMap<GraphFileSection, ForkJoinTask<byte[]>>(GraphFileSection.class);
+    for (GraphFileSection section : GraphFileSection.values()) {
+      if (section != GraphFileSection.GRAPH) {
+        var value = sections.get(section);
+        encoded.put(section, ForkJoinPool.commonPool().submit(() -> encode(section, value)));
+      }
+    }
+
+    var out = new DataOutputStream(outputStream);
+    out.writeInt(GraphFileSection.values().length);
+    for (var it : encoded.entrySet()) {
+      out.writeUTF(it.getKey().name());
+      out.writeLong(it.getValue().join().length);
+    }
+    out.writeUTF(GraphFileSection.GRAPH.name());
+    out.writeLong(UNKNOWN_LENGTH);
+
+    for (var it : encoded.values()) {
+      out.write(it.join());
+    }
+    out.flush();
+
+    try (var output = new Output(outputStream)) {
+      KryoBuilder.create().writeClassAndObject(output, sections.get(GraphFileSection.GRAPH));
+    }
+  }
+
+  /**
+   * Read all sections from the given input stream. The stream must be positioned after the file
+   * header.
+   */
+  static Map<GraphFileSection, Object> read(InputStream inputStream) throws IOException {
+    var in = new DataInputStream(inputStream);
+    var tableOfContents = readTableOfContents(in);
+    var decoded = new EnumMap<GraphFileSection, ForkJoinTask<Object>>(GraphFileSection.class);
+
+    for (var it : tableOfContents.entrySet()) {
+      var section = it.getKey();
+      if (section != GraphFileSection.GRAPH) {
+        byte[] bytes = in.readNBytes(Math.toIntExact(it.getValue()));
+        decoded.put(section, ForkJoinPool.commonPool().submit(() -> decode(section, bytes)));
+      }
+    }
+
+    var result = new EnumMap<GraphFileSection, Object>(GraphFileSection.class);
+    result.put(GraphFileSection.GRAPH, readGraphSection(inputStream));
+    for (var it : decoded.entrySet()) {
+      result.put(it.getKey(), it.getValue().join());
+    }
+    return result;
+  }
+
+  /* private methods */
+
+  private static Map<GraphFileSection, Long> readTableOfContents(DataInputStream in)
+    throws IOException {
+    int size = in.readInt();
+    var tableOfContents = new LinkedHashMap<GraphFileSection, Long>();
+    for (int i = 0; i < size; ++i) {
+      tableOfContents.put(GraphFileSection.valueOf(in.readUTF()), in.readLong());
+    }
+    return tableOfContents;
+  }
+
+  private static Object readGraphSection(InputStream inputStream) {
+    return KryoBuilder.create().readClassAndObject(new Input(inputStream));
+  }
+
+  private static byte[] encode(GraphFileSection section, Object value) {
+    var bytes = new ByteArrayOutputStream();
+    var deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      OutputStream out = section.isCompressed() ? new DeflaterOutputStream(bytes, deflater) : bytes;
+      try (var output = new Output(out)) {
+        KryoBuilder.create().writeClassAndObject(output, value);
+      }
+      return bytes.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static Object decode(GraphFileSection section, byte[] bytes) {
+    InputStream in = new ByteArrayInputStream(bytes);
+    if (section.isCompressed()) {
+      in = new InflaterInputStream(in);
+    }
+    try (var input = new Input(in)) {
+      return KryoBuilder.create().readClassAndObject(input);
+    }
+  }
+}
@@ -2,10 +2,9 @@ package org.opentripplanner.routing.graph;
 
 import static org.opentripplanner.model.projectinfo.OtpProjectInfo.projectInfo;
 
-import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.KryoException;
-import com.esotericsoftware.kryo.io.Input;
-import com.esotericsoftware.kryo.io.Output;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -14,7 +13,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
@@ -26,7 +28,6 @@ import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
-import org.opentripplanner.routing.graph.kryosupport.KryoBuilder;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
@@ -42,6 +43,9 @@ import org.slf4j.LoggerFactory;
 /**
  * This is the class that get serialized/deserialized into/from the file <em>graph.obj</em>.
  * <p>
+ * The file is split into sections, see {@link GraphFileSection}. The small self-contained
+ * sections are serialized and deserialized in parallel with the graph section.
+ * <p>
  * The Graph object does not contain a collection of edges. The set of edges is generated on demand
  * from the vertices. However, when serializing, we intentionally do not serialize the vertices'
  * edge lists to prevent excessive recursion. So we need to save the edges along with the graph. We
@@ -53,6 +57,8 @@ import org.slf4j.LoggerFactory;
 public class SerializedGraphObject implements Serializable {
 
   private static final Logger LOG = LoggerFactory.getLogger(SerializedGraphObject.class);
+  private static final int INPUT_BUFFER_SIZE = 1 << 16;
+  private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
 
   public final Graph graph;
   public final TransitModel transitModel;
@@ -105,6 +111,25 @@ public class SerializedGraphObject implements Serializable {
     this.streetLimitationParameters = streetLimitationParameters;
   }
 
+  private SerializedGraphObject(Map<GraphFileSection, Object> sections) {
+    var graphSection = (GraphSection) sections.get(GraphFileSection.GRAPH);
+    this.graph = graphSection.graph;
+    this.edges = graphSection.edges;
+    this.transitModel = graphSection.transitModel;
+    this.allTransitSubModes = graphSection.allTransitSubModes;
+    this.routingTripPatternCounter = graphSection.routingTripPatternCounter;
+    this.worldEnvelopeRepository =
+      (WorldEnvelopeRepository) sections.get(GraphFileSection.WORLD_ENVELOPE);
+    this.buildConfig = (BuildConfig) sections.get(GraphFileSection.BUILD_CONFIG);
+    this.routerConfig = (RouterConfig) sections.get(GraphFileSection.ROUTER_CONFIG);
+    this.issueSummary = (DataImportIssueSummary) sections.get(GraphFileSection.ISSUE_SUMMARY);
+    this.emissionsDataModel = (EmissionsDataModel) sections.get(GraphFileSection.EMISSIONS);
+    this.stopConsolidationRepository =
+      (StopConsolidationRepository) sections.get(GraphFileSection.STOP_CONSOLIDATION);
+    this.streetLimitationParameters =
+      (StreetLimitationParameters) sections.get(GraphFileSection.STREET_LIMITATION);
+  }
+
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
     if (graphOutput != null) {
       // Abort building a graph if the file can not be saved
@@ -166,26 +191,26 @@ public class SerializedGraphObject implements Serializable {
 
   private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
     // TODO store version information, halt load if versions mismatch
-    try (inputStream) {
+    try (var input = new BufferedInputStream(inputStream, INPUT_BUFFER_SIZE)) {
       LOG.info("Reading graph from '{}'", sourceDescription);
-      Input input = new Input(inputStream);
 
       validateGraphSerializationId(
-        input.readBytes(GraphFileHeader.headerLength()),
+        input.readNBytes(GraphFileHeader.headerLength()),
         sourceDescription
       );
 
-      Kryo kryo = KryoBuilder.create();
-      SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      var serObj = new SerializedGraphObject(GraphFileSections.read(input));
       SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
       RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
       CompactElevationProfile.setDistanceBetweenSamplesM(
         serObj.graph.getDistanceBetweenElevationSamples()
       );
       LOG.debug("Graph read.");
-      serObj.reconstructEdgeLists();
+      // The street edge lists and the transit indexes are independent, build them in parallel
+      var edgeLists = ForkJoinPool.commonPool().submit(serObj::reconstructEdgeLists);
       serObj.transitModel.getStopModel().reindexAfterDeserialization();
       serObj.transitModel.index();
+      edgeLists.join();
       logSerializationCompleteStatus(serObj.graph, serObj.transitModel);
       return serObj;
     } catch (IOException e) {
@@ -246,14 +271,32 @@ public class SerializedGraphObject implements Serializable {
   private void save(OutputStream outputStream, String graphName, long size) {
     LOG.info("Writing graph {}  ...", graphName);
     outputStream = wrapOutputStreamWithProgressTracker(outputStream, size);
-    Kryo kryo = KryoBuilder.create();
-    Output output = new Output(outputStream);
-    output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
-    output.close();
+    try (var output = new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE)) {
+      output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
+      GraphFileSections.write(output, sections());
+    } catch (IOException e) {
+      throw new RuntimeException(
+        "Failed to write graph " + graphName + ": " + e.getLocalizedMessage(),
+        e
+      );
+    }
     LOG.info("Graph written: {}", graphName);
-    // Summarize serialized classes and associated serializers to stdout:
-    // ((InstanceCountingClassResolver) kryo.getClassResolver()).summarize();
+  }
+
+  private Map<GraphFileSection, Object> sections() {
+    var sections = new EnumMap<GraphFileSection, Object>(GraphFileSection.class);
+    sections.put(GraphFileSection.BUILD_CONFIG, buildConfig);
+    sections.put(GraphFileSection.ROUTER_CONFIG, routerConfig);
+    sections.put(GraphFileSection.ISSUE_SUMMARY, issueSummary);
+    sections.put(GraphFileSection.EMISSIONS, emissionsDataModel);
+    sections.put(GraphFileSection.STOP_CONSOLIDATION, stopConsolidationRepository);
+    sections.put(GraphFileSection.WORLD_ENVELOPE, worldEnvelopeRepository);
+    sections.put(GraphFileSection.STREET_LIMITATION, streetLimitationParameters);
+    sections.put(
+      GraphFileSection.GRAPH,
+      new GraphSection(graph, edges, transitModel, allTransitSubModes, routingTripPatternCounter)
+    );
+    return sections;
   }
 
   private static void logSerializationCompleteStatus(Graph graph, TransitModel transitModel) {
@@ -272,4 +315,31 @@ public class SerializedGraphObject implements Serializable {
       nTransfers
     );
   }
+
+  /**
+   * The street graph and transit model reference each other and must be serialized in the same
+   * Kryo stream to keep the object identities.
+   */
+  private static final class GraphSection {
+
+    private final Graph graph;
+    private final Collection<Edge> edges;
+    private final TransitModel transitModel;
+    private final List<SubMode> allTransitSubModes;
+    private final int routingTripPatternCounter;
+
+    private GraphSection(
+      Graph graph,
+      Collection<Edge> edges,
+      TransitModel transitModel,
+      List<SubMode> allTransitSubModes,
+      int routingTripPatternCounter
+    ) {
+      this.graph = graph;
+      this.edges = edges;
+      this.transitModel = transitModel;
+      this.allTransitSubModes = allTransitSubModes;
+      this.routingTripPatternCounter = routingTripPatternCounter;
+    }
+  }
 }
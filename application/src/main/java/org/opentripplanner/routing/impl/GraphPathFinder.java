@@ -7,12 +7,15 @@ import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.PathComparator;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.error.PathNotFoundException;
 import org.opentripplanner.street.model.StreetConstants;
@@ -20,9 +23,12 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.ch.ContractionHierarchyRouter;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +65,12 @@ public class GraphPathFinder {
 
   private final float maxCarSpeed;
 
+  @Nullable
+  private final ContractionHierarchyRouter contractionHierarchyRouter;
+
+  @Nullable
+  private final LandmarkTable landmarkTable;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED);
   }
@@ -67,10 +79,28 @@ public class GraphPathFinder {
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext,
     float maxCarSpeed
+  ) {
+    this(traverseVisitor, dataOverlayContext, maxCarSpeed, null, null);
+  }
+
+  /**
+   * @param contractionHierarchyRouter If set, the search is first limited to the corridor found
+   *                                   in the contraction hierarchy, if any. The full search is
+   *                                   used if no path is found in the corridor.
+   * @param landmarkTable              If set, car searches use the landmark heuristic.
+   */
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    float maxCarSpeed,
+    @Nullable ContractionHierarchyRouter contractionHierarchyRouter,
+    @Nullable LandmarkTable landmarkTable
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
     this.maxCarSpeed = maxCarSpeed;
+    this.contractionHierarchyRouter = contractionHierarchyRouter;
+    this.landmarkTable = landmarkTable;
   }
 
   /**
@@ -81,19 +111,48 @@ public class GraphPathFinder {
     RouteRequest request,
     Set<Vertex> from,
     Set<Vertex> to
+  ) {
+    // The traverse visitor and data overlay need the full search
+    if (
+      contractionHierarchyRouter != null && traverseVisitor == null && dataOverlayContext == null
+    ) {
+      Set<Edge> corridor = contractionHierarchyRouter.findCorridor(request, from, to);
+      if (corridor != null) {
+        var paths = getPaths(request, from, to, corridor);
+        if (!paths.isEmpty()) {
+          return paths;
+        }
+        LOG.debug("No path found in the contraction hierarchy corridor, use the full search");
+      }
+    }
+    return getPaths(request, from, to, null);
+  }
+
+  private List<GraphPath<State, Edge, Vertex>> getPaths(
+    RouteRequest request,
+    Set<Vertex> from,
+    Set<Vertex> to,
+    @Nullable Set<Edge> corridor
   ) {
     StreetPreferences preferences = request.preferences().street();
 
+    var durationLimit = new DurationSkipEdgeStrategy<State, Edge>(
+      preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
+    );
+
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic(maxCarSpeed))
+      .setHeuristic(createHeuristic())
+      .setBidirectional(isBidirectional(request.journey().direct().mode()))
+      .setReverseHeuristic(createHeuristic())
       .setSkipEdgeStrategy(
-        new DurationSkipEdgeStrategy(
-          preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
-        )
+        corridor == null
+          ? durationLimit
+          : (state, edge) -> !corridor.contains(edge) || durationLimit.shouldSkipEdge(state, edge)
       )
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setIndexedShortestPathTree(true)
       .setRequest(request)
       .setStreetRequest(request.journey().direct())
       .setFrom(from)
@@ -119,6 +178,25 @@ public class GraphPathFinder {
     return paths;
   }
 
+  private RemainingWeightHeuristic<State> createHeuristic() {
+    return landmarkTable == null
+      ? new EuclideanRemainingWeightHeuristic(maxCarSpeed)
+      : new LandmarkRemainingWeightHeuristic(landmarkTable, maxCarSpeed);
+  }
+
+  /**
+   * Search from both ends, if the {@link OTPFeature#BidirectionalStreetSearch} feature is on, for
+   * the modes where the weights do not depend on the time of day, and the states at both ends are
+   * the same. Renting and parking change the state along the path, and the two searches would
+   * rarely meet in a compatible state.
+   */
+  private static boolean isBidirectional(StreetMode mode) {
+    return (
+      OTPFeature.BidirectionalStreetSearch.isOn() &&
+      (mode == StreetMode.WALK || mode == StreetMode.BIKE || mode == StreetMode.CAR)
+    );
+  }
+
   /**
    * Try to find N paths through the Graph
    */
@@ -2,6 +2,7 @@ package org.opentripplanner.service.vehiclerental;
 
 import java.util.Collection;
 import java.util.List;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalStation;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalVehicle;
@@ -28,9 +29,8 @@ public interface VehicleRentalService {
   boolean hasRentalBikes();
 
   /**
-   * Gets all the vehicle rental stations inside the envelope. This is currently done by iterating
-   * over a set, but we could use a spatial index if the number of vehicle rental stations is high
-   * enough for performance to be a concern.
+   * Gets all the vehicle rental stations inside the envelope. Free-floating vehicles are not
+   * included.
    */
   List<VehicleRentalStation> getVehicleRentalStationForEnvelope(
     double minLon,
@@ -38,4 +38,10 @@ public interface VehicleRentalService {
     double maxLon,
     double maxLat
   );
+
+  /**
+   * Gets all the vehicle rental stations and vehicles inside the envelope, where x is the
+   * longitude and y the latitude.
+   */
+  List<VehicleRentalPlace> getVehicleRentalPlacesForEnvelope(Envelope envelope);
 }
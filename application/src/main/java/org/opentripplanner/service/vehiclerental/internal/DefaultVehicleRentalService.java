@@ -7,7 +7,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.service.vehiclerental.VehicleRentalRepository;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
@@ -25,6 +24,8 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
 
   private final Map<FeedScopedId, VehicleRentalPlace> rentalPlaces = new ConcurrentHashMap<>();
 
+  private final VehicleRentalPlaceIndex index = new VehicleRentalPlaceIndex();
+
   @Override
   public Collection<VehicleRentalPlace> getVehicleRentalPlaces() {
     return rentalPlaces.values();
@@ -66,14 +67,21 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
       : null;
   }
 
+  /**
+   * The writes are synchronized to keep the map and the index in sync, the reads are not.
+   */
   @Override
-  public void addVehicleRentalStation(VehicleRentalPlace vehicleRentalStation) {
-    rentalPlaces.put(vehicleRentalStation.getId(), vehicleRentalStation);
+  public synchronized void addVehicleRentalStation(VehicleRentalPlace vehicleRentalStation) {
+    var previous = rentalPlaces.put(vehicleRentalStation.getId(), vehicleRentalStation);
+    index.update(previous, vehicleRentalStation);
   }
 
   @Override
-  public void removeVehicleRentalStation(FeedScopedId vehicleRentalStationId) {
-    rentalPlaces.remove(vehicleRentalStationId);
+  public synchronized void removeVehicleRentalStation(FeedScopedId vehicleRentalStationId) {
+    var removed = rentalPlaces.remove(vehicleRentalStationId);
+    if (removed != null) {
+      index.remove(removed);
+    }
   }
 
   @Override
@@ -102,16 +110,19 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
     double maxLon,
     double maxLat
   ) {
-    Envelope envelope = new Envelope(
-      new Coordinate(minLon, minLat),
-      new Coordinate(maxLon, maxLat)
-    );
-
-    return getVehicleRentalStationsAsStream()
-      .filter(b -> envelope.contains(new Coordinate(b.getLongitude(), b.getLatitude())))
+    return index
+      .query(new Envelope(minLon, maxLon, minLat, maxLat))
+      .stream()
+      .filter(VehicleRentalStation.class::isInstance)
+      .map(VehicleRentalStation.class::cast)
       .toList();
   }
 
+  @Override
+  public List<VehicleRentalPlace> getVehicleRentalPlacesForEnvelope(Envelope envelope) {
+    return index.query(envelope);
+  }
+
   private Stream<VehicleRentalStation> getVehicleRentalStationsAsStream() {
     return rentalPlaces
       .values()
@@ -0,0 +1,106 @@
+package org.opentripplanner.service.vehiclerental.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * A grid index of the rental places, so the places in an envelope can be found without iterating
+ * over all places.
+ * <p>
+ * The cells are concurrent maps, so the index can be read by request threads while it is
+ * updated. The reads are weakly consistent: a query running at the same time as an update may or
+ * may not see the changes of that update. The updates must not run concurrently with each other,
+ * this is taken care of by {@link DefaultVehicleRentalService}.
+ */
+class VehicleRentalPlaceIndex {
+
+  /** The height and width of a cell in degrees, about 500 meters north-south. */
+  private static final double CELL_SIZE_DEGREES = 0.005;
+
+  private final Map<Long, Map<FeedScopedId, VehicleRentalPlace>> cells = new ConcurrentHashMap<>();
+
+  /**
+   * Add a place, or replace the previous version of a place with the same id.
+   */
+  void update(@Nullable VehicleRentalPlace previous, VehicleRentalPlace place) {
+    long key = key(place);
+    cells.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(place.getId(), place);
+    if (previous != null && key(previous) != key) {
+      remove(previous);
+    }
+  }
+
+  void remove(VehicleRentalPlace place) {
+    cells.computeIfPresent(
+      key(place),
+      (k, cell) -> {
+        cell.remove(place.getId());
+        return cell.isEmpty() ? null : cell;
+      }
+    );
+  }
+
+  /**
+   * All places inside the envelope, where x is the longitude and y the latitude.
+   */
+  List<VehicleRentalPlace> query(Envelope envelope) {
+    List<VehicleRentalPlace> result = new ArrayList<>();
+    Predicate<VehicleRentalPlace> inside = p ->
+      envelope.contains(p.getLongitude(), p.getLatitude());
+
+    int minLat = index(envelope.getMinY());
+    int maxLat = index(envelope.getMaxY());
+    int minLon = index(envelope.getMinX());
+    int maxLon = index(envelope.getMaxX());
+
+    // For a large envelope, visiting the cells that have places is faster than visiting all cells
+    // in the envelope
+    if ((maxLat - minLat + 1L) * (maxLon - minLon + 1L) > cells.size()) {
+      for (var cell : cells.values()) {
+        addAll(cell, inside, result);
+      }
+      return result;
+    }
+
+    for (int lat = minLat; lat <= maxLat; lat++) {
+      for (int lon = minLon; lon <= maxLon; lon++) {
+        var cell = cells.get(key(lat, lon));
+        if (cell != null) {
+          addAll(cell, inside, result);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void addAll(
+    Map<FeedScopedId, VehicleRentalPlace> cell,
+    Predicate<VehicleRentalPlace> filter,
+    List<VehicleRentalPlace> result
+  ) {
+    for (var place : cell.values()) {
+      if (filter.test(place)) {
+        result.add(place);
+      }
+    }
+  }
+
+  private static long key(VehicleRentalPlace place) {
+    return key(index(place.getLatitude()), index(place.getLongitude()));
+  }
+
+  private static long key(int latIndex, int lonIndex) {
+    return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+  }
+
+  private static int index(double degrees) {
+    return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+  }
+}
@@ -17,6 +17,10 @@ public final class BusinessAreaBorder implements RentalRestrictionExtension {
     this.network = network;
   }
 
+  public String network() {
+    return network;
+  }
+
   @Override
   public boolean traversalBanned(State state) {
     if (state.getRequest().arriveBy()) {
@@ -1,5 +1,6 @@
 package org.opentripplanner.service.vehiclerental.street;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashSet;
@@ -11,11 +12,29 @@ import org.opentripplanner.street.search.state.State;
 
 /**
  * Combines multiple restrictions into one.
+ * <p>
+ * The restrictions are checked on every traversal of a street edge in a rental search, so the
+ * networks they apply to are indexed when the composite is created. This way a check is a couple
+ * of set lookups, instead of a call to each of the extensions.
  */
 public final class CompositeRentalRestrictionExtension implements RentalRestrictionExtension {
 
   private final RentalRestrictionExtension[] extensions;
 
+  /** The networks of the zones where traversal is banned, and of the business area borders. */
+  private final Set<String> traversalBannedNetworks;
+
+  /** A state with an unknown network may not traverse a zone where traversal is banned. */
+  private final boolean traversalBannedForUnknownNetwork;
+
+  /** In an arrive-by search the network is not known, so a border is banned for all networks. */
+  private final boolean hasBusinessAreaBorder;
+
+  private final Set<String> noDropOffNetworks;
+
+  /** Extensions of other types are not indexed, but checked one by one. */
+  private final RentalRestrictionExtension[] notIndexed;
+
   private CompositeRentalRestrictionExtension(RentalRestrictionExtension... extensions) {
     for (var ext : extensions) {
       if (ext instanceof CompositeRentalRestrictionExtension) {
@@ -26,11 +45,54 @@ public final class CompositeRentalRestrictionExtension implements RentalRestrict
     }
     var set = new HashSet<>(Arrays.asList(extensions));
     this.extensions = set.toArray(RentalRestrictionExtension[]::new);
+
+    var traversalBanned = new HashSet<String>();
+    var noDropOff = new HashSet<String>();
+    var others = new ArrayList<RentalRestrictionExtension>();
+    boolean unknownNetworkBanned = false;
+    boolean border = false;
+
+    for (var ext : this.extensions) {
+      if (ext instanceof GeofencingZoneExtension zoneExtension) {
+        var zone = zoneExtension.zone();
+        if (zone.traversalBanned()) {
+          traversalBanned.add(zone.id().getFeedId());
+          unknownNetworkBanned = true;
+        }
+        if (zone.dropOffBanned()) {
+          noDropOff.add(zone.id().getFeedId());
+        }
+      } else if (ext instanceof BusinessAreaBorder businessAreaBorder) {
+        traversalBanned.add(businessAreaBorder.network());
+        border = true;
+      } else {
+        others.add(ext);
+        noDropOff.addAll(ext.noDropOffNetworks());
+      }
+    }
+    this.traversalBannedNetworks = Set.copyOf(traversalBanned);
+    this.traversalBannedForUnknownNetwork = unknownNetworkBanned;
+    this.hasBusinessAreaBorder = border;
+    this.noDropOffNetworks = Set.copyOf(noDropOff);
+    this.notIndexed = others.toArray(RentalRestrictionExtension[]::new);
   }
 
   @Override
   public boolean traversalBanned(State state) {
-    for (var ext : extensions) {
+    if (state.isRentingVehicle()) {
+      if (hasBusinessAreaBorder && state.getRequest().arriveBy()) {
+        return true;
+      }
+      var network = state.getVehicleRentalNetwork();
+      if (
+        network == null
+          ? traversalBannedForUnknownNetwork
+          : traversalBannedNetworks.contains(network)
+      ) {
+        return true;
+      }
+    }
+    for (var ext : notIndexed) {
       if (ext.traversalBanned(state)) {
         return true;
       }
@@ -40,7 +102,13 @@ public final class CompositeRentalRestrictionExtension implements RentalRestrict
 
   @Override
   public boolean dropOffBanned(State state) {
-    for (var ext : extensions) {
+    if (state.isRentingVehicle()) {
+      var network = state.getVehicleRentalNetwork();
+      if (network != null && noDropOffNetworks.contains(network)) {
+        return true;
+      }
+    }
+    for (var ext : notIndexed) {
       if (ext.dropOffBanned(state)) {
         return true;
       }
@@ -80,7 +148,7 @@ public final class CompositeRentalRestrictionExtension implements RentalRestrict
       .filter(e -> !e.equals(toRemove))
       .toArray(RentalRestrictionExtension[]::new);
     if (newExts.length == 0) {
-      return null;
+      return NO_RESTRICTION;
     } else {
       return CompositeRentalRestrictionExtension.of(newExts);
     }
@@ -98,10 +166,7 @@ public final class CompositeRentalRestrictionExtension implements RentalRestrict
 
   @Override
   public Set<String> noDropOffNetworks() {
-    return Arrays
-      .stream(extensions)
-      .flatMap(e -> e.noDropOffNetworks().stream())
-      .collect(Collectors.toSet());
+    return noDropOffNetworks;
   }
 
   @Override
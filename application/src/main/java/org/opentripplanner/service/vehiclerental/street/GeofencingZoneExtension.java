@@ -17,9 +17,11 @@ import org.opentripplanner.street.search.state.State;
 public final class GeofencingZoneExtension implements RentalRestrictionExtension {
 
   private final GeofencingZone zone;
+  private final Set<String> noDropOffNetworks;
 
   public GeofencingZoneExtension(GeofencingZone zone) {
     this.zone = zone;
+    this.noDropOffNetworks = zone.dropOffBanned() ? Set.of(zone.id().getFeedId()) : Set.of();
   }
 
   public GeofencingZone zone() {
@@ -81,11 +83,7 @@ public final class GeofencingZoneExtension implements RentalRestrictionExtension
 
   @Override
   public Set<String> noDropOffNetworks() {
-    if (zone.dropOffBanned()) {
-      return Set.of(zone.id().getFeedId());
-    } else {
-      return Set.of();
-    }
+    return noDropOffNetworks;
   }
 
   @Override
@@ -189,6 +189,7 @@ public class OTPMain {
     // Index graph for travel search
     app.transitModel().index();
     app.graph().index(app.transitModel().getStopModel());
+    app.graph().freezeEdgeLists();
 
     // publishing the config version info make it available to the APIs
     setOtpConfigVersionsOnServerInfo(app);
@@ -15,6 +15,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -141,4 +142,8 @@ public interface OtpServerRequestContext {
 
   @Nullable
   LuceneIndex lucenceIndex();
+
+  /** The cache of street access/egress search results, {@code null} if caching is disabled. */
+  @Nullable
+  AccessEgressCache accessEgressCache();
 }
@@ -45,6 +45,7 @@ import org.opentripplanner.standalone.config.buildconfig.TransitFeedConfig;
 import org.opentripplanner.standalone.config.buildconfig.TransitFeeds;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.config.sandbox.DataOverlayConfigMapper;
+import org.opentripplanner.street.search.ch.ContractionHierarchyProfile;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -102,8 +103,12 @@ public class BuildConfig implements OtpDataStoreConfig {
    */
   private final NodeAdapter root;
 
+  public final int carLandmarks;
+
   public final String configVersion;
 
+  public final Set<ContractionHierarchyProfile> contractionHierarchies;
+
   public final boolean dataImportReport;
 
   public final int maxDataImportIssuesPerFile;
@@ -210,6 +215,22 @@ public class BuildConfig implements OtpDataStoreConfig {
             """
         )
         .asBoolean(false);
+    carLandmarks =
+      root
+        .of("carLandmarks")
+        .since(V2_7)
+        .summary("The number of landmarks used to speed up car searches.")
+        .description(
+          """
+            The driving times between a few landmarks, selected on the edge of the street network,
+            and all other vertices give a lower bound for the remaining time of a car search. This
+            is a much better estimate than the straight-line distance in networks with detours,
+            ferries and motorways, so the direct car search visits fewer vertices. Each landmark
+            adds 4 bytes per vertex to the graph. Typical values are 8 to 16, 0 disables the
+            landmarks.
+            """
+        )
+        .asInt(0);
     configVersion =
       root
         .of("configVersion")
@@ -217,6 +238,25 @@ public class BuildConfig implements OtpDataStoreConfig {
         .summary("Deployment version of the *" + BUILD_CONFIG_FILENAME + "*.")
         .description(OtpConfig.CONFIG_VERSION_DESCRIPTION)
         .asString(null);
+    contractionHierarchies =
+      root
+        .of("contractionHierarchies")
+        .since(V2_7)
+        .summary("Build contraction hierarchies to speed up direct car and bicycle searches.")
+        .description(
+          """
+            A contraction hierarchy is a precomputed index of shortcuts in the street graph, built
+            for a single street mode and cost profile. Direct street searches matching one of the
+            profiles use it to find the route, and only run the normal search along that route. This
+            makes long direct car and bicycle searches much faster, at the cost of a longer graph
+            build and a larger graph file. Searches not matching a profile, or without a route in the
+            hierarchy, use the normal search.
+
+            The bicycle profile is only used for searches with the default `safe-streets`
+            optimization.
+            """
+        )
+        .asEnumSet(ContractionHierarchyProfile.class, List.of());
     dataImportReport =
       root
         .of("dataImportReport")
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -27,7 +28,11 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowChunkSizeInSeconds;
+  private final boolean compactStopArrivals;
   private final int transferCacheMaxSize;
+  private final int tripPatternCacheMaxSize;
+  private final int accessEgressCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -113,6 +118,38 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(dft.searchThreadPoolSize());
+    this.searchWindowChunkSizeInSeconds =
+      (int) c
+        .of("searchWindowChunkSize")
+        .since(V2_7)
+        .summary("Split the multi-criteria search-window in chunks and search them in parallel.")
+        .description(
+          """
+Each chunk is searched with its own Range Raptor state on the search thread pool, and the results
+are merged when all chunks are done. This reduces the response time of searches with a long
+search-window, but the total amount of work increases, because a chunk cannot reuse the results
+of the later departures in the next chunk. The search is only split if the `searchThreadPoolSize`
+is set, the `PARALLEL` optimization is enabled and the search-window is longer than the chunk
+size. If zero, the search-window is not split.
+"""
+        )
+        .asDuration(Duration.ofSeconds(dft.searchWindowChunkSizeInSeconds()))
+        .toSeconds();
+    this.compactStopArrivals =
+      c
+        .of("compactStopArrivals")
+        .since(V2_7)
+        .summary("Store the multi-criteria stop arrivals in primitive arrays.")
+        .description(
+          """
+The multi-criteria search creates an object for each new stop arrival, most of them are rejected
+at the stop. If enabled, the stop arrivals are written to a set of primitive arrays and only the
+arrivals accepted at the stop are kept. This reduces the garbage created by each search. The
+compact stop arrivals are not used for searches with via locations, pass-through points or
+transit-group-priority, or when the stop arrivals are debugged.
+"""
+        )
+        .asBoolean(dft.useCompactStopArrivals());
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -159,6 +196,43 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
         )
         .asInt(25);
 
+    this.tripPatternCacheMaxSize =
+      c
+        .of("tripPatternCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of search-day and transit-filter combinations to cache request " +
+          "timetables for."
+        )
+        .description(
+          """
+Before each transit search the timetables for the search days are filtered and merged into a
+request specific data structure. If many requests search the same days with the same transit
+filters, caching these timetables reduces memory allocation and improves the response time. Each
+cached entry holds a copy of all timetables running in the search days, so the memory used may be
+significant. The cached timetables are updated when the real-time data changes. If `0`, no
+caching is done.
+"""
+        )
+        .asInt(0);
+
+    this.accessEgressCacheMaxSize =
+      c
+        .of("accessEgressCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of street access/egress search results to cache.")
+        .description(
+          """
+The street search from the origin to the nearby stops, and from the nearby stops to the
+destination, is done for every request. If many requests start or end at the same place, like a
+station or a popular address, caching the stops found reduces the response time. The results are
+cached by origin, street mode, street preferences and search limits. Only walk, bicycle and
+vehicle rental searches are cached, and the vehicle rental results are discarded each time the
+rental stations or geofencing zones are updated. If `0`, no caching is done.
+"""
+        )
+        .asInt(0);
+
     this.transferCacheRequests =
       c
         .of("transferCacheRequests")
@@ -249,6 +323,16 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowChunkSizeInSeconds() {
+    return searchWindowChunkSizeInSeconds;
+  }
+
+  @Override
+  public boolean useCompactStopArrivals() {
+    return compactStopArrivals;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -269,6 +353,16 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
+  @Override
+  public int accessEgressCacheMaxSize() {
+    return accessEgressCacheMaxSize;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
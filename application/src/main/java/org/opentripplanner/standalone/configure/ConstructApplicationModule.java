@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -12,6 +13,7 @@ import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -42,7 +44,8 @@ public class ConstructApplicationModule {
     @Nullable TraverseVisitor<?, ?> traverseVisitor,
     EmissionsService emissionsService,
     LauncherRequestDecorator launcherRequestDecorator,
-    @Nullable LuceneIndex luceneIndex
+    @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     var defaultRequest = launcherRequestDecorator.intercept(routerConfig.routingRequestDefaults());
 
@@ -63,7 +66,18 @@ public class ConstructApplicationModule {
       stopConsolidationService,
       streetLimitationParametersService,
       traverseVisitor,
-      luceneIndex
+      luceneIndex,
+      accessEgressCache
+    );
+  }
+
+  @Provides
+  @Singleton
+  @Nullable
+  AccessEgressCache accessEgressCache(RouterConfig routerConfig, Graph graph) {
+    return AccessEgressCache.create(
+      routerConfig.transitTuningConfig().accessEgressCacheMaxSize(),
+      graph
     );
   }
 
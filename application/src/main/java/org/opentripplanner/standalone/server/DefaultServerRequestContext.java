@@ -13,6 +13,7 @@ import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -51,6 +52,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final StopConsolidationService stopConsolidationService;
   private final StreetLimitationParametersService streetLimitationParametersService;
   private final LuceneIndex luceneIndex;
+  private final AccessEgressCache accessEgressCache;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -73,7 +75,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     StreetLimitationParametersService streetLimitationParametersService,
     FlexParameters flexParameters,
     TraverseVisitor traverseVisitor,
-    @Nullable LuceneIndex luceneIndex
+    @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     this.graph = graph;
     this.transitService = transitService;
@@ -93,6 +96,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.stopConsolidationService = stopConsolidationService;
     this.streetLimitationParametersService = streetLimitationParametersService;
     this.luceneIndex = luceneIndex;
+    this.accessEgressCache = accessEgressCache;
   }
 
   /**
@@ -115,7 +119,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     @Nullable StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
     @Nullable TraverseVisitor traverseVisitor,
-    @Nullable LuceneIndex luceneIndex
+    @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     return new DefaultServerRequestContext(
       graph,
@@ -135,7 +140,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       streetLimitationParametersService,
       flexParameters,
       traverseVisitor,
-      luceneIndex
+      luceneIndex,
+      accessEgressCache
     );
   }
 
@@ -251,4 +257,10 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   public EmissionsService emissionsService() {
     return emissionsService;
   }
+
+  @Nullable
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
 }
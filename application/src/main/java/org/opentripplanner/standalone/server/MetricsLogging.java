@@ -19,8 +19,10 @@ import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import javax.annotation.Nullable;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.transit.service.TransitModel;
 
@@ -34,7 +36,8 @@ public class MetricsLogging {
   public MetricsLogging(
     TransitModel transitModel,
     RaptorConfig<TripSchedule> raptorConfig,
-    DataImportIssueSummary issueSummary
+    DataImportIssueSummary issueSummary,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     new ClassLoaderMetrics().bindTo(Metrics.globalRegistry);
     new FileDescriptorMetrics().bindTo(Metrics.globalRegistry);
@@ -56,6 +59,14 @@ public class MetricsLogging {
       )
         .bindTo(Metrics.globalRegistry);
     }
+    if (accessEgressCache != null) {
+      new GuavaCacheMetrics(
+        accessEgressCache.getCache(),
+        "accessEgressCache",
+        List.of(Tag.of("cache", "accessEgress"))
+      )
+        .bindTo(Metrics.globalRegistry);
+    }
     new ExecutorServiceMetrics(
       ForkJoinPool.commonPool(),
       "commonPool",
@@ -84,6 +95,8 @@ public class MetricsLogging {
         List.of(Tag.of("pool", "graphUpdateScheduler"))
       )
         .bindTo(Metrics.globalRegistry);
+
+      transitModel.getUpdaterManager().getWriteQueueMetrics().bindTo(Metrics.globalRegistry);
     }
 
     if (raptorConfig.isMultiThreaded()) {
@@ -38,10 +38,10 @@ public interface RentalRestrictionExtension {
   }
 
   /**
-   * Remove the extension from this one
+   * Remove the extension from this one, this is unchanged if it does not contain the extension.
    */
   default RentalRestrictionExtension remove(RentalRestrictionExtension toRemove) {
-    return NO_RESTRICTION;
+    return equals(toRemove) ? NO_RESTRICTION : this;
   }
 
   /**
@@ -1080,7 +1080,7 @@ public class StreetEdge
     if (s0.getRequest().mode().includesRenting()) {
       if (tov.rentalDropOffBanned(s0)) {
         s1.enterNoRentalDropOffArea();
-      } else if (s0.isInsideNoRentalDropOffArea() && !tov.rentalDropOffBanned(s0)) {
+      } else if (s0.isInsideNoRentalDropOffArea()) {
         s1.leaveNoRentalDropOffArea();
       }
     }
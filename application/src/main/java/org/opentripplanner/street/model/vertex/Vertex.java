@@ -31,9 +31,22 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private final double x;
   private final double y;
 
-  private transient Edge[] incoming = new Edge[0];
+  private static final Edge[] NO_EDGES = new Edge[0];
 
-  private transient Edge[] outgoing = new Edge[0];
+  /** All incoming edges, or the edges added after the vertex was frozen. */
+  private transient Edge[] incoming = NO_EDGES;
+
+  /** All outgoing edges, or the edges added after the vertex was frozen. */
+  private transient Edge[] outgoing = NO_EDGES;
+
+  /**
+   * The frozen adjacency containing the edges of this vertex, {@code null} if not frozen. The
+   * field is volatile, because a vertex is detached from the adjacency while in use by searches.
+   */
+  private transient volatile VertexAdjacency adjacency;
+
+  /** The dense index of this vertex, or {@code -1} if the vertex is not frozen. */
+  private transient int index = -1;
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
   /* CONSTRUCTORS */
@@ -61,8 +74,20 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   }
 
   public void initEdgeLists() {
-    this.outgoing = new Edge[0];
-    this.incoming = new Edge[0];
+    this.outgoing = NO_EDGES;
+    this.incoming = NO_EDGES;
+    this.adjacency = null;
+    this.index = -1;
+  }
+
+  /**
+   * The dense index assigned when the graph is frozen, see {@link VertexAdjacency#freeze}. The
+   * index is in the range {@code [0, adjacency.size())}, temporary vertices and vertices added
+   * after the graph is frozen return {@code -1}.
+   */
+  @Override
+  public int getIndex() {
+    return index;
   }
 
   /* EDGE UTILITY METHODS (use arrays to eliminate copy-on-write set objects) */
@@ -76,6 +101,10 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   /** @return whether the edge was found and removed. */
   public boolean removeOutgoing(Edge edge) {
     synchronized (this) {
+      var adj = adjacency;
+      if (adj != null && adj.containsOutgoing(index, edge)) {
+        detachFromAdjacency(adj);
+      }
       int n = outgoing.length;
       outgoing = removeEdge(outgoing, edge);
       return (outgoing.length < n);
@@ -91,6 +120,10 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   /** @return whether the edge was found and removed. */
   public boolean removeIncoming(Edge edge) {
     synchronized (this) {
+      var adj = adjacency;
+      if (adj != null && adj.containsIncoming(index, edge)) {
+        detachFromAdjacency(adj);
+      }
       int n = incoming.length;
       incoming = removeEdge(incoming, edge);
       return (incoming.length < n);
@@ -98,19 +131,24 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   }
 
   public Collection<Edge> getOutgoing() {
-    return Arrays.asList(outgoing);
+    // Read the adjacency first, see detachFromAdjacency()
+    var adj = adjacency;
+    return adj == null ? Arrays.asList(outgoing) : adj.outgoing(index, outgoing);
   }
 
   public Collection<Edge> getIncoming() {
-    return Arrays.asList(incoming);
+    var adj = adjacency;
+    return adj == null ? Arrays.asList(incoming) : adj.incoming(index, incoming);
   }
 
   public int getDegreeOut() {
-    return outgoing.length;
+    var adj = adjacency;
+    return adj == null ? outgoing.length : adj.degreeOut(index) + outgoing.length;
   }
 
   public int getDegreeIn() {
-    return incoming.length;
+    var adj = adjacency;
+    return adj == null ? incoming.length : adj.degreeIn(index) + incoming.length;
   }
 
   /** Get the longitude of the vertex */
@@ -241,6 +279,31 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     rentalRestrictions = rentalRestrictions.remove(ext);
   }
 
+  /**
+   * Replace the edge lists with the given frozen adjacency. Only the {@link VertexAdjacency} call
+   * this, when all vertices are frozen.
+   */
+  void freezeEdgeLists(VertexAdjacency adjacency, int index) {
+    synchronized (this) {
+      this.outgoing = NO_EDGES;
+      this.incoming = NO_EDGES;
+      this.index = index;
+      this.adjacency = adjacency;
+    }
+  }
+
+  /**
+   * Copy the frozen edges into the edge lists of this vertex, before one of them is removed. The
+   * vertex keep its index. The edge lists are set before the volatile adjacency is cleared, so a
+   * reader that see no adjacency also see the complete edge lists. A concurrent reader may see
+   * the edges twice, which is harmless for a search.
+   */
+  private void detachFromAdjacency(VertexAdjacency adj) {
+    this.outgoing = adj.copyOutgoing(index, outgoing);
+    this.incoming = adj.copyIncoming(index, incoming);
+    this.adjacency = null;
+  }
+
   /**
    * A static helper method to avoid repeated code for outgoing and incoming lists. Synchronization
    * must be handled by the caller, to avoid passing edge array pointers that may be invalidated.
@@ -299,7 +362,6 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
 
   private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
     in.defaultReadObject();
-    this.incoming = new Edge[0];
-    this.outgoing = new Edge[0];
+    initEdgeLists();
   }
 }
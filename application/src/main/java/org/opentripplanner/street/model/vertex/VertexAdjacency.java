@@ -0,0 +1,191 @@
+package org.opentripplanner.street.model.vertex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.opentripplanner.street.model.edge.Edge;
+
+/**
+ * A frozen compressed-sparse-row (CSR) adjacency for the permanent vertices of the street graph.
+ * All incoming and outgoing edges are stored in two shared arrays, and each vertex only keep its
+ * dense index into the offset arrays. This replaces two small edge arrays per vertex with a few
+ * large arrays, and the vertices are ordered along a Z-order curve, so vertices close to each
+ * other in space have their edges close to each other in memory.
+ * <p>
+ * The adjacency is immutable. Edges added to a vertex after it is frozen are kept in the vertex
+ * on top of the frozen edges. If a frozen edge is removed, the vertex copy its frozen edges into
+ * its own arrays and is detached from the adjacency, see {@link Vertex#removeOutgoing(Edge)}.
+ */
+public final class VertexAdjacency {
+
+  private static final long MAX_QUANTIZED = (1L << 30) - 1;
+
+  private final Edge[] outgoing;
+  private final int[] outgoingOffsets;
+  private final Edge[] incoming;
+  private final int[] incomingOffsets;
+
+  private VertexAdjacency(List<Vertex> vertices) {
+    int size = vertices.size();
+    this.outgoingOffsets = new int[size + 1];
+    this.incomingOffsets = new int[size + 1];
+
+    int nOutgoing = 0;
+    int nIncoming = 0;
+    for (int i = 0; i < size; ++i) {
+      outgoingOffsets[i] = nOutgoing;
+      incomingOffsets[i] = nIncoming;
+      nOutgoing += vertices.get(i).getDegreeOut();
+      nIncoming += vertices.get(i).getDegreeIn();
+    }
+    outgoingOffsets[size] = nOutgoing;
+    incomingOffsets[size] = nIncoming;
+
+    this.outgoing = new Edge[nOutgoing];
+    this.incoming = new Edge[nIncoming];
+    for (int i = 0; i < size; ++i) {
+      var v = vertices.get(i);
+      copy(v.getOutgoing(), outgoing, outgoingOffsets[i]);
+      copy(v.getIncoming(), incoming, incomingOffsets[i]);
+    }
+  }
+
+  /**
+   * Freeze the edge lists of the given vertices into a new adjacency, and assign each vertex a
+   * dense index, see {@link Vertex#getIndex()}. This must be done before the graph is used by
+   * more than one thread, typically when the server starts.
+   */
+  public static VertexAdjacency freeze(Collection<Vertex> vertices) {
+    var list = new ArrayList<>(vertices);
+    list.sort(Comparator.comparingLong(VertexAdjacency::zOrder));
+
+    var adjacency = new VertexAdjacency(list);
+    for (int i = 0; i < list.size(); ++i) {
+      list.get(i).freezeEdgeLists(adjacency, i);
+    }
+    return adjacency;
+  }
+
+  /** The number of vertices in this adjacency, all indexes are less than this. */
+  public int size() {
+    return outgoingOffsets.length - 1;
+  }
+
+  /* package local methods used by the Vertex */
+
+  Collection<Edge> outgoing(int index, Edge[] added) {
+    return edges(outgoing, outgoingOffsets[index], outgoingOffsets[index + 1], added);
+  }
+
+  Collection<Edge> incoming(int index, Edge[] added) {
+    return edges(incoming, incomingOffsets[index], incomingOffsets[index + 1], added);
+  }
+
+  int degreeOut(int index) {
+    return outgoingOffsets[index + 1] - outgoingOffsets[index];
+  }
+
+  int degreeIn(int index) {
+    return incomingOffsets[index + 1] - incomingOffsets[index];
+  }
+
+  boolean containsOutgoing(int index, Edge edge) {
+    return contains(outgoing, outgoingOffsets[index], outgoingOffsets[index + 1], edge);
+  }
+
+  boolean containsIncoming(int index, Edge edge) {
+    return contains(incoming, incomingOffsets[index], incomingOffsets[index + 1], edge);
+  }
+
+  Edge[] copyOutgoing(int index, Edge[] added) {
+    return copy(outgoing, outgoingOffsets[index], outgoingOffsets[index + 1], added);
+  }
+
+  Edge[] copyIncoming(int index, Edge[] added) {
+    return copy(incoming, incomingOffsets[index], incomingOffsets[index + 1], added);
+  }
+
+  /* private methods */
+
+  private static void copy(Collection<Edge> source, Edge[] target, int offset) {
+    for (Edge e : source) {
+      target[offset++] = e;
+    }
+  }
+
+  private static Collection<Edge> edges(Edge[] edges, int start, int end, Edge[] added) {
+    return new EdgeSlice(edges, start, end, added);
+  }
+
+  private static Edge[] copy(Edge[] edges, int start, int end, Edge[] added) {
+    var result = new Edge[end - start + added.length];
+    System.arraycopy(edges, start, result, 0, end - start);
+    System.arraycopy(added, 0, result, end - start, added.length);
+    return result;
+  }
+
+  private static boolean contains(Edge[] edges, int start, int end, Edge edge) {
+    for (int i = start; i < end; ++i) {
+      if (edges[i] == edge) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Interleave the bits of the coordinates quantized to 2^30 steps, giving the position of the
+   * vertex along a Z-order (Morton) curve.
+   */
+  private static long zOrder(Vertex v) {
+    long x = (long) ((v.getLon() + 180.0) / 360.0 * MAX_QUANTIZED);
+    long y = (long) ((v.getLat() + 90.0) / 180.0 * MAX_QUANTIZED);
+    return spread(x) | (spread(y) << 1);
+  }
+
+  /** Spread the lower 32 bits of the given value to the even bits of the result. */
+  private static long spread(long v) {
+    v &= 0xFFFFFFFFL;
+    v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+    v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+    v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    v = (v | (v << 2)) & 0x3333333333333333L;
+    v = (v | (v << 1)) & 0x5555555555555555L;
+    return v;
+  }
+
+  /**
+   * A read-only view of a range in one of the edge arrays followed by the edges added to the
+   * vertex after it was frozen, no copying is done. The vertex replaces its array of added edges
+   * when an edge is added or removed, so the view is not changed by later updates.
+   */
+  private static final class EdgeSlice extends AbstractList<Edge> implements RandomAccess {
+
+    private final Edge[] edges;
+    private final int start;
+    private final int frozenSize;
+    private final Edge[] added;
+
+    private EdgeSlice(Edge[] edges, int start, int end, Edge[] added) {
+      this.edges = edges;
+      this.start = start;
+      this.frozenSize = end - start;
+      this.added = added;
+    }
+
+    @Override
+    public Edge get(int index) {
+      Objects.checkIndex(index, size());
+      return index < frozenSize ? edges[start + index] : added[index - frozenSize];
+    }
+
+    @Override
+    public int size() {
+      return frozenSize + added.length;
+    }
+  }
+}
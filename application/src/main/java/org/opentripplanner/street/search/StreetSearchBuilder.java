@@ -18,6 +18,7 @@ import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 
 public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, StreetSearchBuilder> {
 
@@ -70,11 +71,11 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   }
 
   @Override
-  protected Collection<State> createInitialStates(Set<Vertex> originVertices) {
+  protected Collection<State> createInitialStates(Set<Vertex> originVertices, boolean arriveBy) {
     StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
       .map(routeRequest)
       .withMode(streetRequest.mode())
-      .withArriveBy(arriveBy())
+      .withArriveBy(arriveBy)
       .build();
 
     return State.getInitialStates(originVertices, streetSearchRequest);
@@ -106,6 +107,13 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   ) {
     if (heuristic.equals(RemainingWeightHeuristic.TRIVIAL)) {
       // No initialization needed
+    } else if (heuristic instanceof LandmarkRemainingWeightHeuristic landmarkHeuristic) {
+      landmarkHeuristic.initialize(
+        streetRequest.mode(),
+        destination,
+        arriveBy,
+        routeRequest.preferences()
+      );
     } else if (heuristic instanceof EuclideanRemainingWeightHeuristic euclideanHeuristic) {
       euclideanHeuristic.initialize(
         streetRequest.mode(),
@@ -0,0 +1,267 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * A contraction hierarchy over the permanent street vertices for one
+ * {@link ContractionHierarchyProfile}. Each vertex has a rank, given by the order it was
+ * contracted in by the {@link ContractionHierarchyBuilder}, and the arcs are the traversable
+ * street edges plus the shortcuts added during contraction. A shortcut replaces a path of two
+ * arcs through a lower ranked vertex.
+ * <p>
+ * A query runs a Dijkstra search from the origin using only arcs going up in rank, and one from
+ * the destination using only arcs coming down in rank; the two searches meet at the highest ranked
+ * vertex on the shortest path. The searches only settle a few hundred vertices, even for long
+ * trips. The shortcuts in the result are unpacked into the original street edges.
+ * <p>
+ * All arrays are indexed by node (position in the vertex array) or by arc id. The forward and
+ * backward upward graphs are stored as compressed-sparse-row arc lists.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class ContractionHierarchy implements Serializable {
+
+  private static final int NO_ARC = -1;
+  private static final int NOT_FOUND = -1;
+
+  private final Vertex[] vertices;
+
+  private final int[] arcFrom;
+  private final int[] arcTo;
+  private final int[] arcWeight;
+  /** The first and second arc replaced by a shortcut, {@link #NO_ARC} for original arcs. */
+  private final int[] arcChild1;
+  private final int[] arcChild2;
+  /** The street edge for original arcs, {@code null} for shortcuts. */
+  private final StreetEdge[] arcEdge;
+
+  /** Arcs from each node to a higher ranked node. */
+  private final int[] upwardOffsets;
+  private final int[] upwardArcs;
+  /** Arcs to each node from a higher ranked node, used by the search from the destination. */
+  private final int[] downwardOffsets;
+  private final int[] downwardArcs;
+
+  /** Lazily created, the vertex identity is not stable across serialization. */
+  private transient volatile TObjectIntMap<Vertex> nodeIndex;
+
+  ContractionHierarchy(
+    Vertex[] vertices,
+    int[] rank,
+    int[] arcFrom,
+    int[] arcTo,
+    int[] arcWeight,
+    int[] arcChild1,
+    int[] arcChild2,
+    StreetEdge[] arcEdge
+  ) {
+    this.vertices = vertices;
+    this.arcFrom = arcFrom;
+    this.arcTo = arcTo;
+    this.arcWeight = arcWeight;
+    this.arcChild1 = arcChild1;
+    this.arcChild2 = arcChild2;
+    this.arcEdge = arcEdge;
+
+    int n = vertices.length;
+    this.upwardOffsets = new int[n + 1];
+    this.downwardOffsets = new int[n + 1];
+    for (int arc = 0; arc < arcFrom.length; ++arc) {
+      if (rank[arcTo[arc]] > rank[arcFrom[arc]]) {
+        ++upwardOffsets[arcFrom[arc] + 1];
+      } else {
+        ++downwardOffsets[arcTo[arc] + 1];
+      }
+    }
+    for (int i = 0; i < n; ++i) {
+      upwardOffsets[i + 1] += upwardOffsets[i];
+      downwardOffsets[i + 1] += downwardOffsets[i];
+    }
+    this.upwardArcs = new int[upwardOffsets[n]];
+    this.downwardArcs = new int[downwardOffsets[n]];
+
+    int[] upwardNext = upwardOffsets.clone();
+    int[] downwardNext = downwardOffsets.clone();
+    for (int arc = 0; arc < arcFrom.length; ++arc) {
+      if (rank[arcTo[arc]] > rank[arcFrom[arc]]) {
+        upwardArcs[upwardNext[arcFrom[arc]]++] = arc;
+      } else {
+        downwardArcs[downwardNext[arcTo[arc]]++] = arc;
+      }
+    }
+  }
+
+  /** The number of vertices in the hierarchy. */
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  /** The number of arcs, including shortcuts. */
+  public int numberOfArcs() {
+    return arcFrom.length;
+  }
+
+  /** Return {@code true} if the given vertex is part of this hierarchy. */
+  public boolean contains(Vertex vertex) {
+    return nodeIndex().get(vertex) != NOT_FOUND;
+  }
+
+  /**
+   * Find the shortest path from one of the sources to one of the targets. The sources and targets
+   * are given with the weight of reaching the source from the origin and the target from the
+   * destination. Vertices not part of the hierarchy are ignored.
+   *
+   * @return the street edges of the path in traversal order, or {@code null} if no path exists.
+   */
+  @Nullable
+  public List<StreetEdge> findPath(Map<Vertex, Integer> sources, Map<Vertex, Integer> targets) {
+    var forward = new Search(true);
+    var backward = new Search(false);
+    sources.forEach(forward::init);
+    targets.forEach(backward::init);
+
+    int best = Integer.MAX_VALUE;
+    int meeting = NOT_FOUND;
+
+    var searches = new Search[] { forward, backward };
+
+    while (forward.hasNext(best) || backward.hasNext(best)) {
+      for (Search search : searches) {
+        if (!search.hasNext(best)) {
+          continue;
+        }
+        int node = search.settleNext();
+        if (node == NOT_FOUND) {
+          continue;
+        }
+        Search other = search == forward ? backward : forward;
+        int otherWeight = other.weight.get(node);
+        if (otherWeight != NOT_FOUND) {
+          int weight = search.weight.get(node) + otherWeight;
+          if (weight < best) {
+            best = weight;
+            meeting = node;
+          }
+        }
+      }
+    }
+    if (meeting == NOT_FOUND) {
+      return null;
+    }
+
+    var arcs = new ArrayList<Integer>();
+    int arc = forward.parentArc.get(meeting);
+    while (arc != NO_ARC) {
+      arcs.add(0, arc);
+      arc = forward.parentArc.get(arcFrom[arc]);
+    }
+    arc = backward.parentArc.get(meeting);
+    while (arc != NO_ARC) {
+      arcs.add(arc);
+      arc = backward.parentArc.get(arcTo[arc]);
+    }
+
+    var edges = new ArrayList<StreetEdge>();
+    for (int it : arcs) {
+      unpack(it, edges);
+    }
+    return edges;
+  }
+
+  /* private methods */
+
+  /** Replace the given arc with the original edges it represents, without recursion. */
+  private void unpack(int arc, List<StreetEdge> result) {
+    var stack = new ArrayList<Integer>();
+    stack.add(arc);
+    while (!stack.isEmpty()) {
+      int a = stack.removeLast();
+      if (arcEdge[a] != null) {
+        result.add(arcEdge[a]);
+      } else {
+        stack.add(arcChild2[a]);
+        stack.add(arcChild1[a]);
+      }
+    }
+  }
+
+  private TObjectIntMap<Vertex> nodeIndex() {
+    var index = nodeIndex;
+    if (index == null) {
+      index = new TObjectIntHashMap<>(vertices.length, 0.5f, NOT_FOUND);
+      for (int i = 0; i < vertices.length; ++i) {
+        index.put(vertices[i], i);
+      }
+      nodeIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * One direction of the bidirectional query. The searches only touch a small part of the graph,
+   * so the weights are kept in hash maps rather than arrays sized by the number of vertices.
+   */
+  private final class Search {
+
+    private final boolean forward;
+    private final LongMinHeap queue = new LongMinHeap(64);
+    private final TIntIntMap weight = new TIntIntHashMap(256, 0.5f, NOT_FOUND, NOT_FOUND);
+    private final TIntIntMap parentArc = new TIntIntHashMap(256, 0.5f, NOT_FOUND, NO_ARC);
+
+    private Search(boolean forward) {
+      this.forward = forward;
+    }
+
+    private void init(Vertex vertex, int initialWeight) {
+      int node = nodeIndex().get(vertex);
+      if (node != NOT_FOUND) {
+        relax(node, initialWeight, NO_ARC);
+      }
+    }
+
+    /**
+     * The search can stop when the next node is not better than the best path found, a path
+     * through it can not improve the result.
+     */
+    private boolean hasNext(int best) {
+      return !queue.isEmpty() && LongMinHeap.key(queue.peek()) < best;
+    }
+
+    /** Settle the next node and relax its arcs, return {@link #NOT_FOUND} for stale entries. */
+    private int settleNext() {
+      long next = queue.poll();
+      int node = LongMinHeap.node(next);
+      int nodeWeight = LongMinHeap.key(next);
+      if (nodeWeight > weight.get(node)) {
+        return NOT_FOUND;
+      }
+      int[] offsets = forward ? upwardOffsets : downwardOffsets;
+      int[] arcs = forward ? upwardArcs : downwardArcs;
+      for (int i = offsets[node]; i < offsets[node + 1]; ++i) {
+        int arc = arcs[i];
+        relax(forward ? arcTo[arc] : arcFrom[arc], nodeWeight + arcWeight[arc], arc);
+      }
+      return node;
+    }
+
+    private void relax(int node, int newWeight, int arc) {
+      int current = weight.get(node);
+      if (current == NOT_FOUND || newWeight < current) {
+        weight.put(node, newWeight);
+        parentArc.put(node, arc);
+        queue.add(LongMinHeap.pack(newWeight, node));
+      }
+    }
+  }
+}
@@ -0,0 +1,262 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Build a {@link ContractionHierarchy} for the given vertices and profile. The vertices are
+ * contracted one at a time, in the order of the number of shortcuts needed compared to the number
+ * of arcs removed (the edge difference), plus the number of already contracted neighbours to
+ * spread the contraction evenly over the graph. The priorities are updated lazily: a node is
+ * re-evaluated when it is polled, and put back if it is no longer the best candidate.
+ * <p>
+ * A shortcut {@code u -> w} is added when a node {@code v} is contracted, unless a local witness
+ * search from {@code u}, ignoring {@code v}, finds a path to {@code w} that is not longer. The
+ * witness search is limited to {@link #WITNESS_SETTLE_LIMIT} nodes, a failed search only adds an
+ * unnecessary shortcut, it never makes the hierarchy incorrect.
+ * <p>
+ * Only the edges traversable in the profile are included, see
+ * {@link ContractionHierarchyProfile#weight(Edge)}.
+ */
+public class ContractionHierarchyBuilder {
+
+  private static final int WITNESS_SETTLE_LIMIT = 500;
+  private static final int INFINITY = Integer.MAX_VALUE;
+  /** Offset making the priorities non-negative, so they can be packed in the heap. */
+  private static final int PRIORITY_OFFSET = 1 << 20;
+
+  private final Vertex[] vertices;
+
+  private final TIntArrayList arcFrom = new TIntArrayList();
+  private final TIntArrayList arcTo = new TIntArrayList();
+  private final TIntArrayList arcWeight = new TIntArrayList();
+  private final TIntArrayList arcChild1 = new TIntArrayList();
+  private final TIntArrayList arcChild2 = new TIntArrayList();
+  private final List<StreetEdge> arcEdge = new ArrayList<>();
+
+  private final TIntArrayList[] outgoing;
+  private final TIntArrayList[] incoming;
+  private final boolean[] contracted;
+  private final int[] contractedNeighbours;
+
+  /* Witness search state, reused between searches */
+  private final int[] witnessWeight;
+  private final TIntArrayList witnessTouched = new TIntArrayList();
+  private final LongMinHeap witnessQueue = new LongMinHeap(64);
+
+  public ContractionHierarchyBuilder(
+    Collection<Vertex> vertices,
+    ContractionHierarchyProfile profile
+  ) {
+    Map<Vertex, Integer> nodes = new IdentityHashMap<>();
+    var edges = new ArrayList<StreetEdge>();
+
+    for (Vertex v : vertices) {
+      for (Edge e : v.getOutgoing()) {
+        if (profile.weight(e) >= 0) {
+          nodes.putIfAbsent(e.getFromVertex(), nodes.size());
+          nodes.putIfAbsent(e.getToVertex(), nodes.size());
+          edges.add((StreetEdge) e);
+        }
+      }
+    }
+
+    int n = nodes.size();
+    this.vertices = new Vertex[n];
+    nodes.forEach((v, i) -> this.vertices[i] = v);
+    this.outgoing = new TIntArrayList[n];
+    this.incoming = new TIntArrayList[n];
+    for (int i = 0; i < n; ++i) {
+      outgoing[i] = new TIntArrayList(4);
+      incoming[i] = new TIntArrayList(4);
+    }
+    this.contracted = new boolean[n];
+    this.contractedNeighbours = new int[n];
+    this.witnessWeight = new int[n];
+    Arrays.fill(witnessWeight, INFINITY);
+
+    for (StreetEdge e : edges) {
+      int from = nodes.get(e.getFromVertex());
+      int to = nodes.get(e.getToVertex());
+      addArc(from, to, profile.weight(e), -1, -1, e);
+    }
+  }
+
+  public ContractionHierarchy build() {
+    int n = vertices.length;
+    var queue = new LongMinHeap(n);
+    for (int v = 0; v < n; ++v) {
+      queue.add(LongMinHeap.pack(priority(v), v));
+    }
+
+    int[] rank = new int[n];
+    int nextRank = 0;
+
+    while (!queue.isEmpty()) {
+      int v = LongMinHeap.node(queue.poll());
+      int priority = priority(v);
+      if (!queue.isEmpty() && priority > LongMinHeap.key(queue.peek())) {
+        queue.add(LongMinHeap.pack(priority, v));
+        continue;
+      }
+      contract(v, false);
+      rank[v] = nextRank++;
+    }
+
+    return new ContractionHierarchy(
+      vertices,
+      rank,
+      arcFrom.toArray(),
+      arcTo.toArray(),
+      arcWeight.toArray(),
+      arcChild1.toArray(),
+      arcChild2.toArray(),
+      arcEdge.toArray(new StreetEdge[0])
+    );
+  }
+
+  /* private methods */
+
+  /** The contraction priority, lower is contracted first. */
+  private int priority(int v) {
+    int removedArcs =
+      bestArcs(incoming[v], true, v).size() + bestArcs(outgoing[v], false, v).size();
+    int shortcuts = contract(v, true);
+    return PRIORITY_OFFSET + shortcuts - removedArcs + contractedNeighbours[v];
+  }
+
+  /**
+   * Contract the given node, adding the needed shortcuts. If {@code simulate} is set no shortcuts
+   * are added and the node is not marked as contracted.
+   *
+   * @return the number of shortcuts needed
+   */
+  private int contract(int v, boolean simulate) {
+    TIntIntMap in = bestArcs(incoming[v], true, v);
+    TIntIntMap out = bestArcs(outgoing[v], false, v);
+    int shortcuts = 0;
+
+    for (int u : in.keys()) {
+      int inArc = in.get(u);
+      int maxWeight = 0;
+      for (int outArc : out.values()) {
+        maxWeight = Math.max(maxWeight, arcWeight.get(inArc) + arcWeight.get(outArc));
+      }
+      witnessSearch(u, v, maxWeight);
+
+      for (int w : out.keys()) {
+        if (w == u) {
+          continue;
+        }
+        int outArc = out.get(w);
+        int weight = arcWeight.get(inArc) + arcWeight.get(outArc);
+        if (witnessWeight[w] <= weight) {
+          continue;
+        }
+        ++shortcuts;
+        if (!simulate) {
+          addArc(u, w, weight, inArc, outArc, null);
+        }
+      }
+      resetWitnessSearch();
+    }
+
+    if (!simulate) {
+      contracted[v] = true;
+      for (int u : in.keys()) {
+        ++contractedNeighbours[u];
+      }
+      for (int w : out.keys()) {
+        ++contractedNeighbours[w];
+      }
+    }
+    return shortcuts;
+  }
+
+  /**
+   * The cheapest arc to or from each uncontracted neighbour, parallel arcs only need one shortcut.
+   */
+  private TIntIntMap bestArcs(TIntArrayList arcs, boolean incoming, int v) {
+    var result = new TIntIntHashMap(8, 0.5f, -1, -1);
+    for (int i = 0; i < arcs.size(); ++i) {
+      int arc = arcs.get(i);
+      int neighbour = incoming ? arcFrom.get(arc) : arcTo.get(arc);
+      if (neighbour == v || contracted[neighbour]) {
+        continue;
+      }
+      int current = result.get(neighbour);
+      if (current == -1 || arcWeight.get(arc) < arcWeight.get(current)) {
+        result.put(neighbour, arc);
+      }
+    }
+    return result;
+  }
+
+  /** A limited Dijkstra search from the given source among the uncontracted nodes. */
+  private void witnessSearch(int source, int ignore, int maxWeight) {
+    witnessQueue.clear();
+    witnessWeight[source] = 0;
+    witnessTouched.add(source);
+    witnessQueue.add(LongMinHeap.pack(0, source));
+    int settled = 0;
+
+    while (!witnessQueue.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+      long next = witnessQueue.poll();
+      int node = LongMinHeap.node(next);
+      int weight = LongMinHeap.key(next);
+      if (weight > witnessWeight[node]) {
+        continue;
+      }
+      if (weight > maxWeight) {
+        break;
+      }
+      ++settled;
+      TIntArrayList arcs = outgoing[node];
+      for (int i = 0; i < arcs.size(); ++i) {
+        int arc = arcs.get(i);
+        int to = arcTo.get(arc);
+        if (to == ignore || contracted[to]) {
+          continue;
+        }
+        int newWeight = weight + arcWeight.get(arc);
+        if (newWeight < witnessWeight[to]) {
+          if (witnessWeight[to] == INFINITY) {
+            witnessTouched.add(to);
+          }
+          witnessWeight[to] = newWeight;
+          witnessQueue.add(LongMinHeap.pack(newWeight, to));
+        }
+      }
+    }
+  }
+
+  private void resetWitnessSearch() {
+    for (int i = 0; i < witnessTouched.size(); ++i) {
+      witnessWeight[witnessTouched.get(i)] = INFINITY;
+    }
+    witnessTouched.resetQuick();
+  }
+
+  private void addArc(int from, int to, int weight, int child1, int child2, StreetEdge edge) {
+    int arc = arcFrom.size();
+    arcFrom.add(from);
+    arcTo.add(to);
+    arcWeight.add(weight);
+    arcChild1.add(child1);
+    arcChild2.add(child2);
+    arcEdge.add(edge);
+    outgoing[from].add(arc);
+    incoming[to].add(arc);
+  }
+}
@@ -0,0 +1,79 @@
+package org.opentripplanner.street.search.ch;
+
+import java.util.Optional;
+import org.opentripplanner.framework.doc.DocumentedEnum;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The street mode and cost profile a {@link ContractionHierarchy} is built for. The hierarchy is
+ * built with static edge weights, so it can only be used for the requests with the same mode and
+ * optimization as the profile. The weights are in tenths of a second.
+ */
+public enum ContractionHierarchyProfile implements DocumentedEnum<ContractionHierarchyProfile> {
+  CAR(TraverseMode.CAR),
+  BIKE(TraverseMode.BICYCLE);
+
+  /** No-thru-traffic edges are only used to get in and out of the area, see {@link StreetEdge}. */
+  private static final int NO_THRU_TRAFFIC_FACTOR = 10;
+  private static final double WEIGHT_UNITS_PER_SECOND = 10.0;
+
+  private final TraverseMode traverseMode;
+
+  ContractionHierarchyProfile(TraverseMode traverseMode) {
+    this.traverseMode = traverseMode;
+  }
+
+  /**
+   * Find the profile matching the direct mode of the given request, if any. Bicycle requests only
+   * match if they use the default {@code SAFE_STREETS} optimization, the weights are precomputed.
+   */
+  public static Optional<ContractionHierarchyProfile> of(RouteRequest request) {
+    StreetMode mode = request.journey().direct().mode();
+    if (mode == StreetMode.CAR) {
+      return Optional.of(CAR);
+    }
+    if (
+      mode == StreetMode.BIKE &&
+      request.preferences().bike().optimizeType() == VehicleRoutingOptimizeType.SAFE_STREETS
+    ) {
+      return Optional.of(BIKE);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * The static weight of traversing the given edge, or {@code -1} if the edge is not a street
+   * edge or it can not be traversed in this profile.
+   */
+  int weight(Edge edge) {
+    if (!(edge instanceof StreetEdge streetEdge) || !streetEdge.canTraverse(traverseMode)) {
+      return -1;
+    }
+    double seconds = switch (this) {
+      case CAR -> streetEdge.getDistanceMeters() / streetEdge.getCarSpeed();
+      case BIKE -> streetEdge.getEffectiveBicycleSafetyDistance() /
+      BikePreferences.DEFAULT.speed();
+    };
+    int weight = Math.max(1, (int) Math.round(seconds * WEIGHT_UNITS_PER_SECOND));
+    return streetEdge.isNoThruTraffic(traverseMode) ? weight * NO_THRU_TRAFFIC_FACTOR : weight;
+  }
+
+  @Override
+  public String typeDescription() {
+    return "The street modes to build contraction hierarchies for.";
+  }
+
+  @Override
+  public String enumValueDescription() {
+    return switch (this) {
+      case CAR -> "Car routing, weighted by the speed limits.";
+      case BIKE -> "Bicycle routing with the default `safe-streets` optimization.";
+    };
+  }
+}
@@ -0,0 +1,122 @@
+package org.opentripplanner.street.search.ch;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Use a {@link ContractionHierarchy} to find the street edges a direct street search can be
+ * limited to. The hierarchy only knows the permanent street graph and static weights, so it does
+ * not replace the A* search. Instead, it returns a corridor: the edges of the hierarchy path plus
+ * the edges connecting the temporary origin and destination vertices to it. The A* search is then
+ * run inside the corridor, which applies the request preferences, turn restrictions and time
+ * dependent costs exactly as a normal search, while only visiting the vertices along the path.
+ * <p>
+ * If no hierarchy exists for the request, or no path is found, {@code null} is returned and the
+ * caller should fall back to a normal search.
+ */
+public class ContractionHierarchyRouter {
+
+  /** Limit the search from the temporary vertices into the permanent graph. */
+  private static final int LOCAL_SETTLE_LIMIT = 1000;
+
+  private final Graph graph;
+
+  public ContractionHierarchyRouter(Graph graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Find the edges to limit the search for the given request to, or {@code null} if the
+   * hierarchy can not be used.
+   */
+  @Nullable
+  public Set<Edge> findCorridor(RouteRequest request, Set<Vertex> from, Set<Vertex> to) {
+    var profile = ContractionHierarchyProfile.of(request).orElse(null);
+    if (profile == null) {
+      return null;
+    }
+    var hierarchy = graph.getContractionHierarchy(profile);
+    if (hierarchy == null) {
+      return null;
+    }
+
+    Set<Edge> corridor = Collections.newSetFromMap(new IdentityHashMap<>());
+    var sources = localSearch(hierarchy, profile, from, to, true, corridor);
+    var targets = localSearch(hierarchy, profile, to, from, false, corridor);
+    if (sources == null || targets == null) {
+      return null;
+    }
+
+    var path = hierarchy.findPath(sources, targets);
+    if (path == null) {
+      return null;
+    }
+    corridor.addAll(path);
+    return corridor;
+  }
+
+  /**
+   * Search from the given start vertices until the vertices of the hierarchy are reached. The
+   * origin and destination are temporary vertices linked to the permanent graph with temporary
+   * edges, these are not part of the hierarchy. The edges visited are added to the corridor.
+   *
+   * @return the hierarchy vertices reached with their weight, or {@code null} if the search
+   * reached the other end directly; the trip is short and a normal search is cheap.
+   */
+  @Nullable
+  private static Map<Vertex, Integer> localSearch(
+    ContractionHierarchy hierarchy,
+    ContractionHierarchyProfile profile,
+    Set<Vertex> start,
+    Set<Vertex> otherEnd,
+    boolean forward,
+    Set<Edge> corridor
+  ) {
+    Map<Vertex, Integer> weights = new HashMap<>();
+    Map<Vertex, Integer> reached = new HashMap<>();
+    var queue = new ArrayDeque<Vertex>();
+    for (Vertex v : start) {
+      weights.put(v, 0);
+      queue.add(v);
+    }
+
+    // The temporary part of the graph is small and shaped like a tree, a breadth-first search
+    // keeping the best weight is enough
+    int settled = 0;
+    while (!queue.isEmpty() && settled++ < LOCAL_SETTLE_LIMIT) {
+      Vertex v = queue.poll();
+      int weight = weights.get(v);
+      if (otherEnd.contains(v)) {
+        return null;
+      }
+      if (hierarchy.contains(v)) {
+        reached.merge(v, weight, Math::min);
+        continue;
+      }
+      for (Edge e : forward ? v.getOutgoing() : v.getIncoming()) {
+        int edgeWeight = e instanceof StreetEdge ? profile.weight(e) : 0;
+        if (edgeWeight < 0) {
+          continue;
+        }
+        corridor.add(e);
+        Vertex next = forward ? e.getToVertex() : e.getFromVertex();
+        Integer current = weights.get(next);
+        if (current == null || weight + edgeWeight < current) {
+          weights.put(next, weight + edgeWeight);
+          queue.add(next);
+        }
+      }
+    }
+    return reached;
+  }
+}
@@ -0,0 +1,127 @@
+package org.opentripplanner.street.search.landmark;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Precomputed driving times between a small set of landmark vertices and all other permanent
+ * vertices, used by the ALT (A*, landmarks and triangle inequality) heuristic. For any landmark
+ * {@code L}, the time from {@code v} to {@code t} is at least {@code d(L,t) - d(L,v)} and
+ * {@code d(v,L) - d(t,L)}, which is a much tighter bound than the straight-line distance in road
+ * networks with detours, ferries and motorways.
+ * <p>
+ * The times are lower bounds, see {@link LandmarkTableBuilder}, stored in whole seconds as
+ * {@code char}s: two bytes per vertex and landmark in each direction. The values for a vertex are
+ * stored together, so the heuristic reads one small block of memory for each state. Times that
+ * are unknown or too large to store are {@link #UNREACHABLE}.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class LandmarkTable implements Serializable {
+
+  public static final int UNREACHABLE = -1;
+  public static final int NOT_FOUND = -1;
+
+  static final char UNREACHABLE_VALUE = Character.MAX_VALUE;
+
+  /** Limit the search from the temporary vertices into the permanent graph. */
+  private static final int LOCAL_SEARCH_LIMIT = 1000;
+
+  private final Vertex[] vertices;
+  private final Vertex[] landmarks;
+  /** The time from landmark {@code l} to node {@code n} is at {@code n * landmarks.length + l} */
+  private final char[] fromLandmark;
+  /** The time from node {@code n} to landmark {@code l} is at {@code n * landmarks.length + l} */
+  private final char[] toLandmark;
+
+  /** Lazily created, the vertex identity is not stable across serialization. */
+  private transient volatile TObjectIntMap<Vertex> nodeIndex;
+
+  LandmarkTable(Vertex[] vertices, Vertex[] landmarks, char[] fromLandmark, char[] toLandmark) {
+    this.vertices = vertices;
+    this.landmarks = landmarks;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+  }
+
+  public int numberOfLandmarks() {
+    return landmarks.length;
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  /** The node index of the given vertex, or {@link #NOT_FOUND} if it is not in the table. */
+  public int node(Vertex vertex) {
+    return nodeIndex().get(vertex);
+  }
+
+  /** The time in seconds from the landmark to the node, or {@link #UNREACHABLE}. */
+  public int fromLandmark(int node, int landmark) {
+    return value(fromLandmark[node * landmarks.length + landmark]);
+  }
+
+  /** The time in seconds from the node to the landmark, or {@link #UNREACHABLE}. */
+  public int toLandmark(int node, int landmark) {
+    return value(toLandmark[node * landmarks.length + landmark]);
+  }
+
+  /**
+   * Find the nodes in the table connected to the given vertices. The origin and destination of a
+   * search are usually temporary vertices linked to the permanent graph with temporary edges,
+   * these are not in the table. The search follows the outgoing edges if {@code forward} is set,
+   * and the incoming edges if not, until a vertex in the table is reached.
+   * <p>
+   * An empty set is returned if the search is not complete within the limit, a partial result
+   * would not give a lower bound.
+   */
+  public Set<Integer> connectedNodes(Set<Vertex> start, boolean forward) {
+    Set<Integer> result = new HashSet<>();
+    Set<Vertex> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    var queue = new ArrayDeque<>(start);
+    visited.addAll(start);
+
+    while (!queue.isEmpty() && visited.size() < LOCAL_SEARCH_LIMIT) {
+      Vertex v = queue.poll();
+      int node = node(v);
+      if (node != NOT_FOUND) {
+        result.add(node);
+        continue;
+      }
+      for (Edge e : forward ? v.getOutgoing() : v.getIncoming()) {
+        Vertex next = forward ? e.getToVertex() : e.getFromVertex();
+        if (visited.add(next)) {
+          queue.add(next);
+        }
+      }
+    }
+    return queue.isEmpty() ? result : Set.of();
+  }
+
+  /* private methods */
+
+  private static int value(char value) {
+    return value == UNREACHABLE_VALUE ? UNREACHABLE : value;
+  }
+
+  private TObjectIntMap<Vertex> nodeIndex() {
+    var index = nodeIndex;
+    if (index == null) {
+      index = new TObjectIntHashMap<>(vertices.length, 0.5f, NOT_FOUND);
+      for (int i = 0; i < vertices.length; ++i) {
+        index.put(vertices[i], i);
+      }
+      nodeIndex = index;
+    }
+    return index;
+  }
+}
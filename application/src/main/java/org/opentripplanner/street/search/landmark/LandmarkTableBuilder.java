@@ -0,0 +1,224 @@
+package org.opentripplanner.street.search.landmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.opentripplanner.framework.collection.LongMinHeap;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * Select the landmarks and compute the {@link LandmarkTable} for driving.
+ * <p>
+ * The times must be lower bounds for any car search, so the graph used is a relaxed version of
+ * the street graph: street edges open for cars take the length divided by the car speed, rounded
+ * down to a tenth of a second, and all other edges, like links to stops and parking, take no time.
+ * Turn restrictions and turn costs are ignored. The car speed of an edge is the highest speed the
+ * car search uses, so the real travel time is never less than the time in the table.
+ * <p>
+ * The landmarks are selected with the "farthest" method: the first landmark is the vertex farthest
+ * from an arbitrary vertex, and each following landmark is the vertex farthest from the closest
+ * of the landmarks already selected. Landmarks on the edge of the network give the best bounds.
+ */
+public class LandmarkTableBuilder {
+
+  private static final int INFINITY = Integer.MAX_VALUE;
+
+  private final Vertex[] vertices;
+  private final int numberOfLandmarks;
+
+  /* The relaxed graph as compressed-sparse-row arc lists, weights in tenths of a second */
+  private final int[] outOffsets;
+  private final int[] outTo;
+  private final int[] outWeight;
+  private final int[] inOffsets;
+  private final int[] inFrom;
+  private final int[] inWeight;
+
+  public LandmarkTableBuilder(Collection<Vertex> vertices, int numberOfLandmarks) {
+    this.vertices = vertices.toArray(new Vertex[0]);
+    this.numberOfLandmarks = numberOfLandmarks;
+
+    int n = this.vertices.length;
+    Map<Vertex, Integer> nodes = new IdentityHashMap<>();
+    for (int i = 0; i < n; ++i) {
+      nodes.put(this.vertices[i], i);
+    }
+
+    // First count the arcs of each node, then fill in the arrays
+    this.outOffsets = new int[n + 1];
+    this.inOffsets = new int[n + 1];
+    int nArcs = 0;
+    for (int i = 0; i < n; ++i) {
+      for (Edge e : this.vertices[i].getOutgoing()) {
+        Integer to = nodes.get(e.getToVertex());
+        if (to != null && weight(e) >= 0) {
+          ++outOffsets[i + 1];
+          ++inOffsets[to + 1];
+          ++nArcs;
+        }
+      }
+    }
+    for (int i = 0; i < n; ++i) {
+      outOffsets[i + 1] += outOffsets[i];
+      inOffsets[i + 1] += inOffsets[i];
+    }
+
+    this.outTo = new int[nArcs];
+    this.outWeight = new int[nArcs];
+    this.inFrom = new int[nArcs];
+    this.inWeight = new int[nArcs];
+    int[] outNext = Arrays.copyOf(outOffsets, n);
+    int[] inNext = Arrays.copyOf(inOffsets, n);
+    for (int i = 0; i < n; ++i) {
+      for (Edge e : this.vertices[i].getOutgoing()) {
+        Integer to = nodes.get(e.getToVertex());
+        int weight = weight(e);
+        if (to != null && weight >= 0) {
+          int o = outNext[i]++;
+          outTo[o] = to;
+          outWeight[o] = weight;
+          int in = inNext[to]++;
+          inFrom[in] = i;
+          inWeight[in] = weight;
+        }
+      }
+    }
+  }
+
+  public LandmarkTable build() {
+    int n = vertices.length;
+    int k = numberOfLandmarks;
+    var landmarks = new ArrayList<Vertex>();
+    var fromLandmark = new char[n * k];
+    var toLandmark = new char[n * k];
+    Arrays.fill(fromLandmark, LandmarkTable.UNREACHABLE_VALUE);
+    Arrays.fill(toLandmark, LandmarkTable.UNREACHABLE_VALUE);
+
+    if (n == 0) {
+      return new LandmarkTable(vertices, new Vertex[0], new char[0], new char[0]);
+    }
+
+    // The time from the closest landmark to each node, used to select the next landmark
+    int[] closest = dijkstra(0, true);
+    int[] selected = new int[0];
+
+    for (int l = 0; l < k; ++l) {
+      int landmark = farthest(closest);
+      if (landmark < 0 || contains(selected, landmark)) {
+        break;
+      }
+      selected = Arrays.copyOf(selected, l + 1);
+      selected[l] = landmark;
+      landmarks.add(vertices[landmark]);
+
+      int[] from = dijkstra(landmark, true);
+      int[] to = dijkstra(landmark, false);
+      for (int node = 0; node < n; ++node) {
+        fromLandmark[node * k + l] = toSeconds(from[node]);
+        toLandmark[node * k + l] = toSeconds(to[node]);
+        closest[node] = l == 0 ? from[node] : Math.min(closest[node], from[node]);
+      }
+    }
+
+    // Fewer landmarks than requested may be found in small graphs, compact the arrays
+    int found = landmarks.size();
+    if (found < k) {
+      fromLandmark = compact(fromLandmark, n, k, found);
+      toLandmark = compact(toLandmark, n, k, found);
+    }
+    return new LandmarkTable(
+      vertices,
+      landmarks.toArray(new Vertex[0]),
+      fromLandmark,
+      toLandmark
+    );
+  }
+
+  /**
+   * The lower bound for driving along the edge in tenths of a second, or {@code -1} if cars can
+   * not use it.
+   */
+  static int weight(Edge edge) {
+    if (edge instanceof StreetEdge streetEdge) {
+      if (!streetEdge.canTraverse(TraverseMode.CAR)) {
+        return -1;
+      }
+      return (int) Math.floor(10.0 * streetEdge.getDistanceMeters() / streetEdge.getCarSpeed());
+    }
+    return 0;
+  }
+
+  /* private methods */
+
+  /** The times from (forward) or to (backward) the given node in tenths of a second. */
+  private int[] dijkstra(int source, boolean forward) {
+    int[] weights = new int[vertices.length];
+    Arrays.fill(weights, INFINITY);
+    int[] offsets = forward ? outOffsets : inOffsets;
+    int[] neighbours = forward ? outTo : inFrom;
+    int[] arcWeights = forward ? outWeight : inWeight;
+
+    var queue = new LongMinHeap(1024);
+    weights[source] = 0;
+    queue.add(LongMinHeap.pack(0, source));
+    while (!queue.isEmpty()) {
+      long next = queue.poll();
+      int node = LongMinHeap.node(next);
+      int weight = LongMinHeap.key(next);
+      if (weight > weights[node]) {
+        continue;
+      }
+      for (int i = offsets[node]; i < offsets[node + 1]; ++i) {
+        int newWeight = weight + arcWeights[i];
+        if (newWeight < weights[neighbours[i]]) {
+          weights[neighbours[i]] = newWeight;
+          queue.add(LongMinHeap.pack(newWeight, neighbours[i]));
+        }
+      }
+    }
+    return weights;
+  }
+
+  /** The reachable node with the highest weight, or {@code -1} if none is reachable. */
+  private static int farthest(int[] weights) {
+    int result = -1;
+    for (int node = 0; node < weights.length; ++node) {
+      if (weights[node] != INFINITY && (result < 0 || weights[node] > weights[result])) {
+        result = node;
+      }
+    }
+    return result;
+  }
+
+  private static boolean contains(int[] values, int value) {
+    for (int it : values) {
+      if (it == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static char toSeconds(int tenthsOfSecond) {
+    if (tenthsOfSecond == INFINITY) {
+      return LandmarkTable.UNREACHABLE_VALUE;
+    }
+    long seconds = Math.round(tenthsOfSecond / 10.0);
+    return seconds >= LandmarkTable.UNREACHABLE_VALUE
+      ? LandmarkTable.UNREACHABLE_VALUE
+      : (char) seconds;
+  }
+
+  private static char[] compact(char[] values, int n, int k, int found) {
+    var result = new char[n * found];
+    for (int node = 0; node < n; ++node) {
+      System.arraycopy(values, node * k, result, node * found, found);
+    }
+    return result;
+  }
+}
@@ -25,7 +25,6 @@ import org.opentripplanner.street.search.request.StreetSearchRequest;
 public class State implements AStarState<State, Edge, Vertex>, Cloneable {
 
   private static final State[] EMPTY_STATES = {};
-  private final StreetSearchRequest request;
 
   /* Data which is likely to change at most traversals */
 
@@ -43,13 +42,14 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
 
   public Edge backEdge;
 
-  /* StateData contains data which is unlikely to change as often */
+  /* StateData contains data which is unlikely to change as often, including the request */
   public StateData stateData;
 
   // how far have we walked
   // TODO(flamholz): this is a very confusing name as it actually applies to all non-transit modes.
   // we should DEFINITELY rename this variable and the associated methods.
-  public double walkDistance;
+  // A float is precise to a few millimeters for any realistic distance, and keeps the state small.
+  public float walkDistance;
 
   /* CONSTRUCTORS */
 
@@ -66,11 +66,10 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
   }
 
   public State(Vertex vertex, Instant startTime, StateData stateData, StreetSearchRequest request) {
-    this.request = request;
     this.weight = 0;
     this.vertex = vertex;
     this.backState = null;
-    this.stateData = stateData;
+    this.stateData = stateData.request == request ? stateData : stateData.copyForRequest(request);
     if (request.arriveBy() && !vertex.rentalRestrictions().noDropOffNetworks().isEmpty()) {
       this.stateData.noRentalDropOffZonesAtStartOfReverseSearch =
         vertex.rentalRestrictions().noDropOffNetworks();
@@ -174,7 +173,7 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
 
   /** returns the length of the trip in seconds up to this state */
   public long getElapsedTimeSeconds() {
-    return Math.abs(getTimeSeconds() - request.startTime().getEpochSecond());
+    return Math.abs(getTimeSeconds() - stateData.request.startTime().getEpochSecond());
   }
 
   public boolean isCompatibleVehicleRentalState(State state) {
@@ -235,6 +234,7 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
    */
   public boolean isFinal() {
     // When drive-to-transit is enabled, we need to check whether the car has been parked (or whether it has been picked up in reverse).
+    var request = stateData.request;
     boolean parkAndRide = request.mode().includesParking();
     boolean vehicleRentingOk;
     boolean vehicleParkAndRideOk;
@@ -295,11 +295,11 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
   }
 
   public StreetSearchRequest getRequest() {
-    return request;
+    return stateData.request;
   }
 
   public RoutingPreferences getPreferences() {
-    return request.preferences();
+    return stateData.request.preferences();
   }
 
   /**
@@ -410,11 +410,11 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
   }
 
   public IntersectionTraversalCalculator intersectionTraversalCalculator() {
-    return request.intersectionTraversalCalculator();
+    return stateData.request.intersectionTraversalCalculator();
   }
 
   public DataOverlayContext dataOverlayContext() {
-    return request.dataOverlayContext();
+    return stateData.request.dataOverlayContext();
   }
 
   public boolean isInsideNoRentalDropOffArea() {
@@ -498,14 +498,14 @@ public class State implements AStarState<State, Edge, Vertex>, Cloneable {
   }
 
   private State reversedClone() {
-    StreetSearchRequest reversedRequest = request
+    StreetSearchRequest reversedRequest = stateData.request
       .copyOfReversed(getTime())
       .withPreferences(p -> {
         p.withCar(c -> c.withRental(r -> r.withUseAvailabilityInformation(false)));
         p.withBike(b -> b.withRental(r -> r.withUseAvailabilityInformation(false)));
       })
       .build();
-    StateData newStateData = stateData.clone();
+    StateData newStateData = stateData.copyForRequest(reversedRequest);
     newStateData.backMode = null;
     return new State(this.vertex, getTime(), newStateData, reversedRequest);
   }
@@ -7,7 +7,10 @@ import static org.opentripplanner.street.search.state.VehicleRentalState.RENTING
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.street.model.RentalFormFactor;
 import org.opentripplanner.street.search.TraverseMode;
@@ -17,9 +20,20 @@ import org.opentripplanner.street.search.request.StreetSearchRequest;
  * StateData contains the components of search state that are unlikely to be changed as often as
  * time or weight. This avoids frequent duplication, which should have a positive impact on both
  * time and space use during searches.
+ * <p>
+ * A StateData is not changed after it is used by a state, so the states share the same instance
+ * until one of the fields change. The variants created during a search are interned, see
+ * {@link #intern()}, so the states of a search that are in the same mode and rental/parking state
+ * share one instance, instead of one copy for each change.
  */
 public class StateData implements Cloneable {
 
+  /** The request is the same for all states of a search, so it is kept here and not in State. */
+  StreetSearchRequest request;
+
+  /** The interned variants of this search, shared by all StateData instances of the search. */
+  private Map<StateData, StateData> variants;
+
   protected boolean vehicleParked;
 
   protected VehicleRentalState vehicleRentalState;
@@ -53,7 +67,9 @@ public class StateData implements Cloneable {
   public Set<String> noRentalDropOffZonesAtStartOfReverseSearch = Set.of();
 
   /** Private constructor, use static methods to get a set of initial states. */
-  private StateData(StreetMode requestMode) {
+  private StateData(StreetSearchRequest request, StreetMode requestMode) {
+    this.request = request;
+    this.variants = new ConcurrentHashMap<>();
     currentMode =
       switch (requestMode) {
         // when renting or using a flex vehicle, you start on foot until you have found the vehicle
@@ -71,6 +87,7 @@ public class StateData implements Cloneable {
   public static List<StateData> getInitialStateDatas(StreetSearchRequest request) {
     var rentalPreferences = request.preferences().rental(request.mode());
     return getInitialStateDatas(
+      request,
       request.mode(),
       request.arriveBy(),
       rentalPreferences != null
@@ -87,6 +104,7 @@ public class StateData implements Cloneable {
   public static StateData getBaseCaseStateData(StreetSearchRequest request) {
     var rentalPreferences = request.preferences().rental(request.mode());
     var stateDatas = getInitialStateDatas(
+      request,
       request.mode(),
       request.arriveBy(),
       rentalPreferences != null
@@ -125,12 +143,13 @@ public class StateData implements Cloneable {
   }
 
   private static List<StateData> getInitialStateDatas(
+    StreetSearchRequest request,
     StreetMode requestMode,
     boolean arriveBy,
     boolean allowArrivingInRentedVehicleAtDestination
   ) {
     List<StateData> res = new ArrayList<>();
-    var proto = new StateData(requestMode);
+    var proto = new StateData(request, requestMode);
 
     // carPickup searches may start and end in two distinct states:
     //   - CAR / IN_CAR where pickup happens directly at the bus stop
@@ -216,6 +235,82 @@ public class StateData implements Cloneable {
     };
   }
 
+  /**
+   * Return a copy of this StateData for a new search with the given request. The copy does not
+   * share the interned variants of this search.
+   */
+  StateData copyForRequest(StreetSearchRequest request) {
+    var copy = clone();
+    copy.request = request;
+    copy.variants = new ConcurrentHashMap<>();
+    return copy;
+  }
+
+  /**
+   * Return the instance of this search that is equal to this one, and add this one if there is
+   * none. The returned instance is shared, and must not be changed.
+   */
+  StateData intern() {
+    var existing = variants.putIfAbsent(this, this);
+    return existing == null ? this : existing;
+  }
+
+  /**
+   * The request is compared by identity, the requests of two searches are never the same even if
+   * they are equal.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StateData that = (StateData) o;
+    return (
+      request == that.request &&
+      vehicleParked == that.vehicleParked &&
+      mayKeepRentedVehicleAtDestination == that.mayKeepRentedVehicleAtDestination &&
+      backWalkingBike == that.backWalkingBike &&
+      enteredNoThroughTrafficArea == that.enteredNoThroughTrafficArea &&
+      insideNoRentalDropOffArea == that.insideNoRentalDropOffArea &&
+      vehicleRentalState == that.vehicleRentalState &&
+      carPickupState == that.carPickupState &&
+      currentMode == that.currentMode &&
+      backMode == that.backMode &&
+      rentalVehicleFormFactor == that.rentalVehicleFormFactor &&
+      Objects.equals(vehicleRentalNetwork, that.vehicleRentalNetwork) &&
+      Objects.equals(
+        noRentalDropOffZonesAtStartOfReverseSearch,
+        that.noRentalDropOffZonesAtStartOfReverseSearch
+      )
+    );
+  }
+
+  /**
+   * The hash is written out, instead of using {@link Objects#hash(Object...)}, because it is
+   * calculated each time a variant is interned. The varargs array and the boxing of the request
+   * hash would be allocated on every call.
+   */
+  @Override
+  public int hashCode() {
+    int result = System.identityHashCode(request);
+    result = 31 * result + Boolean.hashCode(vehicleParked);
+    result = 31 * result + Objects.hashCode(vehicleRentalState);
+    result = 31 * result + Boolean.hashCode(mayKeepRentedVehicleAtDestination);
+    result = 31 * result + Objects.hashCode(carPickupState);
+    result = 31 * result + Objects.hashCode(currentMode);
+    result = 31 * result + Objects.hashCode(backMode);
+    result = 31 * result + Boolean.hashCode(backWalkingBike);
+    result = 31 * result + Objects.hashCode(vehicleRentalNetwork);
+    result = 31 * result + Objects.hashCode(rentalVehicleFormFactor);
+    result = 31 * result + Boolean.hashCode(enteredNoThroughTrafficArea);
+    result = 31 * result + Boolean.hashCode(insideNoRentalDropOffArea);
+    result = 31 * result + Objects.hashCode(noRentalDropOffZonesAtStartOfReverseSearch);
+    return result;
+  }
+
   protected StateData clone() {
     try {
       return (StateData) super.clone();
@@ -30,6 +30,9 @@ public class StateEditor {
 
   private boolean traversingBackward;
 
+  /** Set when the StateData of the child is a copy, made by this editor. */
+  private boolean stateDataCloned = false;
+
   /* CONSTRUCTORS */
 
   public StateEditor(Vertex v, StreetSearchRequest request) {
@@ -126,6 +129,11 @@ public class StateEditor {
         return null;
       }
     }
+    // Replace a changed StateData with the shared instance of the search, so the searches with
+    // many rental or parking changes do not keep a copy for each change
+    if (stateDataCloned) {
+      child.stateData = child.stateData.intern();
+    }
     spawned = true;
     return child;
   }
@@ -384,7 +392,9 @@ public class StateEditor {
    * older states.
    */
   private void cloneStateDataAsNeeded() {
-    if (child.backState != null && child.stateData == child.backState.stateData) child.stateData =
-      child.stateData.clone();
+    if (child.backState != null && child.stateData == child.backState.stateData) {
+      child.stateData = child.stateData.clone();
+      stateDataCloned = true;
+    }
   }
 }
@@ -0,0 +1,143 @@
+package org.opentripplanner.street.search.strategy;
+
+import java.util.Set;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A remaining weight heuristic for car searches using the precomputed landmark times in a
+ * {@link LandmarkTable} (ALT). The estimate is the highest of the lower bounds given by the
+ * triangle inequality for each landmark, multiplied by the car reluctance, since the weight of
+ * driving is the time multiplied by the reluctance, plus turn costs.
+ * <p>
+ * For other modes, and states at vertices not in the table, the
+ * {@link EuclideanRemainingWeightHeuristic} is used. The result is never lower than the Euclidean
+ * estimate.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic<State> {
+
+  /** The times are rounded to whole seconds, allow for the rounding of two values. */
+  private static final int ROUNDING_SLACK_SECONDS = 1;
+
+  private final LandmarkTable table;
+  private final EuclideanRemainingWeightHeuristic euclidean;
+
+  private boolean enabled;
+  private boolean arriveBy;
+  private double reluctance;
+
+  /**
+   * The bounds of the times between each landmark and the target nodes, the target of an
+   * arrive-by search is the origin. For a depart-after search the lowest time from and the highest
+   * time to the landmark, for an arrive-by search the opposite.
+   */
+  private int[] targetFromLandmark;
+  private int[] targetToLandmark;
+
+  public LandmarkRemainingWeightHeuristic(LandmarkTable table, Float maxCarSpeed) {
+    this.table = table;
+    this.euclidean = new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    euclidean.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    this.reluctance = preferences.car().reluctance();
+
+    // Car parking and rental switch to walking, the driving times are not a lower bound
+    var targets = streetMode == StreetMode.CAR
+      ? table.connectedNodes(toVertices, arriveBy)
+      : Set.<Integer>of();
+    this.enabled = !targets.isEmpty();
+    if (!enabled) {
+      return;
+    }
+
+    int k = table.numberOfLandmarks();
+    targetFromLandmark = new int[k];
+    targetToLandmark = new int[k];
+    for (int l = 0; l < k; ++l) {
+      // Lowest time from a landmark, highest time to it: unreachable targets are infinitely far
+      // away, and make the highest bound unknown
+      int minFrom = LandmarkTable.UNREACHABLE;
+      int maxFrom = Integer.MIN_VALUE;
+      int minTo = LandmarkTable.UNREACHABLE;
+      int maxTo = Integer.MIN_VALUE;
+      for (int node : targets) {
+        int from = table.fromLandmark(node, l);
+        int to = table.toLandmark(node, l);
+        minFrom = min(minFrom, from);
+        maxFrom = max(maxFrom, from);
+        minTo = min(minTo, to);
+        maxTo = max(maxTo, to);
+      }
+      targetFromLandmark[l] = arriveBy ? maxFrom : minFrom;
+      targetToLandmark[l] = arriveBy ? minTo : maxTo;
+    }
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s);
+    if (!enabled) {
+      return estimate;
+    }
+    int node = table.node(s.getVertex());
+    if (node == LandmarkTable.NOT_FOUND) {
+      return estimate;
+    }
+
+    int best = 0;
+    for (int l = 0; l < targetFromLandmark.length; ++l) {
+      int from = table.fromLandmark(node, l);
+      int to = table.toLandmark(node, l);
+      int targetFrom = targetFromLandmark[l];
+      int targetTo = targetToLandmark[l];
+
+      if (arriveBy) {
+        // The remaining time is from the target (origin) to this vertex
+        best = bound(best, from, targetFrom);
+        best = bound(best, targetTo, to);
+      } else {
+        best = bound(best, targetFrom, from);
+        best = bound(best, to, targetTo);
+      }
+    }
+    return Math.max(estimate, (best - ROUNDING_SLACK_SECONDS) * reluctance);
+  }
+
+  /* private methods */
+
+  /** Update the best bound with {@code a - b} if both values are known. */
+  private static int bound(int best, int a, int b) {
+    if (a == LandmarkTable.UNREACHABLE || b == LandmarkTable.UNREACHABLE) {
+      return best;
+    }
+    return Math.max(best, a - b);
+  }
+
+  /** The lowest value, an unreachable value is higher than all others. */
+  private static int min(int a, int b) {
+    if (a == LandmarkTable.UNREACHABLE) {
+      return b;
+    }
+    return b == LandmarkTable.UNREACHABLE ? a : Math.min(a, b);
+  }
+
+  /** The highest value, any unreachable value make the result unreachable. */
+  private static int max(int a, int b) {
+    if (a == LandmarkTable.UNREACHABLE || b == LandmarkTable.UNREACHABLE) {
+      return LandmarkTable.UNREACHABLE;
+    }
+    return Math.max(a, b);
+  }
+}
@@ -0,0 +1,25 @@
+package org.opentripplanner.updater;
+
+import java.util.Optional;
+
+/**
+ * A graph writer runnable that can be combined with a runnable submitted before it, while that one
+ * is still waiting to be run. This lets the {@link GraphUpdaterManager} catch up with a feed that
+ * produces updates faster than they are applied, instead of applying every stale update.
+ */
+public interface CoalescingGraphWriterRunnable extends GraphWriterRunnable {
+  /**
+   * Only runnables with equal keys are combined, typically the key identifies the updater or the
+   * feed the runnable updates.
+   */
+  Object coalescingKey();
+
+  /**
+   * Combine this runnable with a runnable with the same key, that was submitted before this one
+   * and has not started running.
+   *
+   * @return a runnable with the same effect as running {@code previous} and then this one, or
+   * empty if the two can not be combined. In that case both are run.
+   */
+  Optional<CoalescingGraphWriterRunnable> coalesce(CoalescingGraphWriterRunnable previous);
+}
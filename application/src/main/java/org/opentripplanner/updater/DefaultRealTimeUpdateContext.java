@@ -12,7 +12,14 @@ public class DefaultRealTimeUpdateContext implements RealTimeUpdateContext {
 
   private final Graph graph;
   private final TransitService transitService;
-  private SiriFuzzyTripMatcher siriFuzzyTripMatcher;
+
+  /**
+   * The fuzzy trip matchers index the scheduled trips, so they are created once on first use and
+   * then shared by all updaters. They are immutable, so reading them needs no locking.
+   */
+  private volatile SiriFuzzyTripMatcher siriFuzzyTripMatcher;
+
+  private volatile GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher;
 
   public DefaultRealTimeUpdateContext(
     Graph graph,
@@ -41,16 +48,33 @@ public class DefaultRealTimeUpdateContext implements RealTimeUpdateContext {
   }
 
   @Override
-  public synchronized SiriFuzzyTripMatcher siriFuzzyTripMatcher() {
-    if (siriFuzzyTripMatcher == null) {
-      siriFuzzyTripMatcher = new SiriFuzzyTripMatcher(transitService);
+  public SiriFuzzyTripMatcher siriFuzzyTripMatcher() {
+    var matcher = siriFuzzyTripMatcher;
+    if (matcher == null) {
+      synchronized (this) {
+        matcher = siriFuzzyTripMatcher;
+        if (matcher == null) {
+          matcher = new SiriFuzzyTripMatcher(transitService);
+          siriFuzzyTripMatcher = matcher;
+        }
+      }
     }
-    return siriFuzzyTripMatcher;
+    return matcher;
   }
 
   @Override
   public GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher() {
-    return new GtfsRealtimeFuzzyTripMatcher(transitService);
+    var matcher = gtfsRealtimeFuzzyTripMatcher;
+    if (matcher == null) {
+      synchronized (this) {
+        matcher = gtfsRealtimeFuzzyTripMatcher;
+        if (matcher == null) {
+          matcher = new GtfsRealtimeFuzzyTripMatcher(transitService);
+          gtfsRealtimeFuzzyTripMatcher = matcher;
+        }
+      }
+    }
+    return matcher;
   }
 
   @Override
@@ -1,6 +1,7 @@
 package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +38,12 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private static final int MIN_POLLING_UPDATER_THREADS = 6;
 
+  /**
+   * The max number of graph writer runnables waiting to be run, before the updaters submitting
+   * more runnables are blocked. Coalesced runnables are only counted once.
+   */
+  private static final int MAX_WAITING_GRAPH_WRITERS = 100;
+
   /**
    * OTP's multi-version concurrency control model for graph updating allows simultaneous reads, but
    * never simultaneous writes. We ensure this policy is respected by having a single writer thread,
@@ -48,6 +55,11 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final ScheduledExecutorService scheduler;
 
+  /**
+   * The graph writer runnables waiting to be run on the scheduler.
+   */
+  private final GraphWriterQueue writeQueue;
+
   private final ScheduledExecutorService pollingUpdaterPool;
 
   /**
@@ -61,20 +73,15 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
-  /**
-   * The Graph that will be updated.
-   */
-  private final RealTimeUpdateContext realtimeUpdateContext;
-
   /**
    * Constructor.
    *
    */
   public GraphUpdaterManager(RealTimeUpdateContext context, List<GraphUpdater> updaters) {
-    this.realtimeUpdateContext = context;
     // Thread factories used to create new threads, giving them more human-readable names.
     var graphWriterThreadFactory = new ThreadFactoryBuilder().setNameFormat("graph-writer").build();
     this.scheduler = Executors.newSingleThreadScheduledExecutor(graphWriterThreadFactory);
+    this.writeQueue = new GraphWriterQueue(scheduler, context, MAX_WAITING_GRAPH_WRITERS);
     var updaterThreadFactory = new ThreadFactoryBuilder().setNameFormat("updater-%d").build();
     this.pollingUpdaterPool =
       Executors.newScheduledThreadPool(
@@ -168,6 +175,7 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
     // Shutdown scheduler
     scheduler.shutdownNow();
+    writeQueue.cancelWaiting();
     try {
       boolean ok = scheduler.awaitTermination(30, TimeUnit.SECONDS);
       if (!ok) {
@@ -180,15 +188,15 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     LOG.info("Stopped updater manager");
   }
 
+  /**
+   * Queue the runnable to be run on the graph writer thread. If the queue is full, this blocks
+   * until the writer thread has caught up, so the updaters can not produce updates faster than
+   * they are applied. A {@link CoalescingGraphWriterRunnable} may be combined with a waiting
+   * runnable from the same updater, see {@link GraphWriterQueue}.
+   */
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
-      try {
-        runnable.run(realtimeUpdateContext);
-      } catch (Exception e) {
-        LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
-      }
-    });
+    return writeQueue.submit(runnable);
   }
 
   @Override
@@ -256,6 +264,14 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return scheduler;
   }
 
+  /**
+   * The size of the queue of graph writer runnables, how long the oldest one has been waiting and
+   * how many were coalesced.
+   */
+  public MeterBinder getWriteQueueMetrics() {
+    return writeQueue;
+  }
+
   /**
    * This method start a task during startup and log a message when all updaters are initialized.
    * When all updaters are ready, then OTP is ready for processing routing requests.
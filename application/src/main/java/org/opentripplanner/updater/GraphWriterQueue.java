@@ -0,0 +1,239 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The graph writer runnables waiting to be run by the {@link GraphUpdaterManager}. They are run
+ * one at a time on the single graph writer thread, in the order they were submitted.
+ * <p>
+ * A {@link CoalescingGraphWriterRunnable} is combined with the last waiting runnable with the same
+ * key, so a burst of messages from a feed is applied as one update. The number of waiting
+ * runnables is bounded: when the queue is full, {@link #submit(GraphWriterRunnable)} blocks the
+ * producer until the writer thread has caught up.
+ */
+class GraphWriterQueue implements MeterBinder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphWriterQueue.class);
+
+  private static final String METRICS_PREFIX = "graph_writer_queue";
+
+  private final Executor writer;
+  private final RealTimeUpdateContext context;
+  private final int capacity;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Deque<Entry> waiting = new ArrayDeque<>();
+
+  /** The last waiting entry for each coalescing key. */
+  private final Map<Object, Entry> lastWaitingByKey = new HashMap<>();
+
+  private final AtomicLong coalescedCount = new AtomicLong();
+
+  /** Set by the writer thread, so it does not block itself when it submits a runnable. */
+  private volatile Thread writerThread;
+
+  /**
+   * @param writer a single thread executor, running the tasks in the order they are submitted
+   */
+  GraphWriterQueue(Executor writer, RealTimeUpdateContext context, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+    }
+    this.writer = writer;
+    this.context = context;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Add the runnable to the queue, blocking while the queue is full. If the runnable is combined
+   * with a waiting runnable, the returned future is the future of the combined runnable. The
+   * future is cancelled if the runnable is dropped when the writer is shut down.
+   *
+   * @throws RejectedExecutionException if the writer no longer accepts tasks
+   */
+  Future<?> submit(GraphWriterRunnable runnable) {
+    lock.lock();
+    try {
+      while (true) {
+        if (runnable instanceof CoalescingGraphWriterRunnable coalescing) {
+          var future = coalesceWithWaiting(coalescing);
+          if (future != null) {
+            return future;
+          }
+        }
+        if (waiting.size() < capacity || Thread.currentThread() == writerThread) {
+          break;
+        }
+        try {
+          notFull.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return CompletableFuture.failedFuture(new CancellationException("Interrupted"));
+        }
+      }
+
+      var entry = new Entry(runnable);
+      waiting.addLast(entry);
+      if (entry.key != null) {
+        lastWaitingByKey.put(entry.key, entry);
+      }
+      try {
+        writer.execute(this::runNext);
+      } catch (RejectedExecutionException e) {
+        waiting.removeLast();
+        if (entry.key != null) {
+          lastWaitingByKey.remove(entry.key, entry);
+        }
+        throw e;
+      }
+      return entry.future;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Cancel the runnables that have not started and wake up the blocked producers. Used when the
+   * writer is shut down.
+   */
+  void cancelWaiting() {
+    lock.lock();
+    try {
+      waiting.forEach(entry -> entry.future.cancel(false));
+      waiting.clear();
+      lastWaitingByKey.clear();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return waiting.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * How long the runnable first in line has been waiting, or zero if the queue is empty.
+   */
+  Duration oldestWaitingTime() {
+    lock.lock();
+    try {
+      var oldest = waiting.peekFirst();
+      return oldest == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - oldest.created);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge
+      .builder(METRICS_PREFIX + ".size", this, GraphWriterQueue::size)
+      .description("Graph writer runnables waiting to be run")
+      .register(registry);
+    Gauge
+      .builder(METRICS_PREFIX + ".oldest", this, q -> q.oldestWaitingTime().toMillis() / 1000.0)
+      .description("Seconds the oldest waiting graph writer runnable has been waiting")
+      .baseUnit("seconds")
+      .register(registry);
+    FunctionCounter
+      .builder(METRICS_PREFIX + ".coalesced", coalescedCount, AtomicLong::get)
+      .description("Graph writer runnables combined with a waiting runnable")
+      .register(registry);
+  }
+
+  /**
+   * @return the future of the entry the runnable was combined with, or null if it was not
+   */
+  @Nullable
+  private Future<?> coalesceWithWaiting(CoalescingGraphWriterRunnable runnable) {
+    var previous = lastWaitingByKey.get(runnable.coalescingKey());
+    if (previous == null) {
+      return null;
+    }
+    Optional<CoalescingGraphWriterRunnable> combined = runnable.coalesce(
+      (CoalescingGraphWriterRunnable) previous.runnable
+    );
+    if (combined.isEmpty()) {
+      return null;
+    }
+    previous.runnable = combined.get();
+    coalescedCount.incrementAndGet();
+    return previous.future;
+  }
+
+  private void runNext() {
+    writerThread = Thread.currentThread();
+    Entry entry;
+    GraphWriterRunnable runnable;
+    lock.lock();
+    try {
+      entry = waiting.pollFirst();
+      if (entry == null) {
+        // the waiting runnables were cancelled
+        return;
+      }
+      if (entry.key != null) {
+        lastWaitingByKey.remove(entry.key, entry);
+      }
+      runnable = entry.runnable;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      runnable.run(context);
+    } catch (Exception e) {
+      LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
+    } finally {
+      entry.future.complete(null);
+    }
+  }
+
+  private static class Entry {
+
+    /** The runnable is replaced when a later runnable is combined with it. */
+    private GraphWriterRunnable runnable;
+
+    @Nullable
+    private final Object key;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final long created = System.nanoTime();
+
+    private Entry(GraphWriterRunnable runnable) {
+      this.runnable = runnable;
+      this.key =
+        runnable instanceof CoalescingGraphWriterRunnable coalescing
+          ? coalescing.coalescingKey()
+          : null;
+    }
+  }
+}
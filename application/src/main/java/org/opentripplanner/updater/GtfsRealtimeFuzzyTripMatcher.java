@@ -4,6 +4,11 @@ import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
 import gnu.trove.set.TIntSet;
 import java.text.ParseException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
@@ -22,6 +27,10 @@ import org.opentripplanner.transit.service.TransitService;
  * <p>
  * The class should only be used if we know that the feed producer is unable to produce trip_ids in
  * the GTFS-RT feed.
+ * <p>
+ * The scheduled trips are indexed by route, direction and start time when the matcher is created.
+ * The index is not modified after that, so the same instance can be used by several threads without
+ * locking. Trips in patterns created by real-time updates are not in the index.
  */
 public class GtfsRealtimeFuzzyTripMatcher {
 
@@ -30,8 +39,11 @@ public class GtfsRealtimeFuzzyTripMatcher {
   // TODO: replace this with a runtime solution
   private final DirectionMapper directionMapper = new DirectionMapper(DataImportIssueStore.NOOP);
 
+  private final Map<TripStartKey, List<TripTimes>> tripsByStart;
+
   public GtfsRealtimeFuzzyTripMatcher(TransitService transitService) {
     this.transitService = transitService;
+    this.tripsByStart = indexTripsByStart(transitService);
   }
 
   public TripDescriptor match(String feedId, TripDescriptor trip) {
@@ -78,7 +90,27 @@ public class GtfsRealtimeFuzzyTripMatcher {
     return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
   }
 
-  public synchronized Trip getTrip(
+  /**
+   * Find the scheduled trip of the route and direction, that departs from the first stop at the
+   * start time on the service date.
+   */
+  @Nullable
+  public Trip getTrip(Route route, Direction direction, int startTime, LocalDate date) {
+    var candidates = tripsByStart.get(new TripStartKey(route.getId(), direction, startTime));
+    if (candidates == null) {
+      return null;
+    }
+    return firstRunningOnDate(candidates, date);
+  }
+
+  /**
+   * The same as {@link #getTrip(Route, Direction, int, LocalDate)}, but searching the patterns of
+   * the route instead of using an index. This is faster than building the index for a single
+   * lookup.
+   */
+  @Nullable
+  public static Trip findTrip(
+    TransitService transitService,
     Route route,
     Direction direction,
     int startTime,
@@ -98,4 +130,35 @@ public class GtfsRealtimeFuzzyTripMatcher {
     }
     return null;
   }
+
+  @Nullable
+  private Trip firstRunningOnDate(List<TripTimes> candidates, LocalDate date) {
+    TIntSet servicesRunningForDate = transitService.getServiceCodesRunningForDate(date);
+    for (TripTimes times : candidates) {
+      if (servicesRunningForDate.contains(times.getServiceCode())) {
+        return times.getTrip();
+      }
+    }
+    return null;
+  }
+
+  private static Map<TripStartKey, List<TripTimes>> indexTripsByStart(
+    TransitService transitService
+  ) {
+    Map<TripStartKey, List<TripTimes>> index = new HashMap<>();
+    for (TripPattern pattern : transitService.getAllTripPatterns()) {
+      for (TripTimes times : pattern.getScheduledTimetable().getTripTimes()) {
+        var key = new TripStartKey(
+          pattern.getRoute().getId(),
+          pattern.getDirection(),
+          times.getScheduledDepartureTime(0)
+        );
+        index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(times);
+      }
+    }
+    index.replaceAll((key, trips) -> List.copyOf(trips));
+    return Map.copyOf(index);
+  }
+
+  private record TripStartKey(FeedScopedId routeId, Direction direction, int startTime) {}
 }
@@ -30,9 +30,8 @@ public interface RealTimeUpdateContext {
   SiriFuzzyTripMatcher siriFuzzyTripMatcher();
 
   /**
-   * Return a GTFS-RT fuzzy trip matcher that can look up both scheduled and real-time data.
-   * The GTFS-RT fuzzy trip matcher has access to all real-time updates applied so far,
-   * including those not yet committed in a published snapshot.
+   * Return a GTFS-RT fuzzy trip matcher that matches trip descriptors to the scheduled trips.
+   * Trips added by real-time updates are not matched, they are identified by their trip id.
    */
   GtfsRealtimeFuzzyTripMatcher gtfsRealtimeFuzzyTripMatcher();
 
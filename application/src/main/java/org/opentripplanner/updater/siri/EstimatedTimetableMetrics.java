@@ -0,0 +1,79 @@
+package org.opentripplanner.updater.siri;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records micrometer metrics for applying SIRI-ET messages of a feed to the timetable snapshot
+ * buffer, see {@link SiriTimetableSnapshotSource#applyEstimatedTimetable}.
+ * <p>
+ * The time of each phase is recorded as a timer, and the size of the most recent message as
+ * gauges.
+ */
+class EstimatedTimetableMetrics {
+
+  private static final String METRICS_PREFIX = "siri_estimated_timetable";
+
+  private final Tags baseTags;
+  private final Timer prepareTimer;
+  private final Timer commitTimer;
+  private final Timer totalTimer;
+  private final AtomicInteger journeysGauge;
+  private final AtomicInteger rebuiltGauge;
+
+  EstimatedTimetableMetrics(String feedId) {
+    this.baseTags = Tags.of("feedId", feedId);
+    this.prepareTimer = timer("prepare");
+    this.commitTimer = timer("commit");
+    this.totalTimer = timer("total");
+    this.journeysGauge =
+      gauge("journeys", "Estimated vehicle journeys in the most recent message");
+    this.rebuiltGauge =
+      gauge(
+        "rebuilt",
+        "Journeys in the most recent message that were built again when committed, because they " +
+        "depend on an earlier journey in the same message"
+      );
+  }
+
+  void recordPrepare(int journeys, Duration duration) {
+    journeysGauge.set(journeys);
+    prepareTimer.record(duration);
+  }
+
+  void recordCommit(int rebuilt, Duration duration) {
+    rebuiltGauge.set(rebuilt);
+    commitTimer.record(duration);
+  }
+
+  void recordTotal(Duration duration) {
+    totalTimer.record(duration);
+  }
+
+  /**
+   * The phases are: matching the journeys to trips and building their trip times, committing them
+   * to the buffer, and the total.
+   */
+  private Timer timer(String phase) {
+    return Timer
+      .builder(METRICS_PREFIX + ".time")
+      .description("Time of each phase of applying an estimated timetable message")
+      .tags(baseTags.and(Tag.of("phase", phase)))
+      .register(Metrics.globalRegistry);
+  }
+
+  private AtomicInteger gauge(String name, String description) {
+    var atomicInt = new AtomicInteger(0);
+    Gauge
+      .builder(METRICS_PREFIX + "." + name, atomicInt::get)
+      .description(description)
+      .tags(baseTags)
+      .register(Metrics.globalRegistry);
+    return atomicInt;
+  }
+}
@@ -3,6 +3,7 @@ package org.opentripplanner.updater.siri;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -37,20 +38,25 @@ import uk.org.siri.siri20.VehicleModesEnumeration;
  * process will always be applied even in places where you have good quality IDs in SIRI data and
  * don't need it - we'd have to add a way to disable it.
  * <p>
- * The same instance of this SiriFuzzyTripMatcher may appear in different SIRI updaters. Be sure
- * to fetch the instance at during the setup of the updaters, the initialization is not thread-safe.
+ * The same instance of this SiriFuzzyTripMatcher may appear in different SIRI updaters. The caches
+ * are built when the instance is created and are not modified after that, so the instance can be
+ * used by several threads without locking.
  */
 public class SiriFuzzyTripMatcher {
 
   private static final Logger LOG = LoggerFactory.getLogger(SiriFuzzyTripMatcher.class);
 
-  private final Map<String, Set<Trip>> internalPlanningCodeCache = new HashMap<>();
-  private final Map<String, Set<Trip>> startStopTripCache = new HashMap<>();
+  private final Map<String, Set<Trip>> internalPlanningCodeCache;
+  private final Map<LastStopArrival, Set<Trip>> lastStopArrivalCache;
   private final TransitService transitService;
 
   public SiriFuzzyTripMatcher(TransitService transitService) {
     this.transitService = transitService;
-    initCache(this.transitService);
+    Map<String, Set<Trip>> internalPlanningCodes = new HashMap<>();
+    Map<LastStopArrival, Set<Trip>> lastStopArrivals = new HashMap<>();
+    initCache(transitService, internalPlanningCodes, lastStopArrivals);
+    this.internalPlanningCodeCache = unmodifiable(internalPlanningCodes);
+    this.lastStopArrivalCache = unmodifiable(lastStopArrivals);
   }
 
   /**
@@ -160,7 +166,11 @@ public class SiriFuzzyTripMatcher {
     return matches;
   }
 
-  private void initCache(TransitService index) {
+  private static void initCache(
+    TransitService index,
+    Map<String, Set<Trip>> internalPlanningCodeCache,
+    Map<LastStopArrival, Set<Trip>> lastStopArrivalCache
+  ) {
     for (Trip trip : index.getAllTrips()) {
       TripPattern tripPattern = index.getPatternForTrip(trip);
 
@@ -182,17 +192,21 @@ public class SiriFuzzyTripMatcher {
       if (tripTimes != null) {
         int arrivalTime = tripTimes.getArrivalTime(tripTimes.getNumStops() - 1);
 
-        String key = createStartStopKey(lastStopId, arrivalTime);
-        startStopTripCache.computeIfAbsent(key, k -> new HashSet<>()).add(trip);
+        var key = new LastStopArrival(lastStopId, arrivalTime);
+        lastStopArrivalCache.computeIfAbsent(key, k -> new HashSet<>()).add(trip);
       }
     }
 
     LOG.info("Built internalPlanningCode-cache [{}].", internalPlanningCodeCache.size());
-    LOG.info("Built start-stop-cache [{}].", startStopTripCache.size());
+    LOG.info("Built start-stop-cache [{}].", lastStopArrivalCache.size());
   }
 
-  private static String createStartStopKey(String lastStopId, int lastStopArrivalTime) {
-    return lastStopId + ":" + lastStopArrivalTime;
+  /**
+   * Wrap the map and the sets in it, keeping the iteration order of the sets.
+   */
+  private static <K> Map<K, Set<Trip>> unmodifiable(Map<K, Set<Trip>> cache) {
+    cache.replaceAll((key, trips) -> Collections.unmodifiableSet(trips));
+    return Collections.unmodifiableMap(cache);
   }
 
   private Set<Trip> getMatchingTripsOnStopOrSiblings(
@@ -211,13 +225,13 @@ public class SiriFuzzyTripMatcher {
       transitService.getTimeZone()
     );
 
-    Set<Trip> trips = startStopTripCache.get(
-      createStartStopKey(lastStopPoint, secondsSinceMidnight)
+    Set<Trip> trips = lastStopArrivalCache.get(
+      new LastStopArrival(lastStopPoint, secondsSinceMidnight)
     );
     if (trips == null) {
       //Attempt to fetch trips that started yesterday - i.e. add 24 hours to arrival-time
       trips =
-        startStopTripCache.get(createStartStopKey(lastStopPoint, secondsSinceMidnightYesterday));
+        lastStopArrivalCache.get(new LastStopArrival(lastStopPoint, secondsSinceMidnightYesterday));
     }
 
     if (trips != null) {
@@ -233,8 +247,8 @@ public class SiriFuzzyTripMatcher {
     trips = new HashSet<>();
     var allQuays = stop.getParentStation().getChildStops();
     for (var quay : allQuays) {
-      Set<Trip> tripSet = startStopTripCache.get(
-        createStartStopKey(quay.getId().getId(), secondsSinceMidnight)
+      Set<Trip> tripSet = lastStopArrivalCache.get(
+        new LastStopArrival(quay.getId().getId(), secondsSinceMidnight)
       );
       if (tripSet != null) {
         trips.addAll(tripSet);
@@ -247,7 +261,7 @@ public class SiriFuzzyTripMatcher {
     if (internalPlanningCode == null) {
       return null;
     }
-    return internalPlanningCodeCache.getOrDefault(internalPlanningCode, new HashSet<>());
+    return internalPlanningCodeCache.getOrDefault(internalPlanningCode, Set.of());
   }
 
   /**
@@ -369,4 +383,6 @@ public class SiriFuzzyTripMatcher {
 
     return null;
   }
+
+  private record LastStopArrival(String stopId, int arrivalTime) {}
 }
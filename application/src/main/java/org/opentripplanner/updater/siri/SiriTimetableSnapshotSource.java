@@ -9,15 +9,29 @@ import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_N
 import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.UNKNOWN;
 import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.RealTimeTripUpdate;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
 import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.RealTimeTripTimes;
@@ -42,11 +56,27 @@ import uk.org.siri.siri20.EstimatedVehicleJourney;
  * This class should be used to create snapshots of lookup tables of real-time data. This is
  * necessary to provide planning threads a consistent constant view of a graph with real-time data at
  * a specific point in time.
+ * <p>
+ * A message is applied in two phases. First each journey is matched to a trip and its new trip
+ * times are built, without changing the buffer. For large messages this is done in parallel on a
+ * pool of worker threads, while the graph writer thread waits. Then the journeys are committed to
+ * the buffer one by one on the graph writer thread, in the order of the message. A journey that
+ * depends on an earlier journey in the same message, because both update the same trip or the
+ * earlier one adds the trip, is built again when it is committed. Extra journeys are always built
+ * when they are committed, since adding a trip changes the transit model.
  */
 public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(SiriTimetableSnapshotSource.class);
 
+  /** Smaller messages are prepared on the graph writer thread. */
+  static final int MIN_JOURNEYS_TO_PREPARE_IN_PARALLEL = 200;
+
+  private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  /** The journeys of a message are split into this many shards for each worker thread. */
+  private static final int SHARDS_PER_THREAD = 4;
+
   /**
    * Use a id generator to generate TripPattern ids for new TripPatterns created by RealTime
    * updates.
@@ -67,6 +97,14 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
 
   private final TimetableSnapshotManager snapshotManager;
 
+  /**
+   * The pool the journeys of large messages are prepared on. The threads are stopped when the
+   * pool is idle.
+   */
+  private final ExecutorService preparePool = createPreparePool();
+
+  private final Map<String, EstimatedTimetableMetrics> metricsByFeedId = new ConcurrentHashMap<>();
+
   public SiriTimetableSnapshotSource(
     TimetableSnapshotSourceParameters parameters,
     TransitModel transitModel
@@ -107,23 +145,56 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateResult.empty();
     }
 
-    List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>();
+    long start = System.nanoTime();
+    var metrics = metricsByFeedId.computeIfAbsent(feedId, EstimatedTimetableMetrics::new);
 
     if (incrementality == FULL_DATASET) {
       // Remove all updates from the buffer
       snapshotManager.clearBuffer(feedId);
     }
 
+    List<EstimatedVehicleJourney> journeys = new ArrayList<>();
     for (var etDelivery : updates) {
       for (var estimatedJourneyVersion : etDelivery.getEstimatedJourneyVersionFrames()) {
-        var journeys = estimatedJourneyVersion.getEstimatedVehicleJourneies();
-        LOG.debug("Handling {} EstimatedVehicleJourneys.", journeys.size());
-        for (EstimatedVehicleJourney journey : journeys) {
-          results.add(apply(journey, transitEditorService, fuzzyTripMatcher, entityResolver));
-        }
+        var frameJourneys = estimatedJourneyVersion.getEstimatedVehicleJourneies();
+        LOG.debug("Handling {} EstimatedVehicleJourneys.", frameJourneys.size());
+        journeys.addAll(frameJourneys);
+      }
+    }
+
+    List<PreparedJourney> preparedJourneys = prepare(journeys, fuzzyTripMatcher, entityResolver);
+    long prepareDone = System.nanoTime();
+    metrics.recordPrepare(journeys.size(), Duration.ofNanos(prepareDone - start));
+
+    List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>(journeys.size());
+    Set<FeedScopedId> committedTrips = new HashSet<>();
+    boolean tripAdded = false;
+    int rebuilt = 0;
+
+    for (int i = 0; i < journeys.size(); i++) {
+      var journey = journeys.get(i);
+      var prepared = preparedJourneys.get(i);
+      var tripId = prepared.tripId();
+
+      // A journey without a matching trip may match a trip added earlier in this message
+      boolean dependsOnEarlierJourney = tripId == null ? tripAdded : !committedTrips.add(tripId);
+
+      if (prepared.addNewTrip()) {
+        var result = apply(journey, transitEditorService, fuzzyTripMatcher, entityResolver);
+        tripAdded |= result.isSuccess();
+        results.add(result);
+      } else if (dependsOnEarlierJourney) {
+        results.add(apply(journey, transitEditorService, fuzzyTripMatcher, entityResolver));
+        ++rebuilt;
+      } else {
+        results.add(commit(journey, prepared.modifiedTrip()));
       }
     }
 
+    long commitDone = System.nanoTime();
+    metrics.recordCommit(rebuilt, Duration.ofNanos(commitDone - prepareDone));
+    metrics.recordTotal(Duration.ofNanos(commitDone - start));
+
     LOG.debug("message contains {} trip updates", updates.size());
 
     return UpdateResult.ofResults(results);
@@ -153,39 +224,144 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     boolean shouldAddNewTrip = false;
     try {
       shouldAddNewTrip = shouldAddNewTrip(journey, entityResolver);
-      Result<TripUpdate, UpdateError> result;
       if (shouldAddNewTrip) {
-        result =
-          new AddedTripBuilder(
-            journey,
-            transitService,
-            entityResolver,
-            tripPatternIdGenerator::generateUniqueTripPatternId
-          )
-            .build();
+        var result = new AddedTripBuilder(
+          journey,
+          transitService,
+          entityResolver,
+          tripPatternIdGenerator::generateUniqueTripPatternId
+        )
+          .build();
+
+        if (result.isFailure()) {
+          return result.toFailureResult();
+        }
+
+        /* commit */
+        return addTripToGraphAndBuffer(result.successValue());
       } else {
-        result = handleModifiedTrip(fuzzyTripMatcher, entityResolver, journey);
+        var result = buildModifiedTrip(fuzzyTripMatcher, entityResolver, journey);
+
+        if (result.isFailure()) {
+          return result.toFailureResult();
+        }
+
+        /* commit */
+        return commitModifiedTrip(result.successValue());
       }
+    } catch (DataValidationException e) {
+      return DataValidationExceptionMapper.toResult(e);
+    } catch (Exception e) {
+      return unknownFailure(journey, shouldAddNewTrip, e);
+    }
+  }
 
-      if (result.isFailure()) {
-        return result.toFailureResult();
+  /**
+   * Match the journeys to trips and build their new trip times, without changing the buffer. The
+   * journeys are prepared in parallel if there are many of them.
+   *
+   * @return the prepared journeys, in the same order as the journeys
+   */
+  private List<PreparedJourney> prepare(
+    List<EstimatedVehicleJourney> journeys,
+    @Nullable SiriFuzzyTripMatcher fuzzyTripMatcher,
+    EntityResolver entityResolver
+  ) {
+    var prepared = new PreparedJourney[journeys.size()];
+
+    if (journeys.size() < MIN_JOURNEYS_TO_PREPARE_IN_PARALLEL) {
+      for (int i = 0; i < journeys.size(); i++) {
+        prepared[i] = prepare(journeys.get(i), fuzzyTripMatcher, entityResolver);
       }
+      return Arrays.asList(prepared);
+    }
 
-      /* commit */
-      return addTripToGraphAndBuffer(result.successValue());
+    // Each task writes to its own range of the array, the array is read after all tasks are done
+    int shardSize = Math.ceilDiv(journeys.size(), PARALLELISM * SHARDS_PER_THREAD);
+    List<Future<?>> shards = new ArrayList<>();
+    for (int from = 0; from < journeys.size(); from += shardSize) {
+      int shardStart = from;
+      int shardEnd = Math.min(journeys.size(), from + shardSize);
+      shards.add(
+        preparePool.submit(() -> {
+          for (int i = shardStart; i < shardEnd; i++) {
+            prepared[i] = prepare(journeys.get(i), fuzzyTripMatcher, entityResolver);
+          }
+        })
+      );
+    }
+
+    try {
+      for (var shard : shards) {
+        shard.get();
+      }
+    } catch (InterruptedException e) {
+      shards.forEach(shard -> shard.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while preparing estimated timetable", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to prepare estimated timetable", e.getCause());
+    }
+    return Arrays.asList(prepared);
+  }
+
+  /**
+   * Match a journey to a trip and build its new trip times. This must not change the buffer or
+   * the transit model, since journeys are prepared in parallel.
+   */
+  private PreparedJourney prepare(
+    EstimatedVehicleJourney journey,
+    @Nullable SiriFuzzyTripMatcher fuzzyTripMatcher,
+    EntityResolver entityResolver
+  ) {
+    try {
+      if (shouldAddNewTrip(journey, entityResolver)) {
+        return PreparedJourney.ADD_NEW_TRIP;
+      }
+      return new PreparedJourney(
+        false,
+        buildModifiedTrip(fuzzyTripMatcher, entityResolver, journey)
+      );
+    } catch (DataValidationException e) {
+      return new PreparedJourney(false, DataValidationExceptionMapper.toResult(e));
+    } catch (Exception e) {
+      return new PreparedJourney(false, unknownFailure(journey, false, e));
+    }
+  }
+
+  /**
+   * Commit a prepared journey to the buffer.
+   */
+  private Result<UpdateSuccess, UpdateError> commit(
+    EstimatedVehicleJourney journey,
+    Result<ModifiedTrip, UpdateError> modifiedTrip
+  ) {
+    if (modifiedTrip.isFailure()) {
+      return modifiedTrip.toFailureResult();
+    }
+    try {
+      return commitModifiedTrip(modifiedTrip.successValue());
     } catch (DataValidationException e) {
       return DataValidationExceptionMapper.toResult(e);
     } catch (Exception e) {
-      LOG.warn(
-        "{} EstimatedJourney {} failed.",
-        shouldAddNewTrip ? "Adding" : "Updating",
-        DebugString.of(journey),
-        e
-      );
-      return Result.failure(UpdateError.noTripId(UNKNOWN));
+      return unknownFailure(journey, false, e);
     }
   }
 
+  private static <T> Result<T, UpdateError> unknownFailure(
+    EstimatedVehicleJourney journey,
+    boolean addingTrip,
+    Exception e
+  ) {
+    LOG.warn(
+      "{} EstimatedJourney {} failed.",
+      addingTrip ? "Adding" : "Updating",
+      DebugString.of(journey),
+      e
+    );
+    return Result.failure(UpdateError.noTripId(UNKNOWN));
+  }
+
   /**
    * Check if VehicleJourney is a replacement departure according to SIRI-ET requirements.
    */
@@ -211,7 +387,11 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     return getTimetableSnapshotBuffer().resolve(tripPattern, serviceDate);
   }
 
-  private Result<TripUpdate, UpdateError> handleModifiedTrip(
+  /**
+   * Match the journey to a trip and build its new trip times. This only reads the buffer, the
+   * changes are made by {@link #commitModifiedTrip(ModifiedTrip)}.
+   */
+  private Result<ModifiedTrip, UpdateError> buildModifiedTrip(
     @Nullable SiriFuzzyTripMatcher fuzzyTripMatcher,
     EntityResolver entityResolver,
     EstimatedVehicleJourney estimatedVehicleJourney
@@ -280,7 +460,16 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
       return updateResult.toFailureResult();
     }
 
-    if (!updateResult.successValue().stopPattern().equals(pattern.getStopPattern())) {
+    var tripUpdate = updateResult.successValue();
+    boolean stopPatternChanged = !tripUpdate.stopPattern().equals(pattern.getStopPattern());
+    return Result.success(new ModifiedTrip(trip, tripUpdate, stopPatternChanged));
+  }
+
+  private Result<UpdateSuccess, UpdateError> commitModifiedTrip(ModifiedTrip modifiedTrip) {
+    var trip = modifiedTrip.trip();
+    var serviceDate = modifiedTrip.tripUpdate().serviceDate();
+
+    if (modifiedTrip.stopPatternChanged()) {
       // Replace scheduled trip pattern, if pattern has changed
       markScheduledTripAsDeleted(trip, serviceDate);
     }
@@ -289,7 +478,7 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
     // remove the previously created trip
     this.snapshotManager.revertTripToScheduledTripPattern(trip.getId(), serviceDate);
 
-    return updateResult;
+    return addTripToGraphAndBuffer(modifiedTrip.tripUpdate());
   }
 
   /**
@@ -356,4 +545,52 @@ public class SiriTimetableSnapshotSource implements TimetableSnapshotProvider {
   public void flushBuffer() {
     snapshotManager.purgeAndCommit();
   }
+
+  private static ExecutorService createPreparePool() {
+    var pool = new ThreadPoolExecutor(
+      PARALLELISM,
+      PARALLELISM,
+      1,
+      TimeUnit.MINUTES,
+      new LinkedBlockingQueue<>(),
+      new ThreadFactoryBuilder().setNameFormat("siri-et-prepare-%d").setDaemon(true).build()
+    );
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * An update of an existing trip, that is not yet committed to the buffer.
+   *
+   * @param stopPatternChanged true if the trip is moved to a new pattern, so the scheduled trip
+   *                           must be marked as deleted
+   */
+  private record ModifiedTrip(Trip trip, TripUpdate tripUpdate, boolean stopPatternChanged) {}
+
+  /**
+   * A journey that is prepared for committing to the buffer.
+   *
+   * @param addNewTrip true if the journey adds a new trip, it is built when it is committed
+   * @param modifiedTrip the prepared update of an existing trip, or the reason it failed. Null if
+   *                     the journey adds a new trip.
+   */
+  private record PreparedJourney(
+    boolean addNewTrip,
+    @Nullable Result<ModifiedTrip, UpdateError> modifiedTrip
+  ) {
+    static final PreparedJourney ADD_NEW_TRIP = new PreparedJourney(true, null);
+
+    /**
+     * The id of the trip the journey is matched to, null if it is not matched to a trip.
+     */
+    @Nullable
+    FeedScopedId tripId() {
+      if (modifiedTrip == null) {
+        return null;
+      }
+      return modifiedTrip.isSuccess()
+        ? modifiedTrip.successValue().trip().getId()
+        : modifiedTrip.failureValue().tripId();
+    }
+  }
 }
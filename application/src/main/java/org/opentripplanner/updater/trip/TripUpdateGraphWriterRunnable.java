@@ -1,14 +1,24 @@
 package org.opentripplanner.updater.trip;
 
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
-import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.updater.CoalescingGraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.UpdateResult;
 
-class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
+/**
+ * Apply a message of GTFS-RT trip updates. While the runnable waits to be run, a later message of
+ * the same feed is combined with it: a full dataset replaces it, and the updates of two
+ * differential messages are applied as one message.
+ */
+class TripUpdateGraphWriterRunnable implements CoalescingGraphWriterRunnable {
 
   private final UpdateIncrementality updateIncrementality;
 
@@ -43,6 +53,48 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     this.sendMetrics = sendMetrics;
   }
 
+  @Override
+  public Object coalescingKey() {
+    return new Key(
+      snapshotSource,
+      feedId,
+      fuzzyTripMatching,
+      backwardsDelayPropagationType,
+      sendMetrics
+    );
+  }
+
+  /**
+   * A full dataset replaces the previous message. Two differential messages are combined by
+   * applying the updates of both in order, so the result is the same as applying the messages one
+   * after the other, also when some of the updates fail. A differential message is not combined
+   * with a previous full dataset, since the updates in a full dataset are applied without purging
+   * earlier modifications of the trip.
+   */
+  @Override
+  public Optional<CoalescingGraphWriterRunnable> coalesce(
+    CoalescingGraphWriterRunnable previous
+  ) {
+    if (updateIncrementality == FULL_DATASET) {
+      return Optional.of(this);
+    }
+    var previousTripUpdates = (TripUpdateGraphWriterRunnable) previous;
+    if (previousTripUpdates.updateIncrementality != DIFFERENTIAL) {
+      return Optional.empty();
+    }
+    return Optional.of(
+      new TripUpdateGraphWriterRunnable(
+        snapshotSource,
+        fuzzyTripMatching,
+        backwardsDelayPropagationType,
+        DIFFERENTIAL,
+        mergeUpdates(previousTripUpdates.updates, updates),
+        feedId,
+        sendMetrics
+      )
+    );
+  }
+
   @Override
   public void run(RealTimeUpdateContext context) {
     var result = snapshotSource.applyTripUpdates(
@@ -54,4 +106,27 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     );
     sendMetrics.accept(result);
   }
+
+  UpdateIncrementality updateIncrementality() {
+    return updateIncrementality;
+  }
+
+  List<TripUpdate> updates() {
+    return updates;
+  }
+
+  private static List<TripUpdate> mergeUpdates(List<TripUpdate> first, List<TripUpdate> second) {
+    var merged = new ArrayList<TripUpdate>(first.size() + second.size());
+    merged.addAll(first);
+    merged.addAll(second);
+    return merged;
+  }
+
+  private record Key(
+    TimetableSnapshotSource snapshotSource,
+    String feedId,
+    boolean fuzzyTripMatching,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    Consumer<UpdateResult> sendMetrics
+  ) {}
 }
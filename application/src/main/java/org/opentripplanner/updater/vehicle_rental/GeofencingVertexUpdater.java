@@ -34,6 +34,13 @@ class GeofencingVertexUpdater {
 
   private final Function<Envelope, Collection<Edge>> getEdgesForEnvelope;
 
+  /** The edges each restricted zone is applied to, so the zone can be removed again. */
+  private final Map<GeofencingZone, Map<StreetEdge, RentalRestrictionExtension>> appliedZones =
+    new HashMap<>();
+
+  private Set<GeofencingZone> appliedBusinessAreas = Set.of();
+  private Map<StreetEdge, RentalRestrictionExtension> businessAreaBorderEdges = Map.of();
+
   public GeofencingVertexUpdater(Function<Envelope, Collection<Edge>> getEdgesForEnvelope) {
     this.getEdgesForEnvelope = getEdgesForEnvelope;
   }
@@ -41,54 +48,86 @@ class GeofencingVertexUpdater {
   /**
    * Applies the restrictions described in the geofencing zones to eges by adding
    * {@link RentalRestrictionExtension} to them.
+   * <p>
+   * The update is incremental: the zones applied by an earlier call that are not in the given
+   * zones are removed, and only the zones that are not applied already are added. Finding the
+   * edges of a zone is the expensive part, so a feed that changes a few zones at a time is updated
+   * a lot faster than by applying all zones again. The border of the business areas is computed
+   * from the union of all of them, so it is only computed again if any of them change.
+   *
+   * @return the edges that got a new extension in this update
    */
   Map<StreetEdge, RentalRestrictionExtension> applyGeofencingZones(
     Collection<GeofencingZone> geofencingZones
   ) {
-    var restrictedZones = geofencingZones.stream().filter(GeofencingZone::hasRestriction).toList();
+    var restrictedZones = geofencingZones
+      .stream()
+      .filter(GeofencingZone::hasRestriction)
+      .collect(Collectors.toSet());
+
+    removeZones(restrictedZones);
 
     // these are the edges inside business area where exceptions like "no pass through"
     // or "no drop-off" are added
-    var restrictedEdges = addExtensionToIntersectingStreetEdges(
-      restrictedZones,
+    var updates = addExtensionToIntersectingStreetEdges(
+      restrictedZones.stream().filter(zone -> !appliedZones.containsKey(zone)).toList(),
       GeofencingZoneExtension::new
     );
 
-    var updates = new HashMap<>(restrictedEdges);
-
     var generalBusinessAreas = geofencingZones
       .stream()
       .filter(GeofencingZone::isBusinessArea)
-      .toList();
-
-    if (!generalBusinessAreas.isEmpty()) {
-      // if the geofencing zones don't have any restrictions then they describe a general business
-      // area which you can traverse freely but are not allowed to leave
-      // here we just take the boundary of the geometry since we want to add a "no pass through"
-      // restriction to any edge intersecting it
-
-      var network = generalBusinessAreas.get(0).id().getFeedId();
-      var polygons = generalBusinessAreas
-        .stream()
-        .map(GeofencingZone::geometry)
-        .toArray(Geometry[]::new);
-
-      var unionOfBusinessAreas = GeometryUtils
-        .getGeometryFactory()
-        .createGeometryCollection(polygons)
-        .union();
-
-      var updated = applyExtension(
-        unionOfBusinessAreas.getBoundary(),
-        new BusinessAreaBorder(network)
-      );
-
-      updates.putAll(updated);
+      .collect(Collectors.toSet());
+
+    if (!generalBusinessAreas.equals(appliedBusinessAreas)) {
+      businessAreaBorderEdges.forEach(StreetEdge::removeRentalExtension);
+      businessAreaBorderEdges = applyBusinessAreaBorder(generalBusinessAreas);
+      appliedBusinessAreas = generalBusinessAreas;
+      updates.putAll(businessAreaBorderEdges);
     }
 
     return Map.copyOf(updates);
   }
 
+  /**
+   * Remove the extensions of the applied zones that are not in the given zones.
+   */
+  private void removeZones(Set<GeofencingZone> zones) {
+    var it = appliedZones.entrySet().iterator();
+    while (it.hasNext()) {
+      var applied = it.next();
+      if (!zones.contains(applied.getKey())) {
+        applied.getValue().forEach(StreetEdge::removeRentalExtension);
+        it.remove();
+      }
+    }
+  }
+
+  private Map<StreetEdge, RentalRestrictionExtension> applyBusinessAreaBorder(
+    Collection<GeofencingZone> generalBusinessAreas
+  ) {
+    if (generalBusinessAreas.isEmpty()) {
+      return Map.of();
+    }
+    // if the geofencing zones don't have any restrictions then they describe a general business
+    // area which you can traverse freely but are not allowed to leave
+    // here we just take the boundary of the geometry since we want to add a "no pass through"
+    // restriction to any edge intersecting it
+
+    var network = generalBusinessAreas.iterator().next().id().getFeedId();
+    var polygons = generalBusinessAreas
+      .stream()
+      .map(GeofencingZone::geometry)
+      .toArray(Geometry[]::new);
+
+    var unionOfBusinessAreas = GeometryUtils
+      .getGeometryFactory()
+      .createGeometryCollection(polygons)
+      .union();
+
+    return applyExtension(unionOfBusinessAreas.getBoundary(), new BusinessAreaBorder(network));
+  }
+
   private Map<StreetEdge, RentalRestrictionExtension> addExtensionToIntersectingStreetEdges(
     List<GeofencingZone> zones,
     Function<GeofencingZone, RentalRestrictionExtension> createExtension
@@ -97,7 +136,9 @@ class GeofencingVertexUpdater {
     for (GeofencingZone zone : zones) {
       var geom = zone.geometry();
       var ext = createExtension.apply(zone);
-      edgesUpdated.putAll(applyExtension(geom, ext));
+      var zoneEdges = applyExtension(geom, ext);
+      appliedZones.put(zone, zoneEdges);
+      edgesUpdated.putAll(zoneEdges);
     }
     return edgesUpdated;
   }
@@ -0,0 +1,169 @@
+package org.opentripplanner.updater.vehicle_rental;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.street.model.RentalFormFactor;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * The difference between the rental places that are applied to the graph and the places of a new
+ * update. Only the added and moved places need to be linked to the street network, which is the
+ * expensive part of an update.
+ * <p>
+ * Some GBFS feeds rotate the ids of free-floating vehicles, so a vehicle that has not moved can
+ * get a new id in the next update. A new place at the same location and with the same form factors
+ * as a removed place is therefore <em>renamed</em>: it takes over the vertex and edges of the
+ * removed place, instead of removing one and linking the other.
+ */
+class VehicleRentalPlaceDiff {
+
+  /** The size of the grid cells used to sort the places to link, in degrees. */
+  private static final double SORT_CELL_SIZE_DEGREES = 0.01;
+
+  private final List<VehicleRentalPlace> added = new ArrayList<>();
+  private final List<VehicleRentalPlace> moved = new ArrayList<>();
+  private final List<VehicleRentalPlace> unchanged = new ArrayList<>();
+  private final Map<FeedScopedId, VehicleRentalPlace> renamed = new HashMap<>();
+  private final List<FeedScopedId> removed = new ArrayList<>();
+
+  private VehicleRentalPlaceDiff() {}
+
+  /**
+   * @param applied The vertices of the places that are applied to the graph, by place id
+   * @param places The places of the new update
+   */
+  static VehicleRentalPlaceDiff of(
+    Map<FeedScopedId, VehicleRentalPlaceVertex> applied,
+    Collection<VehicleRentalPlace> places
+  ) {
+    var diff = new VehicleRentalPlaceDiff();
+
+    // if a place is in the update more than once, the last one is used
+    var placesById = new LinkedHashMap<FeedScopedId, VehicleRentalPlace>();
+    for (var place : places) {
+      placesById.put(place.getId(), place);
+    }
+
+    var newPlaces = new ArrayList<VehicleRentalPlace>();
+    for (var place : placesById.values()) {
+      var vertex = applied.get(place.getId());
+      if (vertex == null) {
+        newPlaces.add(place);
+      } else if (location(vertex).sameLocation(location(place))) {
+        diff.unchanged.add(place);
+      } else {
+        diff.moved.add(place);
+      }
+    }
+
+    var removedByKey = new HashMap<PlaceKey, Deque<FeedScopedId>>();
+    for (var entry : applied.entrySet()) {
+      if (!placesById.containsKey(entry.getKey())) {
+        removedByKey
+          .computeIfAbsent(PlaceKey.of(entry.getValue()), k -> new ArrayDeque<>())
+          .add(entry.getKey());
+      }
+    }
+
+    for (var place : newPlaces) {
+      var sameKey = removedByKey.get(PlaceKey.of(place));
+      if (sameKey == null || sameKey.isEmpty()) {
+        diff.added.add(place);
+      } else {
+        diff.renamed.put(sameKey.poll(), place);
+      }
+    }
+    removedByKey.values().forEach(diff.removed::addAll);
+
+    return diff;
+  }
+
+  /**
+   * The form factors of the rental edges of a place.
+   */
+  static Set<RentalFormFactor> formFactors(VehicleRentalPlace place) {
+    return Stream
+      .concat(
+        place.getAvailablePickupFormFactors(false).stream(),
+        place.getAvailableDropoffFormFactors(false).stream()
+      )
+      .collect(Collectors.toSet());
+  }
+
+  /** New places that need to be linked. */
+  List<VehicleRentalPlace> added() {
+    return added;
+  }
+
+  /** Places that have a new location, and need to be linked again. */
+  List<VehicleRentalPlace> moved() {
+    return moved;
+  }
+
+  /** Places at the same location as before, the place data may have changed. */
+  List<VehicleRentalPlace> unchanged() {
+    return unchanged;
+  }
+
+  /** New places that take over the vertex of a removed place, by the id of the removed place. */
+  Map<FeedScopedId, VehicleRentalPlace> renamed() {
+    return renamed;
+  }
+
+  /** The ids of the places that are no longer in the update. */
+  List<FeedScopedId> removed() {
+    return removed;
+  }
+
+  /**
+   * The added and moved places, sorted so places that are close to each other are linked after
+   * each other. The linking queries the street index around each place, so this way the same parts
+   * of the index are used by the queries that follow each other.
+   */
+  List<VehicleRentalPlace> placesToLink() {
+    return Stream
+      .concat(added.stream(), moved.stream())
+      .sorted(
+        Comparator
+          .comparingLong((VehicleRentalPlace p) -> cell(p.getLatitude()))
+          .thenComparingLong(p -> cell(p.getLongitude()))
+      )
+      .toList();
+  }
+
+  private static long cell(double degrees) {
+    return (long) Math.floor(degrees / SORT_CELL_SIZE_DEGREES);
+  }
+
+  private static WgsCoordinate location(VehicleRentalPlace place) {
+    return new WgsCoordinate(place.getLatitude(), place.getLongitude());
+  }
+
+  private static WgsCoordinate location(VehicleRentalPlaceVertex vertex) {
+    return new WgsCoordinate(vertex.getLat(), vertex.getLon());
+  }
+
+  /** Places with the same key can use the same vertex and edges. */
+  private record PlaceKey(WgsCoordinate coordinate, Set<RentalFormFactor> rentalFormFactors) {
+    static PlaceKey of(VehicleRentalPlace place) {
+      return new PlaceKey(location(place), formFactors(place));
+    }
+
+    static PlaceKey of(VehicleRentalPlaceVertex vertex) {
+      return new PlaceKey(location(vertex), formFactors(vertex.getStation()));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package org.opentripplanner.updater.vehicle_rental;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records micrometer metrics for the graph updates of a vehicle rental updater.
+ * <p>
+ * The time of each phase of an update is recorded as a timer, and the number of places in each
+ * category of the most recent {@link VehicleRentalPlaceDiff} as gauges.
+ */
+class VehicleRentalUpdateMetrics {
+
+  private static final String METRICS_PREFIX = "vehicle_rental_updates";
+
+  private final Tags baseTags;
+  private final Timer diffTimer;
+  private final Timer removeTimer;
+  private final Timer linkTimer;
+  private final Timer geofencingTimer;
+  private final Timer totalTimer;
+  private final AtomicInteger addedGauge;
+  private final AtomicInteger movedGauge;
+  private final AtomicInteger renamedGauge;
+  private final AtomicInteger removedGauge;
+  private final AtomicInteger unchangedGauge;
+
+  VehicleRentalUpdateMetrics(String network) {
+    this.baseTags = Tags.of("network", network);
+    this.diffTimer = timer("diff");
+    this.removeTimer = timer("remove");
+    this.linkTimer = timer("link");
+    this.geofencingTimer = timer("geofencing");
+    this.totalTimer = timer("total");
+    this.addedGauge = gauge("added");
+    this.movedGauge = gauge("moved");
+    this.renamedGauge = gauge("renamed");
+    this.removedGauge = gauge("removed");
+    this.unchangedGauge = gauge("unchanged");
+  }
+
+  void recordDiff(VehicleRentalPlaceDiff diff, Duration duration) {
+    diffTimer.record(duration);
+    addedGauge.set(diff.added().size());
+    movedGauge.set(diff.moved().size());
+    renamedGauge.set(diff.renamed().size());
+    removedGauge.set(diff.removed().size());
+    unchangedGauge.set(diff.unchanged().size());
+  }
+
+  void recordRemove(Duration duration) {
+    removeTimer.record(duration);
+  }
+
+  void recordLink(Duration duration) {
+    linkTimer.record(duration);
+  }
+
+  void recordGeofencing(Duration duration) {
+    geofencingTimer.record(duration);
+  }
+
+  void recordTotal(Duration duration) {
+    totalTimer.record(duration);
+  }
+
+  /**
+   * The phases are: comparing the update with the applied places, removing the places that are no
+   * longer present, linking the added and moved places, applying changed geofencing zones, and
+   * the total.
+   */
+  private Timer timer(String phase) {
+    return Timer
+      .builder(METRICS_PREFIX + ".time")
+      .description("Time of each phase of applying a vehicle rental update to the graph")
+      .tags(baseTags.and(Tag.of("phase", phase)))
+      .register(Metrics.globalRegistry);
+  }
+
+  private AtomicInteger gauge(String change) {
+    var atomicInt = new AtomicInteger(0);
+    Gauge
+      .builder(METRICS_PREFIX + ".places", atomicInt::get)
+      .description("Places added, moved, renamed, removed or unchanged at the most recent update")
+      .tags(baseTags.and(Tag.of("change", change)))
+      .register(Metrics.globalRegistry);
+    return atomicInt;
+  }
+}
@@ -1,20 +1,17 @@
 package org.opentripplanner.updater.vehicle_rental;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.opentripplanner.framework.lang.ObjectUtils;
 import org.opentripplanner.framework.logging.Throttle;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.linking.VertexLinker;
@@ -25,13 +22,11 @@ import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalEdge;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
 import org.opentripplanner.street.model.RentalFormFactor;
-import org.opentripplanner.street.model.RentalRestrictionExtension;
-import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.VertexFactory;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
-import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.updater.CoalescingGraphWriterRunnable;
 import org.opentripplanner.updater.RealTimeUpdateContext;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.UpdaterConstructionException;
@@ -55,13 +50,14 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
   private WriteToGraphCallback saveResultOnGraph;
 
-  private Map<StreetEdge, RentalRestrictionExtension> latestModifiedEdges = Map.of();
+  private GeofencingVertexUpdater geofencingUpdater;
   private Set<GeofencingZone> latestAppliedGeofencingZones = Set.of();
   private final Map<FeedScopedId, VehicleRentalPlaceVertex> verticesByStation = new HashMap<>();
   private final Map<FeedScopedId, DisposableEdgeCollection> tempEdgesByStation = new HashMap<>();
   private final VertexLinker linker;
 
   private final VehicleRentalRepository service;
+  private final VehicleRentalUpdateMetrics metrics;
 
   public VehicleRentalUpdater(
     VehicleRentalUpdaterParameters parameters,
@@ -80,6 +76,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         parameters.sourceParameters().url()
       );
     this.unlinkedPlaceThrottle = Throttle.ofOneSecond();
+    this.metrics = new VehicleRentalUpdateMetrics(nameForLogging);
 
     // Creation of network linker library will not modify the graph
     this.linker = vertexLinker;
@@ -141,7 +138,11 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
     saveResultOnGraph.execute(graphWriterRunnable);
   }
 
-  private class VehicleRentalGraphWriterRunnable implements GraphWriterRunnable {
+  /**
+   * Each runnable contains all the places and geofencing zones of the source, so a runnable that
+   * is still waiting to be run is replaced by the next one.
+   */
+  private class VehicleRentalGraphWriterRunnable implements CoalescingGraphWriterRunnable {
 
     private final List<VehicleRentalPlace> stations;
     private final Set<GeofencingZone> geofencingZones;
@@ -154,105 +155,136 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       this.geofencingZones = Set.copyOf(geofencingZones);
     }
 
+    @Override
+    public Object coalescingKey() {
+      return VehicleRentalUpdater.this;
+    }
+
+    @Override
+    public Optional<CoalescingGraphWriterRunnable> coalesce(
+      CoalescingGraphWriterRunnable previous
+    ) {
+      return Optional.of(this);
+    }
+
     @Override
     public void run(RealTimeUpdateContext context) {
-      // Apply stations to graph
-      Set<FeedScopedId> stationSet = new HashSet<>();
-      var vertexFactory = new VertexFactory(context.graph());
+      long start = System.nanoTime();
+      var diff = VehicleRentalPlaceDiff.of(verticesByStation, stations);
+      long diffDone = System.nanoTime();
+      metrics.recordDiff(diff, Duration.ofNanos(diffDone - start));
 
-      /* add any new stations and update vehicle counts for existing stations */
-      for (VehicleRentalPlace station : stations) {
+      // update the places that are at the same location, and the places with a new id
+      for (VehicleRentalPlace station : diff.unchanged()) {
         service.addVehicleRentalStation(station);
-        stationSet.add(station.getId());
-        VehicleRentalPlaceVertex vehicleRentalVertex = verticesByStation.get(station.getId());
-
-        if (vehicleRentalVertex == null) {
-          vehicleRentalVertex = vertexFactory.vehicleRentalPlace(station);
-          DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
-            vehicleRentalVertex,
-            new TraverseModeSet(TraverseMode.WALK),
-            LinkingDirection.BOTH_WAYS,
-            (vertex, streetVertex) ->
-              List.of(
-                StreetVehicleRentalLink.createStreetVehicleRentalLink(
-                  (VehicleRentalPlaceVertex) vertex,
-                  streetVertex
-                ),
-                StreetVehicleRentalLink.createStreetVehicleRentalLink(
-                  streetVertex,
-                  (VehicleRentalPlaceVertex) vertex
-                )
-              )
-          );
-          if (vehicleRentalVertex.getOutgoing().isEmpty()) {
-            // Copy reference to pass into lambda
-            var vrv = vehicleRentalVertex;
-            unlinkedPlaceThrottle.throttle(() ->
-              // the toString includes the text "Bike rental station"
-              LOG.warn(
-                "VehicleRentalPlace is unlinked for {}: {}  {}",
-                nameForLogging,
-                vrv,
-                unlinkedPlaceThrottle.setupInfo()
-              )
-            );
-          }
-          Set<RentalFormFactor> formFactors = Stream
-            .concat(
-              station.getAvailablePickupFormFactors(false).stream(),
-              station.getAvailableDropoffFormFactors(false).stream()
-            )
-            .collect(Collectors.toSet());
-          for (RentalFormFactor formFactor : formFactors) {
-            tempEdges.addEdge(
-              VehicleRentalEdge.createVehicleRentalEdge(vehicleRentalVertex, formFactor)
-            );
-          }
-          verticesByStation.put(station.getId(), vehicleRentalVertex);
-          tempEdgesByStation.put(station.getId(), tempEdges);
-        } else {
-          vehicleRentalVertex.setStation(station);
-        }
+        verticesByStation.get(station.getId()).setStation(station);
       }
+      diff.renamed().forEach((oldId, station) -> rename(context.graph(), oldId, station));
 
       /* remove existing stations that were not present in the update */
-      List<FeedScopedId> toRemove = new ArrayList<>();
-      for (Entry<FeedScopedId, VehicleRentalPlaceVertex> entry : verticesByStation.entrySet()) {
-        FeedScopedId station = entry.getKey();
-        if (stationSet.contains(station)) continue;
-        toRemove.add(station);
+      for (FeedScopedId station : diff.removed()) {
         service.removeVehicleRentalStation(station);
-      }
-      for (FeedScopedId station : toRemove) {
-        // post-iteration removal to avoid concurrent modification
         verticesByStation.remove(station);
-        tempEdgesByStation.get(station).disposeEdges();
-        tempEdgesByStation.remove(station);
+        tempEdgesByStation.remove(station).disposeEdges();
       }
+      for (VehicleRentalPlace station : diff.moved()) {
+        verticesByStation.remove(station.getId());
+        tempEdgesByStation.remove(station.getId()).disposeEdges();
+      }
+      long removeDone = System.nanoTime();
+      metrics.recordRemove(Duration.ofNanos(removeDone - diffDone));
+
+      /* link new stations, and the stations that moved */
+      var vertexFactory = new VertexFactory(context.graph());
+      for (VehicleRentalPlace station : diff.placesToLink()) {
+        service.addVehicleRentalStation(station);
+        link(vertexFactory, station);
+      }
+      long linkDone = System.nanoTime();
+      metrics.recordLink(Duration.ofNanos(linkDone - removeDone));
 
       // this check relies on the generated equals for the record which also recursively checks that
       // the JTS geometries are equal
       if (!geofencingZones.isEmpty() && !geofencingZones.equals(latestAppliedGeofencingZones)) {
         LOG.info("Computing geofencing zones for {}", nameForLogging);
-        var start = System.currentTimeMillis();
-
-        latestModifiedEdges.forEach(StreetEdge::removeRentalExtension);
 
-        var updater = new GeofencingVertexUpdater(
-          context.graph().getStreetIndex()::getEdgesForEnvelope
-        );
-        latestModifiedEdges = updater.applyGeofencingZones(geofencingZones);
+        // the updater keeps track of the applied zones, so only the changed zones are updated
+        if (geofencingUpdater == null) {
+          var graph = context.graph();
+          geofencingUpdater =
+            new GeofencingVertexUpdater(envelope ->
+              graph.getStreetIndex().getEdgesForEnvelope(envelope)
+            );
+        }
+        var modifiedEdges = geofencingUpdater.applyGeofencingZones(geofencingZones);
         latestAppliedGeofencingZones = geofencingZones;
 
-        var end = System.currentTimeMillis();
-        var millis = Duration.ofMillis(end - start);
+        var duration = Duration.ofNanos(System.nanoTime() - linkDone);
         LOG.info(
           "Geofencing zones computation took {}. Added extension to {} edges. For {}",
-          TimeUtils.durationToStrCompact(millis),
-          latestModifiedEdges.size(),
+          TimeUtils.durationToStrCompact(duration),
+          modifiedEdges.size(),
           nameForLogging
         );
+        metrics.recordGeofencing(duration);
+      }
+      context.graph().incrementRealTimeStreetVersion();
+      metrics.recordTotal(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void link(VertexFactory vertexFactory, VehicleRentalPlace station) {
+      var vehicleRentalVertex = vertexFactory.vehicleRentalPlace(station);
+      DisposableEdgeCollection tempEdges = linker.linkVertexForRealTime(
+        vehicleRentalVertex,
+        new TraverseModeSet(TraverseMode.WALK),
+        LinkingDirection.BOTH_WAYS,
+        (vertex, streetVertex) ->
+          List.of(
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              (VehicleRentalPlaceVertex) vertex,
+              streetVertex
+            ),
+            StreetVehicleRentalLink.createStreetVehicleRentalLink(
+              streetVertex,
+              (VehicleRentalPlaceVertex) vertex
+            )
+          )
+      );
+      if (vehicleRentalVertex.getOutgoing().isEmpty()) {
+        unlinkedPlaceThrottle.throttle(() ->
+          // the toString includes the text "Bike rental station"
+          LOG.warn(
+            "VehicleRentalPlace is unlinked for {}: {}  {}",
+            nameForLogging,
+            vehicleRentalVertex,
+            unlinkedPlaceThrottle.setupInfo()
+          )
+        );
+      }
+      for (RentalFormFactor formFactor : VehicleRentalPlaceDiff.formFactors(station)) {
+        tempEdges.addEdge(
+          VehicleRentalEdge.createVehicleRentalEdge(vehicleRentalVertex, formFactor)
+        );
       }
+      verticesByStation.put(station.getId(), vehicleRentalVertex);
+      tempEdgesByStation.put(station.getId(), tempEdges);
+    }
+
+    /**
+     * Move the vertex and edges of a removed place to a new place at the same location. The label
+     * of the vertex contains the id, so the vertex is added to the graph again with the new label.
+     */
+    private void rename(Graph graph, FeedScopedId oldId, VehicleRentalPlace station) {
+      service.removeVehicleRentalStation(oldId);
+      service.addVehicleRentalStation(station);
+
+      var vehicleRentalVertex = verticesByStation.remove(oldId);
+      graph.remove(vehicleRentalVertex);
+      vehicleRentalVertex.setStation(station);
+      graph.addVertex(vehicleRentalVertex);
+
+      verticesByStation.put(station.getId(), vehicleRentalVertex);
+      tempEdgesByStation.put(station.getId(), tempEdgesByStation.remove(oldId));
     }
   }
 }
@@ -56,6 +56,7 @@ public class TestServerContext {
       null,
       createStreetLimitationParametersService(),
       null,
+      null,
       null
     );
     creatTransitLayerForRaptor(transitModel, routerConfig.transitTuningConfig());
@@ -146,6 +146,7 @@ public class TripRequestMapperTest implements PlanTestConstants {
           null,
           new DefaultStreetLimitationParametersService(new StreetLimitationParameters()),
           null,
+          null,
           null
         ),
         null,
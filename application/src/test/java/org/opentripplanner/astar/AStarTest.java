@@ -283,10 +283,94 @@ public class AStarTest {
     }
   }
 
+  @Test
+  public void testIndexedShortestPathTree() {
+    graph.freezeEdgeLists();
+    testIndexedShortestPathTreeWithoutVertexIndex();
+  }
+
+  /**
+   * The vertices have no index before the edge lists are frozen, like when the graph is built.
+   */
+  @Test
+  public void testIndexedShortestPathTreeWithoutVertexIndex() {
+    var request = new RouteRequest();
+
+    TemporaryStreetLocation from = new TemporaryStreetLocation(
+      "near_shilshole_22nd",
+      new Coordinate(-122.385050, 47.666620),
+      new NonLocalizedString("near_shilshole_22nd"),
+      false
+    );
+    TemporaryConcreteEdge.createTemporaryConcreteEdge(from, graph.getVertex("shilshole_22nd"));
+
+    ShortestPathTree<State, Edge, Vertex> expected = StreetSearchBuilder
+      .of()
+      .setRequest(request)
+      .setFrom(from)
+      .getShortestPathTree();
+
+    ShortestPathTree<State, Edge, Vertex> tree = StreetSearchBuilder
+      .of()
+      .setIndexedShortestPathTree(true)
+      .setRequest(request)
+      .setFrom(from)
+      .getShortestPathTree();
+
+    assertEquals(graph.countVertices() + 1, tree.getVertexCount());
+    assertEquals(expected.getVertices(), tree.getVertices());
+    for (Vertex v : expected.getVertices()) {
+      assertEquals(expected.getState(v).getWeight(), tree.getState(v).getWeight());
+      assertEquals(expected.getPath(v).edges, tree.getPath(v).edges);
+    }
+  }
+
+  @Test
+  public void testBidirectional() {
+    for (boolean arriveBy : List.of(false, true)) {
+      var request = new RouteRequest();
+      request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
+      request.setArriveBy(arriveBy);
+
+      for (Vertex from : graph.getVertices()) {
+        for (Vertex to : graph.getVertices()) {
+          var expected = findPath(request, from, to, false);
+          var path = findPath(request, from, to, true);
+
+          assertEquals(expected.getWeight(), path.getWeight(), 0.01, () -> from + " -> " + to);
+          assertEquals(from, path.states.getFirst().getVertex());
+          assertEquals(to, path.states.getLast().getVertex());
+          for (int i = 0; i < path.edges.size(); ++i) {
+            assertEquals(path.states.get(i).getVertex(), path.edges.get(i).getFromVertex());
+          }
+        }
+      }
+    }
+  }
+
   /****
    * Private Methods
    ****/
 
+  private static GraphPath<State, Edge, Vertex> findPath(
+    RouteRequest request,
+    Vertex from,
+    Vertex to,
+    boolean bidirectional
+  ) {
+    var paths = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setReverseHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setBidirectional(bidirectional)
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+    assertEquals(1, paths.size());
+    return paths.getFirst();
+  }
+
   private Vertex vertex(String label, double lat, double lon) {
     var v = StreetModelForTest.intersectionVertex(label, lat, lon);
     graph.addVertex(v);
@@ -0,0 +1,64 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FourAryHeapTest {
+
+  private static final int N = 50000;
+
+  @Test
+  void extractInOrder() {
+    var random = new Random(42);
+    var subject = new FourAryHeap<Integer>(10);
+    var expected = new PriorityQueue<Integer>();
+
+    for (int i = 0; i < N; ++i) {
+      int value = random.nextInt(10000);
+      subject.insert(value, value * 0.5);
+      expected.add(value);
+      assertEquals(expected.peek() * 0.5, subject.peek_min_key());
+
+      // Extract some of the elements while inserting, like the A* search does
+      if (i % 3 == 0) {
+        assertEquals(expected.poll(), subject.extract_min());
+      }
+    }
+    assertEquals(expected.size(), subject.size());
+
+    List<Integer> result = new ArrayList<>();
+    while (!subject.empty()) {
+      result.add(subject.extract_min());
+    }
+    List<Integer> expectedResult = new ArrayList<>();
+    while (!expected.isEmpty()) {
+      expectedResult.add(expected.poll());
+    }
+    assertEquals(expectedResult, result);
+  }
+
+  @Test
+  void emptyQueue() {
+    var subject = new FourAryHeap<Integer>();
+
+    assertTrue(subject.empty());
+    assertNull(subject.extract_min());
+    assertThrows(IllegalStateException.class, subject::peek_min_key);
+
+    subject.insert(200, 20);
+    subject.insert(100, 10);
+    assertEquals(2, subject.size());
+    assertEquals(100, subject.extract_min());
+    assertEquals(200, subject.extract_min());
+    assertNull(subject.extract_min());
+    assertTrue(subject.empty());
+  }
+}
@@ -0,0 +1,86 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ChunkedCollectionTest {
+
+  @Test
+  void empty() {
+    var subject = ChunkedCollection.<String>of(List.of()).build();
+    assertTrue(subject.isEmpty());
+    assertFalse(subject.iterator().hasNext());
+    assertThrows(NoSuchElementException.class, () -> subject.iterator().next());
+  }
+
+  @Test
+  void addAndRemove() {
+    var builder = ChunkedCollection.of(List.of("A", "B", "C"));
+
+    assertFalse(builder.add("A"), "Duplicates are ignored");
+    assertTrue(builder.remove("B"));
+    assertFalse(builder.remove("B"));
+    assertTrue(builder.add("D"));
+
+    var subject = builder.build();
+    assertEquals(3, subject.size());
+    assertEquals(Set.of("A", "C", "D"), new HashSet<>(subject));
+  }
+
+  @Test
+  void previousVersionsAreNotChanged() {
+    var elements = IntStream.range(0, 3 * ChunkedCollection.CHUNK_SIZE).boxed().toList();
+    var builder = ChunkedCollection.of(elements);
+    var v1 = builder.build();
+
+    builder.remove(7);
+    builder.add(1000);
+    var v2 = builder.build();
+
+    builder.remove(1000);
+    builder.remove(2 * ChunkedCollection.CHUNK_SIZE + 3);
+    builder.add(2000);
+    var v3 = builder.build();
+
+    assertEquals(Set.copyOf(elements), toSet(v1));
+
+    var expectedV2 = new HashSet<>(elements);
+    expectedV2.remove(7);
+    expectedV2.add(1000);
+    assertEquals(expectedV2, toSet(v2));
+
+    var expectedV3 = new HashSet<>(expectedV2);
+    expectedV3.remove(1000);
+    expectedV3.remove(2 * ChunkedCollection.CHUNK_SIZE + 3);
+    expectedV3.add(2000);
+    assertEquals(expectedV3, toSet(v3));
+    assertEquals(expectedV3.size(), v3.size());
+  }
+
+  @Test
+  void growAfterBuild() {
+    var builder = ChunkedCollection.of(List.of(1));
+    var v1 = builder.build();
+
+    IntStream.range(2, 5 * ChunkedCollection.CHUNK_SIZE).forEach(builder::add);
+    var v2 = builder.build();
+
+    assertEquals(Set.of(1), toSet(v1));
+    assertEquals(5 * ChunkedCollection.CHUNK_SIZE - 1, v2.size());
+    assertEquals(v2.size(), toSet(v2).size());
+  }
+
+  private static Set<Integer> toSet(ChunkedCollection<Integer> collection) {
+    return collection.stream().collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,116 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths when the multi-criteria search-window is split into
+ * chunks, and the chunks are searched in parallel, as when the whole search-window is searched
+ * in one go.
+ */
+public class A05_SearchWindowInChunksTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private final RaptorConfig<TestTripSchedule> chunkedConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+
+      @Override
+      public int searchWindowChunkSizeInSeconds() {
+        // Not a multiple of the iteration step, this should be rounded up to 15 minutes
+        return D10m + 270;
+      }
+    }
+  );
+
+  /**
+   * Stops: 0..3
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2 - 3
+   *   R2:  1 - 3
+   *
+   * Schedule:
+   *   R1: every 10 minutes from 00:02 to 00:52, the travel time is decreasing
+   *   R2: 00:09 - 00:40, 00:33 - 01:04
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   3  20s
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_B, STOP_C, STOP_D))
+        .withTimetable(
+          schedule("00:02, 00:20, 00:40"),
+          schedule("00:12, 00:29, 00:48"),
+          schedule("00:22, 00:38, 00:55"),
+          schedule("00:32, 00:46, 01:02"),
+          schedule("00:42, 00:55, 01:10"),
+          schedule("00:52, 01:04, 01:16")
+        )
+    );
+    data.withRoute(
+      route(pattern("R2", STOP_B, STOP_D))
+        .withTimetable(schedule("00:09, 00:40"), schedule("00:33, 01:04"))
+    );
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofHours(1));
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterEach
+  void tearDown() {
+    chunkedConfig.shutdown();
+  }
+
+  @Test
+  void sameResultAsSequentialSearch() {
+    var expected = pathsToString(
+      new RaptorService<>(config).route(requestBuilder.build(), data)
+    );
+    var result = pathsToString(
+      new RaptorService<>(chunkedConfig).route(requestBuilder.build(), data)
+    );
+
+    assertFalse(expected.isBlank());
+    assertEquals(expected, result);
+  }
+}
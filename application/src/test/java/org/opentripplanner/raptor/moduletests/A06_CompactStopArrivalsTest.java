@@ -0,0 +1,127 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should return the same paths when the multi-criteria stop arrivals are stored in the
+ * compact primitive arrays, as when the stop arrival objects are used.
+ */
+public class A06_CompactStopArrivalsTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private final RaptorConfig<TestTripSchedule> compactConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public boolean useCompactStopArrivals() {
+        return true;
+      }
+    }
+  );
+
+  /**
+   * Stops: 0..6
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2 - 3
+   *   R2:  1 - 3
+   *   R3:  4 - 5
+   *
+   * Schedule:
+   *   R1: every 10 minutes from 00:02 to 00:42, the travel time is decreasing
+   *   R2: 00:09 - 00:40, 00:33 - 01:04
+   *   R3: every 15 minutes from 00:10 to 00:55
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   3  20s
+   *   5  1m
+   *
+   * Transfers:
+   *   2 -> 4  2m
+   */
+  @BeforeEach
+  void setup() {
+    data
+      .withRoute(
+        route(pattern("R1", STOP_B, STOP_C, STOP_D))
+          .withTimetable(
+            schedule("00:02, 00:20, 00:40"),
+            schedule("00:12, 00:29, 00:48"),
+            schedule("00:22, 00:38, 00:55"),
+            schedule("00:32, 00:46, 01:02"),
+            schedule("00:42, 00:55, 01:10")
+          )
+      )
+      .withRoute(
+        route(pattern("R2", STOP_B, STOP_D))
+          .withTimetable(schedule("00:09, 00:40"), schedule("00:33, 01:04"))
+      )
+      .withRoute(
+        route(pattern("R3", STOP_E, STOP_F))
+          .withTimetable(
+            schedule("00:10, 00:30"),
+            schedule("00:25, 00:45"),
+            schedule("00:40, 01:00"),
+            schedule("00:55, 01:15")
+          )
+      )
+      .withTransfer(STOP_C, TestTransfer.transfer(STOP_E, D2m));
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s), TestAccessEgress.walk(STOP_F, D1m))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofHours(1));
+  }
+
+  @Test
+  void sameResultAsStopArrivalObjects() {
+    assertSameResult();
+  }
+
+  @Test
+  void sameResultWithDestinationPruning() {
+    requestBuilder.enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+    assertSameResult();
+  }
+
+  private void assertSameResult() {
+    var expected = pathsToString(
+      new RaptorService<>(config).route(requestBuilder.build(), data)
+    );
+    var result = pathsToString(
+      new RaptorService<>(compactConfig).route(requestBuilder.build(), data)
+    );
+
+    assertFalse(expected.isBlank());
+    assertEquals(expected, result);
+  }
+}
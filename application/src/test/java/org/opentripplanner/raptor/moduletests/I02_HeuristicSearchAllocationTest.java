@@ -0,0 +1,106 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.service.HeuristicSearchTask;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * The stop arrays used by the heuristic search should be reused when the search is released. A
+ * heuristic search in a network with many stops should not allocate stop-sized arrays, when the
+ * pool is warmed up.
+ */
+public class I02_HeuristicSearchAllocationTest implements RaptorTestConstants {
+
+  private static final int N_STOPS = 50_000;
+  private static final int N_WARM_UP_SEARCHES = 5;
+
+  /** One stop-sized int array, the search without a pool allocates at least 3 of these. */
+  private static final long MAX_ALLOCATED_BYTES = N_STOPS * Integer.BYTES;
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+
+  /**
+   * Stops: 0..49_999
+   *
+   * Stop on route (stop indexes):
+   *   R1:  1 - 2 - 3
+   *
+   * Schedule:
+   *   R1: 00:01, 00:05, 00:10
+   *
+   * Access (toStop & duration):
+   *   1  30s
+   *
+   * Egress (fromStop & duration):
+   *   3  20s
+   *
+   * Transfers:
+   *   49_998 -> 49_999 30s  (Expand the number of stops, not reachable)
+   */
+  @BeforeEach
+  void setup() {
+    data
+      .withRoute(
+        route(pattern("R1", STOP_B, STOP_C, STOP_D))
+          .withTimetable(schedule("00:01, 00:05, 00:10"))
+      )
+      .withTransfer(N_STOPS - 2, TestTransfer.transfer(N_STOPS - 1, D30s));
+
+    requestBuilder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T01_00);
+  }
+
+  @Test
+  void heuristicSearchReusesPooledStopArrays() {
+    var threadMXBean = ManagementFactory.getThreadMXBean();
+    assumeTrue(
+      threadMXBean instanceof ThreadMXBean it && it.isThreadAllocatedMemoryEnabled(),
+      "Measuring the allocated memory is not supported by the JVM"
+    );
+    var bean = (ThreadMXBean) threadMXBean;
+    var request = requestBuilder.build();
+
+    for (int i = 0; i < N_WARM_UP_SEARCHES; ++i) {
+      runHeuristicSearch(request);
+    }
+
+    long start = bean.getCurrentThreadAllocatedBytes();
+    runHeuristicSearch(request);
+    long allocatedBytes = bean.getCurrentThreadAllocatedBytes() - start;
+
+    assertTrue(
+      allocatedBytes < MAX_ALLOCATED_BYTES,
+      "The heuristic search allocated " + allocatedBytes + " bytes"
+    );
+  }
+
+  private void runHeuristicSearch(RaptorRequest<TestTripSchedule> request) {
+    var search = new HeuristicSearchTask<>(request, config, data);
+    search.forceRun();
+    search.release();
+  }
+}
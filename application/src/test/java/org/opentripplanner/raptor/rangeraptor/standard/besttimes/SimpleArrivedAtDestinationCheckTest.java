@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.opentripplanner.raptor._data.transit.TestTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.raptor.rangeraptor.support.StopArraysPool;
 import org.opentripplanner.raptor.rangeraptor.transit.ForwardTransitCalculator;
 
 class SimpleArrivedAtDestinationCheckTest {
@@ -18,7 +19,7 @@ class SimpleArrivedAtDestinationCheckTest {
     // Replace this with dependency injection
     var lifeCycleSubscriptions = new LifeCycleSubscriptions();
     var bestTimes = new BestTimes(
-      3,
+      StopArraysPool.shared().lease(3),
       new ForwardTransitCalculator<TestTripSchedule>(),
       lifeCycleSubscriptions
     );
@@ -0,0 +1,114 @@
+package org.opentripplanner.raptor.rangeraptor.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StopArraysPoolTest {
+
+  private static final int N_STOPS = 5;
+  private static final int UNREACHED = 999;
+  private static final int MAX_FREE_ELEMENTS = 2;
+
+  private final StopArraysPool subject = new StopArraysPool(MAX_FREE_ELEMENTS);
+
+  @Test
+  void reuseReleasedArrays() {
+    var lease = subject.lease(N_STOPS);
+    var array = lease.intArray(UNREACHED);
+    var bitSet = lease.bitSet();
+    array.set(2, 7);
+    bitSet.set(3);
+    lease.release();
+
+    var next = subject.lease(N_STOPS);
+    var nextArray = next.intArray(UNREACHED);
+    var nextBitSet = next.bitSet();
+
+    assertSame(array, nextArray);
+    assertSame(bitSet, nextBitSet);
+    assertArrayIs(UNREACHED, nextArray);
+    assertTrue(nextBitSet.isEmpty());
+    next.release();
+  }
+
+  @Test
+  void resetToNewInitialValue() {
+    var lease = subject.lease(N_STOPS);
+    var array = lease.intArray(UNREACHED);
+    array.set(1, 7);
+    lease.release();
+
+    var next = subject.lease(N_STOPS);
+    var nextArray = next.intArray(-1);
+
+    assertSame(array, nextArray);
+    assertArrayIs(-1, nextArray);
+    next.release();
+  }
+
+  @Test
+  void arraysInUseAreNotShared() {
+    var lease = subject.lease(N_STOPS);
+    var a = lease.intArray(UNREACHED);
+    var b = lease.intArray(UNREACHED);
+    assertNotSame(a, b);
+    lease.release();
+    // Releasing twice should not add the arrays to the pool twice
+    lease.release();
+
+    var next = subject.lease(N_STOPS);
+    var c = next.intArray(UNREACHED);
+    var d = next.intArray(UNREACHED);
+    var e = next.intArray(UNREACHED);
+    assertNotSame(c, d);
+    assertNotSame(c, e);
+    assertNotSame(d, e);
+    next.release();
+  }
+
+  @Test
+  void dropArraysWhenNumberOfStopsChange() {
+    var lease = subject.lease(N_STOPS);
+    var array = lease.intArray(UNREACHED);
+    lease.release();
+
+    var next = subject.lease(N_STOPS + 1);
+    var nextArray = next.intArray(UNREACHED);
+
+    assertNotSame(array, nextArray);
+    assertEquals(N_STOPS + 1, nextArray.size());
+    next.release();
+  }
+
+  @Test
+  void limitTheNumberOfFreeArrays() {
+    var lease = subject.lease(N_STOPS);
+    var a = lease.intArray(UNREACHED);
+    var b = lease.intArray(UNREACHED);
+    var c = lease.intArray(UNREACHED);
+    lease.release();
+
+    var next = subject.lease(N_STOPS);
+    var d = next.intArray(UNREACHED);
+    var e = next.intArray(UNREACHED);
+    var f = next.intArray(UNREACHED);
+
+    // Only two of the released arrays are kept, the third array is a new one
+    assertSame(a, e);
+    assertSame(b, d);
+    assertNotSame(c, f);
+    assertNotSame(a, f);
+    assertNotSame(b, f);
+    next.release();
+  }
+
+  private static void assertArrayIs(int expected, IntStopArray array) {
+    for (int i = 0; i < array.size(); ++i) {
+      assertEquals(expected, array.get(i), "Index " + i);
+    }
+  }
+}
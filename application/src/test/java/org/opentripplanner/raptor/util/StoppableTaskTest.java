@@ -0,0 +1,79 @@
+package org.opentripplanner.raptor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StoppableTaskTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private final ExecutorService threadPool = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void shutdown() {
+    threadPool.shutdownNow();
+  }
+
+  @Test
+  void getResult() throws Exception {
+    var subject = StoppableTask.submit(threadPool, () -> 7);
+
+    assertEquals(7, subject.get());
+    subject.cancel();
+    subject.awaitStopped();
+  }
+
+  @Test
+  void awaitRunningTaskToStop() throws Exception {
+    var started = new CountDownLatch(1);
+    var stopped = new AtomicBoolean(false);
+
+    var subject = StoppableTask.submit(
+      threadPool,
+      () -> {
+        started.countDown();
+        try {
+          Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+          // Keep running for a while after the interruption, like a search finishing an iteration
+          Thread.sleep(50);
+        } finally {
+          stopped.set(true);
+        }
+        return null;
+      }
+    );
+    assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    subject.cancel();
+    subject.awaitStopped();
+
+    assertTrue(stopped.get());
+  }
+
+  @Test
+  void taskCancelledBeforeStartIsNeverRun() throws Exception {
+    var release = new CountDownLatch(1);
+    var run = new AtomicBoolean(false);
+    // Keep the thread busy, so the task is waiting in the queue
+    threadPool.submit(() -> release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    var subject = StoppableTask.submit(threadPool, () -> run.getAndSet(true));
+    subject.cancel();
+    subject.awaitStopped();
+
+    release.countDown();
+    threadPool.shutdown();
+    assertTrue(threadPool.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertFalse(run.get());
+  }
+}
@@ -0,0 +1,127 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.junit.jupiter.api.Test;
+
+public class IntParetoSetWithMarkerTest {
+
+  /** The criteria of each element, the element handle is the index in these lists. */
+  private final List<Integer> us = new ArrayList<>();
+  private final List<Integer> vs = new ArrayList<>();
+  private final List<Integer> accepted = new ArrayList<>();
+
+  private final IntParetoSetWithMarker subject = new IntParetoSetWithMarker(
+    (l, r) -> us.get(l) < us.get(r) || vs.get(l) < vs.get(r),
+    accepted::add
+  );
+
+  @Test
+  public void verifyMarkerIsInitializedToZero() {
+    assertEquals("{}", toString(subject));
+    assertTrue(subject.isEmpty());
+  }
+
+  @Test
+  public void verifyMarkerStaysAtBeginningOfSetWhenElementsAreAdded() {
+    subject.add(v(5, 5));
+    assertEquals("<M>, [5, 5]", toString(subject));
+    subject.add(v(3, 3));
+    assertEquals("<M>, [3, 3]", toString(subject));
+    subject.add(v(1, 5));
+    assertEquals("<M>, [3, 3], [1, 5]", toString(subject));
+    subject.add(v(1, 4));
+    assertEquals("<M>, [3, 3], [1, 4]", toString(subject));
+  }
+
+  @Test
+  public void verifyMarkerStaysInRightPlaceWhenNewElementsAreAdded() {
+    subject.add(v(5, 5));
+
+    subject.markAtEndOfSet();
+    assertEquals("[5, 5], <M>", toString(subject));
+    assertFalse(subject.hasElementsAfterMarker());
+
+    subject.add(v(8, 8));
+    assertEquals("[5, 5], <M>", toString(subject));
+
+    subject.add(v(3, 7));
+    assertEquals("[5, 5], <M>, [3, 7]", toString(subject));
+    assertTrue(subject.hasElementsAfterMarker());
+
+    subject.add(v(4, 3));
+    assertEquals("<M>, [3, 7], [4, 3]", toString(subject));
+
+    subject.markAtEndOfSet();
+    subject.add(v(2, 4));
+    assertEquals("[4, 3], <M>, [2, 4]", toString(subject));
+  }
+
+  @Test
+  public void clear() {
+    subject.add(v(5, 5));
+    subject.markAtEndOfSet();
+    assertEquals("[5, 5], <M>", toString(subject));
+
+    // Clear and add an element to make sure the marker is set back to 0
+    subject.clear();
+    assertEquals("{}", toString(subject));
+    subject.add(v(5, 5));
+    assertEquals("<M>, [5, 5]", toString(subject));
+  }
+
+  @Test
+  public void growBeyondInitialCapacity() {
+    for (int i = 0; i < 40; ++i) {
+      assertTrue(subject.add(v(i, 40 - i)));
+    }
+    assertEquals(40, subject.size());
+    assertEquals("[39, 1]", str(subject.get(39)));
+  }
+
+  @Test
+  public void notifyAcceptedElements() {
+    int a = v(5, 5);
+    int b = v(6, 6);
+    int c = v(3, 3);
+
+    assertTrue(subject.add(a));
+    assertFalse(subject.add(b));
+    assertTrue(subject.add(c));
+    assertEquals(List.of(a, c), accepted);
+  }
+
+  /** Create a new element and return its handle. */
+  private int v(int u, int v) {
+    us.add(u);
+    vs.add(v);
+    return us.size() - 1;
+  }
+
+  private String str(int h) {
+    return "[" + us.get(h) + ", " + vs.get(h) + "]";
+  }
+
+  private String toString(IntParetoSetWithMarker set) {
+    if (set.isEmpty()) {
+      return "{}";
+    }
+    StringJoiner buf = new StringJoiner(", ");
+
+    for (int i = 0; i < set.size(); ++i) {
+      if (i == set.marker()) {
+        buf.add("<M>");
+      }
+      buf.add(str(set.get(i)));
+    }
+    if (!set.hasElementsAfterMarker()) {
+      buf.add("<M>");
+    }
+    return buf.toString();
+  }
+}
@@ -319,6 +319,7 @@ public class RaptorPathToItineraryMapperTest {
       null,
       null,
       null,
+      null,
       null
     );
   }
@@ -0,0 +1,112 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class AccessEgressCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(45);
+  private static final Coordinate COORDINATE = new Coordinate(10.75, 59.91);
+
+  private final Graph graph = new Graph();
+  private final AccessEgressCache subject = new AccessEgressCache(10, graph);
+  private final RouteRequest request = new RouteRequest();
+  private int searchCount = 0;
+
+  @Test
+  void create() {
+    assertNull(AccessEgressCache.create(0, graph));
+  }
+
+  @Test
+  void isCacheable() {
+    assertTrue(AccessEgressCache.isCacheable(new StreetRequest(StreetMode.WALK), null));
+    assertTrue(AccessEgressCache.isCacheable(new StreetRequest(StreetMode.BIKE_RENTAL), null));
+    assertFalse(AccessEgressCache.isCacheable(new StreetRequest(StreetMode.CAR), null));
+    assertFalse(AccessEgressCache.isCacheable(new StreetRequest(StreetMode.BIKE_TO_PARK), null));
+    assertFalse(AccessEgressCache.isCacheable(new StreetRequest(StreetMode.FLEXIBLE), null));
+  }
+
+  @Test
+  void temporaryOriginAtSameCoordinateUseCachedResult() {
+    var first = find(key(origin("A"), StreetMode.WALK));
+    var second = find(key(origin("A"), StreetMode.WALK));
+
+    assertEquals(1, searchCount);
+    assertEquals(first, second);
+  }
+
+  @Test
+  void differentOriginOrModeIsNotShared() {
+    find(key(origin("A"), StreetMode.WALK));
+    find(key(origin("B"), StreetMode.WALK));
+    find(key(origin("A"), StreetMode.BIKE));
+
+    assertEquals(3, searchCount);
+    assertNotEquals(key(origin("A"), StreetMode.WALK), key(origin("A"), StreetMode.BIKE));
+  }
+
+  @Test
+  void rentalResultsAreDiscardedOnRealTimeUpdate() {
+    var walk = key(origin("A"), StreetMode.WALK);
+    var rental = key(origin("A"), StreetMode.BIKE_RENTAL);
+    find(walk);
+    find(rental);
+
+    graph.incrementRealTimeStreetVersion();
+    find(walk);
+    find(rental);
+
+    assertEquals(3, searchCount);
+  }
+
+  private Collection<NearbyStop> find(AccessEgressCache.CacheKey key) {
+    return subject.findNearbyStops(
+      key,
+      () -> {
+        ++searchCount;
+        return List.of();
+      }
+    );
+  }
+
+  private AccessEgressCache.CacheKey key(Vertex origin, StreetMode mode) {
+    return AccessEgressCache.key(
+      Set.of(origin),
+      request,
+      new StreetRequest(mode),
+      AccessEgressType.ACCESS,
+      DURATION_LIMIT,
+      0
+    );
+  }
+
+  /** A new temporary vertex is created for each request, the id is unique. */
+  private static Vertex origin(String name) {
+    return new TemporaryStreetLocation(
+      UUID.randomUUID().toString(),
+      COORDINATE,
+      new NonLocalizedString(name),
+      false
+    );
+  }
+}
@@ -4,6 +4,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -199,6 +200,49 @@ class AccessEgressRouterTest extends GraphRoutingTest {
     );
   }
 
+  @Test
+  void findAccessEgressForSeveralLimits() {
+    var from = location(origin.moveEastMeters(5));
+    var to = location(farAwayCoordinate);
+    var request = requestFromTo(from, to);
+    var limits = List.of(
+      new AccessEgressRouter.SearchLimit(Duration.ofMinutes(10), 0),
+      new AccessEgressRouter.SearchLimit(Duration.ofMinutes(10), 1),
+      new AccessEgressRouter.SearchLimit(Duration.ofSeconds(100), 0)
+    );
+
+    try (
+      var verticesContainer = new TemporaryVerticesContainer(
+        graph,
+        from,
+        to,
+        StreetMode.WALK,
+        StreetMode.WALK
+      )
+    ) {
+      var result = AccessEgressRouter.findAccessEgresses(
+        request,
+        verticesContainer,
+        new StreetRequest(),
+        null,
+        AccessEgressType.ACCESS,
+        limits,
+        null
+      );
+
+      assertAcessEgresses(
+        Set.of(
+          "street[Origin -> StopForCentroidRoutingStation]",
+          "street[Origin -> StopForNoCentroidRoutingStation]"
+        ),
+        result.get(0)
+      );
+      // Only the closest stop, or the stop within 100 seconds, walking about 95 meters
+      assertAcessEgresses(Set.of("street[Origin -> StopForCentroidRoutingStation]"), result.get(1));
+      assertAcessEgresses(Set.of("street[Origin -> StopForCentroidRoutingStation]"), result.get(2));
+    }
+  }
+
   /* Helper methods */
 
   private GenericLocation location(WgsCoordinate coordinate) {
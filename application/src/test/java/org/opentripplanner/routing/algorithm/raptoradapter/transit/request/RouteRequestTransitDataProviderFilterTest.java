@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -785,6 +786,40 @@ class RouteRequestTransitDataProviderFilterTest {
     assertFalse(filter.tripTimesPredicate(failingTripTimes5, true));
   }
 
+  @Test
+  void testEqualsAndHashCode() {
+    var subject = createFilterForEqualsTest(Set.of(TRIP_ID), filterForMode(TransitMode.BUS));
+    var same = createFilterForEqualsTest(Set.of(TRIP_ID), filterForMode(TransitMode.BUS));
+
+    assertEquals(subject, same);
+    assertEquals(subject.hashCode(), same.hashCode());
+
+    assertNotEquals(subject, createFilterForEqualsTest(Set.of(), filterForMode(TransitMode.BUS)));
+    assertNotEquals(
+      subject,
+      createFilterForEqualsTest(Set.of(TRIP_ID), filterForMode(TransitMode.RAIL))
+    );
+    assertNotEquals(
+      subject,
+      createFilterForEqualsTest(Set.of(TRIP_ID), List.of(AllowAllTransitFilter.of()))
+    );
+  }
+
+  private static RouteRequestTransitDataProviderFilter createFilterForEqualsTest(
+    Set<FeedScopedId> bannedTrips,
+    List<TransitFilter> filters
+  ) {
+    return new RouteRequestTransitDataProviderFilter(
+      false,
+      false,
+      DEFAULT_ACCESSIBILITY,
+      false,
+      false,
+      bannedTrips,
+      filters
+    );
+  }
+
   private boolean validateModesOnTripTimes(
     Collection<MainAndSubMode> allowedModes,
     TripTimes tripTimes
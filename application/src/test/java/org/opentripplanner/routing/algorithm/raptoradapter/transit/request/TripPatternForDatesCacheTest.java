@@ -0,0 +1,183 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+import org.opentripplanner.transit.model.timetable.ScheduledTripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripPatternForDatesCacheTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 10, 1);
+  private static final ZonedDateTime SEARCH_TIME_ZERO = ServiceDateUtils.asStartOfService(
+    DATE,
+    ZoneIds.OSLO
+  );
+  private static final List<TripTimes> TRIP_TIMES = List.of(createTripTimes());
+  private static final RoutingTripPattern PATTERN_A = createTripPattern("A");
+  private static final RoutingTripPattern PATTERN_B = createTripPattern("B");
+  private static final TransitDataProviderFilter FILTER = new AcceptAllFilter();
+
+  private final TripPatternForDatesCache subject = new TripPatternForDatesCache(2);
+
+  @Test
+  void disabled() {
+    assertFalse(new TripPatternForDatesCache(0).isEnabled());
+    assertTrue(subject.isEnabled());
+  }
+
+  @Test
+  void reuseCachedPatterns() {
+    var transitLayer = createTransitLayer(
+      new TripPatternForDate(PATTERN_A, TRIP_TIMES, List.of(), DATE),
+      new TripPatternForDate(PATTERN_B, TRIP_TIMES, List.of(), DATE)
+    );
+
+    var first = createTripPatterns(transitLayer, FILTER);
+    var second = createTripPatterns(transitLayer, FILTER);
+
+    assertEquals(2, first.size());
+    assertSame(find(PATTERN_A, first), find(PATTERN_A, second));
+    assertSame(find(PATTERN_B, first), find(PATTERN_B, second));
+
+    // Another filter should not use the cached patterns
+    var third = createTripPatterns(transitLayer, new AcceptAllFilter());
+    assertNotSame(find(PATTERN_A, first), find(PATTERN_A, third));
+  }
+
+  @Test
+  void updatedPatternIsNotReused() {
+    var patternForDateB = new TripPatternForDate(PATTERN_B, TRIP_TIMES, List.of(), DATE);
+    var first = createTripPatterns(
+      createTransitLayer(
+        new TripPatternForDate(PATTERN_A, TRIP_TIMES, List.of(), DATE),
+        patternForDateB
+      ),
+      FILTER
+    );
+
+    // Simulate a realtime update of pattern A
+    var second = createTripPatterns(
+      createTransitLayer(
+        new TripPatternForDate(PATTERN_A, TRIP_TIMES, List.of(), DATE),
+        patternForDateB
+      ),
+      FILTER
+    );
+
+    assertNotSame(find(PATTERN_A, first), find(PATTERN_A, second));
+    assertSame(find(PATTERN_B, first), find(PATTERN_B, second));
+  }
+
+  @Test
+  void invalidate() {
+    var transitLayer = createTransitLayer(
+      new TripPatternForDate(PATTERN_A, TRIP_TIMES, List.of(), DATE),
+      new TripPatternForDate(PATTERN_B, TRIP_TIMES, List.of(), DATE)
+    );
+
+    var first = createTripPatterns(transitLayer, FILTER);
+    subject.invalidate(List.of(PATTERN_A));
+    var second = createTripPatterns(transitLayer, FILTER);
+
+    assertNotSame(find(PATTERN_A, first), find(PATTERN_A, second));
+    assertSame(find(PATTERN_B, first), find(PATTERN_B, second));
+  }
+
+  private List<TripPatternForDates> createTripPatterns(
+    TransitLayer transitLayer,
+    TransitDataProviderFilter filter
+  ) {
+    return new RaptorRoutingRequestTransitDataCreator(transitLayer, SEARCH_TIME_ZERO)
+      .createTripPatterns(0, 0, filter, TransitGroupPriorityService.empty());
+  }
+
+  private TransitLayer createTransitLayer(TripPatternForDate... patterns) {
+    return new TransitLayer(
+      Map.of(DATE, List.of(patterns)),
+      null,
+      null,
+      null,
+      null,
+      subject,
+      null,
+      null,
+      null
+    );
+  }
+
+  private static TripPatternForDates find(
+    RoutingTripPattern pattern,
+    List<TripPatternForDates> list
+  ) {
+    return list.stream().filter(p -> p.getTripPattern() == pattern).findFirst().orElseThrow();
+  }
+
+  private static TripTimes createTripTimes() {
+    return ScheduledTripTimes
+      .of()
+      .withTrip(TransitModelForTest.trip("T1").build())
+      .withDepartureTimes("10:00 10:10")
+      .build();
+  }
+
+  private static RoutingTripPattern createTripPattern(String id) {
+    var st = new StopTime();
+    st.setStop(TEST_MODEL.stop("Stop:1", 0.0, 0.0).build());
+    return TripPattern
+      .of(id(id))
+      .withRoute(TransitModelForTest.route("R1").withMode(TransitMode.BUS).build())
+      .withStopPattern(new StopPattern(List.of(st, st)))
+      .build()
+      .getRoutingTripPattern();
+  }
+
+  private static class AcceptAllFilter implements TransitDataProviderFilter {
+
+    @Override
+    public boolean tripPatternPredicate(TripPatternForDate tripPatternForDate) {
+      return true;
+    }
+
+    @Override
+    public boolean hasSubModeFilters() {
+      return false;
+    }
+
+    @Override
+    public boolean tripTimesPredicate(TripTimes tripTimes, boolean withFilters) {
+      return true;
+    }
+
+    @Override
+    public BitSet filterAvailableStops(
+      RoutingTripPattern tripPattern,
+      BitSet boardingPossible,
+      BoardAlight boardAlight
+    ) {
+      return boardingPossible;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.graph;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.conveyal.object_differ.ObjectDiffer;
@@ -195,7 +196,9 @@ public class GraphSerializationTest {
       streetLimitationParameters
     );
     serializedObj.save(new FileDataSource(tempFile, FileType.GRAPH));
+
     SerializedGraphObject deserializedGraph = SerializedGraphObject.load(tempFile);
+    assertEquals(40f, deserializedGraph.streetLimitationParameters.maxCarSpeed());
     Graph copiedGraph1 = deserializedGraph.graph;
     TransitModel copiedTransitModel1 = deserializedGraph.transitModel;
     // Index both graph - we do no know if the original is indexed, because it is cached and
@@ -0,0 +1,158 @@
+package org.opentripplanner.routing.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetConstants;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.ch.ContractionHierarchyBuilder;
+import org.opentripplanner.street.search.ch.ContractionHierarchyProfile;
+import org.opentripplanner.street.search.ch.ContractionHierarchyRouter;
+import org.opentripplanner.street.search.ch.RandomStreetGrid;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Test the direct street search limited to the corridor found in a contraction hierarchy.
+ */
+class GraphPathFinderTest {
+
+  private static final int SIZE = 6;
+
+  private final Graph graph = new Graph();
+  private final RandomStreetGrid grid = new RandomStreetGrid(SIZE, false);
+
+  /**
+   * A grid of two-way streets with random lengths, with a contraction hierarchy for cars.
+   */
+  @BeforeEach
+  void setup() {
+    graph.setContractionHierarchy(
+      ContractionHierarchyProfile.CAR,
+      new ContractionHierarchyBuilder(grid.vertices(), ContractionHierarchyProfile.CAR).build()
+    );
+  }
+
+  @Test
+  void searchIsLimitedToTheCorridor() {
+    var router = new RecordingRouter(graph);
+    var from = grid.vertex(0, 0);
+    var to = grid.vertex(SIZE - 1, SIZE - 1);
+
+    var paths = pathFinder(router).getPaths(carRequest(), Set.<Vertex>of(from), Set.<Vertex>of(to));
+
+    assertNotNull(router.corridor);
+    assertTrue(router.corridor.size() < grid.nEdges());
+    assertFalse(paths.isEmpty());
+    var path = paths.getFirst();
+    assertSame(from, path.states.getFirst().getVertex());
+    assertSame(to, path.states.getLast().getVertex());
+    assertTrue(router.corridor.containsAll(path.edges));
+  }
+
+  @Test
+  void fullSearchIsUsedWhenTheCorridorHasNoPath() {
+    // A corridor without any edges, the search in it finds nothing
+    RecordingRouter router = new RecordingRouter(graph) {
+      @Override
+      public Set<Edge> findCorridor(RouteRequest request, Set<Vertex> from, Set<Vertex> to) {
+        super.findCorridor(request, from, to);
+        return Set.of();
+      }
+    };
+    var from = Set.<Vertex>of(grid.vertex(0, 0));
+    var to = Set.<Vertex>of(grid.vertex(SIZE - 1, SIZE - 1));
+
+    var paths = pathFinder(router).getPaths(carRequest(), from, to);
+    var expected = pathFinder(null).getPaths(carRequest(), from, to);
+
+    assertNotNull(router.corridor);
+    assertFalse(paths.isEmpty());
+    assertEquals(edges(expected), edges(paths));
+  }
+
+  @Test
+  void fullSearchIsUsedWithoutHierarchyForTheRequest() {
+    var router = new RecordingRouter(graph);
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.WALK);
+
+    var from = Set.<Vertex>of(grid.vertex(0, 0));
+    var to = Set.<Vertex>of(grid.vertex(SIZE - 1, SIZE - 1));
+
+    var paths = pathFinder(router).getPaths(request, from, to);
+
+    assertTrue(router.called);
+    assertNull(router.corridor);
+    assertFalse(paths.isEmpty());
+  }
+
+  @Test
+  void bidirectionalSearchFindsPathsOfTheSameWeightWhenTheFeatureIsOn() {
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.WALK);
+    var from = Set.<Vertex>of(grid.vertex(0, 0));
+    var to = Set.<Vertex>of(grid.vertex(SIZE - 1, SIZE - 2));
+
+    var expected = pathFinder(null).getPaths(request, from, to);
+    assertFalse(expected.isEmpty());
+
+    OTPFeature.BidirectionalStreetSearch.testOn(() -> {
+      var paths = pathFinder(null).getPaths(request, from, to);
+      assertEquals(weights(expected), weights(paths));
+      assertSame(grid.vertex(0, 0), paths.getFirst().states.getFirst().getVertex());
+      assertSame(grid.vertex(SIZE - 1, SIZE - 2), paths.getFirst().states.getLast().getVertex());
+    });
+  }
+
+  private static GraphPathFinder pathFinder(ContractionHierarchyRouter router) {
+    return new GraphPathFinder(null, null, StreetConstants.DEFAULT_MAX_CAR_SPEED, router, null);
+  }
+
+  private static RouteRequest carRequest() {
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.CAR);
+    return request;
+  }
+
+  private static List<List<Edge>> edges(List<GraphPath<State, Edge, Vertex>> paths) {
+    return paths.stream().map(p -> List.copyOf(p.edges)).toList();
+  }
+
+  private static List<Double> weights(List<GraphPath<State, Edge, Vertex>> paths) {
+    return paths.stream().map(GraphPath::getWeight).toList();
+  }
+
+  /**
+   * Keep the corridor returned by the hierarchy router.
+   */
+  private static class RecordingRouter extends ContractionHierarchyRouter {
+
+    private boolean called = false;
+    private Set<Edge> corridor;
+
+    private RecordingRouter(Graph graph) {
+      super(graph);
+    }
+
+    @Override
+    public Set<Edge> findCorridor(RouteRequest request, Set<Vertex> from, Set<Vertex> to) {
+      called = true;
+      corridor = super.findCorridor(request, from, to);
+      return corridor;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package org.opentripplanner.service.vehiclerental.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.service.vehiclerental.model.TestFreeFloatingRentalVehicleBuilder;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalVehicle;
+
+class VehicleRentalPlaceIndexTest {
+
+  private static final WgsCoordinate CENTER = new WgsCoordinate(59.91, 10.75);
+
+  private final VehicleRentalPlaceIndex subject = new VehicleRentalPlaceIndex();
+
+  @Test
+  void query() {
+    var inside = vehicle("inside", 59.911, 10.751);
+    var outside = vehicle("outside", 59.95, 10.751);
+    subject.update(null, inside);
+    subject.update(null, outside);
+
+    assertEquals(List.of(inside), subject.query(new Envelope(10.74, 10.76, 59.90, 59.92)));
+    assertEquals(2, subject.query(new Envelope(-180, 180, -90, 90)).size());
+  }
+
+  @Test
+  void updateMovedPlace() {
+    var before = vehicle("a", 59.911, 10.751);
+    var after = vehicle("a", 59.95, 10.751);
+    subject.update(null, before);
+    subject.update(before, after);
+
+    var oldLocation = new Envelope(10.74, 10.76, 59.90, 59.92);
+    var newLocation = new Envelope(10.74, 10.76, 59.94, 59.96);
+    assertEquals(List.of(), subject.query(oldLocation));
+    assertEquals(List.of(after), subject.query(newLocation));
+  }
+
+  @Test
+  void updatePlaceInSameCell() {
+    var before = vehicle("a", 59.911, 10.751);
+    var after = vehicle("a", 59.9111, 10.7511);
+    subject.update(null, before);
+    subject.update(before, after);
+
+    assertEquals(List.of(after), subject.query(new Envelope(10.74, 10.76, 59.90, 59.92)));
+  }
+
+  @Test
+  void remove() {
+    var place = vehicle("a", 59.911, 10.751);
+    subject.update(null, place);
+    subject.remove(place);
+
+    assertEquals(List.of(), subject.query(new Envelope(-180, 180, -90, 90)));
+  }
+
+  @Test
+  void queryIsSameAsSearchingAllPlaces() {
+    var random = new Random(42);
+    var places = new ArrayList<VehicleRentalPlace>();
+    for (int i = 0; i < 5000; i++) {
+      var place = vehicle(
+        "v" + i,
+        CENTER.latitude() + (random.nextDouble() - 0.5) * 0.5,
+        CENTER.longitude() + (random.nextDouble() - 0.5) * 0.5
+      );
+      places.add(place);
+      subject.update(null, place);
+    }
+
+    // The small envelopes visit the cells inside them, the large ones all cells with places
+    for (double size : new double[] { 0.001, 0.01, 0.1, 1.0 }) {
+      var envelope = new Envelope(
+        CENTER.longitude() - size,
+        CENTER.longitude() + size,
+        CENTER.latitude() - size,
+        CENTER.latitude() + size
+      );
+      var expected = places
+        .stream()
+        .filter(p -> envelope.contains(p.getLongitude(), p.getLatitude()))
+        .collect(Collectors.toSet());
+
+      assertEquals(expected, Set.copyOf(subject.query(envelope)));
+    }
+  }
+
+  private static VehicleRentalVehicle vehicle(String id, double lat, double lon) {
+    var vehicle = TestFreeFloatingRentalVehicleBuilder
+      .of()
+      .withLatitude(lat)
+      .withLongitude(lon)
+      .build();
+    vehicle.id = id(id);
+    return vehicle;
+  }
+}
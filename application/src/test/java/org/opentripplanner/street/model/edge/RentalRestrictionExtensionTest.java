@@ -161,6 +161,32 @@ class RentalRestrictionExtensionTest {
     assertEquals(RENTING_FLOATING, states[0].getVehicleRentalState());
   }
 
+  @Test
+  public void removeExtensionThatIsNotAdded() {
+    var edge = streetEdge(V1, V2);
+    edge.addRentalRestriction(new BusinessAreaBorder("a"));
+
+    edge.removeRentalExtension(new BusinessAreaBorder("b"));
+
+    assertTrue(edge.fromv.rentalRestrictions().traversalBanned(state("a")));
+  }
+
+  @Test
+  public void compositeNetworks() {
+    var zone = new GeofencingZone(new FeedScopedId("b", "park"), null, true, true);
+    var composite = new BusinessAreaBorder("a").add(new GeofencingZoneExtension(zone));
+
+    assertTrue(composite.traversalBanned(state(null)));
+    assertTrue(composite.traversalBanned(state("a")));
+    assertTrue(composite.traversalBanned(state("b")));
+    assertFalse(composite.traversalBanned(state("c")));
+
+    assertFalse(composite.dropOffBanned(state(null)));
+    assertFalse(composite.dropOffBanned(state("a")));
+    assertTrue(composite.dropOffBanned(state("b")));
+    assertEquals(Set.of("b"), composite.noDropOffNetworks());
+  }
+
   private State[] traverse(StreetEdge edge) {
     var state = state(network);
     return edge.traverse(state);
@@ -0,0 +1,98 @@
+package org.opentripplanner.street.model.vertex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+class VertexAdjacencyTest {
+
+  private IntersectionVertex a;
+  private IntersectionVertex b;
+  private IntersectionVertex c;
+  private StreetEdge ab;
+  private StreetEdge ba;
+  private StreetEdge bc;
+  private StreetEdge ca;
+  private VertexAdjacency subject;
+
+  @BeforeEach
+  void setup() {
+    a = intersectionVertex("A", 59.90, 10.70);
+    b = intersectionVertex("B", 59.91, 10.71);
+    c = intersectionVertex("C", 59.92, 10.70);
+    ab = streetEdge(a, b);
+    ba = streetEdge(b, a);
+    bc = streetEdge(b, c);
+    ca = streetEdge(c, a);
+    subject = VertexAdjacency.freeze(List.of(a, b, c));
+  }
+
+  @Test
+  void freeze() {
+    assertEquals(3, subject.size());
+    assertEquals(Set.of(0, 1, 2), Set.of(a.getIndex(), b.getIndex(), c.getIndex()));
+
+    assertEquals(Set.of(ab), Set.copyOf(a.getOutgoing()));
+    assertEquals(Set.of(ba, ca), Set.copyOf(a.getIncoming()));
+    assertEquals(Set.of(ba, bc), Set.copyOf(b.getOutgoing()));
+    assertEquals(Set.of(ab), Set.copyOf(b.getIncoming()));
+    assertEquals(2, b.getDegreeOut());
+    assertEquals(1, b.getDegreeIn());
+  }
+
+  @Test
+  void addEdgeAfterFreeze() {
+    var cb = streetEdge(c, b);
+
+    assertEquals(Set.of(ca, cb), Set.copyOf(c.getOutgoing()));
+    assertEquals(Set.of(ab, cb), Set.copyOf(b.getIncoming()));
+    assertEquals(2, c.getDegreeOut());
+    assertEquals(2, b.getDegreeIn());
+  }
+
+  @Test
+  void edgesAddedAfterFreezeAreListedAfterTheFrozenEdges() {
+    var cb = streetEdge(c, b);
+    var outgoing = c.getOutgoing();
+
+    assertEquals(List.of(ca, cb), List.copyOf(outgoing));
+
+    // The returned collection is not changed by later updates
+    var cd = streetEdge(c, intersectionVertex("D", 59.93, 10.70));
+    assertEquals(List.of(ca, cb), List.copyOf(outgoing));
+    assertEquals(List.of(ca, cb, cd), List.copyOf(c.getOutgoing()));
+  }
+
+  @Test
+  void removeFrozenEdge() {
+    int index = b.getIndex();
+    var cb = streetEdge(c, b);
+
+    assertTrue(b.removeOutgoing(bc));
+    assertTrue(c.removeIncoming(bc));
+
+    assertEquals(Set.of(ba), Set.copyOf(b.getOutgoing()));
+    assertEquals(Set.of(ab, cb), Set.copyOf(b.getIncoming()));
+    assertEquals(Set.of(ca, cb), Set.copyOf(c.getOutgoing()));
+    assertFalse(c.getIncoming().contains(bc));
+    // The vertex keep the index after it is detached from the adjacency
+    assertEquals(index, b.getIndex());
+  }
+
+  @Test
+  void initEdgeListsUnfreezeVertex() {
+    a.initEdgeLists();
+
+    assertEquals(-1, a.getIndex());
+    assertEquals(0, a.getDegreeOut());
+    assertEquals(0, a.getDegreeIn());
+  }
+}
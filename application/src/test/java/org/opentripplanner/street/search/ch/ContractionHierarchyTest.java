@@ -0,0 +1,155 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class ContractionHierarchyTest {
+
+  private static final int SIZE = 8;
+  private static final ContractionHierarchyProfile PROFILE = ContractionHierarchyProfile.CAR;
+
+  private final RandomStreetGrid grid = new RandomStreetGrid(SIZE, true);
+  private final List<Vertex> vertices = new ArrayList<>(grid.vertices());
+  private IntersectionVertex pedestrianOnly;
+
+  /**
+   * A grid with some one-way and pedestrian streets, and a vertex only connected by a pedestrian
+   * street.
+   */
+  @BeforeEach
+  void setup() {
+    pedestrianOnly = intersectionVertex(59.89, 10.69);
+    vertices.add(pedestrianOnly);
+    streetEdge(pedestrianOnly, grid.vertex(0, 0), 50, StreetTraversalPermission.PEDESTRIAN);
+    streetEdge(grid.vertex(0, 0), pedestrianOnly, 50, StreetTraversalPermission.PEDESTRIAN);
+  }
+
+  @Test
+  void shortestPathsMatchDijkstra() {
+    var subject = new ContractionHierarchyBuilder(vertices, PROFILE).build();
+    int paths = 0;
+
+    for (Vertex from : vertices) {
+      var expected = dijkstra(from);
+      for (Vertex to : vertices) {
+        var path = subject.findPath(Map.of(from, 0), Map.of(to, 0));
+        // Vertices without car streets are not part of the hierarchy
+        if (!subject.contains(from) || !subject.contains(to) || !expected.containsKey(to)) {
+          assertNull(path, () -> from + " -> " + to);
+          continue;
+        }
+        assertNotNull(path, () -> from + " -> " + to);
+        assertConnected(from, to, path);
+        assertEquals(expected.get(to), weight(path), () -> from + " -> " + to);
+        ++paths;
+      }
+    }
+    // Most of the grid is connected by car
+    assertTrue(paths > SIZE * SIZE * SIZE);
+  }
+
+  @Test
+  void initialWeightsSelectTheBestSourceAndTarget() {
+    var subject = new ContractionHierarchyBuilder(vertices, PROFILE).build();
+    var near = grid.vertex(0, 0);
+    var far = grid.vertex(SIZE - 1, SIZE - 1);
+
+    var path = subject.findPath(Map.of(near, 100_000, far, 0), Map.of(far, 0, near, 100_000));
+
+    assertNotNull(path);
+    assertTrue(path.isEmpty());
+  }
+
+  @Test
+  void vertexNotInHierarchy() {
+    var subject = new ContractionHierarchyBuilder(vertices, PROFILE).build();
+
+    assertTrue(subject.contains(grid.vertex(0, 0)));
+    assertFalse(subject.contains(pedestrianOnly));
+    assertNull(subject.findPath(Map.of(pedestrianOnly, 0), Map.of(grid.vertex(1, 1), 0)));
+  }
+
+  @Test
+  void profileOfRequest() {
+    var request = new RouteRequest();
+    request.journey().direct().setMode(StreetMode.CAR);
+    assertEquals(Optional.of(ContractionHierarchyProfile.CAR), profile(request));
+
+    request.journey().direct().setMode(StreetMode.BIKE);
+    assertEquals(Optional.of(ContractionHierarchyProfile.BIKE), profile(request));
+
+    request.withPreferences(p ->
+      p.withBike(it -> it.withOptimizeType(VehicleRoutingOptimizeType.SHORTEST_DURATION))
+    );
+    assertEquals(Optional.empty(), profile(request));
+
+    request.journey().direct().setMode(StreetMode.WALK);
+    assertEquals(Optional.empty(), profile(request));
+  }
+
+  private static Optional<ContractionHierarchyProfile> profile(RouteRequest request) {
+    return ContractionHierarchyProfile.of(request);
+  }
+
+  private static void assertConnected(Vertex from, Vertex to, List<StreetEdge> path) {
+    Vertex current = from;
+    for (StreetEdge e : path) {
+      assertSame(current, e.getFromVertex());
+      current = e.getToVertex();
+    }
+    assertSame(to, current);
+  }
+
+  private static int weight(List<StreetEdge> path) {
+    return path.stream().mapToInt(PROFILE::weight).sum();
+  }
+
+  private static Map<Vertex, Integer> dijkstra(Vertex origin) {
+    Map<Vertex, Integer> weights = new HashMap<>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Integer>>(Map.Entry.comparingByValue());
+    weights.put(origin, 0);
+    queue.add(Map.entry(origin, 0));
+    while (!queue.isEmpty()) {
+      var next = queue.poll();
+      if (next.getValue() > weights.get(next.getKey())) {
+        continue;
+      }
+      for (Edge e : next.getKey().getOutgoing()) {
+        int w = PROFILE.weight(e);
+        if (w < 0) {
+          continue;
+        }
+        int weight = next.getValue() + w;
+        Integer current = weights.get(e.getToVertex());
+        if (current == null || weight < current) {
+          weights.put(e.getToVertex(), weight);
+          queue.add(Map.entry(e.getToVertex(), weight));
+        }
+      }
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,78 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * A square grid of streets with random lengths, for testing the contraction hierarchy and the
+ * searches using it. The random numbers are seeded, so the grid is the same in every test run.
+ */
+public class RandomStreetGrid {
+
+  private final boolean restricted;
+  private final Random random = new Random(42);
+  private final IntersectionVertex[][] grid;
+  private final List<Vertex> vertices = new ArrayList<>();
+  private int nEdges = 0;
+
+  /**
+   * @param restricted If some of the streets are one-way for cars or pedestrian only, so that the
+   *                   shortest paths are not trivial. Otherwise all streets are two-way streets
+   *                   for all modes.
+   */
+  public RandomStreetGrid(int size, boolean restricted) {
+    this.restricted = restricted;
+    this.grid = new IntersectionVertex[size][size];
+
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        grid[i][j] = intersectionVertex(59.9 + i * 0.001, 10.7 + j * 0.001);
+        vertices.add(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        if (i + 1 < size) {
+          connect(grid[i][j], grid[i + 1][j]);
+        }
+        if (j + 1 < size) {
+          connect(grid[i][j], grid[i][j + 1]);
+        }
+      }
+    }
+  }
+
+  public IntersectionVertex vertex(int i, int j) {
+    return grid[i][j];
+  }
+
+  public List<Vertex> vertices() {
+    return List.copyOf(vertices);
+  }
+
+  /** The number of street edges of the grid, one for each direction of a street. */
+  public int nEdges() {
+    return nEdges;
+  }
+
+  private void connect(IntersectionVertex a, IntersectionVertex b) {
+    int type = restricted ? random.nextInt(10) : -1;
+    var permission = type == 0
+      ? StreetTraversalPermission.PEDESTRIAN
+      : StreetTraversalPermission.ALL;
+    streetEdge(a, b, 50 + random.nextInt(200), permission);
+    ++nEdges;
+    // Some streets are one-way for cars
+    if (type != 1) {
+      streetEdge(b, a, 50 + random.nextInt(200), permission);
+      ++nEdges;
+    }
+  }
+}
@@ -1,9 +1,14 @@
 package org.opentripplanner.street.search.state;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.Arrays;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -26,4 +31,19 @@ class StateDataTest {
     // no better assertion as this will throw an exception if there is more than one state
     assertNotNull(data);
   }
+
+  @Test
+  void equalVariantsAreInternedToOneInstance() {
+    var req = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    var data = StateData.getBaseCaseStateData(req);
+    var copy = data.clone();
+
+    assertEquals(data, copy);
+    assertEquals(data.hashCode(), copy.hashCode());
+    assertSame(data.intern(), copy.intern());
+
+    copy.backWalkingBike = true;
+    assertNotEquals(data, copy);
+    assertNotSame(data.intern(), copy.intern());
+  }
 }
@@ -3,7 +3,9 @@ package org.opentripplanner.street.search.state;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Nested;
@@ -13,6 +15,7 @@ import org.opentripplanner.street.model._data.StreetModelForTest;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
 public class StateEditorTest {
@@ -98,4 +101,39 @@ public class StateEditorTest {
       assertFalse(secondState.isInsideNoRentalDropOffArea());
     }
   }
+
+  @Nested
+  class InternStateData {
+
+    StreetVertex v1 = StreetModelForTest.intersectionVertex(0, 0);
+    StreetVertex v2 = StreetModelForTest.intersectionVertex(1, 1);
+    StreetEdge edge1 = StreetModelForTest.streetEdge(v1, v2);
+    StreetEdge edge2 = StreetModelForTest.streetEdge(v2, v1);
+
+    @Test
+    void equalVariantsAreShared() {
+      var request = StreetSearchRequest.of().build();
+      var s1 = traverse(new State(v1, request), edge1, TraverseMode.WALK);
+      var s2 = traverse(s1, edge2, TraverseMode.BICYCLE);
+      var s3 = traverse(s2, edge1, TraverseMode.WALK);
+
+      assertNotSame(s1.stateData, s2.stateData);
+      assertSame(s1.stateData, s3.stateData);
+      assertSame(request, s3.getRequest());
+    }
+
+    @Test
+    void variantsAreNotSharedBetweenSearches() {
+      var s1 = traverse(new State(v1, StreetSearchRequest.of().build()), edge1, TraverseMode.WALK);
+      var s2 = traverse(new State(v1, StreetSearchRequest.of().build()), edge1, TraverseMode.WALK);
+
+      assertNotSame(s1.stateData, s2.stateData);
+    }
+
+    private static State traverse(State state, StreetEdge edge, TraverseMode backMode) {
+      var editor = state.edit(edge);
+      editor.setBackMode(backMode);
+      return editor.makeState();
+    }
+  }
 }
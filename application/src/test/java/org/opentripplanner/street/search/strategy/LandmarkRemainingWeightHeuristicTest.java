@@ -0,0 +1,166 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.landmark.LandmarkTable;
+import org.opentripplanner.street.search.landmark.LandmarkTableBuilder;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class LandmarkRemainingWeightHeuristicTest {
+
+  private static final int SIZE = 8;
+  private static final float MAX_CAR_SPEED = 40f;
+  private static final RoutingPreferences PREFERENCES = new RoutingPreferences();
+  private static final StreetSearchRequest REQUEST = StreetSearchRequest
+    .of()
+    .withMode(StreetMode.CAR)
+    .build();
+
+  private final List<Vertex> vertices = new ArrayList<>();
+  private LandmarkTable table;
+
+  /** A grid of streets longer than the straight line, with some one-way and pedestrian streets */
+  @BeforeEach
+  void setup() {
+    var random = new Random(7);
+    var grid = new IntersectionVertex[SIZE][SIZE];
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        grid[i][j] = intersectionVertex(59.9 + i * 0.001, 10.7 + j * 0.001);
+        vertices.add(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        if (i + 1 < SIZE) {
+          connect(grid[i][j], grid[i + 1][j], random);
+        }
+        if (j + 1 < SIZE) {
+          connect(grid[i][j], grid[i][j + 1], random);
+        }
+      }
+    }
+    table = new LandmarkTableBuilder(vertices, 4).build();
+  }
+
+  @Test
+  void table() {
+    assertEquals(4, table.numberOfLandmarks());
+    assertEquals(SIZE * SIZE, table.numberOfVertices());
+  }
+
+  @Test
+  void estimateIsAdmissible() {
+    double reluctance = PREFERENCES.car().reluctance();
+    double landmarkSum = 0;
+    double euclideanSum = 0;
+
+    for (Vertex target : vertices) {
+      var subject = heuristic(StreetMode.CAR, target, false);
+      var euclidean = new EuclideanRemainingWeightHeuristic(MAX_CAR_SPEED);
+      euclidean.initialize(StreetMode.CAR, Set.of(target), false, PREFERENCES);
+      var arriveBy = heuristic(StreetMode.CAR, target, true);
+      var fromTarget = drivingTimes(target);
+
+      for (Vertex v : vertices) {
+        var toTarget = drivingTimes(v).get(target);
+        var state = new State(v, REQUEST);
+        double estimate = subject.estimateRemainingWeight(state);
+
+        if (toTarget != null) {
+          assertTrue(estimate <= toTarget * reluctance, () -> v + " -> " + target);
+        }
+        if (fromTarget.containsKey(v)) {
+          double arriveByEstimate = arriveBy.estimateRemainingWeight(state);
+          assertTrue(arriveByEstimate <= fromTarget.get(v) * reluctance);
+        }
+        landmarkSum += estimate;
+        euclideanSum += euclidean.estimateRemainingWeight(state);
+      }
+    }
+    // The landmarks should give a much better estimate than the straight line distance
+    assertTrue(landmarkSum > 2 * euclideanSum, () -> landmarkSum + " vs " + euclideanSum);
+  }
+
+  @Test
+  void otherModesUseEuclideanEstimate() {
+    var target = vertices.getLast();
+    var subject = heuristic(StreetMode.WALK, target, false);
+    var euclidean = new EuclideanRemainingWeightHeuristic(MAX_CAR_SPEED);
+    euclidean.initialize(StreetMode.WALK, Set.of(target), false, PREFERENCES);
+    var state = new State(vertices.getFirst(), REQUEST);
+
+    assertEquals(
+      euclidean.estimateRemainingWeight(state),
+      subject.estimateRemainingWeight(state)
+    );
+  }
+
+  private LandmarkRemainingWeightHeuristic heuristic(
+    StreetMode mode,
+    Vertex target,
+    boolean arriveBy
+  ) {
+    var heuristic = new LandmarkRemainingWeightHeuristic(table, MAX_CAR_SPEED);
+    heuristic.initialize(mode, Set.of(target), arriveBy, PREFERENCES);
+    return heuristic;
+  }
+
+  private static void connect(IntersectionVertex a, IntersectionVertex b, Random random) {
+    int type = random.nextInt(10);
+    var permission = type == 0
+      ? StreetTraversalPermission.PEDESTRIAN
+      : StreetTraversalPermission.ALL;
+    streetEdge(a, b, 100 + random.nextInt(400), permission);
+    if (type != 1) {
+      streetEdge(b, a, 100 + random.nextInt(400), permission);
+    }
+  }
+
+  /** The exact driving times in seconds from the origin, ignoring turn costs. */
+  private static Map<Vertex, Double> drivingTimes(Vertex origin) {
+    Map<Vertex, Double> times = new HashMap<>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Double>>(Map.Entry.comparingByValue());
+    times.put(origin, 0.0);
+    queue.add(Map.entry(origin, 0.0));
+    while (!queue.isEmpty()) {
+      var next = queue.poll();
+      if (next.getValue() > times.get(next.getKey())) {
+        continue;
+      }
+      for (Edge e : next.getKey().getOutgoing()) {
+        if (!(e instanceof StreetEdge se) || !se.canTraverse(TraverseMode.CAR)) {
+          continue;
+        }
+        double time = next.getValue() + se.getDistanceMeters() / se.getCarSpeed();
+        Double current = times.get(e.getToVertex());
+        if (current == null || time < current) {
+          times.put(e.getToVertex(), time);
+          queue.add(Map.entry(e.getToVertex(), time));
+        }
+      }
+    }
+    return times;
+  }
+}
@@ -5,7 +5,9 @@ import static org.opentripplanner.standalone.configure.ConstructApplication.crea
 import static org.opentripplanner.standalone.configure.ConstructApplication.initializeTransferCache;
 import static org.opentripplanner.transit.speed_test.support.AssertSpeedTestSetup.assertTestDateHasData;
 
+import com.sun.management.ThreadMXBean;
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.lang.ref.WeakReference;
 import java.net.URI;
 import java.util.ArrayList;
@@ -65,6 +67,9 @@ public class SpeedTest {
   private final OtpServerRequestContext serverContext;
   private final Map<SpeedTestProfile, List<Integer>> workerResults = new HashMap<>();
   private final Map<SpeedTestProfile, List<Integer>> totalResults = new HashMap<>();
+  private final Map<SpeedTestProfile, List<Integer>> allocatedResults = new HashMap<>();
+  private final ThreadMXBean threadMXBean = allocatedMemoryMXBean();
+  private long allocatedBytes;
   private final CsvFileSupport tcIO;
   private SpeedTestProfile profile;
   private TestStatus status = TestStatus.OK;
@@ -122,6 +127,7 @@ public class SpeedTest {
         null,
         TestServerContext.createStreetLimitationParametersService(),
         null,
+        null,
         null
       );
     // Creating transitLayerForRaptor should be integrated into the TransitModel, but for now
@@ -207,6 +213,7 @@ public class SpeedTest {
     ResultPrinter.logSingleTestHeader(profile);
 
     timer.startTest();
+    allocatedBytes = 0;
 
     for (TestCase testCase : testCases.iterable()) {
       runSingleTestCase(testCase);
@@ -214,6 +221,11 @@ public class SpeedTest {
 
     workerResults.get(profile).add(timer.totalTimerMean(DebugTimingAggregator.ROUTING_RAPTOR));
     totalResults.get(profile).add(timer.totalTimerMean(DebugTimingAggregator.ROUTING_TOTAL));
+    if (threadMXBean != null && testCases.numberOfTestCases() > 0) {
+      allocatedResults
+        .get(profile)
+        .add((int) (allocatedBytes / 1024 / testCases.numberOfTestCases()));
+    }
     timer.lapTest();
 
     ResultPrinter.logSingleTestResult(profile, testCases, sample, nSamples, timer);
@@ -223,7 +235,9 @@ public class SpeedTest {
     try {
       System.err.println(ResultPrinter.headerLine("#" + testCase.definition().idAndDescription()));
 
+      long allocatedBefore = currentThreadAllocatedBytes();
       RoutingResponse routingResponse = performRouting(testCase);
+      allocatedBytes += currentThreadAllocatedBytes() - allocatedBefore;
 
       var times = routingResponse.getDebugTimingAggregator().finishedRendering();
 
@@ -282,6 +296,7 @@ public class SpeedTest {
     for (SpeedTestProfile key : opts.profiles()) {
       workerResults.put(key, new ArrayList<>());
       totalResults.put(key, new ArrayList<>());
+      allocatedResults.put(key, new ArrayList<>());
     }
   }
 
@@ -296,6 +311,22 @@ public class SpeedTest {
       .build();
   }
 
+  /**
+   * The bean used to measure the memory allocated by the routing, or {@code null} if the JVM does
+   * not support it. Only the memory allocated by the routing thread is measured, the street
+   * searches run on this thread unless parallel routing is enabled.
+   */
+  private static ThreadMXBean allocatedMemoryMXBean() {
+    return ManagementFactory.getThreadMXBean() instanceof ThreadMXBean it &&
+      it.isThreadAllocatedMemoryEnabled()
+      ? it
+      : null;
+  }
+
+  private long currentThreadAllocatedBytes() {
+    return threadMXBean == null ? 0 : threadMXBean.getCurrentThreadAllocatedBytes();
+  }
+
   private void forceGCToAvoidGCLater() {
     WeakReference<?> ref = new WeakReference<>(new Object());
     while (ref.get() != null) {
@@ -308,6 +339,11 @@ public class SpeedTest {
   private void printProfileStatistics() {
     ResultPrinter.printProfileResults("Worker: ", opts.profiles(), workerResults);
     ResultPrinter.printProfileResults("Total:  ", opts.profiles(), totalResults);
+    ResultPrinter.printProfileResults(
+      "Allocated KB per test case:",
+      opts.profiles(),
+      allocatedResults
+    );
   }
 
   /**
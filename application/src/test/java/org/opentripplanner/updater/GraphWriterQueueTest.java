@@ -0,0 +1,176 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GraphWriterQueueTest {
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  private final ExecutorService writer = Executors.newSingleThreadExecutor();
+  private final List<String> applied = new CopyOnWriteArrayList<>();
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void shutdown() {
+    release.countDown();
+    writer.shutdownNow();
+  }
+
+  @Test
+  void runInSubmittedOrder() throws Exception {
+    var subject = new GraphWriterQueue(writer, null, 10);
+
+    subject.submit(context -> applied.add("a"));
+    subject.submit(context -> applied.add("b"));
+    subject.submit(context -> applied.add("c")).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals(List.of("a", "b", "c"), applied);
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void coalesceWaitingRunnables() throws Exception {
+    var subject = new GraphWriterQueue(writer, null, 10);
+    blockWriter(subject);
+
+    Future<?> first = subject.submit(new Message("feed", "a", false));
+    subject.submit(new Message("other", "b", false));
+    subject.submit(new Message("feed", "c", false));
+    Future<?> last = subject.submit(new Message("feed", "d", true));
+    assertEquals(2, subject.size());
+
+    release.countDown();
+    first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    subject.submit(context -> {}).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    // c is merged into a, and d replaces them
+    assertEquals(List.of("d", "b"), applied);
+    assertTrue(last.isDone());
+  }
+
+  @Test
+  void runnablesThatCanNotBeCombinedAreBothRun() throws Exception {
+    var subject = new GraphWriterQueue(writer, null, 10);
+    blockWriter(subject);
+
+    subject.submit(new Message("feed", "a", true));
+    subject.submit(new Message("feed", "b", false));
+    subject.submit(new Message("feed", "c", false));
+    assertEquals(2, subject.size());
+
+    release.countDown();
+    subject.submit(context -> {}).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals(List.of("a", "b+c"), applied);
+  }
+
+  @Test
+  void blockProducerWhenFull() throws Exception {
+    var subject = new GraphWriterQueue(writer, null, 1);
+    blockWriter(subject);
+    subject.submit(context -> applied.add("a"));
+
+    var producer = Executors.newSingleThreadExecutor();
+    try {
+      var blocked = producer.submit(() -> subject.submit(context -> applied.add("b")));
+      Thread.sleep(100);
+      assertFalse(blocked.isDone());
+
+      release.countDown();
+      blocked.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      assertEquals(List.of("a", "b"), applied);
+    } finally {
+      producer.shutdownNow();
+    }
+  }
+
+  @Test
+  void cancelWaiting() throws Exception {
+    var subject = new GraphWriterQueue(writer, null, 10);
+    blockWriter(subject);
+    Future<?> waiting = subject.submit(context -> applied.add("a"));
+
+    subject.cancelWaiting();
+    release.countDown();
+    writer.shutdown();
+    assertTrue(writer.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    assertThrows(CancellationException.class, waiting::get);
+    assertEquals(List.of(), applied);
+    assertThrows(RejectedExecutionException.class, () -> subject.submit(context -> {}));
+  }
+
+  /**
+   * Keep the writer thread busy until the release latch is counted down, so the runnables
+   * submitted after this are waiting in the queue.
+   */
+  private void blockWriter(GraphWriterQueue subject) throws InterruptedException {
+    subject.submit(context -> {
+      started.countDown();
+      try {
+        release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+
+  /**
+   * A message with a name, which replaces the waiting message of the same feed if it is a full
+   * dataset, and is merged with it if both are incremental.
+   */
+  private class Message implements CoalescingGraphWriterRunnable {
+
+    private final String feed;
+    private final String name;
+    private final boolean fullDataset;
+
+    private Message(String feed, String name, boolean fullDataset) {
+      this.feed = feed;
+      this.name = name;
+      this.fullDataset = fullDataset;
+    }
+
+    @Override
+    public Object coalescingKey() {
+      return feed;
+    }
+
+    @Override
+    public Optional<CoalescingGraphWriterRunnable> coalesce(
+      CoalescingGraphWriterRunnable previous
+    ) {
+      var previousMessage = (Message) previous;
+      if (fullDataset) {
+        return Optional.of(this);
+      }
+      if (previousMessage.fullDataset) {
+        return Optional.empty();
+      }
+      return Optional.of(new Message(feed, previousMessage.name + "+" + name, false));
+    }
+
+    @Override
+    public void run(RealTimeUpdateContext context) {
+      applied.add(name);
+    }
+  }
+}
@@ -4,8 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.GtfsTest;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.service.DefaultTransitService;
 
 public class GtfsRealtimeFuzzyTripMatcherTest extends GtfsTest {
@@ -56,6 +60,32 @@ public class GtfsRealtimeFuzzyTripMatcherTest extends GtfsTest {
     assertFalse(trip1.hasTripId());
   }
 
+  @Test
+  public void testIndexIsSameAsSearchingPatterns() {
+    String feedId = transitModel.getFeedIds().iterator().next();
+    var transitService = new DefaultTransitService(transitModel);
+    var matcher = new GtfsRealtimeFuzzyTripMatcher(transitService);
+    var route = transitService.getRouteForId(new FeedScopedId(feedId, "1"));
+    var date = LocalDate.of(2009, 9, 15);
+
+    for (int startTime : new int[] { TimeUtils.time("06:47:00"), TimeUtils.time("12:00:00") }) {
+      assertEquals(
+        GtfsRealtimeFuzzyTripMatcher.findTrip(
+          transitService,
+          route,
+          Direction.OUTBOUND,
+          startTime,
+          date
+        ),
+        matcher.getTrip(route, Direction.OUTBOUND, startTime, date)
+      );
+    }
+    assertEquals(
+      "10W1020",
+      matcher.getTrip(route, Direction.OUTBOUND, TimeUtils.time("06:47:00"), date).getId().getId()
+    );
+  }
+
   @Override
   public String getFeedName() {
     return "portland/portland.gtfs.zip";
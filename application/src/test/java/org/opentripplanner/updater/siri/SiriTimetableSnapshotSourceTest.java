@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
 import static org.opentripplanner.updater.spi.UpdateResultAssertions.assertFailure;
 
+import java.util.ArrayList;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
@@ -17,6 +19,7 @@ import org.opentripplanner.updater.spi.UpdateError;
 import org.opentripplanner.updater.trip.RealtimeTestConstants;
 import org.opentripplanner.updater.trip.RealtimeTestEnvironment;
 import org.opentripplanner.updater.trip.TripInput;
+import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
 
 class SiriTimetableSnapshotSourceTest implements RealtimeTestConstants {
 
@@ -487,6 +490,90 @@ class SiriTimetableSnapshotSourceTest implements RealtimeTestConstants {
     assertFailure(UpdateError.UpdateErrorType.INVALID_STOP_SEQUENCE, result);
   }
 
+  /**
+   * The second update of a trip in the same message is built after the first one is committed.
+   */
+  @Test
+  void testUpdateJourneyTwiceInOneMessage() {
+    var env = RealtimeTestEnvironment.siri().addTrip(TRIP_1_INPUT).build();
+
+    var first = updatedJourneyBuilder(env)
+      .withDatedVehicleJourneyRef(TRIP_1_ID)
+      .buildEstimatedTimetableDeliveries();
+    var second = new SiriEtBuilder(env.getDateTimeHelper())
+      .withDatedVehicleJourneyRef(TRIP_1_ID)
+      .withEstimatedCalls(builder ->
+        builder
+          .call(STOP_A1)
+          .departAimedExpected("00:00:11", "00:00:17")
+          .call(STOP_B1)
+          .arriveAimedExpected("00:00:20", "00:00:27")
+      )
+      .buildEstimatedTimetableDeliveries();
+
+    var result = env.applyEstimatedTimetable(
+      Stream.concat(first.stream(), second.stream()).toList()
+    );
+
+    assertEquals(2, result.successful());
+    assertEquals(
+      "UPDATED | A1 0:00:17 0:00:17 | B1 0:00:27 0:00:27",
+      env.getRealtimeTimetable(TRIP_1_ID)
+    );
+  }
+
+  @Test
+  void testAddJourneyTwiceInOneMessage() {
+    var env = RealtimeTestEnvironment.siri().addTrip(TRIP_1_INPUT).build();
+    var updates = createValidAddedJourney(env).buildEstimatedTimetableDeliveries();
+
+    int numTrips = env.getTransitService().getAllTrips().size();
+    var result = env.applyEstimatedTimetable(
+      Stream.concat(updates.stream(), updates.stream()).toList()
+    );
+
+    assertEquals(2, result.successful());
+    assertEquals(numTrips + 1, env.getTransitService().getAllTrips().size());
+  }
+
+  /**
+   * Large messages are prepared in parallel.
+   */
+  @Test
+  void testUpdateManyJourneys() {
+    int numJourneys = SiriTimetableSnapshotSource.MIN_JOURNEYS_TO_PREPARE_IN_PARALLEL;
+    var builder = RealtimeTestEnvironment.siri();
+    for (int i = 0; i < numJourneys; i++) {
+      builder.addTrip(
+        TripInput
+          .of("trip" + i)
+          .addStop(STOP_A1, "0:00:10", "0:00:11")
+          .addStop(STOP_B1, "0:00:20", "0:00:21")
+          .build()
+      );
+    }
+    var env = builder.build();
+
+    var updates = new ArrayList<EstimatedTimetableDeliveryStructure>();
+    for (int i = 0; i < numJourneys; i++) {
+      updates.addAll(
+        updatedJourneyBuilder(env)
+          .withDatedVehicleJourneyRef("trip" + i)
+          .buildEstimatedTimetableDeliveries()
+      );
+    }
+
+    var result = env.applyEstimatedTimetable(updates);
+
+    assertEquals(numJourneys, result.successful());
+    for (int i = 0; i < numJourneys; i++) {
+      assertEquals(
+        "UPDATED | A1 0:00:15 0:00:15 | B1 0:00:25 0:00:25",
+        env.getRealtimeTimetable("trip" + i)
+      );
+    }
+  }
+
   private static SiriEtBuilder createValidAddedJourney(RealtimeTestEnvironment env) {
     return new SiriEtBuilder(env.getDateTimeHelper())
       .withEstimatedVehicleJourneyCode("newJourney")
@@ -0,0 +1,141 @@
+package org.opentripplanner.updater.trip;
+
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.ADDED;
+import static com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship.SCHEDULED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.DIFFERENTIAL;
+import static org.opentripplanner.updater.trip.UpdateIncrementality.FULL_DATASET;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.spi.UpdateResult;
+
+class TripUpdateGraphWriterRunnableTest implements RealtimeTestConstants {
+
+  private static final String FEED_ID = "F";
+  private static final Consumer<UpdateResult> SEND_METRICS = result -> {};
+
+  private static final TripUpdate A_SCHEDULED = tripUpdate("a", SCHEDULED, 1);
+  private static final TripUpdate A_SCHEDULED_LATER = tripUpdate("a", SCHEDULED, 2);
+  private static final TripUpdate B_SCHEDULED = tripUpdate("b", SCHEDULED, 1);
+  private static final TripUpdate C_ADDED = tripUpdate("c", ADDED, 1);
+  private static final TripUpdate C_SCHEDULED = tripUpdate("c", SCHEDULED, 2);
+
+  @Test
+  void coalescingKey() {
+    assertEquals(
+      runnable(FULL_DATASET, List.of()).coalescingKey(),
+      runnable(DIFFERENTIAL, List.of(A_SCHEDULED)).coalescingKey()
+    );
+    assertNotEquals(
+      runnable(FULL_DATASET, List.of()).coalescingKey(),
+      new TripUpdateGraphWriterRunnable(
+        null,
+        false,
+        BackwardsDelayPropagationType.REQUIRED_NO_DATA,
+        FULL_DATASET,
+        List.of(),
+        "other",
+        SEND_METRICS
+      )
+        .coalescingKey()
+    );
+  }
+
+  @Test
+  void fullDatasetReplacesPreviousMessage() {
+    var full = runnable(FULL_DATASET, List.of(B_SCHEDULED));
+
+    assertSame(full, full.coalesce(runnable(DIFFERENTIAL, List.of(A_SCHEDULED))).orElseThrow());
+    assertSame(full, full.coalesce(runnable(FULL_DATASET, List.of(A_SCHEDULED))).orElseThrow());
+  }
+
+  @Test
+  void differentialIsNotCombinedWithPreviousFullDataset() {
+    var differential = runnable(DIFFERENTIAL, List.of(B_SCHEDULED));
+
+    assertTrue(differential.coalesce(runnable(FULL_DATASET, List.of(A_SCHEDULED))).isEmpty());
+  }
+
+  @Test
+  void differentialMessagesAreMerged() {
+    var previous = runnable(DIFFERENTIAL, List.of(A_SCHEDULED, B_SCHEDULED, C_ADDED));
+    var next = runnable(DIFFERENTIAL, List.of(A_SCHEDULED_LATER, C_SCHEDULED));
+
+    var merged = (TripUpdateGraphWriterRunnable) next.coalesce(previous).orElseThrow();
+
+    assertEquals(DIFFERENTIAL, merged.updateIncrementality());
+    assertEquals(
+      List.of(A_SCHEDULED, B_SCHEDULED, C_ADDED, A_SCHEDULED_LATER, C_SCHEDULED),
+      merged.updates()
+    );
+  }
+
+  @Test
+  void earlierUpdateIsKeptWhenLaterUpdateFails() {
+    var tripInput = TripInput
+      .of(TRIP_1_ID)
+      .addStop(STOP_A1, "0:00:10", "0:00:11")
+      .addStop(STOP_B1, "0:00:20", "0:00:21")
+      .build();
+    var env = RealtimeTestEnvironment.gtfs().addTrip(tripInput).build();
+
+    var delayed = new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(1, 60)
+      .build();
+    // A scheduled trip update without stop time updates fails with NO_UPDATES
+    var failing = new TripUpdateBuilder(TRIP_1_ID, SERVICE_DATE, SCHEDULED, TIME_ZONE).build();
+
+    var merged = (TripUpdateGraphWriterRunnable) runnable(DIFFERENTIAL, List.of(failing))
+      .coalesce(runnable(DIFFERENTIAL, List.of(delayed)))
+      .orElseThrow();
+    var result = env.applyTripUpdates(merged.updates(), DIFFERENTIAL);
+
+    assertEquals(1, result.successful());
+    assertEquals(1, result.failed());
+    assertEquals(
+      "UPDATED | A1 [ND] 0:00:10 0:00:11 | B1 0:01:20 0:01:21",
+      env.getRealtimeTimetable(TRIP_1_ID)
+    );
+  }
+
+  private static TripUpdateGraphWriterRunnable runnable(
+    UpdateIncrementality incrementality,
+    List<TripUpdate> updates
+  ) {
+    return new TripUpdateGraphWriterRunnable(
+      null,
+      false,
+      BackwardsDelayPropagationType.REQUIRED_NO_DATA,
+      incrementality,
+      updates,
+      FEED_ID,
+      SEND_METRICS
+    );
+  }
+
+  private static TripUpdate tripUpdate(
+    String tripId,
+    ScheduleRelationship scheduleRelationship,
+    int delay
+  ) {
+    return TripUpdate
+      .newBuilder()
+      .setTrip(
+        TripDescriptor
+          .newBuilder()
+          .setTripId(tripId)
+          .setStartDate("20241017")
+          .setScheduleRelationship(scheduleRelationship)
+      )
+      .setDelay(delay)
+      .build();
+  }
+}
@@ -102,4 +102,27 @@ class GeofencingVertexUpdaterTest {
     var ext = (BusinessAreaBorder) businessBorder.getFromVertex().rentalRestrictions();
     assertInstanceOf(BusinessAreaBorder.class, ext);
   }
+
+  @Test
+  void removeZone() {
+    updater.applyGeofencingZones(List.of(zone, businessArea));
+    var updated = updater.applyGeofencingZones(List.of(businessArea));
+
+    assertEquals(0, updated.size());
+    assertInstanceOf(NoRestriction.class, insideFrognerPark.getFromVertex().rentalRestrictions());
+    assertInstanceOf(BusinessAreaBorder.class, businessBorder.getFromVertex().rentalRestrictions());
+  }
+
+  @Test
+  void onlyApplyChangedZones() {
+    updater.applyGeofencingZones(List.of(businessArea));
+    var updated = updater.applyGeofencingZones(List.of(zone, businessArea));
+
+    assertEquals(2, updated.size());
+    assertInstanceOf(
+      GeofencingZoneExtension.class,
+      insideFrognerPark.getFromVertex().rentalRestrictions()
+    );
+    assertInstanceOf(BusinessAreaBorder.class, businessBorder.getFromVertex().rentalRestrictions());
+  }
 }
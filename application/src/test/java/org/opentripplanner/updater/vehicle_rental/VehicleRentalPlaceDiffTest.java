@@ -0,0 +1,113 @@
+package org.opentripplanner.updater.vehicle_rental;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.service.vehiclerental.model.TestFreeFloatingRentalVehicleBuilder;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
+import org.opentripplanner.service.vehiclerental.model.VehicleRentalVehicle;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class VehicleRentalPlaceDiffTest {
+
+  private static final double LAT = 59.91;
+  private static final double LON = 10.75;
+
+  @Test
+  void unchangedAndMoved() {
+    var a = scooter("a", LAT, LON);
+    var b = scooter("b", LAT, LON + 0.001);
+    var applied = Map.of(a.getId(), vertex(a), b.getId(), vertex(b));
+
+    var diff = VehicleRentalPlaceDiff.of(
+      applied,
+      List.of(scooter("a", LAT, LON), scooter("b", LAT + 0.001, LON + 0.001))
+    );
+
+    assertEquals(List.of(a.getId()), ids(diff.unchanged()));
+    assertEquals(List.of(b.getId()), ids(diff.moved()));
+    assertEquals(List.of(), diff.added());
+    assertEquals(List.of(), diff.removed());
+  }
+
+  @Test
+  void addedAndRemoved() {
+    var a = scooter("a", LAT, LON);
+    var applied = Map.of(a.getId(), vertex(a));
+
+    var diff = VehicleRentalPlaceDiff.of(applied, List.of(scooter("b", LAT + 0.001, LON)));
+
+    assertEquals(List.of(id("b")), ids(diff.added()));
+    assertEquals(List.of(a.getId()), diff.removed());
+    assertEquals(Map.of(), diff.renamed());
+  }
+
+  @Test
+  void newIdAtSameLocationIsRenamed() {
+    var a = scooter("a", LAT, LON);
+    var applied = Map.of(a.getId(), vertex(a));
+    var b = scooter("b", LAT, LON);
+
+    var diff = VehicleRentalPlaceDiff.of(applied, List.of(b));
+
+    assertEquals(Map.of(a.getId(), b), diff.renamed());
+    assertEquals(List.of(), diff.added());
+    assertEquals(List.of(), diff.removed());
+  }
+
+  @Test
+  void newIdWithOtherFormFactorIsNotRenamed() {
+    var a = scooter("a", LAT, LON);
+    var applied = Map.of(a.getId(), vertex(a));
+    var b = TestFreeFloatingRentalVehicleBuilder
+      .of()
+      .withLatitude(LAT)
+      .withLongitude(LON)
+      .withVehicleBicycle()
+      .build();
+    b.id = id("b");
+
+    var diff = VehicleRentalPlaceDiff.of(applied, List.of(b));
+
+    assertEquals(List.of(id("b")), ids(diff.added()));
+    assertEquals(List.of(a.getId()), diff.removed());
+  }
+
+  @Test
+  void placesToLinkAreSortedByLocation() {
+    var north = scooter("north", LAT + 1, LON);
+    var south = scooter("south", LAT, LON);
+    var movedBefore = scooter("moved", LAT + 2, LON);
+    var applied = Map.of(movedBefore.getId(), vertex(movedBefore));
+
+    var diff = VehicleRentalPlaceDiff.of(
+      applied,
+      List.of(north, south, scooter("moved", LAT + 0.5, LON))
+    );
+
+    assertEquals(List.of(id("south"), id("moved"), id("north")), ids(diff.placesToLink()));
+  }
+
+  private static VehicleRentalVehicle scooter(String id, double lat, double lon) {
+    var vehicle = TestFreeFloatingRentalVehicleBuilder
+      .of()
+      .withLatitude(lat)
+      .withLongitude(lon)
+      .withVehicleScooter()
+      .build();
+    vehicle.id = id(id);
+    return vehicle;
+  }
+
+  private static VehicleRentalPlaceVertex vertex(VehicleRentalVehicle vehicle) {
+    return new VehicleRentalPlaceVertex(vehicle);
+  }
+
+  private static List<FeedScopedId> ids(List<? extends VehicleRentalPlace> places) {
+    return places.stream().map(VehicleRentalPlace::getId).toList();
+  }
+}
@@ -0,0 +1,81 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Simulate the A* queue usage: insert elements with increasing weights, and extract the minimum
+ * element for every few inserts. The weights increase like they do in a street search, where new
+ * states have a higher weight than the state they are created from.
+ * <p>
+ * A new queue is created for each search, like the A* search does, so growing the queue from its
+ * initial size is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AStarQueueBenchmark {
+
+  @Param({ "1000", "100000" })
+  private int nElements;
+
+  @Param({ "BinHeap", "FourAryHeap" })
+  private String queueType;
+
+  private Object[] elements;
+  private double[] weightIncrements;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    elements = new Object[nElements];
+    weightIncrements = new double[nElements];
+
+    for (int i = 0; i < nElements; ++i) {
+      elements[i] = new Object();
+      weightIncrements[i] = random.nextDouble() * 100.0;
+    }
+  }
+
+  @Benchmark
+  public void insertAndExtractMin(Blackhole bh) {
+    var heap = createQueue(queueType);
+    double weight = 0.0;
+
+    for (int i = 0; i < nElements; ++i) {
+      heap.insert(elements[i], weight + weightIncrements[i]);
+
+      // About 2.5 edges are traversed for each state removed from the queue
+      if (i % 5 == 0 || i % 5 == 2) {
+        weight = heap.peek_min_key();
+        bh.consume(heap.extract_min());
+      }
+    }
+    while (!heap.empty()) {
+      bh.consume(heap.extract_min());
+    }
+  }
+
+  static <T> AStarQueue<T> createQueue(String queueType) {
+    return switch (queueType) {
+      case "BinHeap" -> new BinHeap<>();
+      case "FourAryHeap" -> new FourAryHeap<>();
+      default -> throw new IllegalArgumentException("Unknown queue type: " + queueType);
+    };
+  }
+}
@@ -0,0 +1,105 @@
+package org.opentripplanner.astar.model;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+/**
+ * Run a street search across a grid of streets with the different A* queues. The streets have
+ * random speeds, so the search explores a large part of the grid and the queue grows large, like
+ * it does in a long car search.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreetSearchQueueBenchmark {
+
+  private static final int SIZE = 150;
+
+  @Param({ "WALK", "CAR" })
+  private StreetMode mode;
+
+  @Param({ "BinHeap", "FourAryHeap" })
+  private String queueType;
+
+  private IntersectionVertex from;
+  private IntersectionVertex to;
+  private RouteRequest request;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    var grid = new IntersectionVertex[SIZE][SIZE];
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        grid[i][j] = intersectionVertex("V" + i + "_" + j, 59.9 + i * 0.001, 10.7 + j * 0.002);
+      }
+    }
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        if (i + 1 < SIZE) {
+          connect(grid[i][j], grid[i + 1][j], random);
+        }
+        if (j + 1 < SIZE) {
+          connect(grid[i][j], grid[i][j + 1], random);
+        }
+      }
+    }
+    from = grid[0][0];
+    to = grid[SIZE - 1][SIZE - 1];
+
+    request = new RouteRequest();
+    request.journey().direct().setMode(mode);
+  }
+
+  @Benchmark
+  public List<GraphPath<State, Edge, Vertex>> search() {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setQueueFactory(() -> AStarQueueBenchmark.createQueue(queueType))
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+  }
+
+  private static void connect(IntersectionVertex a, IntersectionVertex b, Random random) {
+    float carSpeed = 5f + random.nextFloat() * 25f;
+    streetEdgeBuilder(a, b, 150.0, StreetTraversalPermission.ALL)
+      .withCarSpeed(carSpeed)
+      .buildAndConnect();
+    streetEdgeBuilder(b, a, 150.0, StreetTraversalPermission.ALL)
+      .withCarSpeed(carSpeed)
+      .buildAndConnect();
+  }
+}
@@ -0,0 +1,81 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Add a fixed sequence of random [arrival-time, round, cost] vectors to a pareto-set. This is
+ * what Raptor does for each stop arrival. The object based {@link ParetoSet} is compared with
+ * the {@link IntParetoSetWithMarker} used by the compact multi-criteria stop arrivals.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int nVectors;
+
+  private Vector[] vectors;
+  private int[] times;
+  private int[] rounds;
+  private int[] costs;
+  private ParetoSet<Vector> set;
+  private IntParetoSetWithMarker intSet;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    vectors = new Vector[nVectors];
+    times = new int[nVectors];
+    rounds = new int[nVectors];
+    costs = new int[nVectors];
+
+    for (int i = 0; i < nVectors; ++i) {
+      times[i] = 3600 + random.nextInt(1800);
+      rounds[i] = random.nextInt(6);
+      costs[i] = 100_000 + random.nextInt(50_000);
+      vectors[i] = new Vector(times[i], rounds[i], costs[i]);
+    }
+    set =
+      new ParetoSet<>((l, r) -> l.time < r.time || l.round < r.round || l.cost < r.cost);
+    intSet =
+      new IntParetoSetWithMarker((l, r) ->
+        times[l] < times[r] || rounds[l] < rounds[r] || costs[l] < costs[r]
+      );
+  }
+
+  @Benchmark
+  public int add() {
+    set.clear();
+    for (Vector it : vectors) {
+      set.add(it);
+    }
+    return set.size();
+  }
+
+  @Benchmark
+  public int addHandles() {
+    intSet.clear();
+    for (int i = 0; i < nVectors; ++i) {
+      intSet.add(i);
+    }
+    return intSet.size();
+  }
+
+  private record Vector(int time, int round, int cost) {}
+}
@@ -0,0 +1,105 @@
+package org.opentripplanner.routing.algorithm.filterchain;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Place;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.model.plan.SortOrder;
+import org.opentripplanner.routing.algorithm.filterchain.api.GroupBySimilarity;
+import org.opentripplanner.routing.algorithm.filterchain.api.TransitGeneralizedCostFilterParams;
+import org.opentripplanner.routing.api.request.framework.CostLinearFunction;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+
+/**
+ * Filter a list of random walk, bus and bus-rail itineraries with a filter chain similar to the
+ * default chain. The filters flag the itineraries they remove, so the itineraries and the chain
+ * are created again before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItineraryListFilterChainBenchmark implements PlanTestConstants {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final Place A = Place.forStop(TEST_MODEL.stop("A").build());
+  private static final Place B = Place.forStop(TEST_MODEL.stop("B").build());
+  private static final Place C = Place.forStop(TEST_MODEL.stop("C").build());
+  private static final Place E = Place.forStop(TEST_MODEL.stop("E").build());
+
+  @Param({ "20", "200" })
+  private int nItineraries;
+
+  private List<Itinerary> itineraries;
+  private ItineraryListFilterChain chain;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    var random = new Random(42);
+    itineraries = new ArrayList<>(nItineraries);
+    itineraries.add(newItinerary(A, T11_00).walk(D10m * 4, E).build());
+
+    for (int i = 1; i < nItineraries; ++i) {
+      int start = T11_00 + random.nextInt(3600);
+      int duration = D5m + random.nextInt(D10m * 3);
+      int tripId = 100 + random.nextInt(20);
+
+      if (i % 2 == 0) {
+        itineraries.add(newItinerary(A).bus(tripId, start, start + duration, E).build());
+      } else {
+        int transfer = start + duration / 2;
+        itineraries.add(
+          newItinerary(A)
+            .bus(tripId, start, transfer, B)
+            .walk(D2m, C)
+            .rail(tripId + 100, transfer + D3m, start + duration + D3m, E)
+            .build()
+        );
+      }
+    }
+
+    chain =
+      new ItineraryListFilterChainBuilder(SortOrder.STREET_AND_ARRIVAL_TIME)
+        .withMaxNumberOfItineraries(10)
+        .addGroupBySimilarity(GroupBySimilarity.createWithOneItineraryPerGroup(0.85))
+        .withTransitGeneralizedCostLimit(
+          new TransitGeneralizedCostFilterParams(
+            CostLinearFunction.of(Duration.ofMinutes(15), 1.5),
+            0.4
+          )
+        )
+        .withRemoveTransitWithHigherCostThanBestOnStreetOnly(
+          CostLinearFunction.of(Duration.ofMinutes(1), 1.3)
+        )
+        .withSearchWindow(
+          newItinerary(A, T11_00).walk(D1m, E).build().startTime().toInstant(),
+          Duration.ofHours(1)
+        )
+        .build();
+  }
+
+  @Benchmark
+  public List<Itinerary> filter() {
+    return chain.filter(itineraries);
+  }
+}
@@ -0,0 +1,107 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.cost;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
+
+/**
+ * The cost calculator is called for every boarding and every alighting in the multi-criteria
+ * search. The benchmark use random boardings and alightings with stop transfer costs and two
+ * transit reluctance factors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultCostCalculatorBenchmark {
+
+  private static final int N_STOPS = 1000;
+  private static final int N_EVENTS = 1000;
+
+  private DefaultCostCalculator<TestTripSchedule> subject;
+  private TestTripSchedule[] trips;
+  private boolean[] firstBoarding;
+  private int[] prevArrivalTimes;
+  private int[] boardTimes;
+  private int[] stops;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    int[] stopTransferCosts = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stopTransferCosts[i] = random.nextInt(4) * 3000;
+    }
+    subject =
+      new DefaultCostCalculator<>(60, 120, 0.8, new double[] { 1.0, 1.3 }, stopTransferCosts);
+
+    trips =
+      new TestTripSchedule[] {
+        TestTripSchedule.schedule("10:00 11:00").transitReluctanceIndex(0).build(),
+        TestTripSchedule.schedule("10:00 11:00").transitReluctanceIndex(1).build(),
+      };
+    firstBoarding = new boolean[N_EVENTS];
+    prevArrivalTimes = new int[N_EVENTS];
+    boardTimes = new int[N_EVENTS];
+    stops = new int[N_EVENTS];
+
+    for (int i = 0; i < N_EVENTS; ++i) {
+      firstBoarding[i] = random.nextInt(4) == 0;
+      prevArrivalTimes[i] = 36_000 + random.nextInt(3600);
+      boardTimes[i] = prevArrivalTimes[i] + random.nextInt(900);
+      stops[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public void boardingCost(Blackhole bh) {
+    for (int i = 0; i < N_EVENTS; ++i) {
+      bh.consume(
+        subject.boardingCost(
+          firstBoarding[i],
+          prevArrivalTimes[i],
+          stops[i],
+          boardTimes[i],
+          trips[i & 1],
+          RaptorTransferConstraint.REGULAR_TRANSFER
+        )
+      );
+    }
+  }
+
+  @Benchmark
+  public void transitArrivalCost(Blackhole bh) {
+    for (int i = 0; i < N_EVENTS; ++i) {
+      bh.consume(
+        subject.transitArrivalCost(
+          prevArrivalTimes[i],
+          60,
+          boardTimes[i] - prevArrivalTimes[i],
+          trips[i & 1],
+          stops[i]
+        )
+      );
+    }
+  }
+
+  @Benchmark
+  public void onTripRelativeRidingCost(Blackhole bh) {
+    for (int i = 0; i < N_EVENTS; ++i) {
+      bh.consume(subject.onTripRelativeRidingCost(boardTimes[i], trips[i & 1]));
+    }
+  }
+}
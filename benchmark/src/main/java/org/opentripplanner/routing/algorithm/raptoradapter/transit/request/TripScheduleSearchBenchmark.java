@@ -0,0 +1,98 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor._data.transit.TestTripSearchTimetable;
+
+/**
+ * Search for the first trip to board and the last trip to alight in a pattern with the given
+ * number of trips. The number of trips is chosen below and above the binary search threshold.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TripScheduleSearchBenchmark {
+
+  private static final int N_STOPS = 10;
+  private static final int N_SEARCHES = 1000;
+  private static final int FIRST_DEPARTURE = 6 * 3600;
+  private static final int HEADWAY = 300;
+  private static final int TRAVEL_TIME = 120;
+  private static final int BINARY_SEARCH_THRESHOLD = 50;
+
+  @Param({ "10", "100", "500" })
+  private int nTrips;
+
+  private TripScheduleBoardSearch<TestTripSchedule> boardSearch;
+  private TripScheduleAlightSearch<TestTripSchedule> alightSearch;
+  private int[] stopPositions;
+  private int[] times;
+
+  @Setup
+  public void setup() {
+    int[] stops = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i + 1;
+    }
+    var route = TestRoute.route(TestTripPattern.pattern("R1", stops));
+
+    for (int t = 0; t < nTrips; ++t) {
+      int[] departures = new int[N_STOPS];
+      for (int i = 0; i < N_STOPS; ++i) {
+        departures[i] = FIRST_DEPARTURE + t * HEADWAY + i * TRAVEL_TIME;
+      }
+      route.withTimetable(schedule().departures(departures));
+    }
+
+    var timetable = new TestTripSearchTimetable(route);
+    boardSearch = new TripScheduleBoardSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
+    alightSearch = new TripScheduleAlightSearch<>(timetable, BINARY_SEARCH_THRESHOLD);
+
+    // Random times spanning the whole timetable, including times with no trip to board or alight
+    var random = new Random(42);
+    int period = nTrips * HEADWAY + N_STOPS * TRAVEL_TIME;
+    stopPositions = new int[N_SEARCHES];
+    times = new int[N_SEARCHES];
+
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      stopPositions[i] = random.nextInt(N_STOPS);
+      times[i] = FIRST_DEPARTURE - HEADWAY + random.nextInt(period + 2 * HEADWAY);
+    }
+  }
+
+  @Benchmark
+  public void boardSearch(Blackhole bh) {
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      var result = boardSearch.search(times[i], stopPositions[i]);
+      bh.consume(result.empty() ? -1 : result.time());
+    }
+  }
+
+  @Benchmark
+  public void alightSearch(Blackhole bh) {
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      var result = alightSearch.search(times[i], stopPositions[i]);
+      bh.consume(result.empty() ? -1 : result.time());
+    }
+  }
+}
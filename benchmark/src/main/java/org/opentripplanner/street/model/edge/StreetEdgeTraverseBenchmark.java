@@ -0,0 +1,80 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Traverse a street of connected edges, zig-zagging so each traversal includes a turn. This
+ * measures the cost of creating a new state for each edge in a street search.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreetEdgeTraverseBenchmark {
+
+  private static final int N_EDGES = 100;
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  private StreetMode mode;
+
+  private IntersectionVertex origin;
+  private StreetEdge[] edges;
+  private StreetSearchRequest request;
+
+  @Setup
+  public void setup() {
+    edges = new StreetEdge[N_EDGES];
+    origin = intersectionVertex("V0", 59.9, 10.7);
+    var from = origin;
+
+    for (int i = 0; i < N_EDGES; ++i) {
+      var to = intersectionVertex("V" + (i + 1), 59.9 + 0.001 * (i + 1), 10.7 + 0.001 * (i % 2));
+      edges[i] =
+        streetEdgeBuilder(from, to, 120.0, StreetTraversalPermission.ALL)
+          .withCarSpeed(13.9f)
+          .buildAndConnect();
+      from = to;
+    }
+    request =
+      StreetSearchRequest
+        .of()
+        .withMode(mode)
+        .withStartTime(Instant.parse("2024-06-01T10:00:00Z"))
+        .build();
+  }
+
+  @Benchmark
+  public State traverse() {
+    var s = new State(origin, request);
+
+    for (StreetEdge edge : edges) {
+      var result = edge.traverse(s);
+      if (result.length == 0) {
+        return null;
+      }
+      s = result[0];
+    }
+    return s;
+  }
+}